@@ -0,0 +1,58 @@
+package com.deroahe.gimmescrapes.commons.config;
+
+/**
+ * Common Redis cache constants shared across orchestrator and worker modules.
+ * The orchestrator populates listing caches; the worker invalidates them after scrapes.
+ */
+public final class CacheConstants {
+
+    private CacheConstants() {
+        // Prevent instantiation
+    }
+
+    // ==================== Cache Keys ====================
+
+    /**
+     * Paginated listing results: {@code listings:all:{page}:{size}:{filters-hash}}.
+     */
+    public static final String LISTINGS_PAGE_PREFIX = "listings:all:";
+
+    /**
+     * Total listing count for a filter: {@code listings:count:{filters-hash}}.
+     */
+    public static final String LISTINGS_COUNT_PREFIX = "listings:count:";
+
+    /**
+     * All sources with their scrape status.
+     */
+    public static final String SOURCES_KEY = "sources:all";
+
+    // ==================== Invalidation Tags ====================
+
+    /**
+     * Tag sets hold the cache keys that depend on a source, a city, or on every listing.
+     */
+    public static final String TAG_PREFIX = "listings:tag:";
+    public static final String TAG_ALL = TAG_PREFIX + "all";
+
+    /**
+     * Separator between tags in an invalidation message.
+     */
+    public static final String TAG_SEPARATOR = "\n";
+
+    // ==================== Pub/Sub Channels ====================
+
+    /**
+     * Invalidation broadcasts: a message is the list of invalidated tags joined by {@link #TAG_SEPARATOR}.
+     * Orchestrator instances evict matching entries from their in-process cache.
+     */
+    public static final String INVALIDATION_CHANNEL = "listings:invalidations";
+
+    public static String sourceTag(String sourceName) {
+        return TAG_PREFIX + "source:" + sourceName;
+    }
+
+    public static String cityTag(String city) {
+        return TAG_PREFIX + "city:" + city;
+    }
+}
@@ -15,18 +15,56 @@ public final class RabbitMQConstants {
     public static final String SCRAPE_EXCHANGE = "scrape.exchange";
     public static final String EMAIL_EXCHANGE = "email.exchange";
 
+    /**
+     * Topic exchange for {@code ListingChangedBatch} messages, routed as
+     * {@code listing.changed.<sourceName>}.
+     */
+    public static final String LISTING_EVENTS_EXCHANGE = "listing.events.exchange";
+
+    /**
+     * Topic exchange for {@code ScrapingJobEvent} messages, routed as {@code job.<status>}.
+     */
+    public static final String JOB_EVENTS_EXCHANGE = "job.events.exchange";
+
+    /**
+     * Direct exchange for {@code ListingIngestChunk} messages from fetch workers to ingest workers.
+     */
+    public static final String LISTINGS_EXCHANGE = "listings.exchange";
+
     // ==================== Queue Names ====================
 
     public static final String SCRAPE_QUEUE = "scrape.queue";
     public static final String EMAIL_QUEUE = "email.queue";
 
+    /**
+     * Manually triggered scrapes, consumed by dedicated consumers so they never wait behind the scheduled backlog.
+     */
+    public static final String SCRAPE_EXPRESS_QUEUE = "scrape.express.queue";
+
+    /**
+     * Bound to the listing events exchange; feeds the subscription matching engine.
+     */
+    public static final String LISTING_MATCH_QUEUE = "listing.match.queue";
+
+    /**
+     * Parsed listing chunks waiting to be upserted, consumed by ingest workers.
+     */
+    public static final String LISTINGS_INGEST_QUEUE = "listings.ingest";
+
     // ==================== Dead Letter Queue Names ====================
 
     public static final String SCRAPE_DLQ = "scrape.dlq";
     public static final String EMAIL_DLQ = "email.dlq";
+    public static final String LISTING_MATCH_DLQ = "listing.match.dlq";
+    public static final String LISTINGS_INGEST_DLQ = "listings.ingest.dlq";
 
     // ==================== Routing Keys ====================
 
     public static final String SCRAPE_ROUTING_KEY = "scrape";
+    public static final String SCRAPE_EXPRESS_ROUTING_KEY = "scrape.express";
     public static final String EMAIL_ROUTING_KEY = "email";
+    public static final String LISTINGS_INGEST_ROUTING_KEY = "listings.ingest";
+    public static final String LISTING_CHANGED_ROUTING_KEY_PREFIX = "listing.changed.";
+    public static final String LISTING_CHANGED_ROUTING_PATTERN = "listing.changed.#";
+    public static final String JOB_EVENT_ROUTING_KEY_PREFIX = "job.";
 }
@@ -0,0 +1,87 @@
+package com.deroahe.gimmescrapes.commons.config;
+
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.QueueBuilder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Broker-side delayed retry layout shared by the orchestrator and the worker. Both declare the
+ * delay queues (with identical arguments), so the worker can route failed messages through them
+ * even when it connects to a broker the orchestrator has not set up yet.
+ * <p>
+ * Every retryable queue has one delay queue per tier, e.g. {@code scrape.retry.5m}. A delay
+ * queue has no consumers; messages expire after the tier delay and are dead-lettered back to the
+ * queue they came from. Messages that exhaust the tiers, or cannot succeed at all, are published
+ * to the queue's DLQ with the failure reason in headers.
+ */
+public final class RetryTopology {
+
+    private RetryTopology() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Delay before each retry; the last tier repeats if more attempts are allowed than tiers exist.
+     */
+    public static final List<Duration> TIERS = List.of(
+            Duration.ofMinutes(1),
+            Duration.ofMinutes(5),
+            Duration.ofMinutes(15));
+
+    /**
+     * Retryable queues and the DLQ each one's poison messages go to.
+     */
+    public static final Map<String, String> DEAD_LETTER_QUEUES = Map.of(
+            RabbitMQConstants.SCRAPE_QUEUE, RabbitMQConstants.SCRAPE_DLQ,
+            RabbitMQConstants.SCRAPE_EXPRESS_QUEUE, RabbitMQConstants.SCRAPE_DLQ,
+            RabbitMQConstants.EMAIL_QUEUE, RabbitMQConstants.EMAIL_DLQ,
+            RabbitMQConstants.LISTING_MATCH_QUEUE, RabbitMQConstants.LISTING_MATCH_DLQ,
+            RabbitMQConstants.LISTINGS_INGEST_QUEUE, RabbitMQConstants.LISTINGS_INGEST_DLQ);
+
+    // ==================== Headers ====================
+
+    /**
+     * Number of failed deliveries so far; absent on the first delivery.
+     */
+    public static final String ATTEMPT_HEADER = "x-gs-attempt";
+    public static final String ORIGINAL_QUEUE_HEADER = "x-gs-original-queue";
+    public static final String FAILURE_REASON_HEADER = "x-gs-failure-reason";
+    public static final String FAILURE_EXCEPTION_HEADER = "x-gs-failure-exception";
+
+    /**
+     * Delay queue name of a tier: {@code scrape.queue} and tier 5 minutes give {@code scrape.retry.5m}.
+     *
+     * @param queue the retryable queue
+     * @param tier the tier index into {@link #TIERS}
+     * @return the delay queue name
+     */
+    public static String retryQueueName(String queue, int tier) {
+        String base = queue.endsWith(".queue") ? queue.substring(0, queue.length() - ".queue".length()) : queue;
+        return base + ".retry." + TIERS.get(tier).toMinutes() + "m";
+    }
+
+    /**
+     * One TTL queue per retryable queue and tier, dead-lettering back to the retryable queue.
+     * The queue TTL caps the delay; the worker sets a slightly shorter per-message expiration as jitter.
+     *
+     * @return the delay queue declarations
+     */
+    public static Declarables declarables() {
+        List<Declarable> queues = new ArrayList<>();
+        for (String queue : DEAD_LETTER_QUEUES.keySet()) {
+            for (int tier = 0; tier < TIERS.size(); tier++) {
+                queues.add(QueueBuilder.durable(retryQueueName(queue, tier))
+                        .ttl((int) TIERS.get(tier).toMillis())
+                        .deadLetterExchange("")
+                        .deadLetterRoutingKey(queue)
+                        .build());
+            }
+        }
+        return new Declarables(queues);
+    }
+}
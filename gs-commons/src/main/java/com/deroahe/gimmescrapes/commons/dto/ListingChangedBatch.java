@@ -0,0 +1,30 @@
+package com.deroahe.gimmescrapes.commons.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One chunk of listing change events from a scrape job.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ListingChangedBatch implements Serializable {
+
+    private Long jobId;
+    private String sourceName;
+
+    /**
+     * Position of this chunk within the job, starting at 0.
+     */
+    private int chunk;
+    private LocalDateTime timestamp;
+    private List<ListingChangedEvent> events;
+}
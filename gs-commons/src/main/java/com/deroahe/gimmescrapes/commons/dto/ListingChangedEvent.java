@@ -0,0 +1,52 @@
+package com.deroahe.gimmescrapes.commons.dto;
+
+import com.deroahe.gimmescrapes.commons.enums.ListingChangeType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A change to one listing, carrying the attributes consumers filter on
+ * so they can react without loading the listing.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ListingChangedEvent implements Serializable {
+
+    private Long listingId;
+    private ListingChangeType type;
+    private BigDecimal price;
+    private String currency;
+    private BigDecimal surfaceSqm;
+    private Integer rooms;
+    private String city;
+    private String neighborhood;
+    private Long featuresMask;
+
+    /**
+     * Changed fields; empty for NEW and DELISTED.
+     */
+    private List<FieldChange> changes;
+
+    /**
+     * A changed field. Values are omitted for long text fields, where only the fact of the change matters.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class FieldChange implements Serializable {
+        private String field;
+        private String from;
+        private String to;
+    }
+}
@@ -0,0 +1,36 @@
+package com.deroahe.gimmescrapes.commons.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * Faceted listing counts for a filter selection.
+ * Each facet is counted with every filter applied except its own,
+ * so the UI can show how many results each alternative value would give.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListingFacetsDto implements Serializable {
+
+    private long total;
+    private Map<String, Integer> cities;
+
+    /**
+     * Neighborhood counts grouped by city, so same-named neighborhoods of different cities stay apart.
+     */
+    private Map<String, Map<String, Integer>> neighborhoods;
+    private Map<String, Integer> sources;
+    private Map<Integer, Integer> rooms;
+
+    /**
+     * Amenities are conjunctive, so their counts apply every filter including the amenity filter.
+     */
+    private Map<String, Integer> amenities;
+}
@@ -0,0 +1,99 @@
+package com.deroahe.gimmescrapes.commons.dto;
+
+import com.deroahe.gimmescrapes.commons.enums.Amenity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Filter criteria for browsing listings.
+ * Null fields and empty lists mean "no restriction".
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListingFilter implements Serializable {
+
+    private List<String> cities;
+    private List<String> neighborhoods;
+    private List<String> sources;
+    private List<Integer> rooms;
+    private Long priceMin;
+    private Long priceMax;
+    private String currency;
+    private Long surfaceMin;
+    private Long surfaceMax;
+
+    /**
+     * Amenities a listing must all have.
+     */
+    private List<Amenity> amenities;
+
+    /**
+     * Show one listing per duplicate group.
+     */
+    private boolean collapseDuplicates;
+
+    /**
+     * Sort expression, e.g. {@code price,asc}.
+     */
+    private String sort;
+
+    /**
+     * Builds an order-independent string form of the filter, so equivalent
+     * requests ({@code rooms=3,2} vs {@code rooms=2,3}) share a cache key.
+     *
+     * @return canonical representation
+     */
+    public String toCanonicalString() {
+        return "c=" + canonical(cities)
+                + "|n=" + canonical(neighborhoods)
+                + "|s=" + canonical(sources)
+                + "|r=" + canonical(rooms)
+                + "|p=" + Objects.toString(priceMin, "") + "-" + Objects.toString(priceMax, "")
+                + "|cur=" + Objects.toString(currency, "")
+                + "|a=" + Objects.toString(surfaceMin, "") + "-" + Objects.toString(surfaceMax, "")
+                + "|m=" + canonical(amenities)
+                + "|d=" + collapseDuplicates
+                + "|o=" + Objects.toString(sort, "");
+    }
+
+    /**
+     * Hashes the canonical form into a fixed-length cache key component.
+     *
+     * @return hex-encoded 128-bit hash of the canonical filter
+     */
+    public String hash() {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(toCanonicalString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String canonical(Collection<?> values) {
+        if (values == null) {
+            return "";
+        }
+        return values.stream()
+                .filter(Objects::nonNull)
+                .map(String::valueOf)
+                .distinct()
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,34 @@
+package com.deroahe.gimmescrapes.commons.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Available filter options for the listings UI.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListingFilterMetadataDto implements Serializable {
+
+    private List<String> cities;
+    private List<String> sources;
+    private Range priceRange;
+    private Range surfaceRange;
+    private List<Integer> roomOptions;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Range implements Serializable {
+        private Long min;
+        private Long max;
+    }
+}
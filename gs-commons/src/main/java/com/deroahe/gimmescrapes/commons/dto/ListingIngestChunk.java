@@ -0,0 +1,37 @@
+package com.deroahe.gimmescrapes.commons.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One chunk of parsed listings from a scrape job, handed from the fetch stage to the ingest stage.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ListingIngestChunk implements Serializable {
+
+    private Long jobId;
+    private Long sourceId;
+    private String sourceName;
+
+    /**
+     * Position of this chunk within the job, starting at 0.
+     */
+    private int chunk;
+    private int chunksTotal;
+
+    /**
+     * Scrape lease token of the fetch, checked again when the chunk is upserted.
+     */
+    private Long fencingToken;
+    private LocalDateTime timestamp;
+    private List<ListingDto> listings;
+}
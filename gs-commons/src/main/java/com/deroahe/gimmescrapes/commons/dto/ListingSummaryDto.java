@@ -0,0 +1,43 @@
+package com.deroahe.gimmescrapes.commons.dto;
+
+import com.deroahe.gimmescrapes.commons.enums.Amenity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * DTO for listings returned by the public API.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListingSummaryDto implements Serializable {
+
+    private Long id;
+    private Long listingGroupId;
+    private String sourceName;
+    private String url;
+    private String title;
+    private BigDecimal price;
+    private String currency;
+    private BigDecimal surfaceSqm;
+    private BigDecimal pricePerSqm;
+    private Integer rooms;
+    private Integer floor;
+    private String city;
+    private String neighborhood;
+    private BigDecimal latitude;
+    private BigDecimal longitude;
+    private List<String> imageUrls;
+    private Set<Amenity> amenities;
+    private LocalDateTime firstScrapedAt;
+    private LocalDateTime lastScrapedAt;
+}
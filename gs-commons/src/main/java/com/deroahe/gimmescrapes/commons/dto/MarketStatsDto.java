@@ -0,0 +1,56 @@
+package com.deroahe.gimmescrapes.commons.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Market statistics for a city or neighborhood over a date range.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarketStatsDto implements Serializable {
+
+    private String city;
+    private String neighborhood;
+    private LocalDate from;
+    private LocalDate to;
+    private Figures total;
+    private List<DailyFigures> days;
+
+    /**
+     * Aggregated figures; price per sqm values are in EUR.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Figures implements Serializable {
+        private long inventoryCount;
+        private long newCount;
+        private long updatedCount;
+        private long priceChangedCount;
+        private BigDecimal avgPricePerSqm;
+        private Double medianPricePerSqm;
+        private Double p25PricePerSqm;
+        private Double p75PricePerSqm;
+        private Double p90PricePerSqm;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DailyFigures implements Serializable {
+        private LocalDate date;
+        private Figures figures;
+    }
+}
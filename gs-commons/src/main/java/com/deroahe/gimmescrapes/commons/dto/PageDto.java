@@ -0,0 +1,48 @@
+package com.deroahe.gimmescrapes.commons.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Serializable page of results returned by the public API.
+ *
+ * @param <T> the element type
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageDto<T> implements Serializable {
+
+    private List<T> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+
+    /**
+     * Creates a page DTO from a Spring Data page, mapping each element.
+     *
+     * @param page the source page
+     * @param mapper the element mapper
+     * @param <S> the source element type
+     * @param <T> the target element type
+     * @return the page DTO
+     */
+    public static <S, T> PageDto<T> from(Page<S> page, Function<S, T> mapper) {
+        return PageDto.<T>builder()
+                .content(page.getContent().stream().map(mapper).toList())
+                .page(page.getNumber())
+                .size(page.getSize())
+                .totalElements(page.getTotalElements())
+                .totalPages(page.getTotalPages())
+                .build();
+    }
+}
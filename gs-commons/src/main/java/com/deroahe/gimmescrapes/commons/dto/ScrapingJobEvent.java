@@ -0,0 +1,35 @@
+package com.deroahe.gimmescrapes.commons.dto;
+
+import com.deroahe.gimmescrapes.commons.enums.ScrapingJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Status transition of a scraping job.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScrapingJobEvent implements Serializable {
+
+    private Long jobId;
+    private Long sourceId;
+    private String sourceName;
+    private ScrapingJobStatus status;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private Integer itemsScraped;
+    private Integer itemsNew;
+    private Integer itemsUpdated;
+    private Integer coalescedTriggers;
+    private Integer chunksTotal;
+    private Integer chunksDone;
+    private String errorMessage;
+    private LocalDateTime timestamp;
+}
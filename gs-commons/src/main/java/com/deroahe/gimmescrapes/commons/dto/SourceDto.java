@@ -0,0 +1,29 @@
+package com.deroahe.gimmescrapes.commons.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Real estate source as exposed through the public API.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SourceDto implements Serializable {
+
+    private Long id;
+    private String name;
+    private String displayName;
+    private String baseUrl;
+    private Boolean enabled;
+    private Integer scrapeIntervalMinutes;
+    private Integer minScrapeIntervalMinutes;
+    private Integer maxScrapeIntervalMinutes;
+    private LocalDateTime lastScrapeAt;
+}
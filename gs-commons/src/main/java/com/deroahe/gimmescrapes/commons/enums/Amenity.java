@@ -0,0 +1,138 @@
+package com.deroahe.gimmescrapes.commons.enums;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Fixed vocabulary of listing amenities, stored as bits of {@code listings.features_mask}.
+ * Bit positions are persisted and must never be reordered or reused.
+ */
+public enum Amenity {
+    BALCONY("balcony", 0),
+    PARKING("parking", 1),
+    ELEVATOR("elevator", 2),
+    CENTRAL_HEATING("central_heating", 3),
+    FURNISHED("furnished", 4),
+    PROMOTED("promoted", 5);
+
+    private static final Amenity[] VALUES = values();
+
+    private final String key;
+    private final long bit;
+
+    Amenity(String key, int position) {
+        this.key = key;
+        this.bit = 1L << position;
+    }
+
+    /**
+     * Key used for this amenity in scraped feature maps.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public long getBit() {
+        return bit;
+    }
+
+    /**
+     * Resolves an amenity from its feature key or enum name, case-insensitively.
+     *
+     * @param value the key or name
+     * @return the amenity, or empty if unknown
+     */
+    public static Optional<Amenity> fromKey(String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        for (Amenity amenity : VALUES) {
+            if (amenity.key.equals(normalized) || amenity.name().equalsIgnoreCase(normalized)) {
+                return Optional.of(amenity);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Builds the mask of amenities flagged true in a feature map.
+     *
+     * @param features scraped features, may be null
+     * @return the amenity mask
+     */
+    public static long maskOf(Map<String, Object> features) {
+        if (features == null) {
+            return 0L;
+        }
+        long mask = 0L;
+        for (Amenity amenity : VALUES) {
+            if (Boolean.TRUE.equals(features.get(amenity.key))) {
+                mask |= amenity.bit;
+            }
+        }
+        return mask;
+    }
+
+    public static long maskOf(Collection<Amenity> amenities) {
+        long mask = 0L;
+        for (Amenity amenity : amenities) {
+            mask |= amenity.bit;
+        }
+        return mask;
+    }
+
+    public static Set<Amenity> fromMask(long mask) {
+        Set<Amenity> amenities = EnumSet.noneOf(Amenity.class);
+        for (Amenity amenity : VALUES) {
+            if ((mask & amenity.bit) != 0) {
+                amenities.add(amenity);
+            }
+        }
+        return amenities;
+    }
+
+    /**
+     * Removes amenity keys from a feature map, leaving only attributes outside the vocabulary.
+     *
+     * @param features scraped features, may be null
+     * @return the remaining features, or null if none remain
+     */
+    public static Map<String, Object> residual(Map<String, Object> features) {
+        if (features == null) {
+            return null;
+        }
+        Map<String, Object> residual = new LinkedHashMap<>(features);
+        for (Amenity amenity : VALUES) {
+            residual.remove(amenity.key);
+        }
+        return residual.isEmpty() ? null : residual;
+    }
+
+    /**
+     * Enumerates every mask over the vocabulary that contains all required bits.
+     * Lets "has all of" filters be expressed as {@code features_mask IN (...)}, which a btree
+     * index can serve, instead of a bitwise predicate that forces a scan.
+     *
+     * @param required the required amenity bits
+     * @return all masks that are supersets of {@code required}
+     */
+    public static long[] supersetMasks(long required) {
+        long all = (1L << VALUES.length) - 1;
+        long free = all & ~required;
+        long[] masks = new long[1 << Long.bitCount(free)];
+        int i = 0;
+        // Enumerate subsets of the free bits
+        long subset = 0L;
+        do {
+            masks[i++] = required | subset;
+            subset = (subset - free) & free;
+        } while (subset != 0L);
+        return masks;
+    }
+}
@@ -0,0 +1,8 @@
+package com.deroahe.gimmescrapes.commons.enums;
+
+public enum ListingChangeType {
+    NEW,
+    PRICE_DROP,
+    UPDATED,
+    DELISTED
+}
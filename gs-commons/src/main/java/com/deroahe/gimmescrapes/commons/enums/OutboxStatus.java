@@ -0,0 +1,6 @@
+package com.deroahe.gimmescrapes.commons.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    PARKED
+}
@@ -4,5 +4,9 @@ public enum ScrapingJobStatus {
     PENDING,
     RUNNING,
     COMPLETED,
-    FAILED
+    FAILED,
+    /**
+     * Duplicate trigger folded into another in-flight job of the same source.
+     */
+    COALESCED
 }
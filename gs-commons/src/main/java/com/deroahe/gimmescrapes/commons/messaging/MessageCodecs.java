@@ -0,0 +1,63 @@
+package com.deroahe.gimmescrapes.commons.messaging;
+
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.postprocessor.DelegatingDecompressingPostProcessor;
+
+/**
+ * Message converters and post-processors shared by the orchestrator and the worker.
+ * <p>
+ * Reading is negotiated by the content type and content encoding of each message, so
+ * nodes writing JSON and nodes writing Smile, compressed or not, can run side by side.
+ * A rollout therefore takes two steps: deploy everywhere with {@code gs.messaging.format: json}
+ * and compression off, then switch the writers.
+ */
+public final class MessageCodecs {
+
+    private MessageCodecs() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Converter that writes {@code format} and reads every {@link MessageFormat}.
+     *
+     * @param format the format to write
+     * @return the converter
+     */
+    public static MessageConverter converter(MessageFormat format) {
+        MessageConverter json = new Jackson2JsonMessageConverter();
+        MessageConverter smile = new SmileMessageConverter();
+        // Outgoing messages carry no content type yet, so they go to the default converter
+        ContentTypeDelegatingMessageConverter converter =
+                new ContentTypeDelegatingMessageConverter(format == MessageFormat.SMILE ? smile : json);
+        converter.addDelegate(MessageProperties.CONTENT_TYPE_JSON, json);
+        converter.addDelegate(SmileMessageConverter.CONTENT_TYPE, smile);
+        return converter;
+    }
+
+    /**
+     * Post-processor for outgoing messages that gzips bodies of at least {@code thresholdBytes}.
+     *
+     * @param thresholdBytes smallest body to compress; 0 or less disables compression
+     * @return the post-processor
+     */
+    public static MessagePostProcessor compressor(int thresholdBytes) {
+        if (thresholdBytes <= 0) {
+            return message -> message;
+        }
+        return new ThresholdGZipPostProcessor(thresholdBytes);
+    }
+
+    /**
+     * Post-processor for incoming messages that undoes any compression named in the content
+     * encoding and passes uncompressed messages through.
+     *
+     * @return the post-processor
+     */
+    public static MessagePostProcessor decompressor() {
+        return new DelegatingDecompressingPostProcessor();
+    }
+}
@@ -0,0 +1,39 @@
+package com.deroahe.gimmescrapes.commons.messaging;
+
+import org.springframework.amqp.core.MessageProperties;
+
+import java.util.Locale;
+
+/**
+ * Wire formats for broker messages. Every node reads all of them, selected by content type;
+ * {@code gs.messaging.format} only chooses what a node writes.
+ */
+public enum MessageFormat {
+
+    JSON(MessageProperties.CONTENT_TYPE_JSON),
+
+    /**
+     * Binary JSON: same data model and type headers as JSON, with compact numbers and
+     * back-referenced repeated field names, so listing batches shrink and parse faster.
+     */
+    SMILE(SmileMessageConverter.CONTENT_TYPE);
+
+    private final String contentType;
+
+    MessageFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    /**
+     * @param name format name, case-insensitive
+     * @return the format
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static MessageFormat of(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,29 @@
+package com.deroahe.gimmescrapes.commons.messaging;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.support.postprocessor.GZipPostProcessor;
+
+/**
+ * Gzips message bodies of at least {@code thresholdBytes}; smaller messages are sent as is,
+ * since compressing a job message of a few hundred bytes costs more CPU than it saves.
+ * Compressed messages carry {@code gzip} in their content encoding, which the receiving
+ * container's decompressing post-processor undoes.
+ */
+public class ThresholdGZipPostProcessor extends GZipPostProcessor {
+
+    private final int thresholdBytes;
+
+    public ThresholdGZipPostProcessor(int thresholdBytes) {
+        this.thresholdBytes = thresholdBytes;
+        // Leave the original message untouched, so a retried send does not see it already marked gzip
+        setCopyProperties(true);
+    }
+
+    @Override
+    public Message postProcessMessage(Message message) {
+        if (message.getBody().length < thresholdBytes) {
+            return message;
+        }
+        return super.postProcessMessage(message);
+    }
+}
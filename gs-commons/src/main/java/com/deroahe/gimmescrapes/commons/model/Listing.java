@@ -1,5 +1,7 @@
 package com.deroahe.gimmescrapes.commons.model;
 
+import com.deroahe.gimmescrapes.commons.enums.Amenity;
+import com.deroahe.gimmescrapes.commons.util.GeoCell;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.Hibernate;
@@ -11,6 +13,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 @Entity
 @Table(name = "listings", indexes = {
@@ -18,7 +21,11 @@ import java.util.Objects;
     @Index(name = "idx_listings_price", columnList = "price"),
     @Index(name = "idx_listings_scraped", columnList = "last_scraped_at"),
     @Index(name = "idx_listings_source", columnList = "source_id"),
-    @Index(name = "idx_listings_url", columnList = "url")
+    @Index(name = "idx_listings_url", columnList = "url"),
+    @Index(name = "idx_listings_geo_cell", columnList = "geo_cell"),
+    @Index(name = "idx_listings_updated_id", columnList = "updated_at, id"),
+    @Index(name = "idx_listings_features_mask", columnList = "features_mask"),
+    @Index(name = "idx_listings_group", columnList = "listing_group_id")
 })
 @Getter
 @Setter
@@ -91,20 +98,49 @@ public class Listing {
     @Column(precision = 11, scale = 8)
     private BigDecimal longitude;
 
+    /**
+     * Z-order cell id derived from latitude/longitude, maintained on every write.
+     * See {@link GeoCell}.
+     */
+    @Column(name = "geo_cell")
+    private Long geoCell;
+
     @JdbcTypeCode(SqlTypes.ARRAY)
     @Column(name = "image_urls", columnDefinition = "text[]")
     private List<String> imageUrls;
 
+    /**
+     * Attributes outside the {@link Amenity} vocabulary; known amenities live in {@link #featuresMask}.
+     */
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "features", columnDefinition = "jsonb")
     private Map<String, Object> features;
 
+    /**
+     * Bitmask of {@link Amenity} bits.
+     */
+    @Column(name = "features_mask", nullable = false)
+    private Long featuresMask;
+
+    /**
+     * Duplicate group, identified by its smallest listing id. Maintained by the dedup stage
+     * in the worker through JDBC, hence read-only here.
+     */
+    @Column(name = "listing_group_id", insertable = false, updatable = false)
+    private Long listingGroupId;
+
     @Column(name = "first_scraped_at")
     private LocalDateTime firstScrapedAt;
 
     @Column(name = "last_scraped_at")
     private LocalDateTime lastScrapedAt;
 
+    /**
+     * Set when the listing has not been seen by its source for a while; cleared when seen again.
+     */
+    @Column(name = "delisted_at")
+    private LocalDateTime delistedAt;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -119,12 +155,41 @@ public class Listing {
             firstScrapedAt = LocalDateTime.now();
         }
         lastScrapedAt = LocalDateTime.now();
+        updateGeoCell();
+        foldAmenities();
     }
 
+    /**
+     * Does not touch {@code lastScrapedAt}: the scrape path sets it when the listing is seen,
+     * and other updates such as delisting must not make the listing look freshly seen.
+     */
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
-        lastScrapedAt = LocalDateTime.now();
+        updateGeoCell();
+        foldAmenities();
+    }
+
+    private void updateGeoCell() {
+        geoCell = latitude != null && longitude != null
+                ? GeoCell.encode(latitude.doubleValue(), longitude.doubleValue())
+                : null;
+    }
+
+    /**
+     * Moves any amenity keys still present in the feature map into the mask.
+     */
+    private void foldAmenities() {
+        long mask = featuresMask != null ? featuresMask : 0L;
+        featuresMask = mask | Amenity.maskOf(features);
+        features = Amenity.residual(features);
+    }
+
+    /**
+     * Amenities decoded from the mask.
+     */
+    public Set<Amenity> getAmenities() {
+        return Amenity.fromMask(featuresMask != null ? featuresMask : 0L);
     }
 
     @Override
@@ -0,0 +1,99 @@
+package com.deroahe.gimmescrapes.commons.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.Hibernate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Daily market statistics per city and neighborhood.
+ * Maintained incrementally from the deltas of each listing upsert batch.
+ */
+@Entity
+@Table(name = "market_stats_daily", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_market_stats_daily_key", columnNames = {"stat_date", "city", "neighborhood"})
+})
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MarketStat {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(nullable = false)
+    private String city;
+
+    /**
+     * Neighborhood, or an empty string when the listing did not specify one.
+     */
+    @Column(nullable = false)
+    private String neighborhood;
+
+    /**
+     * Distinct listings observed on this day.
+     */
+    @Column(name = "inventory_count", nullable = false)
+    @Builder.Default
+    private Integer inventoryCount = 0;
+
+    @Column(name = "new_count", nullable = false)
+    @Builder.Default
+    private Integer newCount = 0;
+
+    @Column(name = "updated_count", nullable = false)
+    @Builder.Default
+    private Integer updatedCount = 0;
+
+    @Column(name = "price_changed_count", nullable = false)
+    @Builder.Default
+    private Integer priceChangedCount = 0;
+
+    @Column(name = "price_per_sqm_sum", precision = 18, scale = 2, nullable = false)
+    @Builder.Default
+    private BigDecimal pricePerSqmSum = BigDecimal.ZERO;
+
+    @Column(name = "price_per_sqm_count", nullable = false)
+    @Builder.Default
+    private Integer pricePerSqmCount = 0;
+
+    /**
+     * Serialized t-digest of EUR price per square meter, see {@code PriceDigests}.
+     */
+    @Column(name = "price_per_sqm_digest")
+    @ToString.Exclude
+    private byte[] pricePerSqmDigest;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        MarketStat that = (MarketStat) o;
+        return id != null && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
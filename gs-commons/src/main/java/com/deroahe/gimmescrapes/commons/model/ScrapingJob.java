@@ -11,7 +11,8 @@ import java.util.Objects;
 @Entity
 @Table(name = "scraping_jobs", indexes = {
     @Index(name = "idx_scraping_jobs_source", columnList = "source_id"),
-    @Index(name = "idx_scraping_jobs_status", columnList = "status")
+    @Index(name = "idx_scraping_jobs_status", columnList = "status"),
+    @Index(name = "idx_scraping_jobs_source_status", columnList = "source_id, status")
 })
 @Getter
 @Setter
@@ -41,14 +42,34 @@ public class ScrapingJob {
     private LocalDateTime completedAt;
 
     @Column(name = "items_scraped")
+    @Builder.Default
     private Integer itemsScraped = 0;
 
     @Column(name = "items_new")
+    @Builder.Default
     private Integer itemsNew = 0;
 
     @Column(name = "items_updated")
+    @Builder.Default
     private Integer itemsUpdated = 0;
 
+    /**
+     * Number of duplicate triggers folded into this job while it was queued or running.
+     */
+    @Column(name = "coalesced_triggers", nullable = false)
+    @Builder.Default
+    private Integer coalescedTriggers = 0;
+
+    /**
+     * Number of listing chunks handed to ingest workers; null when the job upserted its listings itself.
+     */
+    @Column(name = "chunks_total")
+    private Integer chunksTotal;
+
+    @Column(name = "chunks_done", nullable = false)
+    @Builder.Default
+    private Integer chunksDone = 0;
+
     @Column(name = "error_message", columnDefinition = "TEXT")
     private String errorMessage;
 
@@ -58,6 +79,21 @@ public class ScrapingJob {
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        if (coalescedTriggers == null) {
+            coalescedTriggers = 0;
+        }
+        if (chunksDone == null) {
+            chunksDone = 0;
+        }
+        if (itemsScraped == null) {
+            itemsScraped = 0;
+        }
+        if (itemsNew == null) {
+            itemsNew = 0;
+        }
+        if (itemsUpdated == null) {
+            itemsUpdated = 0;
+        }
     }
 
     @Override
@@ -36,6 +36,18 @@ public class Source {
     @Column(name = "scrape_interval_minutes")
     private Integer scrapeIntervalMinutes;
 
+    /**
+     * Lower bound for the adaptive scrape interval; null uses the scheduler default.
+     */
+    @Column(name = "min_scrape_interval_minutes")
+    private Integer minScrapeIntervalMinutes;
+
+    /**
+     * Upper bound for the adaptive scrape interval; null uses the scheduler default.
+     */
+    @Column(name = "max_scrape_interval_minutes")
+    private Integer maxScrapeIntervalMinutes;
+
     @Column(name = "last_scrape_at")
     private LocalDateTime lastScrapeAt;
 
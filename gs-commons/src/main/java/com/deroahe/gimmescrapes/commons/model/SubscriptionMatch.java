@@ -0,0 +1,82 @@
+package com.deroahe.gimmescrapes.commons.model;
+
+import com.deroahe.gimmescrapes.commons.enums.ListingChangeType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.Hibernate;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * A listing change that satisfied a subscription's criteria, waiting to be notified.
+ */
+@Entity
+@Table(name = "subscription_matches", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_subscription_matches", columnNames = {"subscription_id", "listing_id", "change_type"})
+}, indexes = {
+    @Index(name = "idx_subscription_matches_pending", columnList = "subscription_id, notified_at")
+})
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SubscriptionMatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "subscription_id", nullable = false)
+    private Long subscriptionId;
+
+    @Column(name = "listing_id", nullable = false)
+    private Long listingId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 20)
+    private ListingChangeType changeType;
+
+    @Column(name = "matched_at", nullable = false)
+    private LocalDateTime matchedAt;
+
+    /**
+     * Set once the match has been included in a notification.
+     */
+    @Column(name = "notified_at")
+    private LocalDateTime notifiedAt;
+
+    /**
+     * Digest sends that included this match and failed.
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    /**
+     * Lease of the digest run currently sending this match; other runs skip it until then.
+     */
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    /**
+     * Set when the match was given up on after too many failed digest sends.
+     */
+    @Column(name = "parked_at")
+    private LocalDateTime parkedAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        SubscriptionMatch that = (SubscriptionMatch) o;
+        return id != null && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -3,8 +3,13 @@ package com.deroahe.gimmescrapes.commons.repository;
 import com.deroahe.gimmescrapes.commons.enums.EmailJobStatus;
 import com.deroahe.gimmescrapes.commons.model.EmailJob;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -28,4 +33,28 @@ public interface EmailJobRepository extends JpaRepository<EmailJob, Long> {
      * @return count of jobs with the given status
      */
     long countByStatus(EmailJobStatus status);
+
+    /**
+     * Marks email jobs as sent in a single statement.
+     *
+     * @param ids the job IDs
+     * @param sentAt the send time
+     * @return number of rows updated
+     */
+    @Modifying
+    @Query("UPDATE EmailJob j SET j.status = com.deroahe.gimmescrapes.commons.enums.EmailJobStatus.SENT, " +
+           "j.sentAt = :sentAt, j.errorMessage = NULL WHERE j.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Marks email jobs as failed with the same error in a single statement.
+     *
+     * @param ids the job IDs
+     * @param errorMessage the failure reason
+     * @return number of rows updated
+     */
+    @Modifying
+    @Query("UPDATE EmailJob j SET j.status = com.deroahe.gimmescrapes.commons.enums.EmailJobStatus.FAILED, " +
+           "j.errorMessage = :errorMessage WHERE j.id IN :ids")
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("errorMessage") String errorMessage);
 }
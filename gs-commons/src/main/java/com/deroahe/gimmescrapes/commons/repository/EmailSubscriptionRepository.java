@@ -1,10 +1,13 @@
 package com.deroahe.gimmescrapes.commons.repository;
 
 import com.deroahe.gimmescrapes.commons.model.EmailSubscription;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,6 +41,29 @@ public interface EmailSubscriptionRepository extends JpaRepository<EmailSubscrip
     @Query("SELECT es FROM EmailSubscription es WHERE es.active = true")
     List<EmailSubscription> findAllActive();
 
+    /**
+     * Finds subscriptions (active or not) changed after a keyset position, oldest change first.
+     *
+     * @param updatedAt the last seen update timestamp
+     * @param id the last seen subscription ID at that timestamp
+     * @param pageable batch size (sorting is fixed by the query)
+     * @return next batch of changed subscriptions
+     */
+    @Query("SELECT es FROM EmailSubscription es " +
+           "WHERE es.updatedAt > :updatedAt OR (es.updatedAt = :updatedAt AND es.id > :id) " +
+           "ORDER BY es.updatedAt, es.id")
+    List<EmailSubscription> findChangedAfter(@Param("updatedAt") LocalDateTime updatedAt,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
+
+    /**
+     * Finds the IDs of all active subscriptions.
+     *
+     * @return list of active subscription IDs
+     */
+    @Query("SELECT es.id FROM EmailSubscription es WHERE es.active = true")
+    List<Long> findAllActiveIds();
+
     /**
      * Checks if an email subscription exists by email.
      *
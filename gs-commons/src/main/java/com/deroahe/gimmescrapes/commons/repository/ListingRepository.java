@@ -1,6 +1,11 @@
 package com.deroahe.gimmescrapes.commons.repository;
 
 import com.deroahe.gimmescrapes.commons.model.Listing;
+import com.deroahe.gimmescrapes.commons.repository.projection.ListingFacetView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
@@ -8,6 +13,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -53,6 +61,92 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
     @Query("SELECT COUNT(l) FROM Listing l WHERE l.source.id = :sourceId")
     long countBySourceId(@Param("sourceId") Long sourceId);
 
+    /**
+     * Finds a page of listings matching a specification, fetching each listing's source
+     * in the same query so mapping a page does not load sources one by one.
+     *
+     * @param spec the specification
+     * @param pageable pagination and sorting
+     * @return page of listings with their sources initialized
+     */
+    @Override
+    @EntityGraph(attributePaths = "source")
+    Page<Listing> findAll(Specification<Listing> spec, Pageable pageable);
+
+    /**
+     * Finds listings by ID with their sources fetched.
+     *
+     * @param ids the listing IDs
+     * @return the listings, in no particular order
+     */
+    @Query("SELECT l FROM Listing l JOIN FETCH l.source WHERE l.id IN :ids")
+    List<Listing> findAllWithSourceByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Full-text search over the title and description of active listings, ranked by relevance.
+     * Uses the {@code romanian_unaccent} text search configuration, so diacritics are ignored
+     * and Romanian word forms match their stem. Accepts web-search syntax
+     * (quoted phrases, {@code or}, {@code -exclusion}).
+     * Returns IDs only; load the listings with {@link #findAllWithSourceByIdIn}.
+     *
+     * @param query the user search query
+     * @param pageable pagination information (sorting is by rank and is not overridable)
+     * @return page of matching listing IDs, best match first
+     */
+    @Query(value = """
+            SELECT l.id FROM listings l
+            WHERE l.search_vector @@ websearch_to_tsquery('romanian_unaccent', :query)
+              AND l.delisted_at IS NULL
+            ORDER BY ts_rank_cd(l.search_vector, websearch_to_tsquery('romanian_unaccent', :query)) DESC, l.id DESC
+            """,
+            countQuery = """
+            SELECT COUNT(*) FROM listings l
+            WHERE l.search_vector @@ websearch_to_tsquery('romanian_unaccent', :query)
+              AND l.delisted_at IS NULL
+            """,
+            nativeQuery = true)
+    Page<Long> searchFullTextIds(@Param("query") String query, Pageable pageable);
+
+    /**
+     * Finds facet projections of listings changed after a keyset position, oldest change first.
+     * The (updatedAt, id) keyset makes incremental polling exact even when timestamps collide.
+     *
+     * @param updatedAt the last seen update timestamp
+     * @param id the last seen listing ID at that timestamp
+     * @param pageable batch size (sorting is fixed by the query)
+     * @return next batch of changed listings
+     */
+    @Query("""
+            SELECT l.id AS id, s.name AS sourceName, l.price AS price, l.currency AS currency,
+                   l.surfaceSqm AS surfaceSqm, l.rooms AS rooms, l.city AS city,
+                   l.neighborhood AS neighborhood, l.featuresMask AS featuresMask, l.updatedAt AS updatedAt,
+                   l.delistedAt AS delistedAt
+            FROM Listing l JOIN l.source s
+            WHERE l.updatedAt > :updatedAt OR (l.updatedAt = :updatedAt AND l.id > :id)
+            ORDER BY l.updatedAt, l.id
+            """)
+    List<ListingFacetView> findFacetViewsChangedAfter(@Param("updatedAt") LocalDateTime updatedAt,
+                                                      @Param("id") Long id,
+                                                      Pageable pageable);
+
+    /**
+     * Finds the IDs of all listings that are not delisted.
+     *
+     * @return active listing IDs
+     */
+    @Query("SELECT l.id FROM Listing l WHERE l.delistedAt IS NULL")
+    List<Long> findAllActiveIds();
+
+    /**
+     * Finds active listings of a source not seen since a cutoff.
+     *
+     * @param sourceId the source ID
+     * @param cutoff listings last scraped before this are stale
+     * @return stale listings that are not yet marked delisted
+     */
+    @Query("SELECT l FROM Listing l WHERE l.source.id = :sourceId AND l.delistedAt IS NULL AND l.lastScrapedAt < :cutoff")
+    List<Listing> findStale(@Param("sourceId") Long sourceId, @Param("cutoff") LocalDateTime cutoff);
+
     /**
      * Deletes all listings from a specific source.
      * Use with caution!
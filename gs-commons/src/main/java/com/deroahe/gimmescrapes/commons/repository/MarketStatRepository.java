@@ -0,0 +1,84 @@
+package com.deroahe.gimmescrapes.commons.repository;
+
+import com.deroahe.gimmescrapes.commons.model.MarketStat;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for MarketStat entity.
+ */
+@Repository
+public interface MarketStatRepository extends JpaRepository<MarketStat, Long> {
+
+    /**
+     * Creates an empty stats row for the key if none exists yet.
+     * Safe under concurrent workers thanks to the unique key.
+     *
+     * @param statDate the day
+     * @param city the city
+     * @param neighborhood the neighborhood (empty string if unknown)
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO market_stats_daily (stat_date, city, neighborhood, inventory_count, new_count,
+                                            updated_count, price_changed_count, price_per_sqm_sum,
+                                            price_per_sqm_count, updated_at)
+            VALUES (:statDate, :city, :neighborhood, 0, 0, 0, 0, 0, 0, CURRENT_TIMESTAMP)
+            ON CONFLICT (stat_date, city, neighborhood) DO NOTHING
+            """, nativeQuery = true)
+    void insertIfAbsent(@Param("statDate") LocalDate statDate,
+                        @Param("city") String city,
+                        @Param("neighborhood") String neighborhood);
+
+    /**
+     * Loads a stats row and locks it until the surrounding transaction ends.
+     *
+     * @param statDate the day
+     * @param city the city
+     * @param neighborhood the neighborhood (empty string if unknown)
+     * @return optional containing the locked row
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ms FROM MarketStat ms WHERE ms.statDate = :statDate AND ms.city = :city AND ms.neighborhood = :neighborhood")
+    Optional<MarketStat> findForUpdate(@Param("statDate") LocalDate statDate,
+                                       @Param("city") String city,
+                                       @Param("neighborhood") String neighborhood);
+
+    /**
+     * Finds all stats rows of a city within a date range, across neighborhoods.
+     *
+     * @param city the city
+     * @param from first day (inclusive)
+     * @param to last day (inclusive)
+     * @return stats rows ordered by date
+     */
+    @Query("SELECT ms FROM MarketStat ms WHERE ms.city = :city AND ms.statDate BETWEEN :from AND :to ORDER BY ms.statDate")
+    List<MarketStat> findByCityBetween(@Param("city") String city,
+                                       @Param("from") LocalDate from,
+                                       @Param("to") LocalDate to);
+
+    /**
+     * Finds the stats rows of one neighborhood within a date range.
+     *
+     * @param city the city
+     * @param neighborhood the neighborhood
+     * @param from first day (inclusive)
+     * @param to last day (inclusive)
+     * @return stats rows ordered by date
+     */
+    @Query("SELECT ms FROM MarketStat ms WHERE ms.city = :city AND ms.neighborhood = :neighborhood "
+            + "AND ms.statDate BETWEEN :from AND :to ORDER BY ms.statDate")
+    List<MarketStat> findByNeighborhoodBetween(@Param("city") String city,
+                                               @Param("neighborhood") String neighborhood,
+                                               @Param("from") LocalDate from,
+                                               @Param("to") LocalDate to);
+}
@@ -0,0 +1,33 @@
+package com.deroahe.gimmescrapes.commons.repository;
+
+import com.deroahe.gimmescrapes.commons.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for OutboxEvent entity.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the oldest pending events that are due until the surrounding transaction ends.
+     * Parked events and events backing off after a failure are not returned.
+     * Rows locked by another relay are skipped, so relays drain disjoint batches in parallel.
+     *
+     * @param limit maximum number of events
+     * @return locked events in insertion order
+     */
+    @Query(value = """
+            SELECT * FROM outbox_events
+            WHERE status = 'PENDING' AND next_attempt_at <= CURRENT_TIMESTAMP
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+}
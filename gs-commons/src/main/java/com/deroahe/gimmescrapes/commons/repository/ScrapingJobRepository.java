@@ -5,10 +5,13 @@ import com.deroahe.gimmescrapes.commons.model.ScrapingJob;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -61,4 +64,81 @@ public interface ScrapingJobRepository extends JpaRepository<ScrapingJob, Long>
      */
     @Query("SELECT sj FROM ScrapingJob sj WHERE sj.source.id = :sourceId ORDER BY sj.createdAt DESC LIMIT 1")
     List<ScrapingJob> findMostRecentBySourceId(@Param("sourceId") Long sourceId);
+
+    /**
+     * Finds the newest queued or running job of a source created after a cutoff.
+     * Older unfinished jobs are treated as lost so they cannot absorb triggers forever.
+     * A PENDING job must also be younger than {@code pendingSince}: one that no worker picked up
+     * by then was most likely never published.
+     */
+    @Query("SELECT sj FROM ScrapingJob sj WHERE sj.source.id = :sourceId " +
+           "AND (sj.status = com.deroahe.gimmescrapes.commons.enums.ScrapingJobStatus.RUNNING " +
+           "OR (sj.status = com.deroahe.gimmescrapes.commons.enums.ScrapingJobStatus.PENDING " +
+           "AND sj.createdAt > :pendingSince)) " +
+           "AND sj.createdAt > :since ORDER BY sj.createdAt DESC LIMIT 1")
+    List<ScrapingJob> findInFlight(@Param("sourceId") Long sourceId,
+                                   @Param("since") LocalDateTime since,
+                                   @Param("pendingSince") LocalDateTime pendingSince);
+
+    /**
+     * Fails PENDING jobs whose message could not be published, so they stop absorbing triggers.
+     *
+     * @return the number of jobs marked failed
+     */
+    @Modifying
+    @Query("UPDATE ScrapingJob sj SET sj.status = com.deroahe.gimmescrapes.commons.enums.ScrapingJobStatus.FAILED, " +
+           "sj.errorMessage = :reason, sj.completedAt = CURRENT_TIMESTAMP " +
+           "WHERE sj.id IN :ids AND sj.status = com.deroahe.gimmescrapes.commons.enums.ScrapingJobStatus.PENDING")
+    int failUnpublished(@Param("ids") Collection<Long> ids, @Param("reason") String reason);
+
+    /**
+     * Counts a duplicate trigger against a job.
+     */
+    @Modifying
+    @Query("UPDATE ScrapingJob sj SET sj.coalescedTriggers = sj.coalescedTriggers + 1 WHERE sj.id = :id")
+    int incrementCoalescedTriggers(@Param("id") Long id);
+
+    /**
+     * Claims an ingested chunk of a job, so a redelivered chunk is not counted twice.
+     *
+     * @param jobId the job ID
+     * @param chunk the chunk index
+     * @return 1 if the chunk was claimed, 0 if it had already been ingested
+     */
+    @Modifying
+    @Query(value = "INSERT INTO scraping_job_chunks (job_id, chunk, ingested_at) VALUES (:jobId, :chunk, now()) " +
+                   "ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int claimChunk(@Param("jobId") Long jobId, @Param("chunk") int chunk);
+
+    /**
+     * Adds the counts of one ingested chunk to its job.
+     * The row stays locked until the calling transaction ends, so concurrent chunks add up
+     * and exactly one of them sees the last chunk done.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ScrapingJob sj SET sj.chunksDone = sj.chunksDone + 1, " +
+           "sj.itemsScraped = COALESCE(sj.itemsScraped, 0) + :scraped, " +
+           "sj.itemsNew = COALESCE(sj.itemsNew, 0) + :newCount, " +
+           "sj.itemsUpdated = COALESCE(sj.itemsUpdated, 0) + :updatedCount WHERE sj.id = :id")
+    int recordChunk(@Param("id") Long id,
+                    @Param("scraped") int scraped,
+                    @Param("newCount") int newCount,
+                    @Param("updatedCount") int updatedCount);
+
+    /**
+     * Finds completed jobs finished after a keyset position, oldest first, with their source.
+     *
+     * @param completedAt the last seen completion timestamp
+     * @param id the last seen job ID at that timestamp
+     * @param pageable batch size (sorting is fixed by the query)
+     * @return next batch of completed jobs
+     */
+    @Query("SELECT sj FROM ScrapingJob sj JOIN FETCH sj.source " +
+           "WHERE sj.status = com.deroahe.gimmescrapes.commons.enums.ScrapingJobStatus.COMPLETED " +
+           "AND (sj.completedAt > :completedAt OR (sj.completedAt = :completedAt AND sj.id > :id)) " +
+           "ORDER BY sj.completedAt, sj.id")
+    List<ScrapingJob> findCompletedAfter(@Param("completedAt") LocalDateTime completedAt,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
 }
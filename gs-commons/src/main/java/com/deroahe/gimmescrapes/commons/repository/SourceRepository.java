@@ -1,8 +1,12 @@
 package com.deroahe.gimmescrapes.commons.repository;
 
 import com.deroahe.gimmescrapes.commons.model.Source;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -37,4 +41,24 @@ public interface SourceRepository extends JpaRepository<Source, Long> {
      * @return true if a source with the name exists
      */
     boolean existsByName(String name);
+
+    /**
+     * Loads a source with a row lock, serializing scrape triggers for it until the transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Source s WHERE s.id = :id")
+    Optional<Source> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Records a scrape lease fencing token, unless a newer token has already written for this source.
+     * The row stays locked until the calling transaction ends, so an older lease holder that
+     * lost its lease cannot write after the newer holder.
+     *
+     * @return 1 if the token is current, 0 if it is stale
+     */
+    @Modifying
+    @Query(value = "UPDATE sources SET scrape_fencing_token = :token " +
+                   "WHERE id = :id AND (scrape_fencing_token IS NULL OR scrape_fencing_token <= :token)",
+           nativeQuery = true)
+    int advanceFencingToken(@Param("id") Long id, @Param("token") long token);
 }
@@ -0,0 +1,97 @@
+package com.deroahe.gimmescrapes.commons.repository;
+
+import com.deroahe.gimmescrapes.commons.model.SubscriptionMatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for SubscriptionMatch entity.
+ */
+@Repository
+public interface SubscriptionMatchRepository extends JpaRepository<SubscriptionMatch, Long> {
+
+    /**
+     * Finds the active subscriptions that have unclaimed matches waiting to be notified.
+     *
+     * @param now the current time; leases ending before it have expired
+     * @return subscription IDs in ascending order
+     */
+    @Query("SELECT DISTINCT m.subscriptionId FROM SubscriptionMatch m, EmailSubscription es " +
+           "WHERE es.id = m.subscriptionId AND es.active = true AND m.notifiedAt IS NULL " +
+           "AND m.parkedAt IS NULL AND (m.claimedUntil IS NULL OR m.claimedUntil < :now) " +
+           "ORDER BY m.subscriptionId")
+    List<Long> findPendingSubscriptionIds(@Param("now") LocalDateTime now);
+
+    /**
+     * Locks the unclaimed pending matches of the given subscriptions until the surrounding
+     * transaction ends. Rows locked by another worker are skipped, so two workers never
+     * claim the same match.
+     *
+     * @param subscriptionIds the subscription IDs
+     * @param now the current time; leases ending before it have expired
+     * @return IDs of the locked matches
+     */
+    @Query(value = """
+            SELECT id FROM subscription_matches
+            WHERE subscription_id IN (:subscriptionIds) AND notified_at IS NULL AND parked_at IS NULL
+              AND (claimed_until IS NULL OR claimed_until < :now)
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Long> lockClaimable(@Param("subscriptionIds") Collection<Long> subscriptionIds,
+                             @Param("now") LocalDateTime now);
+
+    /**
+     * Leases matches to the calling digest run.
+     *
+     * @param ids the match IDs, locked by {@link #lockClaimable}
+     * @param claimedUntil end of the lease
+     * @return number of rows updated
+     */
+    @Modifying
+    @Query("UPDATE SubscriptionMatch m SET m.claimedUntil = :claimedUntil WHERE m.id IN :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("claimedUntil") LocalDateTime claimedUntil);
+
+    /**
+     * Finds matches by ID.
+     *
+     * @param ids the match IDs
+     * @return matches ordered by subscription and match time
+     */
+    @Query("SELECT m FROM SubscriptionMatch m WHERE m.id IN :ids ORDER BY m.subscriptionId, m.matchedAt")
+    List<SubscriptionMatch> findAllByIdOrdered(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Records a failed digest send: counts the attempt, releases the lease and parks the
+     * matches that have reached the attempt limit.
+     *
+     * @param ids the match IDs
+     * @param maxAttempts attempts after which a match is parked
+     * @param now the current time
+     * @return number of rows updated
+     */
+    @Modifying
+    @Query("UPDATE SubscriptionMatch m SET m.attempts = m.attempts + 1, m.claimedUntil = NULL, " +
+           "m.parkedAt = CASE WHEN m.attempts + 1 >= :maxAttempts THEN :now ELSE NULL END " +
+           "WHERE m.id IN :ids")
+    int recordFailure(@Param("ids") Collection<Long> ids,
+                      @Param("maxAttempts") int maxAttempts,
+                      @Param("now") LocalDateTime now);
+
+    /**
+     * Marks matches as notified.
+     *
+     * @param ids the match IDs
+     * @param notifiedAt the notification time
+     * @return number of rows updated
+     */
+    @Modifying
+    @Query("UPDATE SubscriptionMatch m SET m.notifiedAt = :notifiedAt WHERE m.id IN :ids")
+    int markNotified(@Param("ids") Collection<Long> ids, @Param("notifiedAt") LocalDateTime notifiedAt);
+}
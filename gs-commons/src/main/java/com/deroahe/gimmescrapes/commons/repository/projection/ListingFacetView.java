@@ -0,0 +1,33 @@
+package com.deroahe.gimmescrapes.commons.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Narrow projection of a listing with only the attributes used for filtering and faceting.
+ * Avoids loading descriptions, images and features when building read models.
+ */
+public interface ListingFacetView {
+
+    Long getId();
+
+    String getSourceName();
+
+    BigDecimal getPrice();
+
+    String getCurrency();
+
+    BigDecimal getSurfaceSqm();
+
+    Integer getRooms();
+
+    String getCity();
+
+    String getNeighborhood();
+
+    Long getFeaturesMask();
+
+    LocalDateTime getUpdatedAt();
+
+    LocalDateTime getDelistedAt();
+}
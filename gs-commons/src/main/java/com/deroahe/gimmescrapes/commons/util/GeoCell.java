@@ -0,0 +1,155 @@
+package com.deroahe.gimmescrapes.commons.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Z-order (Morton) encoding of coordinates into a single {@code long} cell id.
+ * Latitude and longitude are each quantized to {@value #BITS_PER_AXIS} bits (~0.6 m)
+ * and bit-interleaved, so every cell at a coarser level maps to one contiguous id range.
+ * This lets a plain btree index on the cell column answer bounding-box queries
+ * with a handful of range scans.
+ */
+public final class GeoCell {
+
+    public static final int BITS_PER_AXIS = 26;
+
+    private static final long AXIS_CELLS = 1L << BITS_PER_AXIS;
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+
+    private GeoCell() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Encodes a coordinate into its finest-level cell id.
+     *
+     * @param latitude the latitude in degrees
+     * @param longitude the longitude in degrees
+     * @return the Morton cell id
+     */
+    public static long encode(double latitude, double longitude) {
+        return interleave(quantizeLongitude(longitude), quantizeLatitude(latitude));
+    }
+
+    /**
+     * Computes the id ranges covering a bounding box, using at most {@code maxCells} cells.
+     * The ranges over-approximate the box, so results must still be filtered by exact coordinates.
+     * A west edge east of the east edge means the box crosses the antimeridian; it is covered
+     * as two boxes sharing the cell budget.
+     *
+     * @param minLat south edge
+     * @param minLon west edge
+     * @param maxLat north edge
+     * @param maxLon east edge
+     * @param maxCells upper bound on the number of cells (and thus ranges) used
+     * @return sorted, merged inclusive ranges as {@code [from, to]} pairs
+     */
+    public static List<long[]> coveringRanges(double minLat, double minLon, double maxLat, double maxLon,
+                                              int maxCells) {
+        if (minLon > maxLon) {
+            int eastCells = Math.max(1, maxCells / 2);
+            List<long[]> ranges = new ArrayList<>(coveringRanges(minLat, minLon, maxLat, 180.0, eastCells));
+            ranges.addAll(coveringRanges(minLat, -180.0, maxLat, maxLon, Math.max(1, maxCells - eastCells)));
+            return merge(ranges);
+        }
+
+        long x0 = quantizeLongitude(minLon);
+        long x1 = quantizeLongitude(maxLon);
+        long y0 = quantizeLatitude(minLat);
+        long y1 = quantizeLatitude(maxLat);
+
+        // Pick the finest level whose cells cover the box within the cell budget
+        int level = BITS_PER_AXIS;
+        while (level > 0) {
+            int shift = BITS_PER_AXIS - level;
+            long cells = ((x1 >> shift) - (x0 >> shift) + 1) * ((y1 >> shift) - (y0 >> shift) + 1);
+            if (cells <= maxCells) {
+                break;
+            }
+            level--;
+        }
+
+        int shift = BITS_PER_AXIS - level;
+        int rangeShift = 2 * shift;
+        List<long[]> ranges = new ArrayList<>();
+        for (long cx = x0 >> shift; cx <= x1 >> shift; cx++) {
+            for (long cy = y0 >> shift; cy <= y1 >> shift; cy++) {
+                long prefix = interleave(cx, cy);
+                ranges.add(new long[]{prefix << rangeShift, ((prefix + 1) << rangeShift) - 1});
+            }
+        }
+        return merge(ranges);
+    }
+
+    /**
+     * Great-circle distance between two coordinates.
+     *
+     * @return the distance in kilometers
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Degrees of latitude spanned by a distance.
+     */
+    public static double kmToLatitudeDegrees(double km) {
+        return km / KM_PER_DEGREE_LAT;
+    }
+
+    /**
+     * Degrees of longitude spanned by a distance at the given latitude.
+     */
+    public static double kmToLongitudeDegrees(double km, double atLatitude) {
+        double cos = Math.cos(Math.toRadians(atLatitude));
+        return cos < 1e-6 ? 180.0 : Math.min(180.0, km / (KM_PER_DEGREE_LAT * cos));
+    }
+
+    private static long quantizeLatitude(double latitude) {
+        return clamp((long) Math.floor((latitude + 90.0) / 180.0 * AXIS_CELLS));
+    }
+
+    private static long quantizeLongitude(double longitude) {
+        return clamp((long) Math.floor((longitude + 180.0) / 360.0 * AXIS_CELLS));
+    }
+
+    private static long clamp(long value) {
+        return Math.min(Math.max(value, 0), AXIS_CELLS - 1);
+    }
+
+    private static long interleave(long x, long y) {
+        return spread(x) | (spread(y) << 1);
+    }
+
+    private static long spread(long v) {
+        v &= 0xFFFFFFFFL;
+        v = (v | (v << 16)) & 0x0000FFFF0000FFFFL;
+        v = (v | (v << 8)) & 0x00FF00FF00FF00FFL;
+        v = (v | (v << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | (v << 2)) & 0x3333333333333333L;
+        v = (v | (v << 1)) & 0x5555555555555555L;
+        return v;
+    }
+
+    private static List<long[]> merge(List<long[]> ranges) {
+        ranges.sort(Comparator.comparingLong(r -> r[0]));
+        List<long[]> merged = new ArrayList<>();
+        for (long[] range : ranges) {
+            long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && range[0] <= last[1] + 1) {
+                last[1] = Math.max(last[1], range[1]);
+            } else {
+                merged.add(range);
+            }
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,87 @@
+package com.deroahe.gimmescrapes.commons.enums;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AmenityTest {
+
+    private static final long ALL = (1L << Amenity.values().length) - 1;
+
+    @Test
+    void supersetsOfNothingAreEveryMask() {
+        long[] masks = Amenity.supersetMasks(0L);
+
+        assertArrayEquals(LongStream.rangeClosed(0, ALL).toArray(), sorted(masks));
+    }
+
+    @Test
+    void supersetsOfEverythingAreOnlyTheFullMask() {
+        assertArrayEquals(new long[]{ALL}, Amenity.supersetMasks(ALL));
+    }
+
+    @Test
+    void supersetsAreExactlyTheMasksContainingTheRequiredBits() {
+        long required = Amenity.maskOf(List.of(Amenity.BALCONY, Amenity.ELEVATOR));
+
+        long[] expected = LongStream.rangeClosed(0, ALL)
+                .filter(mask -> (mask & required) == required)
+                .toArray();
+        assertEquals(16, expected.length);
+        assertArrayEquals(expected, sorted(Amenity.supersetMasks(required)));
+    }
+
+    @Test
+    void supersetsOfTheHighestBitKeepIt() {
+        long required = Amenity.PROMOTED.getBit();
+
+        long[] masks = Amenity.supersetMasks(required);
+
+        assertEquals(32, masks.length);
+        assertEquals(32, Arrays.stream(masks).filter(mask -> (mask & required) != 0).distinct().count());
+    }
+
+    @Test
+    void roundTripsMasks() {
+        EnumSet<Amenity> amenities = EnumSet.of(Amenity.PARKING, Amenity.FURNISHED);
+
+        assertEquals(amenities, Amenity.fromMask(Amenity.maskOf(amenities)));
+        assertEquals(EnumSet.noneOf(Amenity.class), Amenity.fromMask(0L));
+    }
+
+    @Test
+    void masksAndStripsFeatureMaps() {
+        Map<String, Object> features = new LinkedHashMap<>();
+        features.put("balcony", true);
+        features.put("parking", false);
+        features.put("floor", 3);
+
+        assertEquals(Amenity.BALCONY.getBit(), Amenity.maskOf(features));
+        assertEquals(Map.of("floor", 3), Amenity.residual(features));
+        assertNull(Amenity.residual(Map.of("balcony", true)));
+    }
+
+    @Test
+    void resolvesKeysAndNames() {
+        assertEquals(Optional.of(Amenity.CENTRAL_HEATING), Amenity.fromKey(" Central_Heating "));
+        assertEquals(Optional.of(Amenity.ELEVATOR), Amenity.fromKey("ELEVATOR"));
+        assertEquals(Optional.empty(), Amenity.fromKey("pool"));
+        assertEquals(Optional.empty(), Amenity.fromKey(null));
+    }
+
+    private static long[] sorted(long[] masks) {
+        long[] copy = masks.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+}
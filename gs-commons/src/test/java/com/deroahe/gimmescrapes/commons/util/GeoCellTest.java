@@ -0,0 +1,105 @@
+package com.deroahe.gimmescrapes.commons.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoCellTest {
+
+    private static final int MAX_CELLS = 16;
+
+    @Test
+    void encodesCornersOfTheWorld() {
+        assertEquals(0L, GeoCell.encode(-90, -180));
+        assertEquals((1L << (2 * GeoCell.BITS_PER_AXIS)) - 1, GeoCell.encode(90, 180));
+    }
+
+    @Test
+    void interleavesLongitudeIntoEvenBitsAndLatitudeIntoOddBits() {
+        // The top bit of each axis is set at its midpoint
+        assertEquals(1L << (2 * GeoCell.BITS_PER_AXIS - 2), GeoCell.encode(-90, 0));
+        assertEquals(1L << (2 * GeoCell.BITS_PER_AXIS - 1), GeoCell.encode(0, -180));
+    }
+
+    @Test
+    void clampsOutOfRangeCoordinates() {
+        assertEquals(GeoCell.encode(90, 180), GeoCell.encode(95, 190));
+        assertEquals(GeoCell.encode(-90, -180), GeoCell.encode(-95, -190));
+    }
+
+    @Test
+    void coversEveryPointOfTheBoxWithinTheCellBudget() {
+        double minLat = 44.40;
+        double minLon = 26.05;
+        double maxLat = 44.48;
+        double maxLon = 26.15;
+        List<long[]> ranges = GeoCell.coveringRanges(minLat, minLon, maxLat, maxLon, MAX_CELLS);
+
+        assertTrue(ranges.size() <= MAX_CELLS);
+        for (double lat = minLat; lat <= maxLat; lat += 0.005) {
+            for (double lon = minLon; lon <= maxLon; lon += 0.005) {
+                assertTrue(covered(ranges, GeoCell.encode(lat, lon)), lat + "," + lon);
+            }
+        }
+        assertFalse(covered(ranges, GeoCell.encode(46.77, 23.59)));
+    }
+
+    @Test
+    void returnsSortedDisjointRanges() {
+        List<long[]> ranges = GeoCell.coveringRanges(-10, -10, 10, 10, MAX_CELLS);
+
+        for (int i = 0; i < ranges.size(); i++) {
+            assertTrue(ranges.get(i)[0] <= ranges.get(i)[1]);
+            if (i > 0) {
+                assertTrue(ranges.get(i - 1)[1] + 1 < ranges.get(i)[0]);
+            }
+        }
+    }
+
+    @Test
+    void coversBoxCrossingTheAntimeridian() {
+        List<long[]> ranges = GeoCell.coveringRanges(-17.5, 179.0, -16.5, -179.0, MAX_CELLS);
+
+        assertTrue(ranges.size() <= MAX_CELLS);
+        assertTrue(covered(ranges, GeoCell.encode(-17.0, 179.5)));
+        assertTrue(covered(ranges, GeoCell.encode(-17.0, 180.0)));
+        assertTrue(covered(ranges, GeoCell.encode(-17.0, -180.0)));
+        assertTrue(covered(ranges, GeoCell.encode(-17.0, -179.5)));
+        assertFalse(covered(ranges, GeoCell.encode(-17.0, 0.0)));
+    }
+
+    @Test
+    void coversBoxesReachingThePoles() {
+        List<long[]> north = GeoCell.coveringRanges(89.0, -180.0, 91.0, 180.0, MAX_CELLS);
+        List<long[]> south = GeoCell.coveringRanges(-91.0, -180.0, -89.0, 180.0, MAX_CELLS);
+
+        assertTrue(covered(north, GeoCell.encode(90.0, 45.0)));
+        assertTrue(covered(north, GeoCell.encode(89.5, -180.0)));
+        assertFalse(covered(north, GeoCell.encode(0.0, 0.0)));
+        assertTrue(covered(south, GeoCell.encode(-90.0, -180.0)));
+        assertTrue(covered(south, GeoCell.encode(-89.5, 179.9)));
+        assertFalse(covered(south, GeoCell.encode(0.0, 0.0)));
+    }
+
+    @Test
+    void widensLongitudeSpanTowardsThePoles() {
+        assertEquals(1.0 / 111.32 * 10, GeoCell.kmToLongitudeDegrees(10, 0), 1e-9);
+        assertTrue(GeoCell.kmToLongitudeDegrees(10, 60) > GeoCell.kmToLongitudeDegrees(10, 0));
+        assertEquals(180.0, GeoCell.kmToLongitudeDegrees(10, 90));
+    }
+
+    @Test
+    void measuresGreatCircleDistanceAcrossTheAntimeridian() {
+        assertEquals(0.0, GeoCell.distanceKm(45, 10, 45, 10), 1e-9);
+        assertEquals(GeoCell.distanceKm(0, 179.5, 0, 180.5), GeoCell.distanceKm(0, 179.5, 0, -179.5), 1e-6);
+        assertEquals(111.19, GeoCell.distanceKm(0, 179.5, 0, -179.5), 0.01);
+    }
+
+    private static boolean covered(List<long[]> ranges, long cell) {
+        return ranges.stream().anyMatch(range -> cell >= range[0] && cell <= range[1]);
+    }
+}
@@ -0,0 +1,81 @@
+package com.deroahe.gimmescrapes.orchestrator.benchmark;
+
+import com.deroahe.gimmescrapes.commons.dto.EmailJobMessage;
+import com.deroahe.gimmescrapes.orchestrator.messaging.BulkPublishResult;
+import com.deroahe.gimmescrapes.orchestrator.messaging.BulkPublisher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Queue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures confirmed bulk publishing of an email fan-out against the local broker.
+ * <p>
+ * Built with {@code -Pbenchmark} and enabled by {@code gs.benchmark.publish.enabled=true}:
+ * <pre>
+ * mvn -Pbenchmark -pl gs-orchestrator spring-boot:run -Dspring-boot.run.arguments=--gs.benchmark.publish.enabled=true
+ * </pre>
+ * Messages go to a temporary queue declared for the run,
+ * not to the email queue, so no worker picks them up. Each round publishes {@code count} email
+ * jobs and logs the time until the last confirm.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "gs.benchmark.publish.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class PublishThroughputBenchmark implements CommandLineRunner {
+
+    private final BulkPublisher bulkPublisher;
+    private final AmqpAdmin amqpAdmin;
+
+    @Value("${gs.benchmark.publish.count:10000}")
+    private int count;
+
+    @Value("${gs.benchmark.publish.rounds:3}")
+    private int rounds;
+
+    @Override
+    public void run(String... args) throws Exception {
+        Queue queue = new AnonymousQueue();
+        amqpAdmin.declareQueue(queue);
+        try {
+            // Warm-up round lets the JIT and the channel settle
+            bulkPublisher.publish("", emailJobs(Math.min(count, 1000)), message -> queue.getName()).get();
+
+            for (int round = 1; round <= rounds; round++) {
+                BulkPublishResult<EmailJobMessage> result =
+                        bulkPublisher.publish("", emailJobs(count), message -> queue.getName()).get();
+                log.info("Publish benchmark round {}: {} confirmed in {} ms ({} msg/s), {} failed, {} retries",
+                        round, result.confirmed(), result.elapsedMs(),
+                        String.format("%.0f", result.confirmed() * 1000.0 / Math.max(1, result.elapsedMs())),
+                        result.failed().size(), result.retries());
+            }
+        } finally {
+            amqpAdmin.deleteQueue(queue.getName());
+        }
+    }
+
+    private List<EmailJobMessage> emailJobs(int n) {
+        List<EmailJobMessage> messages = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            messages.add(EmailJobMessage.builder()
+                    .jobId((long) i)
+                    .recipientEmail("bench-" + i + "@example.test")
+                    .emailType("LISTING_DIGEST")
+                    .data(Map.of("listingIds", List.of(i, i + 1, i + 2)))
+                    .timestamp(LocalDateTime.now())
+                    .build());
+        }
+        return messages;
+    }
+}
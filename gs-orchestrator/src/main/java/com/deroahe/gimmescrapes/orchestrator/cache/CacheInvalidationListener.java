@@ -0,0 +1,30 @@
+package com.deroahe.gimmescrapes.orchestrator.cache;
+
+import com.deroahe.gimmescrapes.commons.config.CacheConstants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Receives cache invalidation broadcasts and evicts matching local cache entries.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationListener implements MessageListener {
+
+    private final ListingCacheService listingCacheService;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        Set<String> tags = Set.of(body.split(CacheConstants.TAG_SEPARATOR));
+        log.debug("Received cache invalidation for tags {}", tags);
+        listingCacheService.evictLocal(tags);
+    }
+}
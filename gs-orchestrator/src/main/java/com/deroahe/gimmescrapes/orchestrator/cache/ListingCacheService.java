@@ -0,0 +1,231 @@
+package com.deroahe.gimmescrapes.orchestrator.cache;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier cache-aside layer for listing queries.
+ * <p>
+ * L1 is an in-process Caffeine cache holding deserialized values, bounded by size and a short
+ * TTL. L2 is Redis, where values are stored as compact JSON bytes with a longer TTL. Every Redis
+ * key is also added to the tag sets it depends on, so the worker can invalidate by source or city
+ * after a scrape; the worker then broadcasts the tags so each instance evicts its L1 entries.
+ * Concurrent misses for the same key in this instance collapse into a single load.
+ * Redis failures degrade to loading from the database rather than failing the request.
+ * <p>
+ * L1 values are shared between callers and must not be mutated.
+ */
+@Slf4j
+@Component
+public class ListingCacheService {
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<String, LocalEntry> localCache;
+    private final Duration ttl;
+
+    /**
+     * Bumped on every invalidation; a load that overlaps one is not cached, since it may
+     * have read data the invalidation was meant to remove.
+     */
+    private final AtomicLong invalidationGeneration = new AtomicLong();
+
+    public ListingCacheService(RedisTemplate<String, byte[]> cacheRedisTemplate,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${gs.cache.listings.ttl:PT30M}") Duration ttl,
+                               @Value("${gs.cache.local.ttl:PT1M}") Duration localTtl,
+                               @Value("${gs.cache.local.max-size:10000}") long localMaxSize) {
+        this.redisTemplate = cacheRedisTemplate;
+        this.objectMapper = objectMapper.copy().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "listings.local");
+    }
+
+    /**
+     * Returns the cached value for a key, loading and caching it on a miss.
+     *
+     * @param cacheName logical cache name used to tag metrics
+     * @param key the Redis key
+     * @param tags invalidation tag sets the key is registered in
+     * @param type the value type, used to deserialize cached bytes
+     * @param loader loads the value on a miss
+     * @param <T> the value type
+     * @return the cached or freshly loaded value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getOrLoad(String cacheName, String key, Collection<String> tags, JavaType type, Supplier<T> loader) {
+        LocalEntry local = localCache.getIfPresent(key);
+        if (local != null) {
+            meterRegistry.counter("gs.cache.hits", "cache", cacheName, "tier", "l1").increment();
+            return (T) local.value();
+        }
+
+        long generation = invalidationGeneration.get();
+        byte[] cached = read(key);
+        if (cached != null) {
+            meterRegistry.counter("gs.cache.hits", "cache", cacheName, "tier", "l2").increment();
+            T value = deserialize(cached, type);
+            putLocal(key, value, tags, generation);
+            return value;
+        }
+        meterRegistry.counter("gs.cache.misses", "cache", cacheName).increment();
+
+        CompletableFuture<byte[]> load = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = inFlight.putIfAbsent(key, load);
+        if (existing != null) {
+            meterRegistry.counter("gs.cache.loads.collapsed", "cache", cacheName).increment();
+            return deserialize(await(existing), type);
+        }
+
+        try {
+            // A concurrent load may have completed between the read and claiming the key
+            byte[] raced = read(key);
+            if (raced != null) {
+                load.complete(raced);
+                return deserialize(raced, type);
+            }
+
+            T value = loader.get();
+            byte[] bytes = serialize(value);
+            if (invalidationGeneration.get() == generation) {
+                write(key, bytes, tags);
+                putLocal(key, value, tags, generation);
+            }
+            load.complete(bytes);
+            return value;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    /**
+     * Evicts local entries depending on any of the given tags.
+     * Called for invalidations broadcast by the worker; Redis entries are removed by the publisher.
+     *
+     * @param tags the invalidated tags
+     */
+    public void evictLocal(Set<String> tags) {
+        invalidationGeneration.incrementAndGet();
+        int before = (int) localCache.estimatedSize();
+        localCache.asMap().values().removeIf(entry -> entry.tags().stream().anyMatch(tags::contains));
+        log.debug("Evicted local cache entries for tags {}: ~{} -> ~{}", tags, before, localCache.estimatedSize());
+    }
+
+    private void putLocal(String key, Object value, Collection<String> tags, long generation) {
+        localCache.put(key, new LocalEntry(value, Set.copyOf(tags)));
+        // An invalidation may have landed between the generation check and the put
+        if (invalidationGeneration.get() != generation) {
+            localCache.invalidate(key);
+        }
+    }
+
+    private byte[] read(String key) {
+        try {
+            return redisTemplate.opsForValue().get(key);
+        } catch (DataAccessException e) {
+            meterRegistry.counter("gs.cache.errors", "operation", "read").increment();
+            log.warn("Cache read failed for key {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(String key, byte[] value, Collection<String> tags) {
+        byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+        // Tag sets outlive their members so a key is never left unreachable for invalidation
+        long tagTtlSeconds = ttl.multipliedBy(2).toSeconds();
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.stringCommands().set(rawKey, value, Expiration.from(ttl), RedisStringCommands.SetOption.upsert());
+                for (String tag : tags) {
+                    byte[] rawTag = tag.getBytes(StandardCharsets.UTF_8);
+                    connection.setCommands().sAdd(rawTag, rawKey);
+                    connection.keyCommands().expire(rawTag, tagTtlSeconds);
+                }
+                return null;
+            });
+        } catch (DataAccessException e) {
+            meterRegistry.counter("gs.cache.errors", "operation", "write").increment();
+            log.warn("Cache write failed for key {}: {}", key, e.getMessage());
+        }
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize cache value", e);
+        }
+    }
+
+    private <T> T deserialize(byte[] bytes, JavaType type) {
+        try {
+            return objectMapper.readValue(bytes, type);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to deserialize cache value", e);
+        }
+    }
+
+    private static byte[] await(CompletableFuture<byte[]> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record LocalEntry(Object value, Set<String> tags) {
+    }
+
+    /**
+     * Builds a Jackson type for deserializing cached values.
+     *
+     * @param raw the raw class
+     * @param parameters generic type parameters
+     * @return the Jackson type
+     */
+    public JavaType type(Class<?> raw, Class<?>... parameters) {
+        return parameters.length == 0
+                ? objectMapper.constructType(raw)
+                : objectMapper.getTypeFactory().constructParametricType(raw, parameters);
+    }
+}
@@ -1,12 +1,15 @@
 package com.deroahe.gimmescrapes.orchestrator.config;
 
 import com.deroahe.gimmescrapes.commons.config.RabbitMQConstants;
+import com.deroahe.gimmescrapes.commons.config.RetryTopology;
+import com.deroahe.gimmescrapes.commons.messaging.MessageCodecs;
+import com.deroahe.gimmescrapes.commons.messaging.MessageFormat;
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -41,6 +44,22 @@ public class RabbitMQConfig {
                 .with(RabbitMQConstants.SCRAPE_ROUTING_KEY);
     }
 
+    @Bean
+    public Queue scrapeExpressQueue() {
+        return QueueBuilder.durable(RabbitMQConstants.SCRAPE_EXPRESS_QUEUE)
+                .withArgument("x-dead-letter-exchange", "")
+                .withArgument("x-dead-letter-routing-key", RabbitMQConstants.SCRAPE_DLQ)
+                .build();
+    }
+
+    @Bean
+    public Binding scrapeExpressBinding(@Qualifier("scrapeExpressQueue") Queue scrapeExpressQueue,
+                                        @Qualifier("scrapeExchange") DirectExchange scrapeExchange) {
+        return BindingBuilder.bind(scrapeExpressQueue)
+                .to(scrapeExchange)
+                .with(RabbitMQConstants.SCRAPE_EXPRESS_ROUTING_KEY);
+    }
+
     // ==================== Email Exchange & Queues ====================
 
     @Bean
@@ -69,18 +88,96 @@ public class RabbitMQConfig {
                 .with(RabbitMQConstants.EMAIL_ROUTING_KEY);
     }
 
+    // ==================== Listing Ingest Exchange & Queues ====================
+
+    @Bean
+    public DirectExchange listingsExchange() {
+        return new DirectExchange(RabbitMQConstants.LISTINGS_EXCHANGE, true, false);
+    }
+
+    @Bean
+    public Queue listingsIngestQueue() {
+        return QueueBuilder.durable(RabbitMQConstants.LISTINGS_INGEST_QUEUE)
+                .withArgument("x-dead-letter-exchange", "")
+                .withArgument("x-dead-letter-routing-key", RabbitMQConstants.LISTINGS_INGEST_DLQ)
+                .build();
+    }
+
+    @Bean
+    public Queue listingsIngestDLQ() {
+        return new Queue(RabbitMQConstants.LISTINGS_INGEST_DLQ, true);
+    }
+
+    @Bean
+    public Binding listingsIngestBinding(@Qualifier("listingsIngestQueue") Queue listingsIngestQueue,
+                                         @Qualifier("listingsExchange") DirectExchange listingsExchange) {
+        return BindingBuilder.bind(listingsIngestQueue)
+                .to(listingsExchange)
+                .with(RabbitMQConstants.LISTINGS_INGEST_ROUTING_KEY);
+    }
+
+    // ==================== Event Exchanges ====================
+
+    @Bean
+    public TopicExchange listingEventsExchange() {
+        return new TopicExchange(RabbitMQConstants.LISTING_EVENTS_EXCHANGE, true, false);
+    }
+
+    @Bean
+    public TopicExchange jobEventsExchange() {
+        return new TopicExchange(RabbitMQConstants.JOB_EVENTS_EXCHANGE, true, false);
+    }
+
+    @Bean
+    public Queue listingMatchQueue() {
+        return QueueBuilder.durable(RabbitMQConstants.LISTING_MATCH_QUEUE)
+                .withArgument("x-dead-letter-exchange", "")
+                .withArgument("x-dead-letter-routing-key", RabbitMQConstants.LISTING_MATCH_DLQ)
+                .build();
+    }
+
+    @Bean
+    public Queue listingMatchDLQ() {
+        return new Queue(RabbitMQConstants.LISTING_MATCH_DLQ, true);
+    }
+
+    @Bean
+    public Binding listingMatchBinding(@Qualifier("listingMatchQueue") Queue listingMatchQueue,
+                                       @Qualifier("listingEventsExchange") TopicExchange listingEventsExchange) {
+        return BindingBuilder.bind(listingMatchQueue)
+                .to(listingEventsExchange)
+                .with(RabbitMQConstants.LISTING_CHANGED_ROUTING_PATTERN);
+    }
+
+    // ==================== Delayed Retry Queues ====================
+
+    /**
+     * One TTL queue per retryable queue and tier, dead-lettering back to the retryable queue.
+     */
+    @Bean
+    public Declarables retryQueues() {
+        return RetryTopology.declarables();
+    }
+
     // ==================== Message Converter & RabbitTemplate ====================
 
+    /**
+     * Writes the configured {@code gs.messaging.format} and reads any supported format.
+     */
     @Bean
-    public MessageConverter messageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter messageConverter(@Value("${gs.messaging.format:json}") String format) {
+        return MessageCodecs.converter(MessageFormat.of(format));
     }
 
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory,
-                                        MessageConverter messageConverter) {
+                                        MessageConverter messageConverter,
+                                        @Value("${gs.messaging.compression-threshold-bytes:0}") int compressionThreshold) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
         rabbitTemplate.setMessageConverter(messageConverter);
+        rabbitTemplate.setBeforePublishPostProcessors(MessageCodecs.compressor(compressionThreshold));
+        // Unroutable messages come back to the publisher, so bulk publishes can retry them
+        rabbitTemplate.setMandatory(true);
         return rabbitTemplate;
     }
 }
@@ -0,0 +1,46 @@
+package com.deroahe.gimmescrapes.orchestrator.config;
+
+import com.deroahe.gimmescrapes.commons.config.CacheConstants;
+import com.deroahe.gimmescrapes.orchestrator.cache.CacheInvalidationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Redis configuration for the orchestrator's query caches.
+ */
+@Configuration
+public class RedisConfig {
+
+    /**
+     * Template with string keys and raw byte values; cached payloads are serialized
+     * by the cache layer itself so the stored format stays compact and explicit.
+     */
+    @Bean
+    public RedisTemplate<String, byte[]> cacheRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.setHashKeySerializer(RedisSerializer.string());
+        template.setHashValueSerializer(RedisSerializer.byteArray());
+        return template;
+    }
+
+    /**
+     * Subscribes to cache invalidation broadcasts published by the worker.
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            CacheInvalidationListener cacheInvalidationListener) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheInvalidationListener, new ChannelTopic(CacheConstants.INVALIDATION_CHANNEL));
+        return container;
+    }
+}
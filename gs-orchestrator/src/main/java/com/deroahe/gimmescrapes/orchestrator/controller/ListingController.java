@@ -0,0 +1,217 @@
+package com.deroahe.gimmescrapes.orchestrator.controller;
+
+import com.deroahe.gimmescrapes.commons.dto.ListingFacetsDto;
+import com.deroahe.gimmescrapes.commons.dto.ListingFilter;
+import com.deroahe.gimmescrapes.commons.dto.ListingFilterMetadataDto;
+import com.deroahe.gimmescrapes.commons.dto.ListingSummaryDto;
+import com.deroahe.gimmescrapes.commons.dto.PageDto;
+import com.deroahe.gimmescrapes.commons.enums.Amenity;
+import com.deroahe.gimmescrapes.orchestrator.facet.ListingFacetIndex;
+import com.deroahe.gimmescrapes.orchestrator.service.ListingFacetService;
+import com.deroahe.gimmescrapes.orchestrator.service.ListingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Public API for browsing and searching listings.
+ */
+@RestController
+@RequestMapping("/api/listings")
+@RequiredArgsConstructor
+@Slf4j
+public class ListingController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_QUERY_LENGTH = 200;
+    private static final int MAX_GEO_RESULTS = 1000;
+    private static final double MAX_RADIUS_KM = 100;
+    private static final Set<String> SORTABLE_FIELDS =
+            Set.of("price", "pricePerSqm", "surfaceSqm", "rooms", "firstScrapedAt", "lastScrapedAt");
+
+    private final ListingService listingService;
+    private final ListingFacetService listingFacetService;
+
+    @GetMapping
+    public ResponseEntity<PageDto<ListingSummaryDto>> list(
+            @RequestParam(value = "city", required = false) List<String> cities,
+            @RequestParam(value = "neighborhood", required = false) List<String> neighborhoods,
+            @RequestParam(value = "source", required = false) List<String> sources,
+            @RequestParam(value = "rooms", required = false) List<Integer> rooms,
+            @RequestParam(value = "priceMin", required = false) Long priceMin,
+            @RequestParam(value = "priceMax", required = false) Long priceMax,
+            @RequestParam(value = "currency", defaultValue = "EUR") String currency,
+            @RequestParam(value = "surfaceMin", required = false) Long surfaceMin,
+            @RequestParam(value = "surfaceMax", required = false) Long surfaceMax,
+            @RequestParam(value = "amenity", required = false) List<String> amenities,
+            @RequestParam(value = "collapseDuplicates", defaultValue = "true") boolean collapseDuplicates,
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        ListingFilter filter = ListingFilter.builder()
+                .cities(cities)
+                .neighborhoods(neighborhoods)
+                .sources(sources)
+                .rooms(rooms)
+                .priceMin(priceMin)
+                .priceMax(priceMax)
+                .currency(currency)
+                .surfaceMin(surfaceMin)
+                .surfaceMax(surfaceMax)
+                .amenities(parseAmenities(amenities))
+                .collapseDuplicates(collapseDuplicates)
+                .sort(normalizeSort(sort))
+                .build();
+        return ResponseEntity.ok(listingService.findListings(filter, Math.max(page, 0), clampSize(size)));
+    }
+
+    @GetMapping("/count")
+    public ResponseEntity<Long> count(
+            @RequestParam(value = "city", required = false) List<String> cities,
+            @RequestParam(value = "neighborhood", required = false) List<String> neighborhoods,
+            @RequestParam(value = "source", required = false) List<String> sources,
+            @RequestParam(value = "rooms", required = false) List<Integer> rooms,
+            @RequestParam(value = "priceMin", required = false) Long priceMin,
+            @RequestParam(value = "priceMax", required = false) Long priceMax,
+            @RequestParam(value = "currency", defaultValue = "EUR") String currency,
+            @RequestParam(value = "surfaceMin", required = false) Long surfaceMin,
+            @RequestParam(value = "surfaceMax", required = false) Long surfaceMax,
+            @RequestParam(value = "amenity", required = false) List<String> amenities,
+            @RequestParam(value = "collapseDuplicates", defaultValue = "true") boolean collapseDuplicates) {
+        ListingFilter filter = ListingFilter.builder()
+                .cities(cities)
+                .neighborhoods(neighborhoods)
+                .sources(sources)
+                .rooms(rooms)
+                .priceMin(priceMin)
+                .priceMax(priceMax)
+                .currency(currency)
+                .surfaceMin(surfaceMin)
+                .surfaceMax(surfaceMax)
+                .amenities(parseAmenities(amenities))
+                .collapseDuplicates(collapseDuplicates)
+                .build();
+        return ResponseEntity.ok(listingService.countListings(filter));
+    }
+
+    @GetMapping("/filters")
+    public ResponseEntity<ListingFilterMetadataDto> filters(
+            @RequestParam(value = "currency", defaultValue = "EUR") String currency) {
+        return ResponseEntity.ok(listingFacetService.getFilterMetadata(currency));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<ListingFacetsDto> facets(
+            @RequestParam(value = "city", required = false) List<String> cities,
+            @RequestParam(value = "neighborhood", required = false) List<String> neighborhoods,
+            @RequestParam(value = "source", required = false) List<String> sources,
+            @RequestParam(value = "rooms", required = false) List<Integer> rooms,
+            @RequestParam(value = "priceMin", required = false) Long priceMin,
+            @RequestParam(value = "priceMax", required = false) Long priceMax,
+            @RequestParam(value = "currency", defaultValue = "EUR") String currency,
+            @RequestParam(value = "surfaceMin", required = false) Long surfaceMin,
+            @RequestParam(value = "surfaceMax", required = false) Long surfaceMax,
+            @RequestParam(value = "amenity", required = false) List<String> amenities) {
+        return ResponseEntity.ok(listingFacetService.getFacets(new ListingFacetIndex.FacetQuery(
+                cities, neighborhoods, sources, rooms, priceMin, priceMax, currency, surfaceMin, surfaceMax,
+                parseAmenities(amenities))));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<PageDto<ListingSummaryDto>> search(
+            @RequestParam("q") String query,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        if (query.isBlank() || query.length() > MAX_QUERY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Query must be between 1 and " + MAX_QUERY_LENGTH + " characters");
+        }
+        return ResponseEntity.ok(listingService.search(query, Math.max(page, 0), clampSize(size)));
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<List<ListingSummaryDto>> nearby(
+            @RequestParam("lat") double latitude,
+            @RequestParam("lon") double longitude,
+            @RequestParam(value = "radiusKm", defaultValue = "2") double radiusKm,
+            @RequestParam(value = "limit", defaultValue = "200") int limit) {
+        validateCoordinate(latitude, longitude);
+        if (radiusKm <= 0 || radiusKm > MAX_RADIUS_KM) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "radiusKm must be in (0, " + MAX_RADIUS_KM + "]");
+        }
+        return ResponseEntity.ok(listingService.findNearby(latitude, longitude, radiusKm, clampGeoLimit(limit)));
+    }
+
+    @GetMapping("/viewport")
+    public ResponseEntity<List<ListingSummaryDto>> viewport(
+            @RequestParam("minLat") double minLat,
+            @RequestParam("minLon") double minLon,
+            @RequestParam("maxLat") double maxLat,
+            @RequestParam("maxLon") double maxLon,
+            @RequestParam(value = "limit", defaultValue = "500") int limit) {
+        validateCoordinate(minLat, minLon);
+        validateCoordinate(maxLat, maxLon);
+        // minLon > maxLon is a viewport crossing the antimeridian
+        if (minLat > maxLat) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Viewport min latitude must not exceed max latitude");
+        }
+        return ResponseEntity.ok(listingService.findInViewport(minLat, minLon, maxLat, maxLon, clampGeoLimit(limit)));
+    }
+
+    private List<Amenity> parseAmenities(List<String> values) {
+        if (values == null) {
+            return null;
+        }
+        return values.stream()
+                .map(value -> Amenity.fromKey(value).orElseThrow(() ->
+                        new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown amenity: " + value)))
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * Validates and normalizes a {@code field,direction} sort expression so equivalent
+     * spellings share a cache key.
+     */
+    private String normalizeSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return null;
+        }
+        String[] parts = sort.split(",");
+        String field = parts[0].trim();
+        if (!SORTABLE_FIELDS.contains(field)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot sort by " + field);
+        }
+        String direction = parts.length > 1 ? parts[1].trim().toLowerCase(Locale.ROOT) : "asc";
+        if (!direction.equals("asc") && !direction.equals("desc")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Sort direction must be asc or desc");
+        }
+        return field + "," + direction;
+    }
+
+    private void validateCoordinate(double latitude, double longitude) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Coordinates out of range");
+        }
+    }
+
+    private int clampGeoLimit(int limit) {
+        return Math.min(Math.max(limit, 1), MAX_GEO_RESULTS);
+    }
+
+    private int clampSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
+}
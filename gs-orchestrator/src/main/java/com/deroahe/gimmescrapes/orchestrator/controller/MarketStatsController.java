@@ -0,0 +1,45 @@
+package com.deroahe.gimmescrapes.orchestrator.controller;
+
+import com.deroahe.gimmescrapes.commons.dto.MarketStatsDto;
+import com.deroahe.gimmescrapes.orchestrator.service.MarketStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Public API for per-city and per-neighborhood market statistics.
+ */
+@RestController
+@RequestMapping("/api/stats")
+@RequiredArgsConstructor
+public class MarketStatsController {
+
+    private static final int DEFAULT_DAYS = 30;
+    private static final int MAX_DAYS = 366;
+
+    private final MarketStatsService marketStatsService;
+
+    @GetMapping("/market")
+    public ResponseEntity<MarketStatsDto> getMarketStats(
+            @RequestParam("city") String city,
+            @RequestParam(value = "neighborhood", required = false) String neighborhood,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+        if (start.isAfter(end) || ChronoUnit.DAYS.between(start, end) >= MAX_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Date range must be ordered and span at most " + MAX_DAYS + " days");
+        }
+        return ResponseEntity.ok(marketStatsService.getStats(city, neighborhood, start, end));
+    }
+}
@@ -0,0 +1,27 @@
+package com.deroahe.gimmescrapes.orchestrator.controller;
+
+import com.deroahe.gimmescrapes.commons.dto.SourceDto;
+import com.deroahe.gimmescrapes.orchestrator.service.SourceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Public API for real estate sources.
+ */
+@RestController
+@RequestMapping("/api/sources")
+@RequiredArgsConstructor
+public class SourceController {
+
+    private final SourceService sourceService;
+
+    @GetMapping
+    public ResponseEntity<List<SourceDto>> findAll() {
+        return ResponseEntity.ok(sourceService.findAll());
+    }
+}
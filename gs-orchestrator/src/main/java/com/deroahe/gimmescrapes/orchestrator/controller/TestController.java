@@ -1,19 +1,17 @@
 package com.deroahe.gimmescrapes.orchestrator.controller;
 
-import com.deroahe.gimmescrapes.commons.dto.ScrapeJobMessage;
-import com.deroahe.gimmescrapes.commons.enums.ScrapingJobStatus;
 import com.deroahe.gimmescrapes.commons.enums.TriggerType;
 import com.deroahe.gimmescrapes.commons.model.ScrapingJob;
 import com.deroahe.gimmescrapes.commons.model.Source;
 import com.deroahe.gimmescrapes.commons.repository.ScrapingJobRepository;
 import com.deroahe.gimmescrapes.commons.repository.SourceRepository;
-import com.deroahe.gimmescrapes.orchestrator.service.MessagePublisherService;
+import com.deroahe.gimmescrapes.orchestrator.service.ScrapeTriggerService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -24,7 +22,7 @@ public class TestController {
 
     private final SourceRepository sourceRepository;
     private final ScrapingJobRepository scrapingJobRepository;
-    private final MessagePublisherService messagePublisherService;
+    private final ScrapeTriggerService scrapeTriggerService;
 
     @PostMapping("/scrape/{sourceName}")
     public ResponseEntity<?> triggerTestScrape(@PathVariable("sourceName") String sourceName) {
@@ -34,28 +32,28 @@ public class TestController {
         Source source = sourceRepository.findByName(sourceName)
                 .orElseThrow(() -> new RuntimeException("Source not found: " + sourceName));
 
-        // Create scraping job
-        ScrapingJob job = ScrapingJob.builder()
-                .source(source)
-                .status(ScrapingJobStatus.PENDING)
-                .build();
-        job = scrapingJobRepository.save(job);
+        ScrapeTriggerService.TriggerResult result = scrapeTriggerService.trigger(source.getId(), TriggerType.MANUAL);
 
-        // Publish message
-        ScrapeJobMessage message = ScrapeJobMessage.builder()
-                .jobId(job.getId())
-                .sourceId(source.getId())
-                .sourceName(source.getName())
-                .triggeredBy(TriggerType.MANUAL)
-                .timestamp(LocalDateTime.now())
-                .build();
+        return ResponseEntity.ok(Map.of(
+                "message", result.coalesced()
+                        ? "Scrape already in progress, trigger coalesced"
+                        : "Scrape job triggered successfully",
+                "jobId", result.job().getId(),
+                "coalesced", result.coalesced(),
+                "sourceName", sourceName
+        ));
+    }
 
-        messagePublisherService.publishScrapeJob(message);
+    @PostMapping("/scrape-all")
+    public ResponseEntity<?> triggerAllScrapes() {
+        log.info("Test scrape triggered for all enabled sources");
+
+        List<ScrapeTriggerService.TriggerResult> results = scrapeTriggerService.triggerAll(TriggerType.MANUAL);
 
         return ResponseEntity.ok(Map.of(
-                "message", "Scrape job triggered successfully",
-                "jobId", job.getId(),
-                "sourceName", sourceName
+                "message", "Scrape jobs triggered for " + results.size() + " sources",
+                "jobIds", results.stream().map(result -> result.job().getId()).toList(),
+                "coalesced", results.stream().filter(ScrapeTriggerService.TriggerResult::coalesced).count()
         ));
     }
 
@@ -70,6 +68,7 @@ public class TestController {
                 "startedAt", job.getStartedAt(),
                 "completedAt", job.getCompletedAt(),
                 "itemsScraped", job.getItemsScraped(),
+                "coalescedTriggers", job.getCoalescedTriggers(),
                 "errorMessage", job.getErrorMessage() != null ? job.getErrorMessage() : ""
         ));
     }
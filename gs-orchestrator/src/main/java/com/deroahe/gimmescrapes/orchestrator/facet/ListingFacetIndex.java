@@ -0,0 +1,552 @@
+package com.deroahe.gimmescrapes.orchestrator.facet;
+
+import com.deroahe.gimmescrapes.commons.enums.Amenity;
+import com.deroahe.gimmescrapes.commons.repository.projection.ListingFacetView;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Columnar in-memory read model of listing filter attributes.
+ * <p>
+ * Each listing occupies one slot across primitive column arrays. String attributes are
+ * dictionary-encoded and every dictionary value owns a {@link BitSet} of the slots holding it,
+ * so facet counts are bitset intersections and range filters are tight loops over primitive arrays.
+ * Neighborhoods are keyed by (city, neighborhood) so same-named neighborhoods of different cities
+ * are counted apart.
+ * Slots of removed listings are reused by later inserts.
+ * Thread-safe: reads share a lock, incremental updates take it exclusively.
+ */
+public class ListingFacetIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long NO_PRICE = -1L;
+    private static final int NO_SURFACE = -1;
+    private static final int NO_CODE = -1;
+    private static final int MAX_ROOMS = 10;
+
+    /**
+     * Rough per-entry cost of the id-to-slot map: node, boxed key and boxed value.
+     */
+    private static final int SLOT_MAP_ENTRY_BYTES = 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] prices = new long[INITIAL_CAPACITY];
+    private int[] surfacesCentiSqm = new int[INITIAL_CAPACITY];
+    private int[] currencies = new int[INITIAL_CAPACITY];
+    private int[] cities = new int[INITIAL_CAPACITY];
+    private int[] neighborhoods = new int[INITIAL_CAPACITY];
+    private int[] sources = new int[INITIAL_CAPACITY];
+    private byte[] rooms = new byte[INITIAL_CAPACITY];
+    private long[] amenityMasks = new long[INITIAL_CAPACITY];
+    private int size;
+
+    private final BitSet live = new BitSet();
+    private final Dictionary<String> currencyDictionary = new Dictionary<>();
+    private final Dictionary<String> cityDictionary = new Dictionary<>();
+    private final Dictionary<NeighborhoodKey> neighborhoodDictionary = new Dictionary<>();
+    private final Dictionary<String> sourceDictionary = new Dictionary<>();
+    private final BitSet[] roomBits = new BitSet[MAX_ROOMS + 1];
+    private final BitSet[] amenityBits = new BitSet[Amenity.values().length];
+
+    public ListingFacetIndex() {
+        for (int i = 0; i < roomBits.length; i++) {
+            roomBits[i] = new BitSet();
+        }
+        for (int i = 0; i < amenityBits.length; i++) {
+            amenityBits[i] = new BitSet();
+        }
+    }
+
+    /**
+     * Inserts or replaces the attributes of a listing.
+     *
+     * @param view the listing projection
+     */
+    public void upsert(ListingFacetView view) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = slotById.get(view.getId());
+            int slot;
+            if (existing != null) {
+                slot = existing;
+                unindex(slot);
+            } else if (!freeSlots.isEmpty()) {
+                slot = freeSlots.pop();
+                slotById.put(view.getId(), slot);
+            } else {
+                slot = size++;
+                ensureCapacity(size);
+                slotById.put(view.getId(), slot);
+            }
+
+            ids[slot] = view.getId();
+            prices[slot] = toWholeUnits(view.getPrice());
+            surfacesCentiSqm[slot] = view.getSurfaceSqm() != null && view.getSurfaceSqm().signum() > 0
+                    ? view.getSurfaceSqm().movePointRight(2).intValue()
+                    : NO_SURFACE;
+            rooms[slot] = (byte) (view.getRooms() != null ? Math.min(Math.max(view.getRooms(), 0), MAX_ROOMS) : 0);
+            currencies[slot] = currencyDictionary.encode(view.getCurrency(), slot);
+            cities[slot] = cityDictionary.encode(view.getCity(), slot);
+            neighborhoods[slot] = neighborhoodDictionary.encode(NeighborhoodKey.of(view.getCity(), view.getNeighborhood()), slot);
+            sources[slot] = sourceDictionary.encode(view.getSourceName(), slot);
+            roomBits[rooms[slot]].set(slot);
+            amenityMasks[slot] = view.getFeaturesMask() != null ? view.getFeaturesMask() : 0L;
+            for (Amenity amenity : Amenity.fromMask(amenityMasks[slot])) {
+                amenityBits[amenity.ordinal()].set(slot);
+            }
+            live.set(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a listing, if indexed.
+     *
+     * @param id the listing ID
+     * @return true if the listing was indexed
+     */
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.remove(id);
+            if (slot == null) {
+                return false;
+            }
+            unindex(slot);
+            live.clear(slot);
+            freeSlots.push(slot);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every indexed listing whose ID is not in {@code keep}.
+     *
+     * @param keep IDs of the listings to keep
+     * @return number of listings removed
+     */
+    public int retainAll(Set<Long> keep) {
+        List<Long> stale;
+        lock.readLock().lock();
+        try {
+            stale = slotById.keySet().stream().filter(id -> !keep.contains(id)).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+        int removed = 0;
+        for (Long id : stale) {
+            if (remove(id)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Computes facet counts for a filter selection.
+     *
+     * @param query the filter selection
+     * @return the total match count and per-value counts of each facet
+     */
+    public FacetCounts facets(FacetQuery query) {
+        lock.readLock().lock();
+        try {
+            BitSet cityMask = cityDictionary.union(query.cities());
+            BitSet neighborhoodMask = neighborhoodUnion(query.neighborhoods());
+            BitSet sourceMask = sourceDictionary.union(query.sources());
+            BitSet roomsMask = roomsUnion(query.rooms());
+            BitSet rangeMask = rangeMask(query);
+            BitSet amenityMask = amenityIntersection(query.amenities());
+
+            BitSet all = intersect(live, cityMask, neighborhoodMask, sourceMask, roomsMask, rangeMask, amenityMask);
+            Map<Integer, Integer> roomCounts = new LinkedHashMap<>();
+            BitSet roomsBase = intersect(live, cityMask, neighborhoodMask, sourceMask, rangeMask, amenityMask);
+            for (int r = 0; r <= MAX_ROOMS; r++) {
+                int count = intersectionCount(roomsBase, roomBits[r]);
+                if (count > 0 && r > 0) {
+                    roomCounts.put(r, count);
+                }
+            }
+
+            Map<String, Integer> amenityCounts = new LinkedHashMap<>();
+            for (Amenity amenity : Amenity.values()) {
+                int count = intersectionCount(all, amenityBits[amenity.ordinal()]);
+                if (count > 0) {
+                    amenityCounts.put(amenity.getKey(), count);
+                }
+            }
+
+            return new FacetCounts(
+                    all.cardinality(),
+                    cityDictionary.counts(intersect(live, neighborhoodMask, sourceMask, roomsMask, rangeMask, amenityMask)),
+                    neighborhoodCounts(intersect(live, cityMask, sourceMask, roomsMask, rangeMask, amenityMask)),
+                    sourceDictionary.counts(intersect(live, cityMask, neighborhoodMask, roomsMask, rangeMask, amenityMask)),
+                    roomCounts,
+                    amenityCounts
+            );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Computes the filter options available across all indexed listings.
+     *
+     * @param currency the currency whose price range is reported
+     * @return the filter metadata
+     */
+    public FilterMetadata metadata(String currency) {
+        lock.readLock().lock();
+        try {
+            int currencyCode = currencyDictionary.code(currency);
+            long minPrice = Long.MAX_VALUE;
+            long maxPrice = Long.MIN_VALUE;
+            int minSurface = Integer.MAX_VALUE;
+            int maxSurface = Integer.MIN_VALUE;
+
+            for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+                if (prices[slot] != NO_PRICE && currencies[slot] == currencyCode) {
+                    minPrice = Math.min(minPrice, prices[slot]);
+                    maxPrice = Math.max(maxPrice, prices[slot]);
+                }
+                if (surfacesCentiSqm[slot] != NO_SURFACE) {
+                    minSurface = Math.min(minSurface, surfacesCentiSqm[slot]);
+                    maxSurface = Math.max(maxSurface, surfacesCentiSqm[slot]);
+                }
+            }
+
+            List<Integer> roomOptions = new ArrayList<>();
+            for (int r = 1; r <= MAX_ROOMS; r++) {
+                if (roomBits[r].intersects(live)) {
+                    roomOptions.add(r);
+                }
+            }
+
+            return new FilterMetadata(
+                    cityDictionary.presentValues(String::compareToIgnoreCase),
+                    sourceDictionary.presentValues(String::compareToIgnoreCase),
+                    minPrice == Long.MAX_VALUE ? null : minPrice,
+                    maxPrice == Long.MIN_VALUE ? null : maxPrice,
+                    minSurface == Integer.MAX_VALUE ? null : (long) Math.floor(minSurface / 100.0),
+                    maxSurface == Integer.MIN_VALUE ? null : (long) Math.ceil(maxSurface / 100.0),
+                    roomOptions
+            );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of listings currently indexed.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Estimated heap footprint of the index, including columns, bitsets, dictionaries' bitsets
+     * and the id-to-slot map. Dictionary strings are excluded as they are shared and few.
+     *
+     * @return estimated size in bytes
+     */
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            long capacity = ids.length;
+            long columns = capacity * (Long.BYTES * 3 + Integer.BYTES * 5 + Byte.BYTES);
+            long bitsets = bitsetBytes(live)
+                    + currencyDictionary.bitsetBytes()
+                    + cityDictionary.bitsetBytes()
+                    + neighborhoodDictionary.bitsetBytes()
+                    + sourceDictionary.bitsetBytes()
+                    + Arrays.stream(roomBits).mapToLong(ListingFacetIndex::bitsetBytes).sum()
+                    + Arrays.stream(amenityBits).mapToLong(ListingFacetIndex::bitsetBytes).sum();
+            return columns + bitsets + (long) slotById.size() * SLOT_MAP_ENTRY_BYTES;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void unindex(int slot) {
+        currencyDictionary.clear(currencies[slot], slot);
+        cityDictionary.clear(cities[slot], slot);
+        neighborhoodDictionary.clear(neighborhoods[slot], slot);
+        sourceDictionary.clear(sources[slot], slot);
+        roomBits[rooms[slot]].clear(slot);
+        for (Amenity amenity : Amenity.fromMask(amenityMasks[slot])) {
+            amenityBits[amenity.ordinal()].clear(slot);
+        }
+    }
+
+    /**
+     * Neighborhood selections are by name, matching the name in every city that has it;
+     * combined with a city selection they narrow to that city's neighborhood.
+     */
+    private BitSet neighborhoodUnion(Collection<String> selected) {
+        if (selected == null || selected.isEmpty()) {
+            return null;
+        }
+        return neighborhoodDictionary.union(key -> selected.contains(key.name()));
+    }
+
+    private Map<String, Map<String, Integer>> neighborhoodCounts(BitSet base) {
+        Map<String, Map<String, Integer>> byCity = new LinkedHashMap<>();
+        neighborhoodDictionary.counts(base).forEach((key, count) ->
+                byCity.computeIfAbsent(key.city(), c -> new LinkedHashMap<>()).put(key.name(), count));
+        return byCity;
+    }
+
+    private BitSet amenityIntersection(Collection<Amenity> required) {
+        if (required == null || required.isEmpty()) {
+            return null;
+        }
+        BitSet intersection = (BitSet) live.clone();
+        for (Amenity amenity : required) {
+            intersection.and(amenityBits[amenity.ordinal()]);
+        }
+        return intersection;
+    }
+
+    private BitSet rangeMask(FacetQuery query) {
+        boolean priceFilter = query.priceMin() != null || query.priceMax() != null;
+        boolean surfaceFilter = query.surfaceMin() != null || query.surfaceMax() != null;
+        if (!priceFilter && !surfaceFilter) {
+            return null;
+        }
+
+        int currencyCode = currencyDictionary.code(query.currency());
+        long priceMin = query.priceMin() != null ? query.priceMin() : Long.MIN_VALUE;
+        long priceMax = query.priceMax() != null ? query.priceMax() : Long.MAX_VALUE;
+        long surfaceMin = query.surfaceMin() != null ? query.surfaceMin() * 100 : Long.MIN_VALUE;
+        long surfaceMax = query.surfaceMax() != null ? query.surfaceMax() * 100 : Long.MAX_VALUE;
+
+        BitSet mask = new BitSet(size);
+        for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+            if (priceFilter && (prices[slot] == NO_PRICE || currencies[slot] != currencyCode
+                    || prices[slot] < priceMin || prices[slot] > priceMax)) {
+                continue;
+            }
+            if (surfaceFilter && (surfacesCentiSqm[slot] == NO_SURFACE
+                    || surfacesCentiSqm[slot] < surfaceMin || surfacesCentiSqm[slot] > surfaceMax)) {
+                continue;
+            }
+            mask.set(slot);
+        }
+        return mask;
+    }
+
+    private BitSet roomsUnion(Collection<Integer> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        BitSet union = new BitSet();
+        for (Integer value : values) {
+            if (value != null && value > 0) {
+                union.or(roomBits[Math.min(value, MAX_ROOMS)]);
+            }
+        }
+        return union;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        surfacesCentiSqm = Arrays.copyOf(surfacesCentiSqm, capacity);
+        currencies = Arrays.copyOf(currencies, capacity);
+        cities = Arrays.copyOf(cities, capacity);
+        neighborhoods = Arrays.copyOf(neighborhoods, capacity);
+        sources = Arrays.copyOf(sources, capacity);
+        rooms = Arrays.copyOf(rooms, capacity);
+        amenityMasks = Arrays.copyOf(amenityMasks, capacity);
+    }
+
+    private static long toWholeUnits(BigDecimal price) {
+        return price != null && price.signum() > 0 ? price.longValue() : NO_PRICE;
+    }
+
+    private static BitSet intersect(BitSet base, BitSet... masks) {
+        BitSet result = (BitSet) base.clone();
+        for (BitSet mask : masks) {
+            if (mask != null) {
+                result.and(mask);
+            }
+        }
+        return result;
+    }
+
+    private static int intersectionCount(BitSet a, BitSet b) {
+        BitSet copy = (BitSet) a.clone();
+        copy.and(b);
+        return copy.cardinality();
+    }
+
+    private static long bitsetBytes(BitSet bitSet) {
+        return bitSet.size() / Byte.SIZE;
+    }
+
+    /**
+     * Dictionary encoding of an attribute with one slot bitset per value.
+     */
+    private static final class Dictionary<K> {
+
+        private final Map<K, Integer> codes = new HashMap<>();
+        private final List<K> values = new ArrayList<>();
+        private final List<BitSet> bits = new ArrayList<>();
+
+        int encode(K value, int slot) {
+            if (value == null || value instanceof String string && string.isBlank()) {
+                return NO_CODE;
+            }
+            int code = codes.computeIfAbsent(value, v -> {
+                values.add(v);
+                bits.add(new BitSet());
+                return values.size() - 1;
+            });
+            bits.get(code).set(slot);
+            return code;
+        }
+
+        int code(K value) {
+            return value == null ? NO_CODE : codes.getOrDefault(value, NO_CODE);
+        }
+
+        void clear(int code, int slot) {
+            if (code != NO_CODE) {
+                bits.get(code).clear(slot);
+            }
+        }
+
+        BitSet union(Collection<K> selected) {
+            if (selected == null || selected.isEmpty()) {
+                return null;
+            }
+            BitSet union = new BitSet();
+            for (K value : selected) {
+                Integer code = codes.get(value);
+                if (code != null) {
+                    union.or(bits.get(code));
+                }
+            }
+            return union;
+        }
+
+        BitSet union(Predicate<K> selected) {
+            BitSet union = new BitSet();
+            for (int code = 0; code < values.size(); code++) {
+                if (selected.test(values.get(code))) {
+                    union.or(bits.get(code));
+                }
+            }
+            return union;
+        }
+
+        Map<K, Integer> counts(BitSet base) {
+            Map<K, Integer> counts = new LinkedHashMap<>();
+            for (int code = 0; code < values.size(); code++) {
+                int count = intersectionCount(base, bits.get(code));
+                if (count > 0) {
+                    counts.put(values.get(code), count);
+                }
+            }
+            return counts;
+        }
+
+        List<K> presentValues(Comparator<? super K> order) {
+            List<K> present = new ArrayList<>();
+            for (int code = 0; code < values.size(); code++) {
+                if (!bits.get(code).isEmpty()) {
+                    present.add(values.get(code));
+                }
+            }
+            present.sort(order);
+            return present;
+        }
+
+        long bitsetBytes() {
+            return bits.stream().mapToLong(ListingFacetIndex::bitsetBytes).sum();
+        }
+    }
+
+    /**
+     * Neighborhood dictionary key; listings without a city are grouped under the empty city.
+     */
+    private record NeighborhoodKey(String city, String name) {
+
+        static NeighborhoodKey of(String city, String name) {
+            if (name == null || name.isBlank()) {
+                return null;
+            }
+            return new NeighborhoodKey(city != null ? city : "", name);
+        }
+    }
+
+    /**
+     * Filter selection; null or empty collections and null bounds mean "no filter".
+     * Price bounds are in whole units of {@code currency}, surface bounds in square meters.
+     */
+    public record FacetQuery(
+            Collection<String> cities,
+            Collection<String> neighborhoods,
+            Collection<String> sources,
+            Collection<Integer> rooms,
+            Long priceMin,
+            Long priceMax,
+            String currency,
+            Long surfaceMin,
+            Long surfaceMax,
+            Collection<Amenity> amenities
+    ) {
+    }
+
+    public record FacetCounts(
+            long total,
+            Map<String, Integer> cities,
+            Map<String, Map<String, Integer>> neighborhoods,
+            Map<String, Integer> sources,
+            Map<Integer, Integer> rooms,
+            Map<String, Integer> amenities
+    ) {
+    }
+
+    public record FilterMetadata(
+            List<String> cities,
+            List<String> sources,
+            Long priceMin,
+            Long priceMax,
+            Long surfaceMin,
+            Long surfaceMax,
+            List<Integer> roomOptions
+    ) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.deroahe.gimmescrapes.orchestrator.mapper;
+
+import com.deroahe.gimmescrapes.commons.dto.ListingSummaryDto;
+import com.deroahe.gimmescrapes.commons.model.Listing;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * MapStruct mapper from listing entities to API DTOs.
+ */
+@Mapper(componentModel = "spring")
+public interface ListingMapper {
+
+    @Mapping(target = "sourceName", source = "source.name")
+    ListingSummaryDto toSummary(Listing listing);
+}
@@ -0,0 +1,14 @@
+package com.deroahe.gimmescrapes.orchestrator.mapper;
+
+import com.deroahe.gimmescrapes.commons.dto.SourceDto;
+import com.deroahe.gimmescrapes.commons.model.Source;
+import org.mapstruct.Mapper;
+
+/**
+ * MapStruct mapper from source entities to API DTOs.
+ */
+@Mapper(componentModel = "spring")
+public interface SourceMapper {
+
+    SourceDto toDto(Source source);
+}
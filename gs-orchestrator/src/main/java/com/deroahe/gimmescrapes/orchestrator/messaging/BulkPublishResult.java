@@ -0,0 +1,19 @@
+package com.deroahe.gimmescrapes.orchestrator.messaging;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk publish.
+ *
+ * @param confirmed messages confirmed by the broker and routed to a queue
+ * @param failed payloads still unconfirmed, nacked or unroutable after all attempts
+ * @param retries re-sends after a nack, a return or a confirm timeout
+ * @param elapsedMs time from the first send to the last confirm
+ * @param <T> the payload type
+ */
+public record BulkPublishResult<T>(int confirmed, List<T> failed, int retries, long elapsedMs) {
+
+    public boolean allConfirmed() {
+        return failed.isEmpty();
+    }
+}
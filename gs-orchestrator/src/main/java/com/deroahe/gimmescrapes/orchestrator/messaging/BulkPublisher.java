@@ -0,0 +1,207 @@
+package com.deroahe.gimmescrapes.orchestrator.messaging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Publishes many messages with correlated publisher confirms, without waiting per message.
+ * <p>
+ * Messages are converted once and sent back to back on one channel, with at most
+ * {@code max-in-flight} unconfirmed at a time. Confirms arrive asynchronously. A message that
+ * is nacked, returned as unroutable, or unconfirmed within {@code confirm-timeout-ms} is re-sent
+ * after a short backoff, up to {@code max-attempts} times. The returned future completes once
+ * every message is confirmed or has given up. Re-sends can duplicate a message whose confirm was
+ * only late, so consumers must tolerate redelivery, as they already do.
+ */
+@Slf4j
+@Component
+public class BulkPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ScheduledExecutorService retryExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "bulk-publish-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${gs.messaging.publish.max-in-flight:5000}")
+    private int maxInFlight;
+
+    @Value("${gs.messaging.publish.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${gs.messaging.publish.confirm-timeout-ms:10000}")
+    private long confirmTimeoutMs;
+
+    @Value("${gs.messaging.publish.retry-backoff-ms:200}")
+    private long retryBackoffMs;
+
+    private Semaphore inFlight;
+
+    public BulkPublisher(RabbitTemplate rabbitTemplate, MeterRegistry meterRegistry) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Publishes payloads to one exchange.
+     *
+     * @param exchange the exchange
+     * @param payloads the payloads, converted with the template's message converter
+     * @param routingKey routing key of each payload
+     * @param <T> the payload type
+     * @return future completed when every message is confirmed or has failed for good
+     */
+    public <T> CompletableFuture<BulkPublishResult<T>> publish(String exchange, List<T> payloads, Function<T, String> routingKey) {
+        Batch<T> batch = new Batch<>(exchange, payloads.size());
+        if (payloads.isEmpty()) {
+            batch.result.complete(new BulkPublishResult<>(0, List.of(), 0, 0));
+            return batch.result;
+        }
+
+        List<Pending<T>> pending = payloads.stream()
+                .map(payload -> new Pending<>(payload, routingKey.apply(payload), toMessage(payload)))
+                .toList();
+        // One channel for the whole batch, so sends are pipelined instead of checked out one by one
+        rabbitTemplate.invoke(operations -> {
+            for (Pending<T> message : pending) {
+                send(operations, batch, message);
+            }
+            return null;
+        });
+        return batch.result;
+    }
+
+    @PostConstruct
+    void init() {
+        inFlight = new Semaphore(maxInFlight);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryExecutor.shutdownNow();
+    }
+
+    private <T> void send(RabbitOperations operations, Batch<T> batch, Pending<T> message) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            batch.failed(message.payload);
+            return;
+        }
+
+        CorrelationData correlation = new CorrelationData();
+        try {
+            operations.send(batch.exchange, message.routingKey, message.message, correlation);
+        } catch (AmqpException e) {
+            inFlight.release();
+            retryOrFail(batch, message, "send failed: " + e.getMessage());
+            return;
+        }
+
+        correlation.getFuture()
+                .orTimeout(confirmTimeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((confirm, error) -> {
+                    inFlight.release();
+                    if (error != null) {
+                        retryOrFail(batch, message, "not confirmed: " + error.getClass().getSimpleName());
+                    } else if (!confirm.isAck()) {
+                        retryOrFail(batch, message, "nack: " + confirm.getReason());
+                    } else if (correlation.getReturned() != null) {
+                        retryOrFail(batch, message, "returned: " + correlation.getReturned().getReplyText());
+                    } else {
+                        batch.confirmed();
+                    }
+                });
+    }
+
+    private <T> void retryOrFail(Batch<T> batch, Pending<T> message, String reason) {
+        if (message.attempts.incrementAndGet() >= maxAttempts) {
+            log.warn("Giving up publishing to {} with routing key {} after {} attempts: {}",
+                    batch.exchange, message.routingKey, message.attempts.get(), reason);
+            meterRegistry.counter("gs.messages.publish.failed", "exchange", batch.exchange).increment();
+            batch.failed(message.payload);
+            return;
+        }
+        batch.retries.incrementAndGet();
+        meterRegistry.counter("gs.messages.publish.retried", "exchange", batch.exchange).increment();
+        log.debug("Re-sending message to {} ({}): {}", batch.exchange, message.routingKey, reason);
+        retryExecutor.schedule(() -> send(rabbitTemplate, batch, message),
+                retryBackoffMs * message.attempts.get(), TimeUnit.MILLISECONDS);
+    }
+
+    private Message toMessage(Object payload) {
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        return rabbitTemplate.getMessageConverter().toMessage(payload, properties);
+    }
+
+    private record Pending<T>(T payload, String routingKey, Message message, AtomicInteger attempts) {
+
+        Pending(T payload, String routingKey, Message message) {
+            this(payload, routingKey, message, new AtomicInteger());
+        }
+    }
+
+    /**
+     * Progress of one {@link #publish} call.
+     */
+    private final class Batch<T> {
+
+        private final String exchange;
+        private final AtomicInteger remaining;
+        private final AtomicInteger confirmed = new AtomicInteger();
+        private final AtomicInteger retries = new AtomicInteger();
+        private final Queue<T> failed = new ConcurrentLinkedQueue<>();
+        private final CompletableFuture<BulkPublishResult<T>> result = new CompletableFuture<>();
+        private final long startNanos = System.nanoTime();
+
+        Batch(String exchange, int size) {
+            this.exchange = exchange;
+            this.remaining = new AtomicInteger(size);
+        }
+
+        void confirmed() {
+            confirmed.incrementAndGet();
+            done();
+        }
+
+        void failed(T payload) {
+            failed.add(payload);
+            done();
+        }
+
+        private void done() {
+            if (remaining.decrementAndGet() == 0) {
+                long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                meterRegistry.timer("gs.messages.publish.bulk", "exchange", exchange)
+                        .record(elapsedMs, TimeUnit.MILLISECONDS);
+                result.complete(new BulkPublishResult<>(confirmed.get(), List.copyOf(failed), retries.get(), elapsedMs));
+            }
+        }
+    }
+}
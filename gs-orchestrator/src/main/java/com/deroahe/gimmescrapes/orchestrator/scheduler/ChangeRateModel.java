@@ -0,0 +1,274 @@
+package com.deroahe.gimmescrapes.orchestrator.scheduler;
+
+import com.deroahe.gimmescrapes.commons.model.ScrapingJob;
+import com.deroahe.gimmescrapes.commons.repository.ScrapingJobRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Learns how fast each source changes, per hour of the week, from completed scrape jobs.
+ * <p>
+ * A job's {@code itemsNew + itemsUpdated} are the changes that accumulated since the previous
+ * job of the source started, so each job yields a change rate over that window. The rate is
+ * folded into an EWMA for every hour-of-week bucket the window overlaps, weighted by the overlap.
+ * <p>
+ * {@link #plan} turns the model into the next interval: the shortest interval over which the
+ * expected number of changes reaches the target yield, within the source's bounds. Quiet hours
+ * stretch the interval towards the maximum; busy ones shrink it towards the minimum, so each
+ * crawl finds roughly the same number of unseen changes.
+ */
+@Slf4j
+@Component
+public class ChangeRateModel {
+
+    static final int HOURS_PER_WEEK = 7 * 24;
+
+    /**
+     * Windows longer than this (a paused source, a long outage) say little about any one hour.
+     */
+    private static final Duration MAX_WINDOW = Duration.ofDays(2);
+
+    private final ScrapingJobRepository scrapingJobRepository;
+    private final MeterRegistry meterRegistry;
+    private final Map<Long, SourceRates> rates = new ConcurrentHashMap<>();
+
+    /**
+     * Guards the watermark; held for the whole paged read, so not a monitor (virtual threads).
+     */
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    @Value("${gs.scheduler.adaptive.alpha:0.3}")
+    private double alpha;
+
+    @Value("${gs.scheduler.adaptive.min-samples:3}")
+    private int minSamples;
+
+    @Value("${gs.scheduler.adaptive.history:P28D}")
+    private Duration history;
+
+    @Value("${gs.scheduler.adaptive.refresh-batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Re-read behind the watermark so jobs committed late with an earlier completed_at are seen;
+     * jobs already applied are skipped by their start time.
+     */
+    @Value("${gs.scheduler.adaptive.refresh-overlap:PT2M}")
+    private Duration overlap;
+
+    private LocalDateTime watermarkCompletedAt;
+
+    public ChangeRateModel(ScrapingJobRepository scrapingJobRepository, MeterRegistry meterRegistry) {
+        this.scrapingJobRepository = scrapingJobRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Pulls jobs completed since the previous refresh into the model.
+     * The first run replays the configured history.
+     */
+    @Scheduled(fixedDelayString = "${gs.scheduler.adaptive.refresh-interval-ms:60000}")
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            applyCompletedJobs();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void applyCompletedJobs() {
+        boolean initial = watermarkCompletedAt == null;
+        LocalDateTime cursorCompletedAt = initial
+                ? LocalDateTime.now().minus(history)
+                : watermarkCompletedAt.minus(overlap);
+        long cursorId = 0L;
+        int applied = 0;
+
+        List<ScrapingJob> batch;
+        do {
+            batch = scrapingJobRepository.findCompletedAfter(cursorCompletedAt, cursorId, PageRequest.of(0, batchSize));
+            for (ScrapingJob job : batch) {
+                if (observe(job, !initial)) {
+                    applied++;
+                }
+            }
+            if (!batch.isEmpty()) {
+                ScrapingJob last = batch.get(batch.size() - 1);
+                cursorCompletedAt = last.getCompletedAt();
+                cursorId = last.getId();
+            }
+        } while (batch.size() == batchSize);
+
+        if (watermarkCompletedAt == null || cursorCompletedAt.isAfter(watermarkCompletedAt)) {
+            watermarkCompletedAt = cursorCompletedAt;
+        }
+        if (applied > 0) {
+            log.debug("Change-rate model refreshed: {} job(s) applied, {} source(s) modelled", applied, rates.size());
+        }
+    }
+
+    /**
+     * Chooses the next scrape interval of a source.
+     *
+     * @param sourceId the source ID
+     * @param from when the interval starts (the crawl that is being dispatched)
+     * @param targetYield expected changes a crawl should find
+     * @param minMinutes lower bound
+     * @param maxMinutes upper bound
+     * @param fallbackMinutes interval used until the source has enough history
+     * @return the chosen interval and the yield expected at its end
+     */
+    public Plan plan(Long sourceId, LocalDateTime from, double targetYield,
+                     int minMinutes, int maxMinutes, int fallbackMinutes) {
+        SourceRates sourceRates = rates.get(sourceId);
+        if (sourceRates == null || sourceRates.samples() < minSamples) {
+            return new Plan(Math.max(minMinutes, Math.min(maxMinutes, fallbackMinutes)), Double.NaN, false);
+        }
+        return sourceRates.plan(from, targetYield, minMinutes, maxMinutes);
+    }
+
+    /**
+     * @return true if the job was applied, false if it was already seen or had no usable window
+     */
+    private boolean observe(ScrapingJob job, boolean live) {
+        if (job.getStartedAt() == null) {
+            return false;
+        }
+        SourceRates sourceRates = rates.computeIfAbsent(job.getSource().getId(), id -> new SourceRates());
+        int changes = zeroIfNull(job.getItemsNew()) + zeroIfNull(job.getItemsUpdated());
+        if (!sourceRates.observe(job.getStartedAt(), changes, alpha)) {
+            return false;
+        }
+        if (live) {
+            DistributionSummary.builder("gs.scheduler.yield.actual")
+                    .description("Changes found per scheduled crawl")
+                    .tag("source", job.getSource().getName())
+                    .register(meterRegistry)
+                    .record(changes);
+        }
+        return true;
+    }
+
+    private static int zeroIfNull(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    static int hourOfWeek(LocalDateTime time) {
+        return (time.getDayOfWeek().getValue() - 1) * 24 + time.getHour();
+    }
+
+    /**
+     * @param intervalMinutes the chosen interval
+     * @param predictedYield expected changes at the end of the interval, NaN without a model
+     * @param adaptive false if the fallback interval was used
+     */
+    public record Plan(int intervalMinutes, double predictedYield, boolean adaptive) {
+    }
+
+    /**
+     * Hour-of-week change rates of one source, in changes per minute.
+     */
+    private static final class SourceRates {
+
+        private final double[] rate = new double[HOURS_PER_WEEK];
+        private final double[] weight = new double[HOURS_PER_WEEK];
+        private LocalDateTime lastStartedAt;
+        private int samples;
+
+        synchronized int samples() {
+            return samples;
+        }
+
+        synchronized boolean observe(LocalDateTime startedAt, int changes, double alpha) {
+            LocalDateTime windowStart = lastStartedAt;
+            if (windowStart != null && !startedAt.isAfter(windowStart)) {
+                return false;
+            }
+            lastStartedAt = startedAt;
+            if (windowStart == null) {
+                return false;
+            }
+            Duration window = Duration.between(windowStart, startedAt);
+            if (window.toMinutes() < 1 || window.compareTo(MAX_WINDOW) > 0) {
+                return false;
+            }
+
+            double observed = changes / (double) window.toSeconds() * 60;
+            LocalDateTime cursor = windowStart;
+            while (cursor.isBefore(startedAt)) {
+                LocalDateTime hourEnd = cursor.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+                LocalDateTime segmentEnd = hourEnd.isBefore(startedAt) ? hourEnd : startedAt;
+                double fraction = Duration.between(cursor, segmentEnd).toSeconds() / 3600.0;
+                int bucket = hourOfWeek(cursor);
+                rate[bucket] = weight[bucket] == 0 ? observed : rate[bucket] + alpha * fraction * (observed - rate[bucket]);
+                weight[bucket] += fraction;
+                cursor = segmentEnd;
+            }
+            samples++;
+            return true;
+        }
+
+        synchronized Plan plan(LocalDateTime from, double targetYield, int minMinutes, int maxMinutes) {
+            double fallbackRate = meanRate();
+            double expected = 0;
+            double elapsed = 0;
+            LocalDateTime cursor = from;
+            while (elapsed < maxMinutes) {
+                LocalDateTime hourEnd = cursor.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+                double segment = Math.min(Duration.between(cursor, hourEnd).toSeconds() / 60.0, maxMinutes - elapsed);
+                int bucket = hourOfWeek(cursor);
+                double bucketRate = weight[bucket] > 0 ? rate[bucket] : fallbackRate;
+                if (bucketRate > 0 && expected + bucketRate * segment >= targetYield) {
+                    double minutes = elapsed + (targetYield - expected) / bucketRate;
+                    if (minutes < minMinutes) {
+                        return new Plan(minMinutes, expectedYield(from, minMinutes, fallbackRate), true);
+                    }
+                    return new Plan((int) Math.ceil(minutes), targetYield, true);
+                }
+                expected += bucketRate * segment;
+                elapsed += segment;
+                cursor = hourEnd;
+            }
+            return new Plan(maxMinutes, expected, true);
+        }
+
+        private double expectedYield(LocalDateTime from, int minutes, double fallbackRate) {
+            double expected = 0;
+            double elapsed = 0;
+            LocalDateTime cursor = from;
+            while (elapsed < minutes) {
+                LocalDateTime hourEnd = cursor.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+                double segment = Math.min(Duration.between(cursor, hourEnd).toSeconds() / 60.0, minutes - elapsed);
+                int bucket = hourOfWeek(cursor);
+                expected += (weight[bucket] > 0 ? rate[bucket] : fallbackRate) * segment;
+                elapsed += segment;
+                cursor = hourEnd;
+            }
+            return expected;
+        }
+
+        private double meanRate() {
+            double weighted = 0;
+            double total = 0;
+            for (int i = 0; i < HOURS_PER_WEEK; i++) {
+                weighted += rate[i] * weight[i];
+                total += weight[i];
+            }
+            return total > 0 ? weighted / total : 0;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.deroahe.gimmescrapes.orchestrator.scheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical timing wheel holding one deadline per key.
+ * <p>
+ * Level 0 has {@code wheelSize} slots of one tick each; every level above has slots
+ * {@code wheelSize} times wider. A key lands on the lowest level whose span covers its delay,
+ * and is cascaded down a level when the wheel reaches its slot, so scheduling, cancelling and
+ * each tick cost O(1) regardless of how many keys are scheduled or how far ahead. Delays beyond
+ * the top level wait in an overflow set that is re-placed on every top-level cascade.
+ * Not thread-safe; callers synchronize.
+ *
+ * @param <K> the key type
+ */
+public class HierarchicalTimingWheel<K> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long[] levelSpanTicks;
+    private final List<List<Set<K>>> slots;
+    private final Set<K> overflow = new HashSet<>();
+    private final Set<K> expired = new LinkedHashSet<>();
+    private final Map<K, Long> deadlines = new HashMap<>();
+    private final Map<K, Set<K>> locations = new HashMap<>();
+    private long currentTick;
+
+    /**
+     * @param tickMs duration of one tick
+     * @param wheelSize slots per level
+     * @param levels number of levels
+     * @param nowMs the current time
+     */
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, int levels, long nowMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.levelSpanTicks = new long[levels];
+        this.slots = new ArrayList<>(levels);
+        long span = 1;
+        for (int level = 0; level < levels; level++) {
+            levelSpanTicks[level] = span;
+            List<Set<K>> levelSlots = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                levelSlots.add(new HashSet<>());
+            }
+            slots.add(levelSlots);
+            span *= wheelSize;
+        }
+        this.currentTick = nowMs / tickMs;
+    }
+
+    /**
+     * Schedules a key, replacing its previous deadline.
+     *
+     * @param key the key
+     * @param deadlineMs when the key is due; past deadlines are due on the next advance
+     */
+    public void schedule(K key, long deadlineMs) {
+        cancel(key);
+        long deadlineTick = Math.floorDiv(deadlineMs, tickMs);
+        deadlines.put(key, deadlineTick);
+        place(key, deadlineTick);
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key the key
+     * @return true if the key was scheduled
+     */
+    public boolean cancel(K key) {
+        Set<K> location = locations.remove(key);
+        if (location != null) {
+            location.remove(key);
+        }
+        return deadlines.remove(key) != null;
+    }
+
+    /**
+     * Moves the wheel to the current time.
+     *
+     * @param nowMs the current time
+     * @return keys whose deadline has passed, removed from the wheel
+     */
+    public List<K> advance(long nowMs) {
+        long targetTick = nowMs / tickMs;
+        long maxSpan = levelSpanTicks[levelSpanTicks.length - 1] * wheelSize;
+        if (targetTick - currentTick > maxSpan) {
+            // Far behind (e.g. after a long pause): re-placing everything is cheaper than ticking through
+            currentTick = targetTick;
+            for (Map.Entry<K, Long> entry : new ArrayList<>(deadlines.entrySet())) {
+                relocate(entry.getKey(), entry.getValue());
+            }
+        }
+
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = levelSpanTicks.length - 1; level >= 1; level--) {
+                if (currentTick % levelSpanTicks[level] == 0) {
+                    cascade(slots.get(level).get(slotIndex(currentTick, level)));
+                    if (level == levelSpanTicks.length - 1) {
+                        cascade(overflow);
+                    }
+                }
+            }
+            cascade(slots.get(0).get(slotIndex(currentTick, 0)));
+        }
+
+        List<K> due = new ArrayList<>(expired);
+        expired.clear();
+        for (K key : due) {
+            locations.remove(key);
+            deadlines.remove(key);
+        }
+        return due;
+    }
+
+    public boolean contains(K key) {
+        return deadlines.containsKey(key);
+    }
+
+    /**
+     * @return the key's deadline, or null if it is not scheduled
+     */
+    public Long deadlineMs(K key) {
+        Long deadlineTick = deadlines.get(key);
+        return deadlineTick != null ? deadlineTick * tickMs : null;
+    }
+
+    public Set<K> keys() {
+        return Set.copyOf(deadlines.keySet());
+    }
+
+    public int size() {
+        return deadlines.size();
+    }
+
+    /**
+     * Removes all keys and moves the wheel to the current time without ticking through the gap.
+     *
+     * @param nowMs the current time
+     */
+    public void reset(long nowMs) {
+        for (List<Set<K>> level : slots) {
+            level.forEach(Set::clear);
+        }
+        overflow.clear();
+        expired.clear();
+        deadlines.clear();
+        locations.clear();
+        currentTick = nowMs / tickMs;
+    }
+
+    private void cascade(Set<K> slot) {
+        if (slot.isEmpty()) {
+            return;
+        }
+        List<K> keys = new ArrayList<>(slot);
+        slot.clear();
+        for (K key : keys) {
+            place(key, deadlines.get(key));
+        }
+    }
+
+    private void relocate(K key, long deadlineTick) {
+        Set<K> location = locations.remove(key);
+        if (location != null) {
+            location.remove(key);
+        }
+        place(key, deadlineTick);
+    }
+
+    private void place(K key, long deadlineTick) {
+        long delay = deadlineTick - currentTick;
+        Set<K> target = overflow;
+        if (delay <= 0) {
+            target = expired;
+        } else {
+            for (int level = 0; level < levelSpanTicks.length; level++) {
+                if (delay < levelSpanTicks[level] * wheelSize) {
+                    target = slots.get(level).get(slotIndex(deadlineTick, level));
+                    break;
+                }
+            }
+        }
+        target.add(key);
+        locations.put(key, target);
+    }
+
+    private int slotIndex(long tick, int level) {
+        return (int) ((tick / levelSpanTicks[level]) % wheelSize);
+    }
+}
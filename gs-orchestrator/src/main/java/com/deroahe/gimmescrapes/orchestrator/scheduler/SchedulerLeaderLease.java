@@ -0,0 +1,111 @@
+package com.deroahe.gimmescrapes.orchestrator.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Leader lease in Redis electing the one orchestrator instance that dispatches scheduled scrapes.
+ * <p>
+ * The key {@code scheduler:leader} holds the leader's instance ID with a TTL. Every check either
+ * takes the free key or, for the current leader, extends it; renew and release compare the
+ * instance ID in Lua so an instance that lost the lease can never extend or drop the new
+ * leader's. If Redis is unreachable the instance assumes it is not the leader, so a partitioned
+ * instance stops dispatching rather than double-dispatching.
+ * <p>
+ * Each successful check also records locally how long the lease is guaranteed to last, measured
+ * from before the call, so a caller can tell that its lease ran out even if no check has failed
+ * yet (e.g. because the checking thread was stalled).
+ */
+@Slf4j
+@Component
+public class SchedulerLeaderLease {
+
+    private static final String LEADER_KEY = "scheduler:leader";
+
+    private static final RedisScript<Long> ACQUIRE_OR_RENEW = new DefaultRedisScript<>("""
+            local value = redis.call('GET', KEYS[1])
+            if value == ARGV[1] then
+              return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            end
+            if value then
+              return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+    private volatile long heldUntilNanos = System.nanoTime();
+
+    /**
+     * Must comfortably exceed the leadership check interval, or the lease lapses between checks.
+     */
+    @Value("${gs.scheduler.leader-ttl:PT15S}")
+    private Duration ttl;
+
+    public SchedulerLeaderLease(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Takes the lease if it is free, or extends it if this instance holds it.
+     *
+     * @return true if this instance is the leader until the TTL elapses
+     */
+    public boolean acquireOrRenew() {
+        long checkedAt = System.nanoTime();
+        try {
+            Long result = redisTemplate.execute(ACQUIRE_OR_RENEW, List.of(LEADER_KEY),
+                    instanceId, Long.toString(ttl.toMillis()));
+            boolean held = result != null && result == 1;
+            heldUntilNanos = held ? checkedAt + ttl.toNanos() : checkedAt;
+            return held;
+        } catch (Exception e) {
+            heldUntilNanos = checkedAt;
+            log.warn("Failed to check scheduler leadership: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Tells whether the lease taken or renewed by the last successful check is still running,
+     * without calling Redis.
+     *
+     * @return true if no other instance can have taken the lease yet
+     */
+    public boolean isHeld() {
+        return System.nanoTime() - heldUntilNanos < 0;
+    }
+
+    /**
+     * Gives up the lease so another instance can take over without waiting for the TTL.
+     */
+    public void release() {
+        heldUntilNanos = System.nanoTime();
+        try {
+            redisTemplate.execute(RELEASE, List.of(LEADER_KEY), instanceId);
+        } catch (Exception e) {
+            log.warn("Failed to release scheduler leadership: {}", e.getMessage());
+        }
+    }
+
+    public String instanceId() {
+        return instanceId;
+    }
+}
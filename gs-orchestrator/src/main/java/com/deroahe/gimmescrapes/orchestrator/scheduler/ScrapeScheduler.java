@@ -0,0 +1,345 @@
+package com.deroahe.gimmescrapes.orchestrator.scheduler;
+
+import com.deroahe.gimmescrapes.commons.enums.TriggerType;
+import com.deroahe.gimmescrapes.commons.model.Source;
+import com.deroahe.gimmescrapes.commons.repository.SourceRepository;
+import com.deroahe.gimmescrapes.orchestrator.service.ScrapeTriggerService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatches scheduled scrapes of enabled sources every {@code scrapeIntervalMinutes}.
+ * <p>
+ * Each source's next run sits in a {@link HierarchicalTimingWheel}; every tick the due sources
+ * are triggered and put back one jittered interval later, so sources with equal intervals drift
+ * apart instead of firing together. Only the instance holding the {@link SchedulerLeaderLease}
+ * keeps a wheel. On gaining leadership the wheel is rebuilt from {@code last_scrape_at}: runs
+ * missed while no instance was leading are caught up, spread over {@code catch-up-spread}
+ * rather than all at once. Source changes are picked up by a periodic sync.
+ * <p>
+ * With {@code gs.scheduler.adaptive.enabled}, each interval comes from the {@link ChangeRateModel}
+ * instead of {@code scrapeIntervalMinutes}, bounded by the source's min/max interval.
+ * <p>
+ * The lease is renewed on a dedicated thread, so a slow tick or model refresh on Spring's
+ * scheduler threads cannot let it lapse, and every dispatch first checks that the lease is
+ * still held.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "gs.scheduler.enabled", havingValue = "true", matchIfMissing = true)
+public class ScrapeScheduler {
+
+    private static final long WHEEL_TICK_MS = 1000;
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_LEVELS = 4;
+
+    private final SourceRepository sourceRepository;
+    private final ScrapeTriggerService scrapeTriggerService;
+    private final SchedulerLeaderLease leaderLease;
+    private final ChangeRateModel changeRateModel;
+    private final MeterRegistry meterRegistry;
+    private final HierarchicalTimingWheel<Long> wheel =
+            new HierarchicalTimingWheel<>(WHEEL_TICK_MS, WHEEL_SIZE, WHEEL_LEVELS, System.currentTimeMillis());
+    private final Map<Long, SourceSchedule> schedules = new HashMap<>();
+    private final ScheduledExecutorService leaderExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "scheduler-leader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean leader;
+
+    @Value("${gs.scheduler.leader-check-interval-ms:5000}")
+    private long leaderCheckIntervalMs;
+
+    @Value("${gs.scheduler.jitter:0.1}")
+    private double jitter;
+
+    @Value("${gs.scheduler.catch-up-spread:PT5M}")
+    private Duration catchUpSpread;
+
+    @Value("${gs.scheduler.default-interval-minutes:60}")
+    private int defaultIntervalMinutes;
+
+    @Value("${gs.scheduler.adaptive.enabled:true}")
+    private boolean adaptive;
+
+    /**
+     * Freshness target: changes a crawl should find, i.e. how many changes may pile up unseen.
+     */
+    @Value("${gs.scheduler.adaptive.target-yield:20}")
+    private double targetYield;
+
+    @Value("${gs.scheduler.adaptive.default-min-interval-minutes:15}")
+    private int defaultMinIntervalMinutes;
+
+    @Value("${gs.scheduler.adaptive.default-max-interval-minutes:1440}")
+    private int defaultMaxIntervalMinutes;
+
+    public ScrapeScheduler(SourceRepository sourceRepository,
+                           ScrapeTriggerService scrapeTriggerService,
+                           SchedulerLeaderLease leaderLease,
+                           ChangeRateModel changeRateModel,
+                           MeterRegistry meterRegistry) {
+        this.sourceRepository = sourceRepository;
+        this.scrapeTriggerService = scrapeTriggerService;
+        this.leaderLease = leaderLease;
+        this.changeRateModel = changeRateModel;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("gs.scheduler.scheduled", this, scheduler -> scheduler.scheduledCount())
+                .description("Sources with a pending scheduled run on this instance")
+                .register(meterRegistry);
+        Gauge.builder("gs.scheduler.leader", this, scheduler -> scheduler.leader ? 1 : 0)
+                .description("1 if this instance dispatches scheduled scrapes")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        leaderExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                checkLeadership();
+            } catch (Exception e) {
+                log.error("Scheduler leadership check failed: {}", e.getMessage());
+            }
+        }, 0, leaderCheckIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Takes or renews leadership, rebuilding the wheel when leadership is gained and
+     * dropping it when lost. Runs on the scheduler-leader thread.
+     */
+    void checkLeadership() {
+        boolean nowLeader = leaderLease.acquireOrRenew();
+        if (nowLeader && !leader) {
+            log.info("Instance {} became scrape scheduler leader", leaderLease.instanceId());
+            rebuild();
+        } else if (!nowLeader && leader) {
+            log.warn("Instance {} lost scrape scheduler leadership", leaderLease.instanceId());
+            synchronized (wheel) {
+                wheel.reset(System.currentTimeMillis());
+                schedules.clear();
+            }
+        }
+        leader = nowLeader;
+    }
+
+    /**
+     * Triggers every source whose run is due and schedules its next run.
+     */
+    @Scheduled(fixedRateString = "${gs.scheduler.tick-ms:1000}")
+    public void tick() {
+        if (!leader) {
+            return;
+        }
+
+        List<Long> due;
+        synchronized (wheel) {
+            due = wheel.advance(System.currentTimeMillis());
+        }
+        for (int i = 0; i < due.size(); i++) {
+            if (!leaderLease.isHeld()) {
+                // The lease may have passed to another instance; put the rest back for the next
+                // tick, where they are dispatched if a late renewal kept it here
+                List<Long> undispatched = due.subList(i, due.size());
+                log.warn("Scheduler lease expired mid-tick, deferring {} due source(s)", undispatched.size());
+                synchronized (wheel) {
+                    long now = System.currentTimeMillis();
+                    undispatched.forEach(sourceId -> wheel.schedule(sourceId, now));
+                }
+                return;
+            }
+            dispatch(due.get(i));
+        }
+    }
+
+    /**
+     * Reconciles the wheel with the sources table: schedules new or re-enabled sources,
+     * reschedules sources whose interval changed and drops disabled or deleted ones.
+     */
+    @Scheduled(fixedDelayString = "${gs.scheduler.sync-interval-ms:60000}",
+               initialDelayString = "${gs.scheduler.sync-interval-ms:60000}")
+    public void sync() {
+        if (!leader) {
+            return;
+        }
+
+        List<Source> sources = sourceRepository.findAllEnabled();
+        long now = System.currentTimeMillis();
+        Set<Long> enabledIds = new HashSet<>();
+        int added = 0;
+        int removed = 0;
+        synchronized (wheel) {
+            for (Source source : sources) {
+                enabledIds.add(source.getId());
+                if (!scheduleOf(source).equals(schedules.get(source.getId()))) {
+                    schedule(source, now);
+                    added++;
+                }
+            }
+            for (Long sourceId : Set.copyOf(schedules.keySet())) {
+                if (!enabledIds.contains(sourceId)) {
+                    wheel.cancel(sourceId);
+                    schedules.remove(sourceId);
+                    removed++;
+                }
+            }
+        }
+        if (added > 0 || removed > 0) {
+            log.info("Scheduler sync: {} source(s) scheduled or rescheduled, {} removed", added, removed);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        leaderExecutor.shutdownNow();
+        if (leader) {
+            leader = false;
+            leaderLease.release();
+        }
+    }
+
+    private SourceSchedule scheduleOf(Source source) {
+        int interval = positiveOr(source.getScrapeIntervalMinutes(), defaultIntervalMinutes);
+        int min = positiveOr(source.getMinScrapeIntervalMinutes(), defaultMinIntervalMinutes);
+        int max = Math.max(min, positiveOr(source.getMaxScrapeIntervalMinutes(), defaultMaxIntervalMinutes));
+        return new SourceSchedule(source.getName(), interval, min, max);
+    }
+
+    /**
+     * Plans the interval following a crawl started at {@code from}: the fixed interval,
+     * or the change-rate model's choice within the source's bounds.
+     */
+    private ChangeRateModel.Plan plan(Long sourceId, SourceSchedule schedule, LocalDateTime from) {
+        if (!adaptive) {
+            return new ChangeRateModel.Plan(schedule.intervalMinutes(), Double.NaN, false);
+        }
+        return changeRateModel.plan(sourceId, from, targetYield,
+                schedule.minIntervalMinutes(), schedule.maxIntervalMinutes(), schedule.intervalMinutes());
+    }
+
+    private void rebuild() {
+        List<Source> sources = sourceRepository.findAllEnabled();
+        long now = System.currentTimeMillis();
+        int overdue = 0;
+        synchronized (wheel) {
+            wheel.reset(now);
+            schedules.clear();
+            for (Source source : sources) {
+                if (schedule(source, now)) {
+                    overdue++;
+                }
+            }
+        }
+        log.info("Scheduled {} source(s), {} overdue and spread over {}", sources.size(), overdue, catchUpSpread);
+    }
+
+    /**
+     * Places a source at its next run after {@code lastScrapeAt}, or within the catch-up
+     * window if that run has already passed. Caller holds the wheel lock.
+     *
+     * @return true if the source was overdue
+     */
+    private boolean schedule(Source source, long now) {
+        SourceSchedule schedule = scheduleOf(source);
+        long spreadMs = Math.max(1, catchUpSpread.toMillis());
+        schedules.put(source.getId(), schedule);
+
+        LocalDateTime lastScrapeAt = source.getLastScrapeAt();
+        if (lastScrapeAt == null) {
+            long intervalMs = Duration.ofMinutes(schedule.intervalMinutes()).toMillis();
+            // Never scraped: start soon, but not every new source on the same tick
+            wheel.schedule(source.getId(), now + ThreadLocalRandom.current().nextLong(Math.min(intervalMs, spreadMs)));
+            return false;
+        }
+
+        long intervalMs = Duration.ofMinutes(plan(source.getId(), schedule, lastScrapeAt).intervalMinutes()).toMillis();
+        long nextRun = lastScrapeAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + jittered(intervalMs);
+        if (nextRun <= now) {
+            wheel.schedule(source.getId(), now + ThreadLocalRandom.current().nextLong(spreadMs));
+            return true;
+        }
+        wheel.schedule(source.getId(), nextRun);
+        return false;
+    }
+
+    private void dispatch(Long sourceId) {
+        try {
+            ScrapeTriggerService.TriggerResult result = scrapeTriggerService.trigger(sourceId, TriggerType.SCHEDULED);
+            meterRegistry.counter("gs.scheduler.dispatched",
+                    "outcome", result.coalesced() ? "coalesced" : "dispatched").increment();
+        } catch (Exception e) {
+            // Keep the source on schedule; the next run retries, and sync drops it if it was deleted
+            log.error("Scheduled trigger failed for source {}: {}", sourceId, e.getMessage());
+            meterRegistry.counter("gs.scheduler.dispatched", "outcome", "failed").increment();
+        }
+
+        SourceSchedule schedule;
+        synchronized (wheel) {
+            schedule = schedules.get(sourceId);
+        }
+        if (schedule == null || !leader) {
+            return;
+        }
+
+        ChangeRateModel.Plan plan = plan(sourceId, schedule, LocalDateTime.now());
+        if (!Double.isNaN(plan.predictedYield())) {
+            DistributionSummary.builder("gs.scheduler.yield.predicted")
+                    .description("Changes the change-rate model expects the next crawl to find")
+                    .tag("source", schedule.name())
+                    .register(meterRegistry)
+                    .record(plan.predictedYield());
+        }
+        meterRegistry.summary("gs.scheduler.interval", "source", schedule.name(),
+                "mode", plan.adaptive() ? "adaptive" : "fixed").record(plan.intervalMinutes());
+        log.debug("Next scrape of {} in {} min (predicted yield {})",
+                schedule.name(), plan.intervalMinutes(), plan.predictedYield());
+
+        synchronized (wheel) {
+            if (schedules.get(sourceId) == schedule) {
+                wheel.schedule(sourceId, System.currentTimeMillis() + jittered(Duration.ofMinutes(plan.intervalMinutes()).toMillis()));
+            }
+        }
+    }
+
+    private long jittered(long intervalMs) {
+        double factor = 1 + (ThreadLocalRandom.current().nextDouble() * 2 - 1) * jitter;
+        return Math.round(intervalMs * factor);
+    }
+
+    private static int positiveOr(Integer value, int fallback) {
+        return value != null && value > 0 ? value : fallback;
+    }
+
+    private int scheduledCount() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    /**
+     * The scheduling settings of a source; a change triggers a reschedule.
+     */
+    private record SourceSchedule(String name, int intervalMinutes, int minIntervalMinutes, int maxIntervalMinutes) {
+    }
+}
@@ -0,0 +1,173 @@
+package com.deroahe.gimmescrapes.orchestrator.service;
+
+import com.deroahe.gimmescrapes.commons.dto.ListingFacetsDto;
+import com.deroahe.gimmescrapes.commons.dto.ListingFilterMetadataDto;
+import com.deroahe.gimmescrapes.commons.repository.ListingRepository;
+import com.deroahe.gimmescrapes.commons.repository.projection.ListingFacetView;
+import com.deroahe.gimmescrapes.orchestrator.facet.ListingFacetIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serves filter metadata and facet counts from an in-memory {@link ListingFacetIndex}.
+ * The index is kept current by periodically pulling listings changed since the last
+ * refresh, so the database only sees a keyset scan of recent changes. Delisted listings
+ * arrive through the same scan and are removed; hard-deleted rows leave no trace to scan,
+ * so a less frequent reconcile drops indexed IDs that no longer exist.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ListingFacetService {
+
+    private final ListingRepository listingRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final ListingFacetIndex index = new ListingFacetIndex();
+
+    /**
+     * Serializes refreshes across the batched listing reads. A monitor held over JDBC I/O
+     * would pin the carrier when the scheduler runs on virtual threads.
+     */
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    @Value("${gs.facets.refresh-batch-size:5000}")
+    private int batchSize;
+
+    /**
+     * Each refresh re-reads this window behind the watermark, so rows committed late by
+     * long-running worker transactions (with an earlier updated_at) are still picked up.
+     */
+    @Value("${gs.facets.refresh-overlap:PT2M}")
+    private Duration overlap;
+
+    private LocalDateTime watermarkUpdatedAt = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("gs.facets.index.listings", index, ListingFacetIndex::size)
+                .description("Listings held in the in-memory facet index")
+                .register(meterRegistry);
+        Gauge.builder("gs.facets.index.bytes.per.listing", index,
+                        i -> i.size() == 0 ? 0 : (double) i.estimatedBytes() / i.size())
+                .description("Estimated heap bytes per listing in the facet index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Pulls listings changed since the previous refresh into the index.
+     * The first run loads the whole table in batches.
+     */
+    @Scheduled(fixedDelayString = "${gs.facets.refresh-interval-ms:30000}")
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            applyChanges();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void applyChanges() {
+        long startTime = System.currentTimeMillis();
+        int applied = 0;
+
+        LocalDateTime cursorUpdatedAt = watermarkUpdatedAt.minus(overlap);
+        long cursorId = 0L;
+
+        List<ListingFacetView> batch;
+        do {
+            batch = listingRepository.findFacetViewsChangedAfter(
+                    cursorUpdatedAt, cursorId, PageRequest.of(0, batchSize));
+            for (ListingFacetView view : batch) {
+                if (view.getDelistedAt() != null) {
+                    index.remove(view.getId());
+                } else {
+                    index.upsert(view);
+                }
+            }
+            if (!batch.isEmpty()) {
+                ListingFacetView last = batch.get(batch.size() - 1);
+                cursorUpdatedAt = last.getUpdatedAt();
+                cursorId = last.getId();
+                applied += batch.size();
+            }
+        } while (batch.size() == batchSize);
+
+        if (cursorUpdatedAt.isAfter(watermarkUpdatedAt)) {
+            watermarkUpdatedAt = cursorUpdatedAt;
+        }
+
+        if (applied > 0) {
+            log.debug("Facet index refreshed: {} listings applied in {}ms, {} indexed, ~{} bytes/listing",
+                    applied, System.currentTimeMillis() - startTime, index.size(),
+                    index.size() == 0 ? 0 : index.estimatedBytes() / index.size());
+        }
+    }
+
+    /**
+     * Removes listings that were deleted from the database since they were indexed.
+     */
+    @Scheduled(fixedDelayString = "${gs.facets.reconcile-interval-ms:600000}",
+            initialDelayString = "${gs.facets.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        refreshLock.lock();
+        try {
+            int removed = index.retainAll(new HashSet<>(listingRepository.findAllActiveIds()));
+            if (removed > 0) {
+                log.info("Facet index reconciled: {} deleted listings removed", removed);
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the filter options available across all listings.
+     *
+     * @param currency currency whose price range is reported
+     * @return filter metadata
+     */
+    public ListingFilterMetadataDto getFilterMetadata(String currency) {
+        ListingFacetIndex.FilterMetadata metadata = index.metadata(currency);
+        return ListingFilterMetadataDto.builder()
+                .cities(metadata.cities())
+                .sources(metadata.sources())
+                .priceRange(new ListingFilterMetadataDto.Range(metadata.priceMin(), metadata.priceMax()))
+                .surfaceRange(new ListingFilterMetadataDto.Range(metadata.surfaceMin(), metadata.surfaceMax()))
+                .roomOptions(metadata.roomOptions())
+                .build();
+    }
+
+    /**
+     * Computes facet counts for a filter selection.
+     *
+     * @param query the filter selection
+     * @return facet counts
+     */
+    public ListingFacetsDto getFacets(ListingFacetIndex.FacetQuery query) {
+        ListingFacetIndex.FacetCounts counts = index.facets(query);
+        return ListingFacetsDto.builder()
+                .total(counts.total())
+                .cities(counts.cities())
+                .neighborhoods(counts.neighborhoods())
+                .sources(counts.sources())
+                .rooms(counts.rooms())
+                .amenities(counts.amenities())
+                .build();
+    }
+}
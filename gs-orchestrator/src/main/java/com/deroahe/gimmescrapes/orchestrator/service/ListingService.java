@@ -0,0 +1,199 @@
+package com.deroahe.gimmescrapes.orchestrator.service;
+
+import com.deroahe.gimmescrapes.commons.config.CacheConstants;
+import com.deroahe.gimmescrapes.commons.dto.ListingFilter;
+import com.deroahe.gimmescrapes.commons.dto.ListingSummaryDto;
+import com.deroahe.gimmescrapes.commons.dto.PageDto;
+import com.deroahe.gimmescrapes.commons.model.Listing;
+import com.deroahe.gimmescrapes.commons.repository.ListingRepository;
+import com.deroahe.gimmescrapes.commons.util.GeoCell;
+import com.deroahe.gimmescrapes.orchestrator.cache.ListingCacheService;
+import com.deroahe.gimmescrapes.orchestrator.mapper.ListingMapper;
+import com.deroahe.gimmescrapes.orchestrator.specification.ListingSpecifications;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read-side service for listings exposed through the public API.
+ */
+@Slf4j
+@Service
+public class ListingService {
+
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.DESC, "lastScrapedAt");
+
+    private final ListingRepository listingRepository;
+    private final ListingMapper listingMapper;
+    private final ListingCacheService listingCacheService;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ListingService(ListingRepository listingRepository,
+                          ListingMapper listingMapper,
+                          ListingCacheService listingCacheService,
+                          PlatformTransactionManager transactionManager) {
+        this.listingRepository = listingRepository;
+        this.listingMapper = listingMapper;
+        this.listingCacheService = listingCacheService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Finds a page of listings matching a filter, served from the cache when possible.
+     *
+     * @param filter the filter criteria
+     * @param page the page number (0-based)
+     * @param size the page size
+     * @return page of matching listings
+     */
+    public PageDto<ListingSummaryDto> findListings(ListingFilter filter, int page, int size) {
+        String key = CacheConstants.LISTINGS_PAGE_PREFIX + page + ":" + size + ":" + filter.hash();
+        return listingCacheService.getOrLoad("listings.page", key, tagsFor(filter),
+                listingCacheService.type(PageDto.class, ListingSummaryDto.class),
+                () -> readOnlyTransaction.execute(status -> PageDto.from(
+                        listingRepository.findAll(ListingSpecifications.matching(filter),
+                                PageRequest.of(page, size, toSort(filter.getSort()))),
+                        listingMapper::toSummary)));
+    }
+
+    /**
+     * Counts listings matching a filter, served from the cache when possible.
+     *
+     * @param filter the filter criteria
+     * @return number of matching listings
+     */
+    public long countListings(ListingFilter filter) {
+        String key = CacheConstants.LISTINGS_COUNT_PREFIX + filter.hash();
+        return listingCacheService.getOrLoad("listings.count", key, tagsFor(filter),
+                listingCacheService.type(Long.class),
+                () -> listingRepository.count(ListingSpecifications.matching(filter)));
+    }
+
+    /**
+     * Searches listings by free text over title and description.
+     *
+     * @param query the search query
+     * @param page the page number (0-based)
+     * @param size the page size
+     * @return page of listings ordered by relevance
+     */
+    @Transactional(readOnly = true)
+    public PageDto<ListingSummaryDto> search(String query, int page, int size) {
+        log.debug("Full-text search: query='{}', page={}, size={}", query, page, size);
+        Page<Long> ids = listingRepository.searchFullTextIds(query.trim(), PageRequest.of(page, size));
+        Map<Long, Listing> byId = listingRepository.findAllWithSourceByIdIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(Listing::getId, Function.identity()));
+        // Keep the rank order of the ID page
+        List<Listing> ranked = ids.getContent().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return PageDto.from(new PageImpl<>(ranked, ids.getPageable(), ids.getTotalElements()),
+                listingMapper::toSummary);
+    }
+
+    /**
+     * Finds listings within a radius of a point, nearest first.
+     *
+     * @param latitude center latitude
+     * @param longitude center longitude
+     * @param radiusKm search radius in kilometers
+     * @param limit maximum number of listings returned
+     * @return listings within the radius ordered by distance
+     */
+    @Transactional(readOnly = true)
+    public List<ListingSummaryDto> findNearby(double latitude, double longitude, double radiusKm, int limit) {
+        double dLat = GeoCell.kmToLatitudeDegrees(radiusKm);
+        double dLon = GeoCell.kmToLongitudeDegrees(radiusKm, latitude);
+        double minLon = longitude - dLon;
+        double maxLon = longitude + dLon;
+        if (dLon >= 180.0 || latitude + dLat >= 90.0 || latitude - dLat <= -90.0) {
+            // The circle wraps the globe or covers a pole, where every longitude is within reach
+            minLon = -180.0;
+            maxLon = 180.0;
+        } else if (minLon < -180.0) {
+            minLon += 360.0;
+        } else if (maxLon > 180.0) {
+            maxLon -= 360.0;
+        }
+
+        List<Listing> candidates = listingRepository.findAll(
+                ListingSpecifications.withinBoundingBox(latitude - dLat, minLon, latitude + dLat, maxLon)
+                        .and(ListingSpecifications.orderByDistanceFrom(latitude, longitude)),
+                PageRequest.of(0, limit)
+        ).getContent();
+
+        // The box corners lie outside the circle; trim them with the exact distance
+        return candidates.stream()
+                .filter(listing -> GeoCell.distanceKm(latitude, longitude,
+                        listing.getLatitude().doubleValue(), listing.getLongitude().doubleValue()) <= radiusKm)
+                .map(listingMapper::toSummary)
+                .toList();
+    }
+
+    /**
+     * Finds listings inside a map viewport; a west edge east of the east edge crosses the antimeridian.
+     *
+     * @param minLat south edge
+     * @param minLon west edge
+     * @param maxLat north edge
+     * @param maxLon east edge
+     * @param limit maximum number of listings returned
+     * @return listings inside the viewport
+     */
+    @Transactional(readOnly = true)
+    public List<ListingSummaryDto> findInViewport(double minLat, double minLon, double maxLat, double maxLon,
+                                                  int limit) {
+        return listingRepository.findAll(
+                ListingSpecifications.withinBoundingBox(minLat, minLon, maxLat, maxLon),
+                PageRequest.of(0, limit)
+        ).getContent().stream()
+                .map(listingMapper::toSummary)
+                .toList();
+    }
+
+    /**
+     * Tags an entry by the sources and cities it is restricted to; a scrape of any other
+     * source or city cannot change it. Unrestricted queries depend on every listing.
+     */
+    private Set<String> tagsFor(ListingFilter filter) {
+        Set<String> tags = new LinkedHashSet<>();
+        if (filter.getSources() != null) {
+            filter.getSources().forEach(source -> tags.add(CacheConstants.sourceTag(source)));
+        }
+        if (filter.getCities() != null) {
+            filter.getCities().forEach(city -> tags.add(CacheConstants.cityTag(city)));
+        }
+        if (tags.isEmpty()) {
+            tags.add(CacheConstants.TAG_ALL);
+        }
+        return tags;
+    }
+
+    private Sort toSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return DEFAULT_SORT;
+        }
+        String[] parts = sort.split(",");
+        Sort.Direction direction = parts.length > 1 && parts[1].equalsIgnoreCase("asc")
+                ? Sort.Direction.ASC
+                : Sort.Direction.DESC;
+        return Sort.by(direction, parts[0]).and(Sort.by("id"));
+    }
+}
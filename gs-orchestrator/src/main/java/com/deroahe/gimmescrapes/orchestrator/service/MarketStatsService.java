@@ -0,0 +1,102 @@
+package com.deroahe.gimmescrapes.orchestrator.service;
+
+import com.deroahe.gimmescrapes.commons.dto.MarketStatsDto;
+import com.deroahe.gimmescrapes.commons.model.MarketStat;
+import com.deroahe.gimmescrapes.commons.repository.MarketStatRepository;
+import com.deroahe.gimmescrapes.commons.util.PriceDigests;
+import com.tdunning.math.stats.MergingDigest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reads incrementally maintained market statistics.
+ * Percentiles come from merging the stored per-day t-digests.
+ */
+@Service
+@RequiredArgsConstructor
+public class MarketStatsService {
+
+    private final MarketStatRepository marketStatRepository;
+
+    /**
+     * Returns daily and total figures for a city, optionally narrowed to one neighborhood.
+     *
+     * @param city the city
+     * @param neighborhood the neighborhood, or null for the whole city
+     * @param from first day (inclusive)
+     * @param to last day (inclusive)
+     * @return the market statistics
+     */
+    @Transactional(readOnly = true)
+    public MarketStatsDto getStats(String city, String neighborhood, LocalDate from, LocalDate to) {
+        List<MarketStat> rows = neighborhood == null
+                ? marketStatRepository.findByCityBetween(city, from, to)
+                : marketStatRepository.findByNeighborhoodBetween(city, neighborhood, from, to);
+
+        Map<LocalDate, List<MarketStat>> byDay = new TreeMap<>();
+        for (MarketStat row : rows) {
+            byDay.computeIfAbsent(row.getStatDate(), d -> new ArrayList<>()).add(row);
+        }
+
+        List<MarketStatsDto.DailyFigures> days = byDay.entrySet().stream()
+                .map(e -> MarketStatsDto.DailyFigures.builder()
+                        .date(e.getKey())
+                        .figures(aggregate(e.getValue()))
+                        .build())
+                .toList();
+
+        return MarketStatsDto.builder()
+                .city(city)
+                .neighborhood(neighborhood)
+                .from(from)
+                .to(to)
+                .total(aggregate(rows))
+                .days(days)
+                .build();
+    }
+
+    private MarketStatsDto.Figures aggregate(Collection<MarketStat> rows) {
+        long inventory = 0;
+        long newCount = 0;
+        long updated = 0;
+        long priceChanged = 0;
+        long priceCount = 0;
+        BigDecimal priceSum = BigDecimal.ZERO;
+        MergingDigest digest = PriceDigests.create();
+
+        for (MarketStat row : rows) {
+            inventory += row.getInventoryCount();
+            newCount += row.getNewCount();
+            updated += row.getUpdatedCount();
+            priceChanged += row.getPriceChangedCount();
+            priceCount += row.getPricePerSqmCount();
+            priceSum = priceSum.add(row.getPricePerSqmSum());
+            if (row.getPricePerSqmDigest() != null) {
+                digest.add(PriceDigests.fromBytes(row.getPricePerSqmDigest()));
+            }
+        }
+
+        return MarketStatsDto.Figures.builder()
+                .inventoryCount(inventory)
+                .newCount(newCount)
+                .updatedCount(updated)
+                .priceChangedCount(priceChanged)
+                .avgPricePerSqm(priceCount == 0 ? null
+                        : priceSum.divide(BigDecimal.valueOf(priceCount), 2, RoundingMode.HALF_UP))
+                .medianPricePerSqm(PriceDigests.quantile(digest, 0.5))
+                .p25PricePerSqm(PriceDigests.quantile(digest, 0.25))
+                .p75PricePerSqm(PriceDigests.quantile(digest, 0.75))
+                .p90PricePerSqm(PriceDigests.quantile(digest, 0.9))
+                .build();
+    }
+}
@@ -3,25 +3,38 @@ package com.deroahe.gimmescrapes.orchestrator.service;
 import com.deroahe.gimmescrapes.commons.config.RabbitMQConstants;
 import com.deroahe.gimmescrapes.commons.dto.EmailJobMessage;
 import com.deroahe.gimmescrapes.commons.dto.ScrapeJobMessage;
+import com.deroahe.gimmescrapes.commons.enums.TriggerType;
+import com.deroahe.gimmescrapes.orchestrator.messaging.BulkPublishResult;
+import com.deroahe.gimmescrapes.orchestrator.messaging.BulkPublisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MessagePublisherService {
 
     private final RabbitTemplate rabbitTemplate;
+    private final BulkPublisher bulkPublisher;
 
+    /**
+     * Publishes a scrape job. Manual triggers go to the express queue so an operator's request
+     * is picked up ahead of the scheduled backlog.
+     *
+     * @param message the scrape job message
+     */
     public void publishScrapeJob(ScrapeJobMessage message) {
-        log.info("Publishing scrape job message: jobId={}, sourceId={}, sourceName={}",
-                message.getJobId(), message.getSourceId(), message.getSourceName());
+        log.info("Publishing scrape job message: jobId={}, sourceId={}, sourceName={}, triggeredBy={}",
+                message.getJobId(), message.getSourceId(), message.getSourceName(), message.getTriggeredBy());
 
         rabbitTemplate.convertAndSend(
                 RabbitMQConstants.SCRAPE_EXCHANGE,
-                RabbitMQConstants.SCRAPE_ROUTING_KEY,
+                scrapeRoutingKey(message),
                 message
         );
 
@@ -40,4 +53,32 @@ public class MessagePublisherService {
 
         log.debug("Email job message published successfully");
     }
+
+    /**
+     * Publishes many scrape jobs with publisher confirms, e.g. when every source is triggered.
+     *
+     * @param messages the scrape job messages
+     * @return future completed when every message is confirmed or has failed
+     */
+    public CompletableFuture<BulkPublishResult<ScrapeJobMessage>> publishScrapeJobs(List<ScrapeJobMessage> messages) {
+        log.info("Publishing {} scrape job messages", messages.size());
+        return bulkPublisher.publish(RabbitMQConstants.SCRAPE_EXCHANGE, messages, this::scrapeRoutingKey);
+    }
+
+    /**
+     * Publishes many email jobs with publisher confirms, e.g. a digest fan-out.
+     *
+     * @param messages the email job messages
+     * @return future completed when every message is confirmed or has failed
+     */
+    public CompletableFuture<BulkPublishResult<EmailJobMessage>> publishEmailJobs(List<EmailJobMessage> messages) {
+        log.info("Publishing {} email job messages", messages.size());
+        return bulkPublisher.publish(RabbitMQConstants.EMAIL_EXCHANGE, messages, message -> RabbitMQConstants.EMAIL_ROUTING_KEY);
+    }
+
+    private String scrapeRoutingKey(ScrapeJobMessage message) {
+        return message.getTriggeredBy() == TriggerType.MANUAL
+                ? RabbitMQConstants.SCRAPE_EXPRESS_ROUTING_KEY
+                : RabbitMQConstants.SCRAPE_ROUTING_KEY;
+    }
 }
@@ -0,0 +1,173 @@
+package com.deroahe.gimmescrapes.orchestrator.service;
+
+import com.deroahe.gimmescrapes.commons.dto.ScrapeJobMessage;
+import com.deroahe.gimmescrapes.commons.enums.ScrapingJobStatus;
+import com.deroahe.gimmescrapes.commons.enums.TriggerType;
+import com.deroahe.gimmescrapes.commons.model.ScrapingJob;
+import com.deroahe.gimmescrapes.commons.model.Source;
+import com.deroahe.gimmescrapes.commons.repository.ScrapingJobRepository;
+import com.deroahe.gimmescrapes.commons.repository.SourceRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates and dispatches scrape jobs, coalescing duplicate triggers.
+ * <p>
+ * Triggers for one source are serialized by a row lock on the source. If the source already
+ * has a queued or running job, the trigger is counted on that job instead of creating a second
+ * one. Otherwise a PENDING job is created and its message is published after commit, so a
+ * worker never receives a job id that is not yet visible. A job whose message could not be
+ * published is marked FAILED; one left PENDING by a crash between commit and publish stops
+ * absorbing triggers after {@code gs.scrape.publish-timeout}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ScrapeTriggerService {
+
+    private final SourceRepository sourceRepository;
+    private final ScrapingJobRepository scrapingJobRepository;
+    private final MessagePublisherService messagePublisherService;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Unfinished jobs older than this are considered lost and no longer absorb triggers.
+     */
+    @Value("${gs.scrape.coalesce-window:PT2H}")
+    private Duration coalesceWindow;
+
+    /**
+     * PENDING jobs older than this were most likely never published and no longer absorb triggers.
+     * Any duplicate this lets through is coalesced by the worker when it starts the job.
+     */
+    @Value("${gs.scrape.publish-timeout:PT5M}")
+    private Duration publishTimeout;
+
+    /**
+     * Triggers a scrape of a source.
+     *
+     * @param sourceId the source ID
+     * @param triggeredBy what triggered the scrape
+     * @return the job that will serve the trigger, and whether it already existed
+     */
+    @Transactional
+    public TriggerResult trigger(Long sourceId, TriggerType triggeredBy) {
+        List<ScrapeJobMessage> messages = new ArrayList<>(1);
+        TriggerResult result = trigger(sourceId, triggeredBy, messages);
+        afterCommit(() -> messages.forEach(message -> {
+            try {
+                messagePublisherService.publishScrapeJob(message);
+            } catch (AmqpException e) {
+                log.error("Failed to publish scrape job {}: {}", message.getJobId(), e.getMessage());
+                failUnpublished(List.of(message), e.getMessage());
+            }
+        }));
+        return result;
+    }
+
+    /**
+     * Triggers a scrape of every enabled source. The new jobs' messages are published
+     * together, with publisher confirms, once the jobs are committed.
+     *
+     * @param triggeredBy what triggered the scrapes
+     * @return one result per enabled source
+     */
+    @Transactional
+    public List<TriggerResult> triggerAll(TriggerType triggeredBy) {
+        List<ScrapeJobMessage> messages = new ArrayList<>();
+        // Lock sources in ID order so concurrent trigger-all calls cannot deadlock
+        List<TriggerResult> results = sourceRepository.findAllEnabled().stream()
+                .map(Source::getId)
+                .sorted()
+                .map(sourceId -> trigger(sourceId, triggeredBy, messages))
+                .toList();
+        afterCommit(() -> messagePublisherService.publishScrapeJobs(messages)
+                .thenAccept(published -> {
+                    if (!published.allConfirmed()) {
+                        log.error("{} of {} scrape job messages were not confirmed; failing their jobs",
+                                published.failed().size(), messages.size());
+                        failUnpublished(published.failed(), "Scrape job message was not confirmed by the broker");
+                    }
+                }));
+        return results;
+    }
+
+    /**
+     * Coalesces the trigger or creates a PENDING job, collecting the message to publish after commit.
+     */
+    private TriggerResult trigger(Long sourceId, TriggerType triggeredBy, List<ScrapeJobMessage> messages) {
+        Source source = sourceRepository.findByIdForUpdate(sourceId)
+                .orElseThrow(() -> new IllegalArgumentException("Source not found: " + sourceId));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ScrapingJob> inFlight = scrapingJobRepository.findInFlight(sourceId,
+                now.minus(coalesceWindow), now.minus(publishTimeout));
+        if (!inFlight.isEmpty()) {
+            ScrapingJob job = inFlight.get(0);
+            scrapingJobRepository.incrementCoalescedTriggers(job.getId());
+            meterRegistry.counter("gs.scrape.triggers", "source", source.getName(),
+                    "triggeredBy", triggeredBy.name(), "outcome", "coalesced").increment();
+            log.info("Coalesced {} trigger for source {} into in-flight job {} ({})",
+                    triggeredBy, source.getName(), job.getId(), job.getStatus());
+            return new TriggerResult(job, true);
+        }
+
+        ScrapingJob job = scrapingJobRepository.save(ScrapingJob.builder()
+                .source(source)
+                .status(ScrapingJobStatus.PENDING)
+                .build());
+
+        ScrapeJobMessage message = ScrapeJobMessage.builder()
+                .jobId(job.getId())
+                .sourceId(source.getId())
+                .sourceName(source.getName())
+                .triggeredBy(triggeredBy)
+                .timestamp(LocalDateTime.now())
+                .build();
+        messages.add(message);
+
+        meterRegistry.counter("gs.scrape.triggers", "source", source.getName(),
+                "triggeredBy", triggeredBy.name(), "outcome", "dispatched").increment();
+        return new TriggerResult(job, false);
+    }
+
+    private void failUnpublished(List<ScrapeJobMessage> messages, String reason) {
+        List<Long> jobIds = messages.stream().map(ScrapeJobMessage::getJobId).toList();
+        try {
+            Integer failed = transactionTemplate.execute(status -> scrapingJobRepository.failUnpublished(jobIds, reason));
+            log.warn("Marked {} unpublished scrape job(s) failed: {}", failed, jobIds);
+        } catch (RuntimeException e) {
+            log.error("Failed to mark unpublished scrape jobs {} failed: {}", jobIds, e.getMessage());
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * @param job the job serving the trigger
+     * @param coalesced true if the trigger was folded into an existing job
+     */
+    public record TriggerResult(ScrapingJob job, boolean coalesced) {
+    }
+}
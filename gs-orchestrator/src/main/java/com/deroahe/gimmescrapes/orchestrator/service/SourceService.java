@@ -0,0 +1,41 @@
+package com.deroahe.gimmescrapes.orchestrator.service;
+
+import com.deroahe.gimmescrapes.commons.config.CacheConstants;
+import com.deroahe.gimmescrapes.commons.dto.SourceDto;
+import com.deroahe.gimmescrapes.commons.repository.SourceRepository;
+import com.deroahe.gimmescrapes.orchestrator.cache.ListingCacheService;
+import com.deroahe.gimmescrapes.orchestrator.mapper.SourceMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Read-side service for real estate sources exposed through the public API.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SourceService {
+
+    private final SourceRepository sourceRepository;
+    private final SourceMapper sourceMapper;
+    private final ListingCacheService listingCacheService;
+
+    /**
+     * Returns all sources, served from the cache when possible.
+     * The entry depends on every scrape (last scrape time), so it is tagged with "all".
+     *
+     * @return all sources ordered by name
+     */
+    public List<SourceDto> findAll() {
+        return listingCacheService.getOrLoad("sources", CacheConstants.SOURCES_KEY, Set.of(CacheConstants.TAG_ALL),
+                listingCacheService.type(List.class, SourceDto.class),
+                () -> sourceRepository.findAll(Sort.by("name")).stream()
+                        .map(sourceMapper::toDto)
+                        .toList());
+    }
+}
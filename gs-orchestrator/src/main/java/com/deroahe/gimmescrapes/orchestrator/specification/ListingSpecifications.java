@@ -0,0 +1,159 @@
+package com.deroahe.gimmescrapes.orchestrator.specification;
+
+import com.deroahe.gimmescrapes.commons.dto.ListingFilter;
+import com.deroahe.gimmescrapes.commons.enums.Amenity;
+import com.deroahe.gimmescrapes.commons.model.Listing;
+import com.deroahe.gimmescrapes.commons.util.GeoCell;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reusable JPA specifications for dynamic listing queries.
+ */
+public final class ListingSpecifications {
+
+    /**
+     * Upper bound on cell ranges per bounding box; each range is one btree index scan.
+     */
+    private static final int MAX_COVERING_CELLS = 16;
+
+    private ListingSpecifications() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Active listings inside a bounding box. The geo cell ranges let the {@code geo_cell} index
+     * narrow the scan; the exact coordinate bounds then trim the over-approximation.
+     * A west edge east of the east edge means the box crosses the antimeridian.
+     */
+    public static Specification<Listing> withinBoundingBox(double minLat, double minLon,
+                                                           double maxLat, double maxLon) {
+        return (root, query, cb) -> {
+            List<long[]> ranges = GeoCell.coveringRanges(minLat, minLon, maxLat, maxLon, MAX_COVERING_CELLS);
+            Expression<Long> geoCell = root.get("geoCell");
+            Predicate[] cellPredicates = ranges.stream()
+                    .map(range -> cb.between(geoCell, range[0], range[1]))
+                    .toArray(Predicate[]::new);
+
+            Expression<BigDecimal> longitude = root.get("longitude");
+            Predicate longitudeBounds = minLon <= maxLon
+                    ? cb.between(longitude, BigDecimal.valueOf(minLon), BigDecimal.valueOf(maxLon))
+                    : cb.or(cb.ge(longitude, BigDecimal.valueOf(minLon)), cb.le(longitude, BigDecimal.valueOf(maxLon)));
+
+            return cb.and(
+                    cb.isNull(root.get("delistedAt")),
+                    cb.or(cellPredicates),
+                    cb.between(root.get("latitude"), BigDecimal.valueOf(minLat), BigDecimal.valueOf(maxLat)),
+                    longitudeBounds
+            );
+        };
+    }
+
+    /**
+     * Orders results by approximate (equirectangular) distance from a point.
+     * Good enough for ranking within a radius of a few tens of kilometers.
+     * Longitude differences are taken the short way round, across the antimeridian if need be.
+     */
+    public static Specification<Listing> orderByDistanceFrom(double latitude, double longitude) {
+        return (root, query, cb) -> {
+            BigDecimal lonScale = BigDecimal.valueOf(Math.cos(Math.toRadians(latitude)));
+            Expression<BigDecimal> dLat = cb.diff(root.get("latitude"), BigDecimal.valueOf(latitude));
+            Expression<BigDecimal> rawDLon = cb.abs(
+                    cb.diff(root.<BigDecimal>get("longitude"), BigDecimal.valueOf(longitude)));
+            Expression<BigDecimal> wrappedDLon = cb.<BigDecimal>selectCase()
+                    .when(cb.gt(rawDLon, 180), cb.diff(BigDecimal.valueOf(360), rawDLon))
+                    .otherwise(rawDLon);
+            Expression<BigDecimal> dLon = cb.prod(wrappedDLon, lonScale);
+            query.orderBy(cb.asc(cb.sum(cb.prod(dLat, dLat), cb.prod(dLon, dLon))));
+            return null;
+        };
+    }
+
+    /**
+     * Active listings matching every restriction of a filter. Price bounds only match listings
+     * priced in the filter currency, since prices are not converted.
+     */
+    public static Specification<Listing> matching(ListingFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = restrictions(root, cb, filter);
+            if (filter.isCollapseDuplicates()) {
+                // The group representative is its matching listing with the smallest id, so a
+                // group stays visible when the listing whose id labels it is delisted or is
+                // filtered out (e.g. another source, or a price outside the range)
+                Subquery<Long> smallerMatching = query.subquery(Long.class);
+                Root<Listing> other = smallerMatching.from(Listing.class);
+                List<Predicate> otherPredicates = restrictions(other, cb, filter);
+                otherPredicates.add(cb.equal(other.get("listingGroupId"), root.get("listingGroupId")));
+                otherPredicates.add(cb.lessThan(other.get("id"), root.get("id")));
+                smallerMatching.select(other.get("id")).where(otherPredicates.toArray(Predicate[]::new));
+                predicates.add(cb.or(
+                        cb.isNull(root.get("listingGroupId")),
+                        cb.not(cb.exists(smallerMatching))));
+            }
+
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * The filter's restrictions on one listing root, without duplicate collapsing.
+     */
+    private static List<Predicate> restrictions(Root<Listing> root, CriteriaBuilder cb, ListingFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.isNull(root.get("delistedAt")));
+
+        if (isPresent(filter.getCities())) {
+            predicates.add(root.get("city").in(filter.getCities()));
+        }
+        if (isPresent(filter.getNeighborhoods())) {
+            predicates.add(root.get("neighborhood").in(filter.getNeighborhoods()));
+        }
+        if (isPresent(filter.getSources())) {
+            predicates.add(root.join("source").get("name").in(filter.getSources()));
+        }
+        if (isPresent(filter.getRooms())) {
+            predicates.add(root.get("rooms").in(filter.getRooms()));
+        }
+        if (filter.getPriceMin() != null || filter.getPriceMax() != null) {
+            predicates.add(cb.equal(root.get("currency"), filter.getCurrency()));
+        }
+        if (filter.getPriceMin() != null) {
+            predicates.add(cb.ge(root.get("price"), BigDecimal.valueOf(filter.getPriceMin())));
+        }
+        if (filter.getPriceMax() != null) {
+            predicates.add(cb.le(root.get("price"), BigDecimal.valueOf(filter.getPriceMax())));
+        }
+        if (filter.getSurfaceMin() != null) {
+            predicates.add(cb.ge(root.get("surfaceSqm"), BigDecimal.valueOf(filter.getSurfaceMin())));
+        }
+        if (filter.getSurfaceMax() != null) {
+            predicates.add(cb.le(root.get("surfaceSqm"), BigDecimal.valueOf(filter.getSurfaceMax())));
+        }
+        if (isPresent(filter.getAmenities())) {
+            predicates.add(hasAllAmenities(root.get("featuresMask"), filter.getAmenities()));
+        }
+        return predicates;
+    }
+
+    /**
+     * "Has all of" as membership in the superset masks, so the {@code features_mask} index applies.
+     */
+    private static Predicate hasAllAmenities(Expression<Long> featuresMask, Collection<Amenity> amenities) {
+        long[] masks = Amenity.supersetMasks(Amenity.maskOf(amenities));
+        return featuresMask.in(Arrays.stream(masks).boxed().toList());
+    }
+
+    private static boolean isPresent(Collection<?> values) {
+        return values != null && !values.isEmpty();
+    }
+}
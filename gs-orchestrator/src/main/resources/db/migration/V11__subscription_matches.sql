@@ -0,0 +1,15 @@
+-- Listing changes matched to subscriptions, pending notification
+CREATE TABLE IF NOT EXISTS subscription_matches (
+    id BIGSERIAL PRIMARY KEY,
+    subscription_id BIGINT NOT NULL REFERENCES email_subscriptions (id) ON DELETE CASCADE,
+    listing_id BIGINT NOT NULL REFERENCES listings (id) ON DELETE CASCADE,
+    change_type VARCHAR(20) NOT NULL,
+    matched_at TIMESTAMP NOT NULL,
+    notified_at TIMESTAMP,
+    CONSTRAINT uk_subscription_matches UNIQUE (subscription_id, listing_id, change_type)
+);
+
+CREATE INDEX IF NOT EXISTS idx_subscription_matches_pending ON subscription_matches (subscription_id, notified_at);
+
+-- Incremental polling of changed subscriptions by the matching engine
+CREATE INDEX IF NOT EXISTS idx_email_subscriptions_updated_id ON email_subscriptions (updated_at, id);
@@ -0,0 +1,7 @@
+-- Duplicate triggers folded into an in-flight job
+ALTER TABLE scraping_jobs ADD COLUMN IF NOT EXISTS coalesced_triggers INTEGER NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS idx_scraping_jobs_source_status ON scraping_jobs (source_id, status);
+
+-- Highest scrape lease fencing token that has written listings for the source
+ALTER TABLE sources ADD COLUMN IF NOT EXISTS scrape_fencing_token BIGINT;
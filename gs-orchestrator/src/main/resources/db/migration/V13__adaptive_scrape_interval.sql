@@ -0,0 +1,6 @@
+-- Bounds for the adaptive scrape interval; NULL falls back to gs.scheduler.adaptive defaults
+ALTER TABLE sources ADD COLUMN IF NOT EXISTS min_scrape_interval_minutes INTEGER;
+ALTER TABLE sources ADD COLUMN IF NOT EXISTS max_scrape_interval_minutes INTEGER;
+
+-- Keyset scan of finished jobs feeding the change-rate model
+CREATE INDEX IF NOT EXISTS idx_scraping_jobs_completed_id ON scraping_jobs (completed_at, id);
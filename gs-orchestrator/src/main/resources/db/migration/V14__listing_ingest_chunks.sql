@@ -0,0 +1,11 @@
+-- Jobs whose listings are upserted by ingest workers, one chunk at a time
+ALTER TABLE scraping_jobs ADD COLUMN IF NOT EXISTS chunks_total INTEGER;
+ALTER TABLE scraping_jobs ADD COLUMN IF NOT EXISTS chunks_done INTEGER NOT NULL DEFAULT 0;
+
+-- Chunks already ingested, so redelivered chunks are not counted twice
+CREATE TABLE IF NOT EXISTS scraping_job_chunks (
+    job_id BIGINT NOT NULL REFERENCES scraping_jobs (id) ON DELETE CASCADE,
+    chunk INTEGER NOT NULL,
+    ingested_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (job_id, chunk)
+);
@@ -0,0 +1,5 @@
+-- Digest runs lease the matches they send, so parallel workers never send the same digest,
+-- and matches whose digest keeps failing are parked instead of retried forever
+ALTER TABLE subscription_matches ADD COLUMN IF NOT EXISTS attempts INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE subscription_matches ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMP;
+ALTER TABLE subscription_matches ADD COLUMN IF NOT EXISTS parked_at TIMESTAMP;
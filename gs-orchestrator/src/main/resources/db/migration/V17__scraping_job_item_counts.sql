@@ -0,0 +1,5 @@
+-- Jobs created by the trigger service were inserted with NULL item counts, which stay NULL
+-- when ingest chunks add to them
+UPDATE scraping_jobs SET items_scraped = 0 WHERE items_scraped IS NULL;
+UPDATE scraping_jobs SET items_new = 0 WHERE items_new IS NULL;
+UPDATE scraping_jobs SET items_updated = 0 WHERE items_updated IS NULL;
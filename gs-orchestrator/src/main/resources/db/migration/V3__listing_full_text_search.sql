@@ -0,0 +1,19 @@
+-- Full-text search over listing title and description.
+-- Diacritics are stripped before Romanian stemming, so "centrală" and "centrala" produce the same lexeme.
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+CREATE TEXT SEARCH CONFIGURATION romanian_unaccent (COPY = romanian);
+ALTER TEXT SEARCH CONFIGURATION romanian_unaccent
+    ALTER MAPPING FOR hword, hword_part, word
+    WITH unaccent, romanian_stem;
+
+-- Stored generated column: recomputed by PostgreSQL on every insert/update of the listing row,
+-- so the normal upsert path keeps the index current without a separate reindex job.
+ALTER TABLE listings
+    ADD COLUMN search_vector TSVECTOR
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('romanian_unaccent', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('romanian_unaccent', coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX idx_listings_search_vector ON listings USING GIN (search_vector);
@@ -0,0 +1,25 @@
+-- Z-order (Morton) cell id for spatial lookups; see GeoCell in gs-commons.
+-- Maintained by the Listing entity on every insert/update.
+ALTER TABLE listings ADD COLUMN geo_cell BIGINT;
+
+CREATE INDEX idx_listings_geo_cell ON listings(geo_cell);
+
+-- Backfill rows that already carry coordinates (same encoding as GeoCell.encode)
+CREATE FUNCTION gs_geo_cell(lat NUMERIC, lon NUMERIC) RETURNS BIGINT AS $$
+DECLARE
+    x BIGINT := LEAST(GREATEST(floor((lon + 180) / 360 * 67108864), 0), 67108863);
+    y BIGINT := LEAST(GREATEST(floor((lat + 90) / 180 * 67108864), 0), 67108863);
+    cell BIGINT := 0;
+BEGIN
+    FOR i IN 0..25 LOOP
+        cell := cell | (((x >> i) & 1) << (2 * i)) | (((y >> i) & 1) << (2 * i + 1));
+    END LOOP;
+    RETURN cell;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+UPDATE listings
+SET geo_cell = gs_geo_cell(latitude, longitude)
+WHERE latitude IS NOT NULL AND longitude IS NOT NULL;
+
+DROP FUNCTION gs_geo_cell(NUMERIC, NUMERIC);
@@ -0,0 +1,18 @@
+-- Daily market statistics per city/neighborhood, maintained incrementally by the worker upsert path
+CREATE TABLE market_stats_daily (
+    id BIGSERIAL PRIMARY KEY,
+    stat_date DATE NOT NULL,
+    city VARCHAR(255) NOT NULL,
+    neighborhood VARCHAR(255) NOT NULL DEFAULT '',
+    inventory_count INTEGER NOT NULL DEFAULT 0,
+    new_count INTEGER NOT NULL DEFAULT 0,
+    updated_count INTEGER NOT NULL DEFAULT 0,
+    price_changed_count INTEGER NOT NULL DEFAULT 0,
+    price_per_sqm_sum DECIMAL(18, 2) NOT NULL DEFAULT 0,
+    price_per_sqm_count INTEGER NOT NULL DEFAULT 0,
+    price_per_sqm_digest BYTEA,
+    updated_at TIMESTAMP,
+    CONSTRAINT uk_market_stats_daily_key UNIQUE (stat_date, city, neighborhood)
+);
+
+CREATE INDEX idx_market_stats_daily_city_date ON market_stats_daily(city, stat_date);
@@ -0,0 +1,2 @@
+-- Keyset index for incremental polling of changed listings (facet index refresh)
+CREATE INDEX IF NOT EXISTS idx_listings_updated_id ON listings (updated_at, id);
@@ -0,0 +1,18 @@
+-- Amenity bitmask; bit positions match com.deroahe.gimmescrapes.commons.enums.Amenity
+ALTER TABLE listings ADD COLUMN IF NOT EXISTS features_mask BIGINT NOT NULL DEFAULT 0;
+
+UPDATE listings
+SET features_mask =
+        (CASE WHEN features ->> 'balcony' = 'true' THEN 1 ELSE 0 END)
+      | (CASE WHEN features ->> 'parking' = 'true' THEN 2 ELSE 0 END)
+      | (CASE WHEN features ->> 'elevator' = 'true' THEN 4 ELSE 0 END)
+      | (CASE WHEN features ->> 'central_heating' = 'true' THEN 8 ELSE 0 END)
+      | (CASE WHEN features ->> 'furnished' = 'true' THEN 16 ELSE 0 END)
+      | (CASE WHEN features ->> 'promoted' = 'true' THEN 32 ELSE 0 END),
+    features = NULLIF(
+        features - ARRAY['balcony', 'parking', 'elevator', 'central_heating', 'furnished', 'promoted'],
+        '{}'::jsonb)
+WHERE features IS NOT NULL;
+
+-- Amenity filters are rewritten to features_mask IN (all superset masks), served by this index
+CREATE INDEX IF NOT EXISTS idx_listings_features_mask ON listings (features_mask);
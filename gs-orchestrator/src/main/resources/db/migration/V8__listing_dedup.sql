@@ -0,0 +1,19 @@
+-- Cross-source duplicate detection (MinHash + LSH)
+
+-- Smallest listing id of the duplicate group; NULL until the listing has been clustered
+ALTER TABLE listings ADD COLUMN IF NOT EXISTS listing_group_id BIGINT;
+CREATE INDEX IF NOT EXISTS idx_listings_group ON listings (listing_group_id);
+
+-- MinHash signature per listing (64 x int32, big-endian)
+CREATE TABLE IF NOT EXISTS listing_minhash (
+    listing_id BIGINT PRIMARY KEY REFERENCES listings (id) ON DELETE CASCADE,
+    signature BYTEA NOT NULL
+);
+
+-- One row per (LSH band key, listing); listings sharing a band key are duplicate candidates
+CREATE TABLE IF NOT EXISTS listing_lsh_bands (
+    band_key BIGINT NOT NULL,
+    listing_id BIGINT NOT NULL REFERENCES listings (id) ON DELETE CASCADE,
+    PRIMARY KEY (band_key, listing_id)
+);
+CREATE INDEX IF NOT EXISTS idx_listing_lsh_bands_listing ON listing_lsh_bands (listing_id);
@@ -0,0 +1,4 @@
+-- Listings not seen by their source for a while are marked delisted instead of deleted
+ALTER TABLE listings ADD COLUMN IF NOT EXISTS delisted_at TIMESTAMP;
+CREATE INDEX IF NOT EXISTS idx_listings_source_active_scraped
+    ON listings (source_id, last_scraped_at) WHERE delisted_at IS NULL;
@@ -0,0 +1,229 @@
+package com.deroahe.gimmescrapes.orchestrator.facet;
+
+import com.deroahe.gimmescrapes.commons.enums.Amenity;
+import com.deroahe.gimmescrapes.commons.repository.projection.ListingFacetView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ListingFacetIndexTest {
+
+    private ListingFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ListingFacetIndex();
+        index.upsert(view(1, "storia", "Bucuresti", "Titan", 2, 80_000, 50, Amenity.BALCONY));
+        index.upsert(view(2, "storia", "Bucuresti", "Centru", 3, 150_000, 75, Amenity.BALCONY, Amenity.PARKING));
+        index.upsert(view(3, "imobiliare", "Cluj-Napoca", "Centru", 2, 120_000, 55, Amenity.PARKING));
+        index.upsert(view(4, "imobiliare", "Cluj-Napoca", "Marasti", 1, 70_000, 35));
+    }
+
+    @Test
+    void countsEveryFacetWithoutFilters() {
+        ListingFacetIndex.FacetCounts counts = index.facets(query(null, null, null, null, null));
+
+        assertEquals(4, counts.total());
+        assertEquals(Map.of("Bucuresti", 2, "Cluj-Napoca", 2), counts.cities());
+        assertEquals(Map.of("storia", 2, "imobiliare", 2), counts.sources());
+        assertEquals(Map.of(1, 1, 2, 2, 3, 1), counts.rooms());
+        assertEquals(Map.of("balcony", 2, "parking", 2), counts.amenities());
+    }
+
+    @Test
+    void keepsSameNamedNeighborhoodsOfDifferentCitiesApart() {
+        ListingFacetIndex.FacetCounts counts = index.facets(query(null, null, null, null, null));
+
+        assertEquals(Map.of(
+                "Bucuresti", Map.of("Titan", 1, "Centru", 1),
+                "Cluj-Napoca", Map.of("Centru", 1, "Marasti", 1)
+        ), counts.neighborhoods());
+    }
+
+    @Test
+    void narrowsNeighborhoodSelectionToTheSelectedCity() {
+        ListingFacetIndex.FacetCounts counts = index.facets(query(List.of("Cluj-Napoca"), List.of("Centru"), null, null, null));
+
+        assertEquals(1, counts.total());
+        // Each facet ignores its own selection
+        assertEquals(Map.of("Cluj-Napoca", Map.of("Centru", 1, "Marasti", 1)), counts.neighborhoods());
+        assertEquals(Map.of("Bucuresti", 1, "Cluj-Napoca", 1), counts.cities());
+    }
+
+    @Test
+    void excludesOwnSelectionFromEachFacet() {
+        ListingFacetIndex.FacetCounts counts = index.facets(query(null, null, List.of("storia"), List.of(2), null));
+
+        assertEquals(1, counts.total());
+        assertEquals(Map.of("storia", 1, "imobiliare", 1), counts.sources());
+        assertEquals(Map.of(2, 1, 3, 1), counts.rooms());
+    }
+
+    @Test
+    void amenityCountsApplyTheAmenityFilter() {
+        ListingFacetIndex.FacetCounts counts = index.facets(query(null, null, null, null, List.of(Amenity.PARKING)));
+
+        assertEquals(2, counts.total());
+        assertEquals(Map.of("balcony", 1, "parking", 2), counts.amenities());
+    }
+
+    @Test
+    void filtersPriceAndSurfaceRanges() {
+        ListingFacetIndex.FacetQuery query = new ListingFacetIndex.FacetQuery(
+                null, null, null, null, 75_000L, 130_000L, "EUR", 50L, null, null);
+
+        ListingFacetIndex.FacetCounts counts = index.facets(query);
+
+        assertEquals(2, counts.total());
+        assertEquals(Map.of("Bucuresti", 1, "Cluj-Napoca", 1), counts.cities());
+    }
+
+    @Test
+    void removalsDropCountsAndEmptyValues() {
+        assertTrue(index.remove(1));
+        assertFalse(index.remove(1));
+
+        ListingFacetIndex.FacetCounts counts = index.facets(query(null, null, null, null, null));
+
+        assertEquals(3, counts.total());
+        assertEquals(Map.of("Bucuresti", 1, "Cluj-Napoca", 2), counts.cities());
+        assertEquals(Map.of("Centru", 1), counts.neighborhoods().get("Bucuresti"));
+        assertEquals(Map.of("balcony", 1, "parking", 2), counts.amenities());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void upsertMovesListingBetweenValues() {
+        index.upsert(view(1, "storia", "Cluj-Napoca", "Centru", 4, 80_000, 50));
+
+        ListingFacetIndex.FacetCounts counts = index.facets(query(null, null, null, null, null));
+
+        assertEquals(4, counts.total());
+        assertEquals(Map.of("Bucuresti", 1, "Cluj-Napoca", 3), counts.cities());
+        assertEquals(Map.of("Centru", 2, "Marasti", 1), counts.neighborhoods().get("Cluj-Napoca"));
+        assertEquals(Map.of(1, 1, 2, 1, 3, 1, 4, 1), counts.rooms());
+        assertEquals(Map.of("balcony", 1, "parking", 2), counts.amenities());
+    }
+
+    @Test
+    void reusesSlotsOfRemovedListings() {
+        index.remove(2);
+        index.upsert(view(5, "olx", "Iasi", "Copou", 2, 60_000, 45));
+
+        ListingFacetIndex.FacetCounts counts = index.facets(query(null, null, null, null, null));
+
+        assertEquals(4, counts.total());
+        assertEquals(Map.of("Copou", 1), counts.neighborhoods().get("Iasi"));
+        assertNull(counts.neighborhoods().get("Bucuresti").get("Centru"));
+        assertEquals(Map.of("balcony", 1, "parking", 1), counts.amenities());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void retainAllRemovesListingsNotKept() {
+        assertEquals(2, index.retainAll(Set.of(1L, 3L)));
+
+        ListingFacetIndex.FacetCounts counts = index.facets(query(null, null, null, null, null));
+
+        assertEquals(2, counts.total());
+        assertEquals(Map.of("storia", 1, "imobiliare", 1), counts.sources());
+    }
+
+    @Test
+    void metadataReflectsLiveListingsOnly() {
+        index.remove(4);
+
+        ListingFacetIndex.FilterMetadata metadata = index.metadata("EUR");
+
+        assertEquals(List.of("Bucuresti", "Cluj-Napoca"), metadata.cities());
+        assertEquals(80_000L, metadata.priceMin());
+        assertEquals(150_000L, metadata.priceMax());
+        assertEquals(50L, metadata.surfaceMin());
+        assertEquals(75L, metadata.surfaceMax());
+        assertEquals(List.of(2, 3), metadata.roomOptions());
+    }
+
+    private static ListingFacetIndex.FacetQuery query(Collection<String> cities, Collection<String> neighborhoods,
+                                                      Collection<String> sources, Collection<Integer> rooms,
+                                                      Collection<Amenity> amenities) {
+        return new ListingFacetIndex.FacetQuery(cities, neighborhoods, sources, rooms,
+                null, null, "EUR", null, null, amenities);
+    }
+
+    private static ListingFacetView view(long id, String source, String city, String neighborhood, int rooms,
+                                         long price, int surface, Amenity... amenities) {
+        return new View(id, source, BigDecimal.valueOf(price), "EUR", BigDecimal.valueOf(surface), rooms,
+                city, neighborhood, Amenity.maskOf(List.of(amenities)));
+    }
+
+    private record View(Long id, String sourceName, BigDecimal price, String currency, BigDecimal surfaceSqm,
+                        Integer rooms, String city, String neighborhood, Long featuresMask)
+            implements ListingFacetView {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getSourceName() {
+            return sourceName;
+        }
+
+        @Override
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        @Override
+        public String getCurrency() {
+            return currency;
+        }
+
+        @Override
+        public BigDecimal getSurfaceSqm() {
+            return surfaceSqm;
+        }
+
+        @Override
+        public Integer getRooms() {
+            return rooms;
+        }
+
+        @Override
+        public String getCity() {
+            return city;
+        }
+
+        @Override
+        public String getNeighborhood() {
+            return neighborhood;
+        }
+
+        @Override
+        public Long getFeaturesMask() {
+            return featuresMask;
+        }
+
+        @Override
+        public LocalDateTime getUpdatedAt() {
+            return null;
+        }
+
+        @Override
+        public LocalDateTime getDelistedAt() {
+            return null;
+        }
+    }
+}
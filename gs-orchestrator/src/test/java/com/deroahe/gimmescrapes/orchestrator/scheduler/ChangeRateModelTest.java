@@ -0,0 +1,163 @@
+package com.deroahe.gimmescrapes.orchestrator.scheduler;
+
+import com.deroahe.gimmescrapes.commons.model.ScrapingJob;
+import com.deroahe.gimmescrapes.commons.model.Source;
+import com.deroahe.gimmescrapes.commons.repository.ScrapingJobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChangeRateModelTest {
+
+    private static final long SOURCE_ID = 1L;
+
+    /**
+     * A Monday, so hour-of-week buckets equal the hour of day.
+     */
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private final Source source = Source.builder().id(SOURCE_ID).name("test").build();
+    private final ScrapingJobRepository repository = mock(ScrapingJobRepository.class);
+    private final List<ScrapingJob> jobs = new ArrayList<>();
+    private ChangeRateModel model;
+
+    @BeforeEach
+    void setUp() {
+        model = new ChangeRateModel(repository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(model, "alpha", 0.3);
+        ReflectionTestUtils.setField(model, "minSamples", 2);
+        ReflectionTestUtils.setField(model, "history", Duration.ofDays(28));
+        ReflectionTestUtils.setField(model, "batchSize", 1000);
+        ReflectionTestUtils.setField(model, "overlap", Duration.ofMinutes(2));
+        when(repository.findCompletedAfter(any(), anyLong(), any())).thenReturn(jobs);
+    }
+
+    @Test
+    void hourOfWeekStartsOnMonday() {
+        assertEquals(0, ChangeRateModel.hourOfWeek(MONDAY));
+        assertEquals(13, ChangeRateModel.hourOfWeek(MONDAY.plusHours(13).plusMinutes(59)));
+        assertEquals(167, ChangeRateModel.hourOfWeek(MONDAY.plusDays(6).plusHours(23)));
+    }
+
+    @Test
+    void usesFallbackUntilEnoughSamples() {
+        job(MONDAY.plusHours(10), 0);
+        job(MONDAY.plusHours(11), 60);
+        model.refresh();
+
+        ChangeRateModel.Plan plan = model.plan(SOURCE_ID, MONDAY.plusHours(10), 10, 5, 600, 2000);
+
+        assertEquals(600, plan.intervalMinutes());
+        assertTrue(Double.isNaN(plan.predictedYield()));
+        assertFalse(plan.adaptive());
+    }
+
+    @Test
+    void foldsObservationsIntoHourBucketsAsWeightedEwma() {
+        job(MONDAY.plusHours(10), 0);
+        // One change per minute over 10:00-10:30
+        job(MONDAY.plusHours(10).plusMinutes(30), 30);
+        // Half a change per minute over 10:30-11:00, weighted by half an hour: 1 + 0.3 * 0.5 * (0.5 - 1)
+        job(MONDAY.plusHours(11), 15);
+        model.refresh();
+
+        ChangeRateModel.Plan plan = model.plan(SOURCE_ID, MONDAY.plusHours(10), 9, 1, 60, 30);
+
+        assertTrue(plan.adaptive());
+        assertEquals(10, plan.intervalMinutes());
+        assertEquals(9, plan.predictedYield(), 1e-9);
+    }
+
+    @Test
+    void plansAcrossBucketBoundariesAndThroughZeroRateBuckets() {
+        observeRates();
+
+        // 30 changes in the rest of hour 10, none in the quiet hour 11, the last 10 at two per minute
+        ChangeRateModel.Plan plan = model.plan(SOURCE_ID, MONDAY.plusHours(10).plusMinutes(30), 40, 5, 600, 30);
+
+        assertEquals(95, plan.intervalMinutes());
+        assertEquals(40, plan.predictedYield(), 1e-9);
+    }
+
+    @Test
+    void unobservedBucketsUseTheMeanRate() {
+        observeRates();
+
+        // Hour 13 has no samples; the mean of 1, 0 and 2 changes per minute applies
+        ChangeRateModel.Plan plan = model.plan(SOURCE_ID, MONDAY.plusHours(13), 30, 5, 600, 30);
+
+        assertEquals(30, plan.intervalMinutes());
+    }
+
+    @Test
+    void clampsToMinimumWithTheYieldExpectedThere() {
+        observeRates();
+
+        ChangeRateModel.Plan plan = model.plan(SOURCE_ID, MONDAY.plusHours(12), 1, 5, 600, 30);
+
+        assertEquals(5, plan.intervalMinutes());
+        assertEquals(10, plan.predictedYield(), 1e-9);
+    }
+
+    @Test
+    void clampsToMaximumWhenNothingChanges() {
+        job(MONDAY.plusHours(10), 0);
+        job(MONDAY.plusHours(11), 0);
+        job(MONDAY.plusHours(12), 0);
+        model.refresh();
+
+        ChangeRateModel.Plan plan = model.plan(SOURCE_ID, MONDAY.plusHours(10), 5, 5, 240, 30);
+
+        assertEquals(240, plan.intervalMinutes());
+        assertEquals(0, plan.predictedYield(), 1e-9);
+    }
+
+    @Test
+    void wrapsFromSundayNightToMonday() {
+        LocalDateTime sunday = MONDAY.plusDays(6);
+        job(sunday.plusHours(23), 0);
+        // Two changes per minute over Sunday 23:00 - Monday 00:00
+        job(MONDAY.plusDays(7), 120);
+        // None over Monday 00:00 - 01:00
+        job(MONDAY.plusDays(7).plusHours(1), 0);
+        model.refresh();
+
+        ChangeRateModel.Plan plan = model.plan(SOURCE_ID, sunday.plusHours(23).plusMinutes(50), 30, 5, 120, 30);
+
+        // 20 changes before midnight, then the quiet Monday hour, then the mean rate of one per minute
+        assertEquals(80, plan.intervalMinutes());
+    }
+
+    private void observeRates() {
+        job(MONDAY.plusHours(10), 0);
+        job(MONDAY.plusHours(11), 60);
+        job(MONDAY.plusHours(12), 0);
+        job(MONDAY.plusHours(13), 120);
+        model.refresh();
+    }
+
+    private void job(LocalDateTime startedAt, int changes) {
+        jobs.add(ScrapingJob.builder()
+                .id((long) jobs.size() + 1)
+                .source(source)
+                .startedAt(startedAt)
+                .completedAt(startedAt.plusMinutes(1))
+                .itemsNew(changes)
+                .itemsUpdated(0)
+                .build());
+    }
+}
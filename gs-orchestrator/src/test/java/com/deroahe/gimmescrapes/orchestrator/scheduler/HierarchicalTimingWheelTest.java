@@ -0,0 +1,118 @@
+package com.deroahe.gimmescrapes.orchestrator.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK_MS = 1000;
+
+    /**
+     * Four slots over two levels: level 0 covers 4 ticks, level 1 covers 16, beyond that is overflow.
+     */
+    private static HierarchicalTimingWheel<String> wheel(long nowMs) {
+        return new HierarchicalTimingWheel<>(TICK_MS, 4, 2, nowMs);
+    }
+
+    @Test
+    void expiresKeyOnItsTick() {
+        HierarchicalTimingWheel<String> wheel = wheel(0);
+        wheel.schedule("a", 2 * TICK_MS);
+
+        assertEquals(List.of(), wheel.advance(TICK_MS));
+        assertEquals(List.of("a"), wheel.advance(2 * TICK_MS));
+        assertFalse(wheel.contains("a"));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void wrapsAroundLevelZeroSlots() {
+        HierarchicalTimingWheel<String> wheel = wheel(3 * TICK_MS);
+        // Tick 5 lands in slot 1, behind the current slot 3
+        wheel.schedule("a", 5 * TICK_MS);
+
+        assertEquals(List.of(), wheel.advance(4 * TICK_MS));
+        assertEquals(List.of("a"), wheel.advance(5 * TICK_MS));
+    }
+
+    @Test
+    void cascadesFromUpperLevelOnItsTick() {
+        HierarchicalTimingWheel<String> wheel = wheel(0);
+        wheel.schedule("a", 9 * TICK_MS);
+
+        for (long tick = 1; tick < 9; tick++) {
+            assertEquals(List.of(), wheel.advance(tick * TICK_MS), "tick " + tick);
+        }
+        assertEquals(List.of("a"), wheel.advance(9 * TICK_MS));
+    }
+
+    @Test
+    void wrapsAroundUpperLevelSlots() {
+        HierarchicalTimingWheel<String> wheel = wheel(13 * TICK_MS);
+        // Tick 22 lands in level 1 slot 1, behind the current level 1 slot 3
+        wheel.schedule("a", 22 * TICK_MS);
+
+        for (long tick = 14; tick < 22; tick++) {
+            assertEquals(List.of(), wheel.advance(tick * TICK_MS), "tick " + tick);
+        }
+        assertEquals(List.of("a"), wheel.advance(22 * TICK_MS));
+    }
+
+    @Test
+    void placesOverflowBackOnTheWheelWhenTickingThrough() {
+        HierarchicalTimingWheel<String> wheel = wheel(0);
+        wheel.schedule("a", 40 * TICK_MS);
+
+        for (long tick = 1; tick < 40; tick++) {
+            assertEquals(List.of(), wheel.advance(tick * TICK_MS), "tick " + tick);
+        }
+        assertEquals(List.of("a"), wheel.advance(40 * TICK_MS));
+    }
+
+    @Test
+    void jumpsAheadAfterLongPause() {
+        HierarchicalTimingWheel<String> wheel = wheel(0);
+        wheel.schedule("due", 10 * TICK_MS);
+        wheel.schedule("later", 105 * TICK_MS);
+
+        assertEquals(List.of("due"), wheel.advance(100 * TICK_MS));
+        assertTrue(wheel.contains("later"));
+        assertEquals(List.of("later"), wheel.advance(105 * TICK_MS));
+    }
+
+    @Test
+    void pastDeadlineIsDueOnNextAdvance() {
+        HierarchicalTimingWheel<String> wheel = wheel(10 * TICK_MS);
+        wheel.schedule("a", 5 * TICK_MS);
+
+        assertEquals(List.of("a"), wheel.advance(10 * TICK_MS));
+    }
+
+    @Test
+    void rescheduleReplacesDeadline() {
+        HierarchicalTimingWheel<String> wheel = wheel(0);
+        wheel.schedule("a", 2 * TICK_MS);
+        wheel.schedule("a", 20 * TICK_MS);
+
+        assertEquals(20 * TICK_MS, wheel.deadlineMs("a"));
+        assertEquals(List.of(), wheel.advance(19 * TICK_MS));
+        assertEquals(List.of("a"), wheel.advance(20 * TICK_MS));
+    }
+
+    @Test
+    void cancelledKeyNeverExpires() {
+        HierarchicalTimingWheel<String> wheel = wheel(0);
+        wheel.schedule("a", 9 * TICK_MS);
+
+        assertTrue(wheel.cancel("a"));
+        assertFalse(wheel.cancel("a"));
+        assertNull(wheel.deadlineMs("a"));
+        assertEquals(List.of(), wheel.advance(50 * TICK_MS));
+    }
+}
@@ -0,0 +1,93 @@
+package com.deroahe.gimmescrapes.worker.benchmark;
+
+import com.deroahe.gimmescrapes.worker.email.DeliveryResult;
+import com.deroahe.gimmescrapes.worker.email.EmailDeliveryService;
+import com.deroahe.gimmescrapes.worker.email.EmailTemplateRenderer;
+import com.deroahe.gimmescrapes.worker.email.OutgoingEmail;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures digest delivery throughput against a local SMTP stand-in.
+ * <p>
+ * Built with {@code -Pbenchmark} and enabled by {@code gs.benchmark.email.enabled=true}. Start
+ * GreenMail first ({@code docker compose --profile benchmark up greenmail}) and activate the
+ * {@code benchmark} Spring profile, which points the mail settings at it and lifts the send-rate
+ * limit:
+ * <pre>
+ * mvn -Pbenchmark -pl gs-worker spring-boot:run -Dspring-boot.run.profiles=benchmark \
+ *     -Dspring-boot.run.arguments=--gs.benchmark.email.enabled=true
+ * </pre> Synthetic digests are sent in rounds and
+ * the sustained emails per second is logged.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "gs.benchmark.email.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class EmailThroughputBenchmark implements CommandLineRunner {
+
+    private final EmailDeliveryService deliveryService;
+
+    @Value("${gs.benchmark.email.count:2000}")
+    private int count;
+
+    @Value("${gs.benchmark.email.listings-per-digest:10}")
+    private int listingsPerDigest;
+
+    @Value("${gs.benchmark.email.rounds:3}")
+    private int rounds;
+
+    @Override
+    public void run(String... args) {
+        // Warm-up round lets the JIT, the template cache and the SMTP connections settle
+        deliveryService.deliver(digests(Math.min(count, 200)));
+
+        for (int round = 1; round <= rounds; round++) {
+            List<OutgoingEmail> emails = digests(count);
+            long start = System.nanoTime();
+            List<DeliveryResult> results = deliveryService.deliver(emails);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long failed = results.stream().filter(result -> !result.sent()).count();
+            log.info("Email benchmark round {}: {} emails in {} s, {} emails/s, {} failed",
+                    round, emails.size(), String.format("%.2f", seconds), String.format("%.0f", emails.size() / seconds), failed);
+        }
+    }
+
+    private List<OutgoingEmail> digests(int n) {
+        List<OutgoingEmail> emails = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            List<Map<String, Object>> listings = new ArrayList<>(listingsPerDigest);
+            for (int j = 0; j < listingsPerDigest; j++) {
+                Map<String, Object> listing = new HashMap<>();
+                listing.put("title", "Apartament " + (j + 2) + " camere, benchmark " + i);
+                listing.put("url", "https://example.test/listings/" + i + "-" + j);
+                listing.put("price", String.format("%,d", 80_000 + j * 5_000));
+                listing.put("currency", "EUR");
+                listing.put("city", "Bucuresti");
+                listing.put("neighborhood", "Floreasca");
+                listing.put("rooms", j % 4 + 1);
+                listing.put("surface", String.valueOf(40 + j * 5));
+                listing.put("priceDrop", j % 3 == 0);
+                listings.add(listing);
+            }
+            String recipient = "bench-" + i + "@example.test";
+            Map<String, Object> model = new HashMap<>();
+            model.put("recipient", recipient);
+            model.put("listingCount", listingsPerDigest);
+            model.put("listings", listings);
+            model.put("moreCount", 0);
+            emails.add(new OutgoingEmail(null, recipient, listingsPerDigest + " new listings match your alert",
+                    EmailTemplateRenderer.LISTING_DIGEST, model));
+        }
+        return emails;
+    }
+}
@@ -0,0 +1,116 @@
+package com.deroahe.gimmescrapes.worker.benchmark;
+
+import com.deroahe.gimmescrapes.commons.dto.ListingChangedBatch;
+import com.deroahe.gimmescrapes.commons.dto.ListingChangedEvent;
+import com.deroahe.gimmescrapes.commons.dto.ScrapeJobMessage;
+import com.deroahe.gimmescrapes.commons.enums.ListingChangeType;
+import com.deroahe.gimmescrapes.commons.enums.TriggerType;
+import com.deroahe.gimmescrapes.commons.messaging.MessageCodecs;
+import com.deroahe.gimmescrapes.commons.messaging.MessageFormat;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares payload size and serialization time of the broker message formats.
+ * <p>
+ * Built with {@code -Pbenchmark} and enabled by {@code gs.benchmark.codec.enabled=true}; runs
+ * in-process, no broker is needed. For a small job
+ * message and a listing change batch, each format is encoded and decoded {@code iterations}
+ * times, with and without gzip, after a warm-up pass, and bytes per message and microseconds
+ * per encode/decode are logged.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "gs.benchmark.codec.enabled", havingValue = "true")
+public class MessageCodecBenchmark implements CommandLineRunner {
+
+    @Value("${gs.benchmark.codec.iterations:2000}")
+    private int iterations;
+
+    @Value("${gs.benchmark.codec.events-per-batch:500}")
+    private int eventsPerBatch;
+
+    @Override
+    public void run(String... args) {
+        Object jobMessage = ScrapeJobMessage.builder()
+                .jobId(123456L)
+                .sourceId(3L)
+                .sourceName("storia")
+                .triggeredBy(TriggerType.SCHEDULED)
+                .timestamp(LocalDateTime.now())
+                .build();
+        Object batch = listingBatch();
+
+        for (MessageFormat format : MessageFormat.values()) {
+            MessageConverter converter = MessageCodecs.converter(format);
+            measure(format.name(), converter, MessageCodecs.compressor(0), jobMessage);
+            measure(format.name(), converter, MessageCodecs.compressor(0), batch);
+            measure(format.name() + "+gzip", converter, MessageCodecs.compressor(1), batch);
+        }
+    }
+
+    private void measure(String name, MessageConverter converter, MessagePostProcessor compressor, Object payload) {
+        MessagePostProcessor decompressor = MessageCodecs.decompressor();
+        int size = 0;
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        // First pass warms up the JIT and is discarded
+        for (int pass = 0; pass < 2; pass++) {
+            encodeNanos = 0;
+            decodeNanos = 0;
+            for (int i = 0; i < iterations; i++) {
+                long start = System.nanoTime();
+                Message message = compressor.postProcessMessage(converter.toMessage(payload, new MessageProperties()));
+                long encoded = System.nanoTime();
+                Object decoded = converter.fromMessage(decompressor.postProcessMessage(message));
+                decodeNanos += System.nanoTime() - encoded;
+                encodeNanos += encoded - start;
+                size = message.getBody().length;
+                if (decoded == null) {
+                    throw new IllegalStateException("Decoded null from " + name);
+                }
+            }
+        }
+        log.info("Codec benchmark {} {}: {} bytes, encode {} us, decode {} us",
+                name, payload.getClass().getSimpleName(), size,
+                String.format("%.1f", encodeNanos / 1e3 / iterations), String.format("%.1f", decodeNanos / 1e3 / iterations));
+    }
+
+    private ListingChangedBatch listingBatch() {
+        ListingChangeType[] types = ListingChangeType.values();
+        List<ListingChangedEvent> events = new ArrayList<>(eventsPerBatch);
+        for (int i = 0; i < eventsPerBatch; i++) {
+            ListingChangeType type = types[i % types.length];
+            List<ListingChangedEvent.FieldChange> changes = new ArrayList<>();
+            if (type == ListingChangeType.PRICE_DROP || type == ListingChangeType.UPDATED) {
+                changes.add(new ListingChangedEvent.FieldChange("price", String.valueOf(95_000 + i), String.valueOf(90_000 + i)));
+                changes.add(new ListingChangedEvent.FieldChange("description", null, null));
+            }
+            events.add(ListingChangedEvent.builder()
+                    .listingId(1_000_000L + i)
+                    .type(type)
+                    .price(BigDecimal.valueOf(90_000 + i * 250L))
+                    .currency("EUR")
+                    .surfaceSqm(BigDecimal.valueOf(45 + i % 80))
+                    .rooms(i % 4 + 1)
+                    .city("Bucuresti")
+                    .neighborhood(i % 2 == 0 ? "Floreasca" : "Drumul Taberei")
+                    .featuresMask((long) i & 0xFF)
+                    .changes(changes)
+                    .build());
+        }
+        return new ListingChangedBatch(42L, "storia", 0, LocalDateTime.now(), events);
+    }
+}
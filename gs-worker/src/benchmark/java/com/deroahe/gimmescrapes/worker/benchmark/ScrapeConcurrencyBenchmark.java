@@ -0,0 +1,122 @@
+package com.deroahe.gimmescrapes.worker.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares scrape job throughput on platform and virtual threads at high job concurrency.
+ * <p>
+ * Built with {@code -Pbenchmark} and enabled by {@code gs.benchmark.threads.enabled=true}; runs
+ * in-process, no broker or network is needed. Each
+ * simulated job fetches {@code pages} pages, where a fetch is a {@code fetch-latency-ms} wait
+ * (the network) followed by parsing a synthetic listing page with Jsoup (the CPU part), as the
+ * scrapers do. {@code jobs} jobs are submitted at once to:
+ * <ul>
+ *   <li>a platform pool of {@code platform-threads}, the listener concurrency used today,</li>
+ *   <li>a platform thread per job,</li>
+ *   <li>a virtual thread per job, and</li>
+ *   <li>a virtual thread per job that waits inside {@code synchronized}, showing what a pinning
+ *       hot spot in the I/O path costs.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "gs.benchmark.threads.enabled", havingValue = "true")
+public class ScrapeConcurrencyBenchmark implements CommandLineRunner {
+
+    @Value("${gs.benchmark.threads.jobs:2000}")
+    private int jobs;
+
+    @Value("${gs.benchmark.threads.pages:5}")
+    private int pages;
+
+    @Value("${gs.benchmark.threads.fetch-latency-ms:50}")
+    private long fetchLatencyMs;
+
+    @Value("${gs.benchmark.threads.platform-threads:4}")
+    private int platformThreads;
+
+    @Value("${gs.benchmark.threads.slow-run-jobs:200}")
+    private int slowRunJobs;
+
+    private final String page = syntheticPage(40);
+
+    @Override
+    public void run(String... args) throws Exception {
+        // Warm-up pass so the JIT has compiled the parser before anything is timed
+        measure("warm-up", Executors.newFixedThreadPool(platformThreads), false, Math.min(jobs, 100));
+
+        // The bounded runs are capped in job count to keep them short; jobs/s stays comparable
+        int boundedJobs = Math.min(jobs, slowRunJobs);
+        measure("platform-pool-" + platformThreads, Executors.newFixedThreadPool(platformThreads), false, boundedJobs);
+        measure("platform-per-job", Executors.newCachedThreadPool(), false, jobs);
+        measure("virtual", Executors.newVirtualThreadPerTaskExecutor(), false, jobs);
+        measure("virtual-pinned", Executors.newVirtualThreadPerTaskExecutor(), true, boundedJobs);
+    }
+
+    private void measure(String name, ExecutorService executor, boolean pinned, int jobCount) throws Exception {
+        AtomicLong listings = new AtomicLong();
+        long start = System.nanoTime();
+        try (executor) {
+            List<Future<?>> futures = new ArrayList<>(jobCount);
+            for (int i = 0; i < jobCount; i++) {
+                // One monitor per job, so the pinned run measures pinning rather than contention
+                Object monitor = pinned ? new Object() : null;
+                futures.add(executor.submit(() -> {
+                    for (int p = 0; p < pages; p++) {
+                        listings.addAndGet(fetch(monitor));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Thread benchmark {}: {} jobs x {} pages in {} ms, {} jobs/s, {} listings parsed",
+                name, jobCount, pages, elapsedMs,
+                String.format("%.1f", jobCount * 1000.0 / Math.max(1, elapsedMs)), listings.get());
+    }
+
+    private int fetch(Object monitor) throws InterruptedException {
+        if (monitor != null) {
+            // A monitor held across the blocking call keeps the virtual thread on its carrier
+            synchronized (monitor) {
+                Thread.sleep(fetchLatencyMs);
+            }
+        } else {
+            Thread.sleep(fetchLatencyMs);
+        }
+        Document document = Jsoup.parse(page);
+        return document.select("article.listing").size();
+    }
+
+    private static String syntheticPage(int listings) {
+        StringBuilder html = new StringBuilder("<html><body><main>");
+        for (int i = 0; i < listings; i++) {
+            html.append("<article class=\"listing\"><a href=\"/oferta/")
+                    .append(i)
+                    .append("\"><h2>Apartament 2 camere ")
+                    .append(i)
+                    .append("</h2></a><span class=\"price\">")
+                    .append(90_000 + i * 250)
+                    .append(" EUR</span><ul><li>")
+                    .append(45 + i % 80)
+                    .append(" mp</li><li>Floreasca</li></ul></article>");
+        }
+        return html.append("</main></body></html>").toString();
+    }
+}
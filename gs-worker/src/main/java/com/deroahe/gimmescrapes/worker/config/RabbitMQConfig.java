@@ -1,10 +1,17 @@
 package com.deroahe.gimmescrapes.worker.config;
 
+import com.deroahe.gimmescrapes.commons.config.RetryTopology;
+import com.deroahe.gimmescrapes.commons.messaging.MessageCodecs;
+import com.deroahe.gimmescrapes.commons.messaging.MessageFormat;
+import com.deroahe.gimmescrapes.worker.retry.DelayedRetryInterceptor;
+import com.deroahe.gimmescrapes.worker.scaling.ListenerActivityTracker;
+import com.deroahe.gimmescrapes.worker.startup.StartupProbe;
+import org.springframework.amqp.core.Declarables;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,38 +19,178 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class RabbitMQConfig {
 
+    public static final String SCRAPE_CONTAINER_FACTORY = "scrapeContainerFactory";
+    public static final String SCRAPE_EXPRESS_CONTAINER_FACTORY = "scrapeExpressContainerFactory";
+    public static final String EMAIL_BATCH_CONTAINER_FACTORY = "emailBatchContainerFactory";
+    public static final String INGEST_CONTAINER_FACTORY = "ingestContainerFactory";
+    public static final String SCRAPE_LISTENER_ID = "scrapeJobListener";
+    public static final String SCRAPE_EXPRESS_LISTENER_ID = "scrapeExpressJobListener";
+    public static final String EMAIL_LISTENER_ID = "emailJobListener";
+    public static final String INGEST_LISTENER_ID = "listingIngestListener";
+
     // ==================== Message Converter ====================
 
+    /**
+     * Writes the configured {@code gs.messaging.format} and reads any supported format.
+     */
     @Bean
-    public MessageConverter messageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter messageConverter(@Value("${gs.messaging.format:json}") String format) {
+        return MessageCodecs.converter(MessageFormat.of(format));
     }
 
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory,
-                                        MessageConverter messageConverter) {
+                                        MessageConverter messageConverter,
+                                        @Value("${gs.messaging.compression-threshold-bytes:0}") int compressionThreshold) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
         rabbitTemplate.setMessageConverter(messageConverter);
+        rabbitTemplate.setBeforePublishPostProcessors(MessageCodecs.compressor(compressionThreshold));
+        // Unroutable messages come back on their CorrelationData instead of being dropped silently
+        rabbitTemplate.setMandatory(true);
         return rabbitTemplate;
     }
 
-    // ==================== Listener Container Factory with Retry ====================
+    // ==================== Delayed Retry Queues ====================
+
+    /**
+     * Declared here as well as in the orchestrator, so that {@link DelayedRetryInterceptor}
+     * never republishes to a delay queue that does not exist yet.
+     */
+    @Bean
+    public Declarables retryQueues() {
+        return RetryTopology.declarables();
+    }
+
+    // ==================== Listener Container Factories with Delayed Retry ====================
 
+    /**
+     * Failed deliveries are retried through broker-side delay queues by
+     * {@link DelayedRetryInterceptor}; in-container retry is disabled in application.yml.
+     * Like every factory here it goes through the Boot configurer, which also installs a
+     * virtual-thread task executor when {@code spring.threads.virtual.enabled} is set.
+     */
     @Bean
     public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
             ConnectionFactory connectionFactory,
             SimpleRabbitListenerContainerFactoryConfigurer configurer,
-            MessageConverter messageConverter) {
+            MessageConverter messageConverter,
+            DelayedRetryInterceptor delayedRetryInterceptor,
+            StartupProbe startupProbe) {
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
         configurer.configure(factory, connectionFactory);
         factory.setMessageConverter(messageConverter);
+        factory.setAfterReceivePostProcessors(MessageCodecs.decompressor());
+        factory.setAdviceChain(startupProbe.advice(), delayedRetryInterceptor);
+        return factory;
+    }
 
-        // Retry configuration is handled in application.yml:
-        // spring.rabbitmq.listener.simple.retry.enabled=true
-        // spring.rabbitmq.listener.simple.retry.initial-interval=1000
-        // spring.rabbitmq.listener.simple.retry.max-attempts=3
-        // spring.rabbitmq.listener.simple.retry.multiplier=2.0
+    /**
+     * Scrape jobs run for minutes, so each consumer prefetches a single message: a worker only
+     * takes a job when it has a free consumer, leaving the rest of the queue to idle workers.
+     * The number of consumers is adjusted at runtime by {@code ListenerScalingController}.
+     */
+    @Bean(SCRAPE_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory scrapeContainerFactory(
+            ConnectionFactory connectionFactory,
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            MessageConverter messageConverter,
+            ListenerActivityTracker activityTracker,
+            DelayedRetryInterceptor delayedRetryInterceptor,
+            StartupProbe startupProbe,
+            @Value("${gs.scaling.scrape.min-consumers:1}") int minConsumers) {
+        return scrapeFactory(connectionFactory, configurer, messageConverter, activityTracker, delayedRetryInterceptor,
+                startupProbe, SCRAPE_LISTENER_ID, minConsumers);
+    }
+
+    /**
+     * Same settings as {@link #scrapeContainerFactory} for the express queue of manual triggers,
+     * whose consumers are reserved for it.
+     */
+    @Bean(SCRAPE_EXPRESS_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory scrapeExpressContainerFactory(
+            ConnectionFactory connectionFactory,
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            MessageConverter messageConverter,
+            ListenerActivityTracker activityTracker,
+            DelayedRetryInterceptor delayedRetryInterceptor,
+            StartupProbe startupProbe,
+            @Value("${gs.scaling.scrape-express.min-consumers:1}") int minConsumers) {
+        return scrapeFactory(connectionFactory, configurer, messageConverter, activityTracker, delayedRetryInterceptor,
+                startupProbe, SCRAPE_EXPRESS_LISTENER_ID, minConsumers);
+    }
 
+    /**
+     * Batch consumption for the email queue: the consumer collects up to {@code batch-size}
+     * messages (or whatever arrived within {@code receive-timeout-ms}) into one listener call,
+     * and the batch is acked when the listener returns. Prefetch is twice the batch so the next
+     * batch is already buffered while the current one is sent.
+     */
+    @Bean(EMAIL_BATCH_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory emailBatchContainerFactory(
+            ConnectionFactory connectionFactory,
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            MessageConverter messageConverter,
+            ListenerActivityTracker activityTracker,
+            DelayedRetryInterceptor delayedRetryInterceptor,
+            StartupProbe startupProbe,
+            @Value("${gs.scaling.email.min-consumers:1}") int minConsumers,
+            @Value("${gs.email.consumer.batch-size:50}") int batchSize,
+            @Value("${gs.email.consumer.receive-timeout-ms:1000}") long receiveTimeoutMs) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setMessageConverter(messageConverter);
+        factory.setAfterReceivePostProcessors(MessageCodecs.decompressor());
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setPrefetchCount(batchSize * 2);
+        factory.setReceiveTimeout(receiveTimeoutMs);
+        factory.setConcurrentConsumers(minConsumers);
+        // The listener settles failures per message; only a failure before any send (e.g. loading the jobs) retries the batch
+        factory.setAdviceChain(startupProbe.advice(), activityTracker.advice(EMAIL_LISTENER_ID), delayedRetryInterceptor);
+        return factory;
+    }
+
+    /**
+     * Listing chunks are DB-bound and take about a second each, so consumers prefetch a few
+     * to keep their connection busy. Concurrency is set apart from the fetch consumers and
+     * adjusted by {@code ListenerScalingController}.
+     */
+    @Bean(INGEST_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory ingestContainerFactory(
+            ConnectionFactory connectionFactory,
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            MessageConverter messageConverter,
+            ListenerActivityTracker activityTracker,
+            DelayedRetryInterceptor delayedRetryInterceptor,
+            StartupProbe startupProbe,
+            @Value("${gs.scaling.ingest.min-consumers:1}") int minConsumers,
+            @Value("${gs.ingest.prefetch:2}") int prefetch) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setMessageConverter(messageConverter);
+        factory.setAfterReceivePostProcessors(MessageCodecs.decompressor());
+        factory.setPrefetchCount(prefetch);
+        factory.setConcurrentConsumers(minConsumers);
+        factory.setAdviceChain(startupProbe.advice(), activityTracker.advice(INGEST_LISTENER_ID), delayedRetryInterceptor);
+        return factory;
+    }
+
+    private SimpleRabbitListenerContainerFactory scrapeFactory(ConnectionFactory connectionFactory,
+                                                               SimpleRabbitListenerContainerFactoryConfigurer configurer,
+                                                               MessageConverter messageConverter,
+                                                               ListenerActivityTracker activityTracker,
+                                                               DelayedRetryInterceptor delayedRetryInterceptor,
+                                                               StartupProbe startupProbe,
+                                                               String listenerId,
+                                                               int minConsumers) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setMessageConverter(messageConverter);
+        factory.setAfterReceivePostProcessors(MessageCodecs.decompressor());
+        factory.setPrefetchCount(1);
+        factory.setConcurrentConsumers(minConsumers);
+        factory.setAdviceChain(startupProbe.advice(), activityTracker.advice(listenerId), delayedRetryInterceptor);
         return factory;
     }
 }
@@ -5,12 +5,30 @@ import com.deroahe.gimmescrapes.commons.dto.EmailJobMessage;
 import com.deroahe.gimmescrapes.commons.enums.EmailJobStatus;
 import com.deroahe.gimmescrapes.commons.model.EmailJob;
 import com.deroahe.gimmescrapes.commons.repository.EmailJobRepository;
+import com.deroahe.gimmescrapes.worker.config.RabbitMQConfig;
+import com.deroahe.gimmescrapes.worker.email.DeliveryResult;
+import com.deroahe.gimmescrapes.worker.email.EmailDeliveryService;
+import com.deroahe.gimmescrapes.worker.email.EmailJobStatusService;
+import com.deroahe.gimmescrapes.worker.email.OutgoingEmail;
+import com.deroahe.gimmescrapes.worker.retry.DelayedRetryInterceptor;
+import jakarta.mail.MessagingException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
@@ -18,37 +36,156 @@ import java.time.LocalDateTime;
 public class EmailJobConsumer {
 
     private final EmailJobRepository emailJobRepository;
+    private final EmailDeliveryService emailDeliveryService;
+    private final EmailJobStatusService emailJobStatusService;
+    private final DelayedRetryInterceptor delayedRetryInterceptor;
+    private final MessageConverter messageConverter;
 
-    @RabbitListener(queues = RabbitMQConstants.EMAIL_QUEUE)
-    public void consumeEmailJob(EmailJobMessage message) {
-        log.info("Received email job message: jobId={}, recipientEmail={}, emailType={}",
-                message.getJobId(), message.getRecipientEmail(), message.getEmailType());
+    /**
+     * Sends a batch of email jobs.
+     * <p>
+     * The jobs are loaded with one query, delivered in parallel, and their statuses written
+     * back with set-based updates in one transaction. Everything is settled per message, so
+     * the listener never throws once an email has been sent and the batch is not redelivered:
+     * <ul>
+     *   <li>invalid messages are dead-lettered and their job, if any, marked failed</li>
+     *   <li>jobs that are no longer pending (a redelivery) are skipped</li>
+     *   <li>transient delivery failures are sent to the retry queues and their job stays pending,
+     *       until retries are exhausted; permanent failures mark the job failed</li>
+     * </ul>
+     */
+    @RabbitListener(id = RabbitMQConfig.EMAIL_LISTENER_ID, queues = RabbitMQConstants.EMAIL_QUEUE,
+            containerFactory = RabbitMQConfig.EMAIL_BATCH_CONTAINER_FACTORY)
+    public void consumeEmailJobs(List<Message> messages) {
+        log.info("Received email job batch: size={}", messages.size());
 
+        Map<Long, String> rejected = new HashMap<>();
+        Map<Long, Message> messagesByJob = new LinkedHashMap<>();
+        Map<Long, EmailJobMessage> payloadsByJob = new HashMap<>();
+        for (Message message : messages) {
+            EmailJobMessage payload = null;
+            try {
+                payload = toPayload(message);
+                validate(payload);
+            } catch (RuntimeException e) {
+                reject(message, payload, e, rejected);
+                continue;
+            }
+            if (messagesByJob.putIfAbsent(payload.getJobId(), message) == null) {
+                payloadsByJob.put(payload.getJobId(), payload);
+            }
+        }
+
+        Set<Long> jobIds = new HashSet<>(payloadsByJob.keySet());
+        jobIds.addAll(rejected.keySet());
+        Map<Long, EmailJob> jobs = emailJobRepository.findAllById(jobIds)
+                .stream()
+                .collect(Collectors.toMap(EmailJob::getId, Function.identity()));
+        // Only pending jobs are touched, so a redelivered or duplicate message cannot undo a send
+        rejected.keySet().removeIf(jobId -> !isPending(jobs.get(jobId)));
+
+        List<OutgoingEmail> emails = new ArrayList<>(payloadsByJob.size());
+        for (EmailJobMessage payload : payloadsByJob.values()) {
+            EmailJob job = jobs.get(payload.getJobId());
+            if (job == null) {
+                log.warn("Email job not found, skipping: jobId={}", payload.getJobId());
+                continue;
+            }
+            if (!isPending(job)) {
+                log.info("Email job already {}, skipping: jobId={}", job.getStatus(), job.getId());
+                continue;
+            }
+            emails.add(new OutgoingEmail(
+                    job.getId(),
+                    payload.getRecipientEmail(),
+                    job.getSubject(),
+                    templateName(payload.getEmailType()),
+                    payload.getData() != null ? payload.getData() : Map.of()));
+        }
+
+        List<DeliveryResult> results = emails.isEmpty() ? List.of() : emailDeliveryService.deliver(emails);
+
+        // From here on emails have gone out: failures are logged, never thrown
+        List<DeliveryResult> outcomes = new ArrayList<>(results.size());
+        int retried = 0;
+        for (DeliveryResult result : results) {
+            if (result.retryable() && scheduleRetry(messagesByJob.get(result.email().jobId()), result)) {
+                retried++;
+            } else {
+                outcomes.add(result);
+            }
+        }
         try {
-            // Find the email job
-            EmailJob job = emailJobRepository.findById(message.getJobId())
-                    .orElseThrow(() -> new RuntimeException("Email job not found: " + message.getJobId()));
+            emailJobStatusService.record(outcomes, rejected);
+        } catch (RuntimeException e) {
+            log.error("Failed to record email job statuses, jobs stay pending: jobIds={}",
+                    outcomes.stream().map(result -> result.email().jobId()).toList(), e);
+        }
+
+        long sent = results.stream().filter(DeliveryResult::sent).count();
+        log.info("Email job batch completed: sent={}, retrying={}, failed={}, rejected={}",
+                sent, retried, results.size() - sent - retried, rejected.size());
+    }
 
-            // TODO: Phase 8 - Actual email sending logic will be implemented here
+    private EmailJobMessage toPayload(Message message) {
+        Object payload = messageConverter.fromMessage(message);
+        if (!(payload instanceof EmailJobMessage emailJobMessage)) {
+            throw new IllegalArgumentException("Unexpected email job payload: "
+                    + (payload != null ? payload.getClass().getName() : "null"));
+        }
+        return emailJobMessage;
+    }
 
-            // For now, just mark as sent
-            job.setStatus(EmailJobStatus.SENT);
-            job.setSentAt(LocalDateTime.now());
-            emailJobRepository.save(job);
+    private void validate(EmailJobMessage payload) {
+        if (payload.getJobId() == null) {
+            throw new IllegalArgumentException("Email job message without a job ID");
+        }
+        if (payload.getEmailType() == null || payload.getEmailType().isBlank()) {
+            throw new IllegalArgumentException("Email job " + payload.getJobId() + " has no email type");
+        }
+        if (payload.getRecipientEmail() == null || payload.getRecipientEmail().isBlank()) {
+            throw new IllegalArgumentException("Email job " + payload.getJobId() + " has no recipient");
+        }
+    }
 
-            log.info("Email job completed successfully: jobId={}", message.getJobId());
+    /**
+     * Dead-letters an invalid message and remembers its job, if known, to be marked failed.
+     */
+    private void reject(Message message, EmailJobMessage payload, RuntimeException failure, Map<Long, String> rejected) {
+        log.warn("Rejecting invalid email job message: {}", failure.getMessage());
+        if (payload != null && payload.getJobId() != null) {
+            rejected.put(payload.getJobId(), failure.getMessage());
+        }
+        try {
+            delayedRetryInterceptor.routeFailed(message, failure);
+        } catch (Exception e) {
+            log.error("Failed to dead-letter invalid email job message, dropping it: {}", e.getMessage());
+        }
+    }
 
+    /**
+     * Sends the message of a transiently failed job to the retry queues.
+     *
+     * @return true if a retry was scheduled; false if retries are exhausted or republishing failed
+     */
+    private boolean scheduleRetry(Message message, DeliveryResult result) {
+        try {
+            return delayedRetryInterceptor.routeFailed(message, new MessagingException(result.error()));
         } catch (Exception e) {
-            log.error("Error processing email job: jobId={}", message.getJobId(), e);
+            log.error("Failed to schedule email retry, marking the job failed: jobId={}, error={}",
+                    result.email().jobId(), e.getMessage());
+            return false;
+        }
+    }
 
-            // Update job status to FAILED
-            emailJobRepository.findById(message.getJobId()).ifPresent(job -> {
-                job.setStatus(EmailJobStatus.FAILED);
-                job.setErrorMessage(e.getMessage());
-                emailJobRepository.save(job);
-            });
+    private boolean isPending(EmailJob job) {
+        return job != null && job.getStatus() == EmailJobStatus.PENDING;
+    }
 
-            throw new RuntimeException("Failed to process email job", e);
-        }
+    /**
+     * Maps an email type such as {@code LISTING_DIGEST} to its template name, {@code listing-digest}.
+     */
+    private String templateName(String emailType) {
+        return emailType.toLowerCase(Locale.ROOT).replace('_', '-');
     }
 }
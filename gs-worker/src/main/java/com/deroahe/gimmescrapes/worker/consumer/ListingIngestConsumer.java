@@ -0,0 +1,91 @@
+package com.deroahe.gimmescrapes.worker.consumer;
+
+import com.deroahe.gimmescrapes.commons.config.RabbitMQConstants;
+import com.deroahe.gimmescrapes.commons.dto.ListingIngestChunk;
+import com.deroahe.gimmescrapes.commons.repository.ScrapingJobRepository;
+import com.deroahe.gimmescrapes.commons.repository.SourceRepository;
+import com.deroahe.gimmescrapes.worker.config.RabbitMQConfig;
+import com.deroahe.gimmescrapes.worker.ingest.ListingIngestService;
+import com.deroahe.gimmescrapes.worker.ingest.ListingIngestService.IngestOutcome;
+import com.deroahe.gimmescrapes.worker.lease.LeaseLostException;
+import com.deroahe.gimmescrapes.worker.lease.SourceLeaseService;
+import com.deroahe.gimmescrapes.worker.metrics.ScrapeMetrics;
+import com.deroahe.gimmescrapes.worker.service.ListingCacheInvalidator;
+import com.deroahe.gimmescrapes.worker.service.ScrapingJobService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Consumer for parsed listing chunks published by fetch workers.
+ * Each ingested chunk extends the source lease the fetch worker handed off, and the chunk that
+ * completes the job releases it. Runs on its own container factory, so ingest concurrency is tuned and scaled apart from
+ * fetching; set {@code gs.worker.ingest.enabled: false} to deploy a fetch-only worker.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ListingIngestConsumer {
+
+    private final ListingIngestService listingIngestService;
+    private final ScrapingJobService scrapingJobService;
+    private final ScrapingJobRepository scrapingJobRepository;
+    private final SourceRepository sourceRepository;
+    private final ListingCacheInvalidator listingCacheInvalidator;
+    private final MeterRegistry meterRegistry;
+    private final ScrapeMetrics scrapeMetrics;
+    private final SourceLeaseService sourceLeaseService;
+
+    /**
+     * Listens to the ingest queue and upserts each chunk.
+     *
+     * @param chunk the listing chunk
+     */
+    @RabbitListener(id = RabbitMQConfig.INGEST_LISTENER_ID, queues = RabbitMQConstants.LISTINGS_INGEST_QUEUE,
+            containerFactory = RabbitMQConfig.INGEST_CONTAINER_FACTORY, autoStartup = "${gs.worker.ingest.enabled:true}")
+    public void consumeChunk(ListingIngestChunk chunk) {
+        log.debug("Received chunk {}/{} of job {} ({} listings)",
+                chunk.getChunk() + 1, chunk.getChunksTotal(), chunk.getJobId(), chunk.getListings().size());
+
+        ScrapeMetrics.SourceMeters meters = scrapeMetrics.source(String.valueOf(chunk.getSourceName()));
+        Timer.Sample sample = Timer.start(meterRegistry);
+        IngestOutcome outcome;
+        meters.ingestStarted();
+        try {
+            outcome = listingIngestService.ingest(chunk);
+        } catch (LeaseLostException e) {
+            // A newer scrape of the source has written already; this job's remaining chunks are dropped
+            log.warn("Ingest of job {} lost to a newer scrape: {}", chunk.getJobId(), e.getMessage());
+            failJob(chunk, "Lease lost: " + e.getMessage());
+            return;
+        } finally {
+            meters.ingestFinished();
+        }
+        sample.stop(Timer.builder("gs.ingest.chunk")
+                .description("Time to upsert one listing chunk")
+                .tag("source", String.valueOf(chunk.getSourceName()))
+                .tag("outcome", outcome.isSkipped() ? "skipped" : "ingested")
+                .register(meterRegistry));
+        if (outcome.isSkipped()) {
+            return;
+        }
+        if (outcome.jobCompleted()) {
+            sourceLeaseService.release(chunk.getSourceId(), chunk.getFencingToken());
+        } else {
+            sourceLeaseService.extendForIngest(chunk.getSourceId(), chunk.getFencingToken());
+        }
+
+        // Drop cached listing queries affected by this chunk
+        listingCacheInvalidator.invalidate(outcome.result().affectedSources(), outcome.result().affectedCities());
+    }
+
+    private void failJob(ListingIngestChunk chunk, String error) {
+        sourceRepository.findById(chunk.getSourceId()).ifPresent(source ->
+                scrapingJobRepository.findById(chunk.getJobId())
+                        .ifPresent(job -> scrapingJobService.fail(job, source, error)));
+    }
+}
@@ -0,0 +1,24 @@
+package com.deroahe.gimmescrapes.worker.consumer;
+
+import com.deroahe.gimmescrapes.commons.config.RabbitMQConstants;
+import com.deroahe.gimmescrapes.commons.dto.ListingChangedBatch;
+import com.deroahe.gimmescrapes.worker.matching.SubscriptionMatchingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ListingMatchConsumer {
+
+    private final SubscriptionMatchingService subscriptionMatchingService;
+
+    @RabbitListener(queues = RabbitMQConstants.LISTING_MATCH_QUEUE)
+    public void consumeListingChanges(ListingChangedBatch batch) {
+        int matches = subscriptionMatchingService.match(batch);
+        log.debug("Processed listing changes: jobId={}, chunk={}, events={}, matches={}",
+                batch.getJobId(), batch.getChunk(), batch.getEvents() != null ? batch.getEvents().size() : 0, matches);
+    }
+}
@@ -2,24 +2,38 @@ package com.deroahe.gimmescrapes.worker.consumer;
 
 import com.deroahe.gimmescrapes.commons.config.RabbitMQConstants;
 import com.deroahe.gimmescrapes.commons.dto.ListingDto;
+import com.deroahe.gimmescrapes.commons.dto.ListingIngestChunk;
 import com.deroahe.gimmescrapes.commons.dto.ScrapeJobMessage;
-import com.deroahe.gimmescrapes.commons.enums.ScrapingJobStatus;
 import com.deroahe.gimmescrapes.commons.exception.ScrapingException;
 import com.deroahe.gimmescrapes.commons.model.Listing;
 import com.deroahe.gimmescrapes.commons.model.ScrapingJob;
 import com.deroahe.gimmescrapes.commons.model.Source;
-import com.deroahe.gimmescrapes.commons.repository.ScrapingJobRepository;
 import com.deroahe.gimmescrapes.commons.repository.SourceRepository;
+import com.deroahe.gimmescrapes.worker.config.RabbitMQConfig;
+import com.deroahe.gimmescrapes.worker.ingest.ListingChunkPublisher;
+import com.deroahe.gimmescrapes.worker.lease.LeaseLostException;
+import com.deroahe.gimmescrapes.worker.lease.SourceLease;
+import com.deroahe.gimmescrapes.worker.lease.SourceLeaseService;
+import com.deroahe.gimmescrapes.worker.metrics.ScrapeMetrics;
+import com.deroahe.gimmescrapes.worker.service.ListingCacheInvalidator;
 import com.deroahe.gimmescrapes.worker.service.ListingService;
 import com.deroahe.gimmescrapes.worker.service.ListingService.UpsertResult;
 import com.deroahe.gimmescrapes.worker.service.ScraperService;
+import com.deroahe.gimmescrapes.worker.service.ScrapingJobService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Consumer for scraping job messages from RabbitMQ.
@@ -33,122 +47,199 @@ public class ScrapeJobConsumer {
     private final ScraperService scraperService;
     private final ListingService listingService;
     private final SourceRepository sourceRepository;
-    private final ScrapingJobRepository scrapingJobRepository;
+    private final ScrapingJobService scrapingJobService;
+    private final ListingCacheInvalidator listingCacheInvalidator;
+    private final SourceLeaseService sourceLeaseService;
+    private final ListingChunkPublisher listingChunkPublisher;
+    private final MeterRegistry meterRegistry;
+    private final ScrapeMetrics scrapeMetrics;
+
+    /**
+     * When set, the fetch stage publishes parsed listings to {@code listings.ingest} in chunks
+     * instead of upserting them itself.
+     */
+    @Value("${gs.ingest.split:false}")
+    private boolean splitIngest;
+
+    @Value("${gs.ingest.chunk-size:200}")
+    private int ingestChunkSize;
 
     /**
      * Listens to the scrape queue and processes scraping jobs.
      *
      * @param message the scrape job message
      */
-    @RabbitListener(queues = RabbitMQConstants.SCRAPE_QUEUE)
+    @RabbitListener(id = RabbitMQConfig.SCRAPE_LISTENER_ID, queues = RabbitMQConstants.SCRAPE_QUEUE,
+            containerFactory = RabbitMQConfig.SCRAPE_CONTAINER_FACTORY, autoStartup = "${gs.worker.fetch.enabled:true}")
     public void consumeScrapeJob(ScrapeJobMessage message) {
+        process(message);
+    }
+
+    /**
+     * Listens to the express queue of manually triggered scrapes, on consumers of its own.
+     *
+     * @param message the scrape job message
+     */
+    @RabbitListener(id = RabbitMQConfig.SCRAPE_EXPRESS_LISTENER_ID, queues = RabbitMQConstants.SCRAPE_EXPRESS_QUEUE,
+            containerFactory = RabbitMQConfig.SCRAPE_EXPRESS_CONTAINER_FACTORY, autoStartup = "${gs.worker.fetch.enabled:true}")
+    public void consumeExpressScrapeJob(ScrapeJobMessage message) {
+        process(message);
+    }
+
+    private void process(ScrapeJobMessage message) {
         log.info("Received scrape job: jobId={}, sourceId={}, sourceName={}, triggeredBy={}",
                 message.getJobId(), message.getSourceId(), message.getSourceName(), message.getTriggeredBy());
+        recordTriggerLatency(message);
 
         ScrapingJob job = null;
+        Source source = null;
+        SourceLease lease = null;
+        ScrapeMetrics.SourceMeters meters = null;
 
         try {
             // Find the source
-            Source source = sourceRepository.findById(message.getSourceId())
+            source = sourceRepository.findById(message.getSourceId())
                     .orElseThrow(() -> new IllegalArgumentException("Source not found: " + message.getSourceId()));
 
-            // Find or create scraping job record
-            if (message.getJobId() != null) {
-                // Update existing job (triggered manually via API)
-                job = scrapingJobRepository.findById(message.getJobId())
-                        .orElseThrow(() -> new IllegalArgumentException("Scraping job not found: " + message.getJobId()));
-                job.setStatus(ScrapingJobStatus.RUNNING);
-                job.setStartedAt(LocalDateTime.now());
-                job = scrapingJobRepository.save(job);
-                log.info("Updated existing job {} to RUNNING status", job.getId());
-            } else {
-                // Create new job (for scheduled scrapes)
-                job = createScrapingJob(source);
-                log.info("Created new scraping job with id {}", job.getId());
+            // One scrape per source at a time; a duplicate trigger is folded into the running job
+            Optional<SourceLease> acquired = sourceLeaseService.tryAcquire(source.getId());
+            if (acquired.isEmpty()) {
+                Long holderJobId = sourceLeaseService.holderJobId(source.getId()).orElse(null);
+                scrapingJobService.coalesce(message.getJobId(), holderJobId, source);
+                meterRegistry.counter("gs.scrape.triggers.coalesced", "source", source.getName(),
+                        "triggeredBy", String.valueOf(message.getTriggeredBy())).increment();
+                log.info("Source {} is already being scraped by job {}, coalesced jobId={}",
+                        source.getName(), holderJobId, message.getJobId());
+                return;
             }
+            lease = acquired.get();
+            meters = scrapeMetrics.source(source.getName());
+            meters.fetchStarted();
+
+            // Find or create scraping job record
+            job = scrapingJobService.start(message.getJobId(), source);
+            lease.bindJob(job.getId());
+            log.info("Scraping job {} is RUNNING", job.getId());
 
             // Perform scraping
             log.info("Starting scrape for source: {} ({})", source.getName(), source.getDisplayName());
             List<ListingDto> scrapedListings = scraperService.scrapeListings(source);
 
+            if (lease.isLost()) {
+                throw new LeaseLostException("Lease of source " + source.getName() + " expired during the scrape");
+            }
+
+            if (splitIngest && !scrapedListings.isEmpty()) {
+                // Ingest workers upsert the chunks, complete the job and release the lease
+                List<ListingIngestChunk> chunks = toChunks(job, source, lease.token(), scrapedListings);
+                if (scrapingJobService.dispatchChunks(job, source, chunks.size())) {
+                    lease.handOff();
+                    publishChunks(job, source, lease, chunks);
+                }
+                return;
+            }
+
             // Convert DTOs to entities
             List<Listing> listings = scraperService.convertToEntities(scrapedListings, source);
 
             // Bulk upsert listings
             log.info("Upserting {} listings for source: {}", listings.size(), source.getName());
-            UpsertResult result = listingService.bulkUpsert(listings);
+            UpsertResult result = listingService.bulkUpsert(listings, job.getId(), lease.token());
 
             // Update job as completed
-            completeJob(job, result);
+            scrapingJobService.complete(job, source, result);
 
             // Update source last scrape time
             source.setLastScrapeAt(LocalDateTime.now());
             sourceRepository.save(source);
 
+            // Drop cached listing queries affected by this scrape
+            listingCacheInvalidator.invalidate(result.affectedSources(), result.affectedCities());
+
             log.info("Scrape job completed successfully: jobId={}, source={}, total={}, new={}, updated={}, skipped={}",
                     message.getJobId(), source.getName(), scrapedListings.size(),
                     result.newCount(), result.updatedCount(), result.skippedCount());
 
+        } catch (LeaseLostException e) {
+            // A newer scrape of the source owns it now; retrying this one would only be discarded again
+            log.warn("Scrape job {} lost its source lease: {}", message.getJobId(), e.getMessage());
+            if (job != null) {
+                scrapingJobService.fail(job, source, "Lease lost: " + e.getMessage());
+            }
+
         } catch (ScrapingException e) {
             log.error("Scraping failed for jobId={}: {}", message.getJobId(), e.getMessage(), e);
             if (job != null) {
-                failJob(job, "Scraping error: " + e.getMessage());
+                scrapingJobService.fail(job, source, "Scraping error: " + e.getMessage());
             }
             throw new RuntimeException("Scraping failed", e); // Will trigger retry via RabbitMQ
 
         } catch (Exception e) {
             log.error("Unexpected error processing scrape job {}: {}", message.getJobId(), e.getMessage(), e);
             if (job != null) {
-                failJob(job, "Unexpected error: " + e.getMessage());
+                scrapingJobService.fail(job, source, "Unexpected error: " + e.getMessage());
             }
             throw new RuntimeException("Unexpected error", e); // Will trigger retry via RabbitMQ
+
+        } finally {
+            if (meters != null) {
+                meters.fetchFinished();
+            }
+            if (lease != null) {
+                lease.close();
+            }
         }
     }
 
     /**
-     * Creates a scraping job record in RUNNING status.
-     *
-     * @param source the source being scraped
-     * @return the created scraping job
+     * Publishes a job's chunks. If they cannot all be confirmed the job is failed and the lease
+     * released, and the fetch is not retried: a re-scrape would produce different chunks, so the
+     * next trigger starts over instead. Chunks that did go out are dropped by the ingest stage.
      */
-    private ScrapingJob createScrapingJob(Source source) {
-        ScrapingJob job = ScrapingJob.builder()
-                .source(source)
-                .status(ScrapingJobStatus.RUNNING)
-                .startedAt(LocalDateTime.now())
-                .itemsScraped(0)
-                .itemsNew(0)
-                .itemsUpdated(0)
-                .build();
-
-        return scrapingJobRepository.save(job);
+    private void publishChunks(ScrapingJob job, Source source, SourceLease lease, List<ListingIngestChunk> chunks) {
+        try {
+            listingChunkPublisher.publish(chunks);
+            log.info("Scrape job {} handed {} listings to ingest in {} chunks",
+                    job.getId(), chunks.stream().mapToInt(chunk -> chunk.getListings().size()).sum(), chunks.size());
+        } catch (AmqpException e) {
+            log.error("Failed to publish the chunks of scrape job {}: {}", job.getId(), e.getMessage());
+            scrapingJobService.fail(job, source, "Chunk publish failed: " + e.getMessage());
+            sourceLeaseService.release(lease.sourceId(), lease.token());
+        }
     }
 
-    /**
-     * Marks a job as completed and updates statistics.
-     *
-     * @param job the scraping job
-     * @param result the upsert result
-     */
-    private void completeJob(ScrapingJob job, UpsertResult result) {
-        job.setStatus(ScrapingJobStatus.COMPLETED);
-        job.setCompletedAt(LocalDateTime.now());
-        job.setItemsScraped(result.getTotalProcessed());
-        job.setItemsNew(result.newCount());
-        job.setItemsUpdated(result.updatedCount());
-        scrapingJobRepository.save(job);
+    private List<ListingIngestChunk> toChunks(ScrapingJob job, Source source, long fencingToken, List<ListingDto> listings) {
+        int chunksTotal = (listings.size() + ingestChunkSize - 1) / ingestChunkSize;
+        List<ListingIngestChunk> chunks = new ArrayList<>(chunksTotal);
+        for (int chunk = 0; chunk < chunksTotal; chunk++) {
+            int from = chunk * ingestChunkSize;
+            chunks.add(ListingIngestChunk.builder()
+                    .jobId(job.getId())
+                    .sourceId(source.getId())
+                    .sourceName(source.getName())
+                    .chunk(chunk)
+                    .chunksTotal(chunksTotal)
+                    .fencingToken(fencingToken)
+                    .timestamp(LocalDateTime.now())
+                    .listings(new ArrayList<>(listings.subList(from, Math.min(from + ingestChunkSize, listings.size()))))
+                    .build());
+        }
+        return chunks;
     }
 
     /**
-     * Marks a job as failed and records the error message.
-     *
-     * @param job the scraping job
-     * @param errorMessage the error message
+     * Records the time from trigger to job start, tagged by trigger type.
      */
-    private void failJob(ScrapingJob job, String errorMessage) {
-        job.setStatus(ScrapingJobStatus.FAILED);
-        job.setCompletedAt(LocalDateTime.now());
-        job.setErrorMessage(errorMessage);
-        scrapingJobRepository.save(job);
+    private void recordTriggerLatency(ScrapeJobMessage message) {
+        if (message.getTimestamp() == null) {
+            return;
+        }
+        Duration latency = Duration.between(message.getTimestamp(), LocalDateTime.now());
+        Timer.builder("gs.scrape.trigger.latency")
+                .description("Time from scrape trigger to job start")
+                .tag("triggeredBy", message.getTriggeredBy() != null ? message.getTriggeredBy().name() : "UNKNOWN")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(latency.isNegative() ? Duration.ZERO : latency);
     }
 }
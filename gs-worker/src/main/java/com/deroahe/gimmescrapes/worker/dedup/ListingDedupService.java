@@ -0,0 +1,336 @@
+package com.deroahe.gimmescrapes.worker.dedup;
+
+import com.deroahe.gimmescrapes.commons.model.Listing;
+import com.deroahe.gimmescrapes.commons.repository.ListingRepository;
+import com.deroahe.gimmescrapes.worker.event.ListingChangeCollector;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Groups listings that describe the same property, typically across sources.
+ * <p>
+ * Each processed listing gets a MinHash signature and one row per LSH band. Listings sharing a
+ * band key are candidates; candidates whose estimated similarity passes the threshold and whose
+ * rooms and surface agree are linked.
+ * <p>
+ * Groups are then recomputed over the groups involved: those of the batch and of its
+ * candidates. Their members are re-linked pairwise, so an updated listing that no longer
+ * matches its group is split off (possibly splitting the group in two) rather than kept. Each
+ * resulting component gets its smallest listing id as {@code listing_group_id}. Work is
+ * proportional to the batch, its candidates and their groups, never to the table.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ListingDedupService {
+
+    private static final double MAX_SURFACE_DIFFERENCE = 0.1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ListingRepository listingRepository;
+
+    @Value("${gs.dedup.similarity-threshold:0.6}")
+    private double similarityThreshold;
+
+    /**
+     * Indexes and clusters a batch of listings.
+     * Must run inside the upsert transaction so group ids commit together with the listings.
+     *
+     * @param changed listings inserted or updated in this batch
+     * @param unchanged listings seen in this batch without changes; only indexed if never indexed before
+     * @param changes collector told about every listing moved to another group
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void process(Collection<Listing> changed, Collection<Listing> unchanged, ListingChangeCollector changes) {
+        // Pending entity changes must be visible to the JDBC statements below
+        listingRepository.flush();
+
+        Map<Long, Listing> batch = new LinkedHashMap<>();
+        changed.forEach(listing -> batch.put(listing.getId(), listing));
+        if (!unchanged.isEmpty()) {
+            Set<Long> indexed = selectIds("SELECT listing_id FROM listing_minhash WHERE listing_id = ANY(?)",
+                    unchanged.stream().map(Listing::getId).toList());
+            unchanged.stream()
+                    .filter(listing -> !indexed.contains(listing.getId()))
+                    .forEach(listing -> batch.put(listing.getId(), listing));
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<Long, int[]> signatures = new HashMap<>();
+        Map<Long, long[]> bandKeys = new HashMap<>();
+        for (Listing listing : batch.values()) {
+            int[] signature = MinHasher.signature(listing);
+            signatures.put(listing.getId(), signature);
+            bandKeys.put(listing.getId(), MinHasher.bandKeys(signature));
+        }
+
+        storeSignatures(signatures, bandKeys);
+
+        // Candidate pairs: any listing sharing a band key, including others from this batch
+        Map<Long, Set<Long>> candidates = findCandidates(bandKeys);
+        Set<Long> candidateIds = new HashSet<>();
+        candidates.values().forEach(candidateIds::addAll);
+        candidateIds.addAll(batch.keySet());
+
+        Map<Long, ListingTraits> traits = loadTraits(candidateIds);
+
+        // Pull in the remaining members of every group involved, so the groups can be rebuilt
+        Set<Long> groupIds = new HashSet<>();
+        traits.values().forEach(listingTraits -> groupIds.add(listingTraits.groupId()));
+        Set<Long> members = selectIds("SELECT id FROM listings WHERE listing_group_id = ANY(?)",
+                new ArrayList<>(groupIds));
+        members.removeAll(traits.keySet());
+        if (!members.isEmpty()) {
+            traits.putAll(loadTraits(members));
+        }
+        Map<Long, int[]> scopeSignatures = loadSignatures(traits.keySet());
+
+        UnionFind components = new UnionFind();
+        traits.keySet().forEach(components::add);
+        int links = 0;
+        for (Map.Entry<Long, Set<Long>> entry : candidates.entrySet()) {
+            long id = entry.getKey();
+            for (long other : entry.getValue()) {
+                if (isDuplicate(signatures.get(id), scopeSignatures.get(other), traits.get(id), traits.get(other))) {
+                    components.union(id, other);
+                    links++;
+                }
+            }
+        }
+
+        // Re-link existing groups pairwise; members that no longer match anything fall out
+        Map<Long, List<Long>> membersByGroup = new HashMap<>();
+        traits.forEach((id, listingTraits) ->
+                membersByGroup.computeIfAbsent(listingTraits.groupId(), k -> new ArrayList<>()).add(id));
+        for (List<Long> group : membersByGroup.values()) {
+            for (int i = 0; i < group.size(); i++) {
+                long id = group.get(i);
+                for (int j = i + 1; j < group.size(); j++) {
+                    long other = group.get(j);
+                    if (isDuplicate(scopeSignatures.get(id), scopeSignatures.get(other), traits.get(id), traits.get(other))) {
+                        components.union(id, other);
+                    }
+                }
+            }
+        }
+
+        int relabeled = relabelGroups(components, traits, changes);
+        log.info("Dedup processed {} listings: {} candidate links, {} groups relabeled", batch.size(), links, relabeled);
+    }
+
+    private boolean isDuplicate(int[] signature, int[] otherSignature, ListingTraits traits, ListingTraits otherTraits) {
+        if (signature == null || otherSignature == null || traits == null || otherTraits == null) {
+            return false;
+        }
+        if (MinHasher.similarity(signature, otherSignature) < similarityThreshold) {
+            return false;
+        }
+        if (traits.rooms() != null && otherTraits.rooms() != null && !traits.rooms().equals(otherTraits.rooms())) {
+            return false;
+        }
+        if (traits.surfaceSqm() != null && otherTraits.surfaceSqm() != null) {
+            double a = traits.surfaceSqm().doubleValue();
+            double b = otherTraits.surfaceSqm().doubleValue();
+            return Math.abs(a - b) <= MAX_SURFACE_DIFFERENCE * Math.max(a, b);
+        }
+        return true;
+    }
+
+    private void storeSignatures(Map<Long, int[]> signatures, Map<Long, long[]> bandKeys) {
+        List<Long> ids = new ArrayList<>(signatures.keySet());
+
+        // Updated listings may have new band keys; drop the old ones first
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement("DELETE FROM listing_lsh_bands WHERE listing_id = ANY(?)");
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        });
+
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO listing_minhash (listing_id, signature) VALUES (?, ?)
+                        ON CONFLICT (listing_id) DO UPDATE SET signature = EXCLUDED.signature
+                        """,
+                ids, ids.size(), (ps, id) -> {
+                    ps.setLong(1, id);
+                    ps.setBytes(2, MinHasher.toBytes(signatures.get(id)));
+                });
+
+        List<long[]> bandRows = new ArrayList<>();
+        bandKeys.forEach((id, keys) -> {
+            for (long key : keys) {
+                bandRows.add(new long[]{key, id});
+            }
+        });
+        jdbcTemplate.batchUpdate("INSERT INTO listing_lsh_bands (band_key, listing_id) VALUES (?, ?) ON CONFLICT DO NOTHING",
+                bandRows, 1000, (ps, row) -> {
+                    ps.setLong(1, row[0]);
+                    ps.setLong(2, row[1]);
+                });
+    }
+
+    private Map<Long, Set<Long>> findCandidates(Map<Long, long[]> bandKeys) {
+        Map<Long, List<Long>> listingsByKey = new HashMap<>();
+        bandKeys.forEach((id, keys) -> {
+            for (long key : keys) {
+                listingsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(id);
+            }
+        });
+
+        Map<Long, Set<Long>> candidates = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT band_key, listing_id FROM listing_lsh_bands WHERE band_key = ANY(?)");
+            ps.setArray(1, con.createArrayOf("bigint", listingsByKey.keySet().toArray()));
+            return ps;
+        }, rs -> {
+            long key = rs.getLong(1);
+            long other = rs.getLong(2);
+            for (long id : listingsByKey.get(key)) {
+                if (id != other) {
+                    candidates.computeIfAbsent(id, k -> new HashSet<>()).add(other);
+                }
+            }
+        });
+        return candidates;
+    }
+
+    private Map<Long, int[]> loadSignatures(Collection<Long> ids) {
+        Map<Long, int[]> signatures = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT listing_id, signature FROM listing_minhash WHERE listing_id = ANY(?)");
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        }, rs -> {
+            signatures.put(rs.getLong(1), MinHasher.fromBytes(rs.getBytes(2)));
+        });
+        return signatures;
+    }
+
+    private Map<Long, ListingTraits> loadTraits(Collection<Long> ids) {
+        Map<Long, ListingTraits> traits = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT id, rooms, surface_sqm, listing_group_id FROM listings WHERE id = ANY(?)");
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        }, rs -> {
+            Integer rooms = (Integer) rs.getObject(2);
+            BigDecimal surface = rs.getBigDecimal(3);
+            long groupId = rs.getObject(4) != null ? rs.getLong(4) : rs.getLong(1);
+            traits.put(rs.getLong(1), new ListingTraits(rooms, surface, groupId));
+        });
+        return traits;
+    }
+
+    /**
+     * Labels every component with its smallest id, writing only listings whose group changed.
+     * A listing split off on its own is labeled with its own id, the same as having no group.
+     * Relabeled listings are reported to the collector, since a group change can hide or show
+     * listings of other sources in collapsed results.
+     *
+     * @return number of components relabeled
+     */
+    private int relabelGroups(UnionFind components, Map<Long, ListingTraits> traits, ListingChangeCollector changes) {
+        int relabeled = 0;
+        for (Set<Long> component : components.components()) {
+            long target = component.stream().mapToLong(Long::longValue).min().orElseThrow();
+            if (component.stream().allMatch(id -> traits.get(id).groupId() == target)) {
+                continue;
+            }
+
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement("""
+                        UPDATE listings l SET listing_group_id = ?
+                        FROM sources s
+                        WHERE s.id = l.source_id AND l.id = ANY(?) AND COALESCE(l.listing_group_id, l.id) <> ?
+                        RETURNING s.name, l.city
+                        """);
+                ps.setLong(1, target);
+                ps.setArray(2, con.createArrayOf("bigint", component.toArray()));
+                ps.setLong(3, target);
+                return ps;
+            }, rs -> {
+                changes.touched(rs.getString(1), rs.getString(2));
+            });
+            relabeled++;
+        }
+        return relabeled;
+    }
+
+    private Set<Long> selectIds(String sql, List<Long> ids) {
+        Set<Long> result = new HashSet<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        }, rs -> {
+            result.add(rs.getLong(1));
+        });
+        return result;
+    }
+
+    private record ListingTraits(Integer rooms, BigDecimal surfaceSqm, long groupId) {
+    }
+
+    /**
+     * Minimal union-find over listing ids with path compression.
+     */
+    private static final class UnionFind {
+
+        private final Map<Long, Long> parent = new HashMap<>();
+
+        void add(long id) {
+            parent.putIfAbsent(id, id);
+        }
+
+        long find(long id) {
+            add(id);
+            long root = id;
+            while (parent.get(root) != root) {
+                root = parent.get(root);
+            }
+            long current = id;
+            while (current != root) {
+                long next = parent.get(current);
+                parent.put(current, root);
+                current = next;
+            }
+            return root;
+        }
+
+        void union(long a, long b) {
+            long rootA = find(a);
+            long rootB = find(b);
+            if (rootA != rootB) {
+                parent.put(Math.max(rootA, rootB), Math.min(rootA, rootB));
+            }
+        }
+
+        Collection<Set<Long>> components() {
+            Map<Long, Set<Long>> byRoot = new HashMap<>();
+            for (long id : new ArrayList<>(parent.keySet())) {
+                byRoot.computeIfAbsent(find(id), k -> new HashSet<>()).add(id);
+            }
+            return byRoot.values();
+        }
+    }
+}
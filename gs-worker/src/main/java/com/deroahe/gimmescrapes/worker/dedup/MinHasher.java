@@ -0,0 +1,181 @@
+package com.deroahe.gimmescrapes.worker.dedup;
+
+import com.deroahe.gimmescrapes.commons.model.Listing;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Computes MinHash signatures of listings and their locality-sensitive-hashing band keys.
+ * <p>
+ * A listing is reduced to a set of shingle hashes: word 3-grams of its normalized title and
+ * description, plus bucketed surface, rooms, price and location tokens. Attribute tokens are
+ * replicated so they carry weight next to long descriptions. Two signatures agree in each
+ * position with probability equal to the Jaccard similarity of the underlying sets.
+ * <p>
+ * Signatures are split into {@value #BANDS} bands of {@value #ROWS_PER_BAND} rows; listings that
+ * agree on a whole band become candidates. With these parameters pairs around 0.5 similarity
+ * have even odds of colliding, and pairs above 0.7 almost always do.
+ */
+public final class MinHasher {
+
+    public static final int SIGNATURE_LENGTH = 64;
+    public static final int BANDS = 16;
+    public static final int ROWS_PER_BAND = SIGNATURE_LENGTH / BANDS;
+
+    private static final int SHINGLE_WORDS = 3;
+    private static final int ATTRIBUTE_WEIGHT = 8;
+    private static final double PRICE_BUCKET_RATIO = Math.log(1.05);
+    private static final int SURFACE_BUCKET_SQM = 5;
+
+    /**
+     * Drops Morton bits below roughly 600 m x 850 m cells.
+     */
+    private static final int LOCATION_SHIFT = 22;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    private MinHasher() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Computes the MinHash signature of a listing.
+     *
+     * @param listing the listing
+     * @return signature of {@value #SIGNATURE_LENGTH} minimum hash values
+     */
+    public static int[] signature(Listing listing) {
+        int[] signature = new int[SIGNATURE_LENGTH];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long shingle : shingles(listing)) {
+            // Kirsch-Mitzenmacher: derive the k hash functions from two halves of one 64-bit hash
+            int h1 = (int) shingle;
+            int h2 = (int) (shingle >>> 32);
+            for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+                int h = (h1 + i * h2) & Integer.MAX_VALUE;
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Hashes each band of a signature into a key; the band index is mixed in so equal rows
+     * in different bands never collide.
+     *
+     * @param signature the signature
+     * @return {@value #BANDS} band keys
+     */
+    public static long[] bandKeys(int[] signature) {
+        long[] keys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long h = band;
+            for (int row = 0; row < ROWS_PER_BAND; row++) {
+                h = mix(h * 31 + signature[band * ROWS_PER_BAND + row]);
+            }
+            keys[band] = h;
+        }
+        return keys;
+    }
+
+    /**
+     * Estimates Jaccard similarity as the fraction of agreeing signature positions.
+     */
+    public static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIGNATURE_LENGTH;
+    }
+
+    public static byte[] toBytes(int[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(SIGNATURE_LENGTH * Integer.BYTES);
+        buffer.asIntBuffer().put(signature);
+        return buffer.array();
+    }
+
+    public static int[] fromBytes(byte[] bytes) {
+        int[] signature = new int[SIGNATURE_LENGTH];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(signature);
+        return signature;
+    }
+
+    private static Set<Long> shingles(Listing listing) {
+        Set<Long> shingles = new HashSet<>();
+
+        String[] words = normalize(Objects.toString(listing.getTitle(), "") + " " + Objects.toString(listing.getDescription(), "")).split(" ");
+        if (words.length < SHINGLE_WORDS) {
+            for (String word : words) {
+                shingles.add(hash("w:" + word));
+            }
+        } else {
+            for (int i = 0; i + SHINGLE_WORDS <= words.length; i++) {
+                shingles.add(hash("w:" + words[i] + " " + words[i + 1] + " " + words[i + 2]));
+            }
+        }
+
+        if (listing.getSurfaceSqm() != null) {
+            addAttribute(shingles, "s:" + listing.getSurfaceSqm().intValue() / SURFACE_BUCKET_SQM);
+        }
+        if (listing.getRooms() != null) {
+            addAttribute(shingles, "r:" + listing.getRooms());
+        }
+        if (listing.getPrice() != null && listing.getPrice().signum() > 0) {
+            long bucket = (long) Math.floor(Math.log(listing.getPrice().doubleValue()) / PRICE_BUCKET_RATIO);
+            addAttribute(shingles, "p:" + listing.getCurrency() + ":" + bucket);
+        }
+        if (listing.getGeoCell() != null) {
+            addAttribute(shingles, "g:" + (listing.getGeoCell() >>> LOCATION_SHIFT));
+        } else if (listing.getCity() != null) {
+            addAttribute(shingles, "l:" + normalize(listing.getCity() + " " + Objects.toString(listing.getNeighborhood(), "")));
+        }
+        return shingles;
+    }
+
+    private static void addAttribute(Set<Long> shingles, String token) {
+        for (int copy = 0; copy < ATTRIBUTE_WEIGHT; copy++) {
+            shingles.add(hash(token + "#" + copy));
+        }
+    }
+
+    private static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String stripped = DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+        return NON_ALPHANUMERIC.matcher(stripped).replaceAll(" ").trim();
+    }
+
+    /**
+     * 64-bit FNV-1a followed by a finalizer for good avalanche on short strings.
+     */
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93e7f4ba9dbL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
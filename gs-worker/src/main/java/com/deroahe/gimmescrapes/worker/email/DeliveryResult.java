@@ -0,0 +1,15 @@
+package com.deroahe.gimmescrapes.worker.email;
+
+/**
+ * Outcome of sending one {@link OutgoingEmail}.
+ *
+ * @param email the email
+ * @param error null when sent, otherwise the failure reason
+ * @param retryable true if the failure may go away on a later attempt (connection errors, SMTP 4xx)
+ */
+public record DeliveryResult(OutgoingEmail email, String error, boolean retryable) {
+
+    public boolean sent() {
+        return error == null;
+    }
+}
@@ -0,0 +1,138 @@
+package com.deroahe.gimmescrapes.worker.email;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.eclipse.angus.mail.util.MailConnectException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders and sends emails in bulk.
+ * <p>
+ * Rendering is CPU-bound and runs on a pool sized to the machine; sending is I/O-bound and runs
+ * on one thread per pooled SMTP connection. Each email is handed to the send pool as soon as it
+ * is rendered, and every send passes the global rate limiter first.
+ */
+@Slf4j
+@Service
+public class EmailDeliveryService {
+
+    private final EmailTemplateRenderer renderer;
+    private final SmtpSessionPool smtpSessionPool;
+    private final SendRateLimiter rateLimiter;
+    private final ExecutorService renderExecutor;
+    private final ExecutorService sendExecutor;
+    private final Timer renderTimer;
+    private final Timer sendTimer;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+
+    @Value("${gs.email.from:noreply@gimmescrapes.local}")
+    private String from;
+
+    public EmailDeliveryService(EmailTemplateRenderer renderer,
+                                SmtpSessionPool smtpSessionPool,
+                                MeterRegistry meterRegistry,
+                                @Value("${gs.email.rate-per-second:10}") double ratePerSecond,
+                                @Value("${gs.email.render-threads:0}") int renderThreads) {
+        this.renderer = renderer;
+        this.smtpSessionPool = smtpSessionPool;
+        this.rateLimiter = new SendRateLimiter(ratePerSecond);
+        this.renderExecutor = Executors.newFixedThreadPool(
+                renderThreads > 0 ? renderThreads : Runtime.getRuntime().availableProcessors());
+        // Platform threads even with spring.threads.virtual.enabled: SMTPTransport sends while holding
+        // its monitor, so a virtual sender would pin its carrier for the whole SMTP round trip
+        this.sendExecutor = Executors.newFixedThreadPool(smtpSessionPool.size());
+        this.renderTimer = Timer.builder("gs.email.render").register(meterRegistry);
+        this.sendTimer = Timer.builder("gs.email.send").register(meterRegistry);
+        this.sentCounter = Counter.builder("gs.email.sent").register(meterRegistry);
+        this.failedCounter = Counter.builder("gs.email.failed").register(meterRegistry);
+    }
+
+    /**
+     * Renders and sends a batch of emails, returning once every email has succeeded or failed.
+     *
+     * @param emails the emails
+     * @return one result per email, in input order
+     */
+    public List<DeliveryResult> deliver(List<OutgoingEmail> emails) {
+        List<CompletableFuture<DeliveryResult>> futures = new ArrayList<>(emails.size());
+        for (OutgoingEmail email : emails) {
+            futures.add(CompletableFuture
+                    .supplyAsync(() -> renderTimer.record(() -> renderer.render(email.template(), email.model())), renderExecutor)
+                    .thenApplyAsync(html -> send(email, html), sendExecutor)
+                    .exceptionally(e -> failed(email, e.getCause() != null ? e.getCause() : e)));
+        }
+
+        List<DeliveryResult> results = new ArrayList<>(emails.size());
+        futures.forEach(future -> results.add(future.join()));
+        return results;
+    }
+
+    private DeliveryResult send(OutgoingEmail email, String html) {
+        rateLimiter.acquire();
+        long start = System.nanoTime();
+        try {
+            MimeMessage message = smtpSessionPool.createMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+            helper.setFrom(from);
+            helper.setTo(email.recipient());
+            helper.setSubject(email.subject());
+            helper.setText(html, true);
+            smtpSessionPool.send(message);
+            sentCounter.increment();
+            return new DeliveryResult(email, null, false);
+        } catch (Exception e) {
+            return failed(email, e);
+        } finally {
+            sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private DeliveryResult failed(OutgoingEmail email, Throwable e) {
+        log.warn("Failed to deliver email: jobId={}, recipient={}, error={}", email.jobId(), email.recipient(), e.getMessage());
+        failedCounter.increment();
+        return new DeliveryResult(email, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName(), isTransient(e));
+    }
+
+    /**
+     * Connection and I/O errors and SMTP 4xx replies are transient; rejected recipients,
+     * 5xx replies and rendering errors will fail the same way on every attempt.
+     */
+    private static boolean isTransient(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof SMTPSendFailedException smtp) {
+                return smtp.getReturnCode() / 100 == 4;
+            }
+            if (t instanceof SendFailedException) {
+                return false;
+            }
+            if (t instanceof MailConnectException || t instanceof IOException || t instanceof InterruptedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderExecutor.shutdown();
+        sendExecutor.shutdown();
+    }
+}
@@ -0,0 +1,220 @@
+package com.deroahe.gimmescrapes.worker.email;
+
+import com.deroahe.gimmescrapes.commons.enums.EmailJobStatus;
+import com.deroahe.gimmescrapes.commons.enums.ListingChangeType;
+import com.deroahe.gimmescrapes.commons.model.EmailJob;
+import com.deroahe.gimmescrapes.commons.model.EmailSubscription;
+import com.deroahe.gimmescrapes.commons.model.Listing;
+import com.deroahe.gimmescrapes.commons.model.SubscriptionMatch;
+import com.deroahe.gimmescrapes.commons.repository.EmailJobRepository;
+import com.deroahe.gimmescrapes.commons.repository.EmailSubscriptionRepository;
+import com.deroahe.gimmescrapes.commons.repository.ListingRepository;
+import com.deroahe.gimmescrapes.commons.repository.SubscriptionMatchRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sends one digest per subscriber covering all of their pending subscription matches.
+ * <p>
+ * Subscribers are processed in batches: a short transaction loads the batch's matches,
+ * subscriptions and listings in three queries and creates the email jobs, the digests are
+ * rendered and sent outside any transaction, and a second transaction records the outcome.
+ * <p>
+ * Every worker runs the digest schedule, so the first transaction also claims the batch's
+ * matches: it locks them with {@code FOR UPDATE SKIP LOCKED} and leases them for
+ * {@code gs.email.digest.claim-lease}, and other workers skip leased matches. Matches of failed
+ * digests are released and retried on the next run, until they have failed
+ * {@code gs.email.digest.max-attempts} times and are parked. A worker that dies mid-send loses
+ * its lease when it expires.
+ */
+@Slf4j
+@Service
+public class EmailDigestService {
+
+    private final SubscriptionMatchRepository matchRepository;
+    private final EmailSubscriptionRepository subscriptionRepository;
+    private final ListingRepository listingRepository;
+    private final EmailJobRepository emailJobRepository;
+    private final EmailDeliveryService deliveryService;
+    private final EmailJobStatusService emailJobStatusService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${gs.email.digest.batch-size:200}")
+    private int batchSize;
+
+    @Value("${gs.email.digest.max-listings:20}")
+    private int maxListings;
+
+    /**
+     * Must outlast sending one batch; an expired lease lets another worker send the digest again.
+     */
+    @Value("${gs.email.digest.claim-lease:PT10M}")
+    private Duration claimLease;
+
+    @Value("${gs.email.digest.max-attempts:5}")
+    private int maxAttempts;
+
+    public EmailDigestService(SubscriptionMatchRepository matchRepository,
+                              EmailSubscriptionRepository subscriptionRepository,
+                              ListingRepository listingRepository,
+                              EmailJobRepository emailJobRepository,
+                              EmailDeliveryService deliveryService,
+                              EmailJobStatusService emailJobStatusService,
+                              PlatformTransactionManager transactionManager) {
+        this.matchRepository = matchRepository;
+        this.subscriptionRepository = subscriptionRepository;
+        this.listingRepository = listingRepository;
+        this.emailJobRepository = emailJobRepository;
+        this.deliveryService = deliveryService;
+        this.emailJobStatusService = emailJobStatusService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Sends digests to every subscriber with pending matches.
+     */
+    @Scheduled(fixedDelayString = "${gs.email.digest.interval-ms:900000}",
+            initialDelayString = "${gs.email.digest.interval-ms:900000}")
+    public void sendDigests() {
+        List<Long> subscriptionIds = matchRepository.findPendingSubscriptionIds(LocalDateTime.now());
+        if (subscriptionIds.isEmpty()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        int sent = 0;
+        for (int from = 0; from < subscriptionIds.size(); from += batchSize) {
+            sent += sendBatch(subscriptionIds.subList(from, Math.min(from + batchSize, subscriptionIds.size())));
+        }
+        log.info("Sent {}/{} digests in {} ms", sent, subscriptionIds.size(), System.currentTimeMillis() - start);
+    }
+
+    private int sendBatch(List<Long> subscriptionIds) {
+        List<Digest> digests = transactionTemplate.execute(status -> prepare(subscriptionIds));
+        if (digests == null || digests.isEmpty()) {
+            return 0;
+        }
+
+        List<DeliveryResult> results = deliveryService.deliver(digests.stream().map(Digest::email).toList());
+
+        List<Long> notifiedMatchIds = new ArrayList<>();
+        List<Long> failedMatchIds = new ArrayList<>();
+        for (int i = 0; i < digests.size(); i++) {
+            if (results.get(i).sent()) {
+                notifiedMatchIds.addAll(digests.get(i).matchIds());
+            } else {
+                failedMatchIds.addAll(digests.get(i).matchIds());
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            emailJobStatusService.record(results);
+            LocalDateTime now = LocalDateTime.now();
+            if (!notifiedMatchIds.isEmpty()) {
+                matchRepository.markNotified(notifiedMatchIds, now);
+            }
+            if (!failedMatchIds.isEmpty()) {
+                matchRepository.recordFailure(failedMatchIds, maxAttempts, now);
+            }
+        });
+        return (int) results.stream().filter(DeliveryResult::sent).count();
+    }
+
+    private List<Digest> prepare(List<Long> subscriptionIds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> claimed = matchRepository.lockClaimable(subscriptionIds, now);
+        if (claimed.isEmpty()) {
+            return List.of();
+        }
+        matchRepository.claim(claimed, now.plus(claimLease));
+
+        Map<Long, List<SubscriptionMatch>> matchesBySubscription = matchRepository.findAllByIdOrdered(claimed)
+                .stream()
+                .collect(Collectors.groupingBy(SubscriptionMatch::getSubscriptionId, LinkedHashMap::new, Collectors.toList()));
+        Map<Long, EmailSubscription> subscriptions = subscriptionRepository.findAllById(matchesBySubscription.keySet())
+                .stream()
+                .collect(Collectors.toMap(EmailSubscription::getId, Function.identity()));
+        Map<Long, Listing> listings = listingRepository.findAllById(matchesBySubscription.values().stream()
+                        .flatMap(List::stream)
+                        .map(SubscriptionMatch::getListingId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Listing::getId, Function.identity()));
+
+        List<Digest> digests = new ArrayList<>();
+        for (Map.Entry<Long, List<SubscriptionMatch>> entry : matchesBySubscription.entrySet()) {
+            EmailSubscription subscription = subscriptions.get(entry.getKey());
+            if (subscription == null) {
+                continue;
+            }
+            List<Map<String, Object>> items = new ArrayList<>();
+            for (SubscriptionMatch match : entry.getValue()) {
+                Listing listing = listings.get(match.getListingId());
+                // Delisted listings are dropped from the digest but their matches still count as handled
+                if (listing != null && listing.getDelistedAt() == null) {
+                    items.add(item(listing, match.getChangeType()));
+                }
+            }
+            List<Long> matchIds = entry.getValue().stream().map(SubscriptionMatch::getId).toList();
+            if (items.isEmpty()) {
+                matchRepository.markNotified(matchIds, LocalDateTime.now());
+                continue;
+            }
+
+            String subject = items.size() == 1
+                    ? "1 new listing matches your alert"
+                    : items.size() + " new listings match your alert";
+            EmailJob job = emailJobRepository.save(EmailJob.builder()
+                    .subscription(subscription)
+                    .recipientEmail(subscription.getEmail())
+                    .subject(subject)
+                    .status(EmailJobStatus.PENDING)
+                    .build());
+
+            Map<String, Object> model = new HashMap<>();
+            model.put("recipient", subscription.getEmail());
+            model.put("listingCount", items.size());
+            model.put("listings", items.subList(0, Math.min(items.size(), maxListings)));
+            model.put("moreCount", Math.max(0, items.size() - maxListings));
+            digests.add(new Digest(matchIds,
+                    new OutgoingEmail(job.getId(), subscription.getEmail(), subject, EmailTemplateRenderer.LISTING_DIGEST, model)));
+        }
+        return digests;
+    }
+
+    private Map<String, Object> item(Listing listing, ListingChangeType changeType) {
+        Map<String, Object> item = new HashMap<>();
+        item.put("title", listing.getTitle());
+        item.put("url", listing.getUrl());
+        item.put("price", format(listing.getPrice()));
+        item.put("currency", listing.getCurrency());
+        item.put("city", listing.getCity());
+        item.put("neighborhood", listing.getNeighborhood());
+        item.put("rooms", listing.getRooms());
+        item.put("surface", format(listing.getSurfaceSqm()));
+        item.put("priceDrop", changeType == ListingChangeType.PRICE_DROP);
+        return item;
+    }
+
+    private String format(BigDecimal value) {
+        return value != null ? String.format("%,.0f", value) : null;
+    }
+
+    private record Digest(List<Long> matchIds, OutgoingEmail email) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.deroahe.gimmescrapes.worker.email;
+
+import com.deroahe.gimmescrapes.commons.repository.EmailJobRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes delivery outcomes back to {@code email_jobs} with set-based updates: one UPDATE for
+ * all sent jobs and one per distinct failure reason, instead of a load and save per job.
+ */
+@Service
+@RequiredArgsConstructor
+public class EmailJobStatusService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailJobRepository emailJobRepository;
+
+    /**
+     * Records the outcome of a delivery batch. Results of emails without a job are ignored.
+     *
+     * @param results the delivery results
+     */
+    @Transactional
+    public void record(List<DeliveryResult> results) {
+        record(results, Map.of());
+    }
+
+    /**
+     * Records the outcome of a delivery batch together with jobs rejected before delivery.
+     *
+     * @param results the delivery results
+     * @param rejected failure reasons of jobs that were not delivered, by job ID
+     */
+    @Transactional
+    public void record(List<DeliveryResult> results, Map<Long, String> rejected) {
+        List<Long> sent = new ArrayList<>();
+        Map<String, List<Long>> failedByError = new LinkedHashMap<>();
+        for (DeliveryResult result : results) {
+            Long jobId = result.email().jobId();
+            if (jobId == null) {
+                continue;
+            }
+            if (result.sent()) {
+                sent.add(jobId);
+            } else {
+                failedByError.computeIfAbsent(truncate(result.error()), e -> new ArrayList<>()).add(jobId);
+            }
+        }
+        rejected.forEach((jobId, error) -> failedByError.computeIfAbsent(truncate(error), e -> new ArrayList<>()).add(jobId));
+
+        if (!sent.isEmpty()) {
+            emailJobRepository.markSent(sent, LocalDateTime.now());
+        }
+        failedByError.forEach((error, ids) -> emailJobRepository.markFailed(ids, error));
+    }
+
+    private String truncate(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
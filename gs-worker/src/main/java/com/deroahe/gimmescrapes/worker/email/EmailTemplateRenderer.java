@@ -0,0 +1,66 @@
+package com.deroahe.gimmescrapes.worker.email;
+
+import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.Template;
+import com.github.jknack.handlebars.cache.ConcurrentMapTemplateCache;
+import com.github.jknack.handlebars.io.ClassPathTemplateLoader;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders email bodies from Handlebars templates under {@code classpath:templates/email}.
+ * <p>
+ * Templates are compiled once and cached; compiled templates are immutable and rendered
+ * concurrently. Known templates are compiled at startup so a broken template fails the boot
+ * rather than the first send.
+ */
+@Slf4j
+@Component
+public class EmailTemplateRenderer {
+
+    public static final String LISTING_DIGEST = "listing-digest";
+
+    private final Handlebars handlebars = new Handlebars(new ClassPathTemplateLoader("/templates/email", ".hbs"))
+            .with(new ConcurrentMapTemplateCache());
+
+    @Value("${gs.email.precompiled-templates:" + LISTING_DIGEST + "}")
+    private List<String> precompiledTemplates;
+
+    @PostConstruct
+    void precompile() {
+        for (String name : precompiledTemplates) {
+            template(name);
+        }
+        log.info("Precompiled email templates: {}", precompiledTemplates);
+    }
+
+    /**
+     * Renders a template.
+     *
+     * @param name the template name
+     * @param model the template model
+     * @return the rendered HTML
+     */
+    public String render(String name, Map<String, Object> model) {
+        try {
+            return template(name).apply(model);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to render email template: " + name, e);
+        }
+    }
+
+    private Template template(String name) {
+        try {
+            return handlebars.compile(name);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compile email template: " + name, e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.deroahe.gimmescrapes.worker.email;
+
+import java.util.Map;
+
+/**
+ * An email to render and send.
+ *
+ * @param jobId the email job ID, or null for emails without a job record
+ * @param recipient the recipient address
+ * @param subject the subject line
+ * @param template the Handlebars template name, relative to {@code templates/email}
+ * @param model the template model
+ */
+public record OutgoingEmail(Long jobId, String recipient, String subject, String template, Map<String, Object> model) {
+}
@@ -0,0 +1,37 @@
+package com.deroahe.gimmescrapes.worker.email;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Spaces calls evenly to stay under a global rate, shared by all sending threads.
+ * Each caller reserves the next free slot and waits for it; a rate of zero or less disables limiting.
+ */
+public class SendRateLimiter {
+
+    private final long intervalNanos;
+    private long nextFreeNanos = System.nanoTime();
+
+    public SendRateLimiter(double permitsPerSecond) {
+        this.intervalNanos = permitsPerSecond > 0 ? (long) (1_000_000_000L / permitsPerSecond) : 0L;
+    }
+
+    /**
+     * Blocks until the caller may send.
+     */
+    public void acquire() {
+        if (intervalNanos == 0L) {
+            return;
+        }
+        long now = System.nanoTime();
+        long slot;
+        synchronized (this) {
+            slot = Math.max(now, nextFreeNanos);
+            nextFreeNanos = slot + intervalNanos;
+        }
+        long waitNanos = slot - now;
+        while (waitNanos > 0) {
+            LockSupport.parkNanos(waitNanos);
+            waitNanos = slot - System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.deroahe.gimmescrapes.worker.email;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Fixed-size pool of persistent SMTP connections.
+ * <p>
+ * {@code JavaMailSender} opens and closes a connection (TCP, TLS and AUTH handshakes) for every
+ * send call; here each connection is reused for up to {@code gs.email.smtp.max-messages-per-connection}
+ * messages. A connection that fails a send is discarded and reopened on next use, so a broken
+ * connection costs at most the message that found it.
+ */
+@Slf4j
+@Component
+public class SmtpSessionPool {
+
+    private final MailProperties mailProperties;
+    private final Session session;
+    private final BlockingQueue<PooledTransport> idle;
+    private final List<PooledTransport> all = new ArrayList<>();
+
+    @Value("${gs.email.smtp.max-messages-per-connection:100}")
+    private int maxMessagesPerConnection;
+
+    public SmtpSessionPool(MailProperties mailProperties,
+                           @Value("${gs.email.smtp.pool-size:4}") int poolSize) {
+        this.mailProperties = mailProperties;
+        Properties properties = new Properties();
+        properties.putAll(mailProperties.getProperties());
+        properties.setProperty("mail.transport.protocol", mailProperties.getProtocol());
+        this.session = Session.getInstance(properties);
+        this.idle = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            PooledTransport transport = new PooledTransport();
+            all.add(transport);
+            idle.add(transport);
+        }
+    }
+
+    /**
+     * Creates an empty message bound to the pool's mail session.
+     */
+    public MimeMessage createMessage() {
+        return new MimeMessage(session);
+    }
+
+    /**
+     * Sends a message over a pooled connection, waiting for one to become free.
+     *
+     * @param message the message
+     * @throws MessagingException if the send fails; the connection used is discarded
+     */
+    public void send(MimeMessage message) throws MessagingException {
+        PooledTransport transport;
+        try {
+            transport = idle.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted waiting for an SMTP connection", e);
+        }
+        try {
+            transport.send(message);
+        } catch (MessagingException | RuntimeException e) {
+            transport.close();
+            throw e;
+        } finally {
+            idle.add(transport);
+        }
+    }
+
+    public int size() {
+        return all.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        all.forEach(PooledTransport::close);
+    }
+
+    private final class PooledTransport {
+
+        private Transport transport;
+        private int sent;
+
+        void send(MimeMessage message) throws MessagingException {
+            if (transport == null || sent >= maxMessagesPerConnection || !transport.isConnected()) {
+                close();
+                transport = session.getTransport();
+                transport.connect(mailProperties.getHost(), portOrDefault(), emptyToNull(mailProperties.getUsername()),
+                        emptyToNull(mailProperties.getPassword()));
+            }
+            message.saveChanges();
+            transport.sendMessage(message, message.getAllRecipients());
+            sent++;
+        }
+
+        void close() {
+            if (transport != null) {
+                try {
+                    transport.close();
+                } catch (MessagingException e) {
+                    log.debug("Error closing SMTP connection: {}", e.getMessage());
+                }
+                transport = null;
+            }
+            sent = 0;
+        }
+
+        private int portOrDefault() {
+            return mailProperties.getPort() != null ? mailProperties.getPort() : -1;
+        }
+
+        private String emptyToNull(String value) {
+            return StringUtils.hasText(value) ? value : null;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.deroahe.gimmescrapes.worker.event;
+
+import com.deroahe.gimmescrapes.commons.dto.ListingChangedEvent;
+import com.deroahe.gimmescrapes.commons.enums.ListingChangeType;
+import com.deroahe.gimmescrapes.commons.model.Listing;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Accumulates listing change events during one upsert batch, together with the sources and
+ * cities whose cached listing queries the batch may have changed: the new and previous city of
+ * every changed listing, and those of listings touched without an event of their own.
+ */
+@Getter
+public class ListingChangeCollector {
+
+    private final Long jobId;
+    private final String sourceName;
+    private final List<ListingChangedEvent> events = new ArrayList<>();
+    private final Set<String> affectedSources = new LinkedHashSet<>();
+    private final Set<String> affectedCities = new LinkedHashSet<>();
+
+    public ListingChangeCollector(Long jobId, String sourceName) {
+        this.jobId = jobId;
+        this.sourceName = sourceName;
+        if (sourceName != null) {
+            affectedSources.add(sourceName);
+        }
+    }
+
+    public void created(Listing listing) {
+        affectedCity(listing.getCity());
+        events.add(event(listing, ListingChangeType.NEW, List.of()));
+    }
+
+    /**
+     * Records an update; a lower price in the same currency is reported as a price drop.
+     *
+     * @param listing the listing after the update
+     * @param before the tracked fields before the update
+     */
+    public void updated(Listing listing, ListingSnapshot before) {
+        affectedCity(before.city());
+        affectedCity(listing.getCity());
+        List<ListingChangedEvent.FieldChange> changes = before.diff(listing);
+        if (changes.isEmpty()) {
+            return;
+        }
+        boolean priceDrop = before.price() != null && listing.getPrice() != null
+                && listing.getPrice().compareTo(before.price()) < 0
+                && before.currency() != null && before.currency().equals(listing.getCurrency());
+        events.add(event(listing, priceDrop ? ListingChangeType.PRICE_DROP : ListingChangeType.UPDATED, changes));
+    }
+
+    public void delisted(Listing listing) {
+        affectedCity(listing.getCity());
+        events.add(event(listing, ListingChangeType.DELISTED, List.of()));
+    }
+
+    /**
+     * Records a listing changed without an event of its own, e.g. moved to another duplicate
+     * group, possibly of another source.
+     *
+     * @param listingSourceName the listing's source
+     * @param city the listing's city, may be null
+     */
+    public void touched(String listingSourceName, String city) {
+        affectedSources.add(listingSourceName);
+        affectedCity(city);
+    }
+
+    public boolean isEmpty() {
+        return events.isEmpty();
+    }
+
+    private void affectedCity(String city) {
+        if (city != null) {
+            affectedCities.add(city);
+        }
+    }
+
+    private static ListingChangedEvent event(Listing listing, ListingChangeType type,
+                                             List<ListingChangedEvent.FieldChange> changes) {
+        return ListingChangedEvent.builder()
+                .listingId(listing.getId())
+                .type(type)
+                .price(listing.getPrice())
+                .currency(listing.getCurrency())
+                .surfaceSqm(listing.getSurfaceSqm())
+                .rooms(listing.getRooms())
+                .city(listing.getCity())
+                .neighborhood(listing.getNeighborhood())
+                .featuresMask(listing.getFeaturesMask())
+                .changes(changes.isEmpty() ? null : changes)
+                .build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.deroahe.gimmescrapes.worker.event;
+
+import com.deroahe.gimmescrapes.commons.config.RabbitMQConstants;
+import com.deroahe.gimmescrapes.commons.dto.ListingChangedBatch;
+import com.deroahe.gimmescrapes.commons.dto.ListingChangedEvent;
+import com.deroahe.gimmescrapes.worker.outbox.OutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Publishes listing change events in chunks to the listing events exchange through the outbox,
+ * so events are delivered if and only if the upsert commits.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ListingEventPublisher {
+
+    private static final String AGGREGATE_TYPE = "scraping_job";
+
+    private final OutboxService outboxService;
+
+    @Value("${gs.events.chunk-size:200}")
+    private int chunkSize;
+
+    /**
+     * Writes the collected events to the outbox in chunks.
+     * Must run inside the upsert transaction.
+     *
+     * @param collector the collected events
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(ListingChangeCollector collector) {
+        if (collector.isEmpty()) {
+            return;
+        }
+        List<ListingChangedEvent> events = collector.getEvents();
+        String routingKey = RabbitMQConstants.LISTING_CHANGED_ROUTING_KEY_PREFIX + collector.getSourceName();
+        int chunks = (events.size() + chunkSize - 1) / chunkSize;
+
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            ListingChangedBatch batch = ListingChangedBatch.builder()
+                    .jobId(collector.getJobId())
+                    .sourceName(collector.getSourceName())
+                    .chunk(chunk)
+                    .timestamp(LocalDateTime.now())
+                    .events(List.copyOf(events.subList(chunk * chunkSize, Math.min(events.size(), (chunk + 1) * chunkSize))))
+                    .build();
+            outboxService.enqueue(AGGREGATE_TYPE, collector.getJobId(),
+                    RabbitMQConstants.LISTING_EVENTS_EXCHANGE, routingKey, batch);
+        }
+        log.debug("Queued {} listing events in {} chunks for job {}", events.size(), chunks, collector.getJobId());
+    }
+}
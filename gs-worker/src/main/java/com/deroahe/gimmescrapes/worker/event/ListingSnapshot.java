@@ -0,0 +1,95 @@
+package com.deroahe.gimmescrapes.worker.event;
+
+import com.deroahe.gimmescrapes.commons.dto.ListingChangedEvent.FieldChange;
+import com.deroahe.gimmescrapes.commons.model.Listing;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Values of a listing's tracked fields before an update, used to compute field deltas.
+ */
+public record ListingSnapshot(
+        BigDecimal price,
+        String currency,
+        String title,
+        String description,
+        BigDecimal surfaceSqm,
+        Integer rooms,
+        Integer floor,
+        String city,
+        String neighborhood,
+        Long featuresMask,
+        List<String> imageUrls,
+        boolean delisted
+) {
+
+    public static ListingSnapshot of(Listing listing) {
+        return new ListingSnapshot(
+                listing.getPrice(),
+                listing.getCurrency(),
+                listing.getTitle(),
+                listing.getDescription(),
+                listing.getSurfaceSqm(),
+                listing.getRooms(),
+                listing.getFloor(),
+                listing.getCity(),
+                listing.getNeighborhood(),
+                listing.getFeaturesMask(),
+                listing.getImageUrls(),
+                listing.getDelistedAt() != null
+        );
+    }
+
+    /**
+     * Lists the tracked fields that differ in the updated listing.
+     * Text and image changes are reported without values to keep events small.
+     *
+     * @param updated the listing after the update
+     * @return the field changes
+     */
+    public List<FieldChange> diff(Listing updated) {
+        List<FieldChange> changes = new ArrayList<>();
+        if (price != null && updated.getPrice() != null
+                ? price.compareTo(updated.getPrice()) != 0
+                : !Objects.equals(price, updated.getPrice())) {
+            changes.add(change("price", price, updated.getPrice()));
+        }
+        addIfChanged(changes, "currency", currency, updated.getCurrency());
+        if (!Objects.equals(title, updated.getTitle())) {
+            changes.add(new FieldChange("title", null, null));
+        }
+        if (!Objects.equals(description, updated.getDescription())) {
+            changes.add(new FieldChange("description", null, null));
+        }
+        if (surfaceSqm != null && updated.getSurfaceSqm() != null
+                ? surfaceSqm.compareTo(updated.getSurfaceSqm()) != 0
+                : !Objects.equals(surfaceSqm, updated.getSurfaceSqm())) {
+            changes.add(change("surfaceSqm", surfaceSqm, updated.getSurfaceSqm()));
+        }
+        addIfChanged(changes, "rooms", rooms, updated.getRooms());
+        addIfChanged(changes, "floor", floor, updated.getFloor());
+        addIfChanged(changes, "city", city, updated.getCity());
+        addIfChanged(changes, "neighborhood", neighborhood, updated.getNeighborhood());
+        addIfChanged(changes, "featuresMask", featuresMask, updated.getFeaturesMask());
+        if (!Objects.equals(imageUrls, updated.getImageUrls())) {
+            changes.add(new FieldChange("imageUrls", null, null));
+        }
+        if (delisted && updated.getDelistedAt() == null) {
+            changes.add(new FieldChange("delisted", "true", "false"));
+        }
+        return changes;
+    }
+
+    private static void addIfChanged(List<FieldChange> changes, String field, Object from, Object to) {
+        if (!Objects.equals(from, to)) {
+            changes.add(change(field, from, to));
+        }
+    }
+
+    private static FieldChange change(String field, Object from, Object to) {
+        return new FieldChange(field, from == null ? null : from.toString(), to == null ? null : to.toString());
+    }
+}
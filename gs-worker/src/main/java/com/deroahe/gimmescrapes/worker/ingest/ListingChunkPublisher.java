@@ -0,0 +1,106 @@
+package com.deroahe.gimmescrapes.worker.ingest;
+
+import com.deroahe.gimmescrapes.commons.config.RabbitMQConstants;
+import com.deroahe.gimmescrapes.commons.dto.ListingIngestChunk;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes the listing chunks of a split scrape straight to {@code listings.ingest}.
+ * <p>
+ * Chunks are too large to go through the outbox table, so they are sent with correlated
+ * confirms instead: every chunk is sent, then the confirms are awaited, and chunks that were
+ * nacked, returned or not confirmed in time are re-sent for a bounded number of rounds. A re-sent
+ * chunk may arrive twice; the ingest stage claims each chunk once and skips the duplicate.
+ */
+@Slf4j
+@Component
+public class ListingChunkPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    @Value("${gs.ingest.publish.confirm-timeout-ms:10000}")
+    private long confirmTimeoutMs;
+
+    @Value("${gs.ingest.publish.max-attempts:3}")
+    private int maxAttempts;
+
+    public ListingChunkPublisher(RabbitTemplate rabbitTemplate) {
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    /**
+     * Publishes chunks and waits until the broker has confirmed all of them.
+     *
+     * @param chunks the chunks of one job
+     * @throws AmqpException if some chunks are still unconfirmed after every attempt
+     */
+    public void publish(List<ListingIngestChunk> chunks) {
+        List<ListingIngestChunk> pending = chunks;
+        for (int attempt = 1; attempt <= maxAttempts && !pending.isEmpty(); attempt++) {
+            pending = publishOnce(pending);
+        }
+        if (!pending.isEmpty()) {
+            throw new AmqpException(pending.size() + " of " + chunks.size() + " listing chunks of job "
+                    + chunks.get(0).getJobId() + " were not confirmed after " + maxAttempts + " attempts");
+        }
+    }
+
+    /**
+     * @return the chunks that were not confirmed
+     */
+    private List<ListingIngestChunk> publishOnce(List<ListingIngestChunk> chunks) {
+        List<ListingIngestChunk> failed = new ArrayList<>();
+        Map<ListingIngestChunk, CorrelationData> sent = new IdentityHashMap<>();
+        for (ListingIngestChunk chunk : chunks) {
+            CorrelationData correlation = new CorrelationData("chunk-" + chunk.getJobId() + "-" + chunk.getChunk());
+            try {
+                rabbitTemplate.convertAndSend(RabbitMQConstants.LISTINGS_EXCHANGE,
+                        RabbitMQConstants.LISTINGS_INGEST_ROUTING_KEY, chunk, correlation);
+                sent.put(chunk, correlation);
+            } catch (AmqpException e) {
+                log.warn("Failed to publish chunk {} of job {}: {}", chunk.getChunk(), chunk.getJobId(), e.getMessage());
+                failed.add(chunk);
+            }
+        }
+
+        long deadline = System.currentTimeMillis() + confirmTimeoutMs;
+        for (ListingIngestChunk chunk : chunks) {
+            CorrelationData correlation = sent.get(chunk);
+            if (correlation == null) {
+                continue;
+            }
+            try {
+                long remaining = Math.max(deadline - System.currentTimeMillis(), 1);
+                CorrelationData.Confirm confirm = correlation.getFuture().get(remaining, TimeUnit.MILLISECONDS);
+                if (!confirm.isAck()) {
+                    log.warn("Broker rejected chunk {} of job {}: {}", chunk.getChunk(), chunk.getJobId(), confirm.getReason());
+                    failed.add(chunk);
+                } else if (correlation.getReturned() != null) {
+                    log.warn("Chunk {} of job {} was returned as unroutable: {}",
+                            chunk.getChunk(), chunk.getJobId(), correlation.getReturned().getReplyText());
+                    failed.add(chunk);
+                }
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Chunk {} of job {} not confirmed: {}", chunk.getChunk(), chunk.getJobId(), e.getMessage());
+                failed.add(chunk);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.add(chunk);
+            }
+        }
+        return failed;
+    }
+}
@@ -0,0 +1,95 @@
+package com.deroahe.gimmescrapes.worker.ingest;
+
+import com.deroahe.gimmescrapes.commons.dto.ListingIngestChunk;
+import com.deroahe.gimmescrapes.commons.enums.ScrapingJobStatus;
+import com.deroahe.gimmescrapes.commons.model.Listing;
+import com.deroahe.gimmescrapes.commons.model.ScrapingJob;
+import com.deroahe.gimmescrapes.commons.model.Source;
+import com.deroahe.gimmescrapes.commons.repository.ScrapingJobRepository;
+import com.deroahe.gimmescrapes.commons.repository.SourceRepository;
+import com.deroahe.gimmescrapes.worker.lease.LeaseLostException;
+import com.deroahe.gimmescrapes.worker.service.ListingService;
+import com.deroahe.gimmescrapes.worker.service.ListingService.UpsertResult;
+import com.deroahe.gimmescrapes.worker.service.ScraperService;
+import com.deroahe.gimmescrapes.worker.service.ScrapingJobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Ingest stage of a split scrape: upserts one chunk of parsed listings and adds it to its job.
+ * <p>
+ * Claiming the chunk, the upsert and the job counters commit together, so a redelivered chunk
+ * is recognised and skipped, and the job's counts match what was written. The transaction that
+ * records the last chunk completes the job.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ListingIngestService {
+
+    private final ScrapingJobRepository scrapingJobRepository;
+    private final SourceRepository sourceRepository;
+    private final ScraperService scraperService;
+    private final ListingService listingService;
+    private final ScrapingJobService scrapingJobService;
+
+    /**
+     * Upserts a chunk of listings.
+     *
+     * @param chunk the chunk
+     * @return what was done with the chunk
+     * @throws LeaseLostException if a newer scrape of the source has already written listings
+     */
+    @Transactional
+    public IngestOutcome ingest(ListingIngestChunk chunk) {
+        if (scrapingJobRepository.claimChunk(chunk.getJobId(), chunk.getChunk()) == 0) {
+            log.info("Chunk {}/{} of job {} was already ingested", chunk.getChunk() + 1, chunk.getChunksTotal(), chunk.getJobId());
+            return IngestOutcome.skipped();
+        }
+        ScrapingJob job = scrapingJobRepository.findById(chunk.getJobId())
+                .orElseThrow(() -> new IllegalArgumentException("Scraping job not found: " + chunk.getJobId()));
+        if (job.getStatus() != ScrapingJobStatus.RUNNING) {
+            log.info("Dropping chunk {}/{} of job {} in status {}",
+                    chunk.getChunk() + 1, chunk.getChunksTotal(), job.getId(), job.getStatus());
+            return IngestOutcome.skipped();
+        }
+        Source source = sourceRepository.findById(chunk.getSourceId())
+                .orElseThrow(() -> new IllegalArgumentException("Source not found: " + chunk.getSourceId()));
+
+        List<Listing> listings = scraperService.convertToEntities(chunk.getListings(), source);
+        UpsertResult result = listingService.bulkUpsert(listings, job.getId(), chunk.getFencingToken());
+
+        scrapingJobRepository.recordChunk(job.getId(), result.getTotalProcessed(), result.newCount(), result.updatedCount());
+        ScrapingJob recorded = scrapingJobRepository.findById(job.getId()).orElseThrow();
+        boolean completed = recorded.getChunksTotal() != null && recorded.getChunksDone() >= recorded.getChunksTotal();
+        if (completed) {
+            scrapingJobService.completeChunked(recorded, source);
+            source.setLastScrapeAt(LocalDateTime.now());
+            sourceRepository.save(source);
+            log.info("Scrape job completed after {} chunks: jobId={}, source={}, total={}, new={}, updated={}",
+                    recorded.getChunksTotal(), recorded.getId(), source.getName(),
+                    recorded.getItemsScraped(), recorded.getItemsNew(), recorded.getItemsUpdated());
+        }
+        return new IngestOutcome(result, completed);
+    }
+
+    /**
+     * @param result the upsert result, or null if the chunk was skipped
+     * @param jobCompleted true if this was the job's last chunk
+     */
+    public record IngestOutcome(UpsertResult result, boolean jobCompleted) {
+
+        static IngestOutcome skipped() {
+            return new IngestOutcome(null, false);
+        }
+
+        public boolean isSkipped() {
+            return result == null;
+        }
+    }
+}
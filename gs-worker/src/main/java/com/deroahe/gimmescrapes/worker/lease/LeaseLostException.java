@@ -0,0 +1,11 @@
+package com.deroahe.gimmescrapes.worker.lease;
+
+/**
+ * Thrown when a scrape's source lease was taken over by a newer holder before its results were written.
+ */
+public class LeaseLostException extends RuntimeException {
+
+    public LeaseLostException(String message) {
+        super(message);
+    }
+}
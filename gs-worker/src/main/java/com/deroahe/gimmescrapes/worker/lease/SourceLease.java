@@ -0,0 +1,80 @@
+package com.deroahe.gimmescrapes.worker.lease;
+
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * A held per-source scrape lease. Renewed in the background until closed or handed off.
+ */
+public class SourceLease implements AutoCloseable {
+
+    private final SourceLeaseService leaseService;
+    private final long sourceId;
+    private final long token;
+    private volatile ScheduledFuture<?> renewal;
+    private volatile boolean lost;
+    private volatile boolean handedOff;
+
+    SourceLease(SourceLeaseService leaseService, long sourceId, long token) {
+        this.leaseService = leaseService;
+        this.sourceId = sourceId;
+        this.token = token;
+    }
+
+    public long sourceId() {
+        return sourceId;
+    }
+
+    /**
+     * Fencing token: strictly increasing per source across all lease holders.
+     */
+    public long token() {
+        return token;
+    }
+
+    /**
+     * Whether a renewal found the lease expired or taken over.
+     */
+    public boolean isLost() {
+        return lost;
+    }
+
+    /**
+     * Records the job running under this lease, so duplicate triggers can be counted on it.
+     */
+    public void bindJob(Long jobId) {
+        leaseService.bindJob(this, jobId);
+    }
+
+    /**
+     * Passes the lease to the ingest stage of a split scrape: background renewal stops, the
+     * ingested chunks keep the lease alive, and closing this handle no longer releases it.
+     */
+    public void handOff() {
+        if (renewal != null) {
+            renewal.cancel(false);
+        }
+        handedOff = true;
+        leaseService.handOff(this);
+    }
+
+    void startRenewal(ScheduledFuture<?> renewal) {
+        this.renewal = renewal;
+    }
+
+    void markLost() {
+        lost = true;
+        if (renewal != null) {
+            renewal.cancel(false);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (renewal != null) {
+            renewal.cancel(false);
+        }
+        if (!lost && !handedOff) {
+            leaseService.release(this);
+        }
+    }
+}
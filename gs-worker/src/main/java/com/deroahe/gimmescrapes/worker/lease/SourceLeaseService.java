@@ -0,0 +1,209 @@
+package com.deroahe.gimmescrapes.worker.lease;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-source scrape leases in Redis, so one source is scraped by at most one worker at a time.
+ * <p>
+ * The lease key {@code scrape:lease:{sourceId}} holds {@code {token}:{jobId}} with a TTL and is
+ * renewed in the background while the scrape runs. Tokens come from a per-source counter and
+ * only grow, so they double as fencing tokens: the listing upsert records the token on the
+ * source row and refuses to write with an older one, which keeps a holder that stalled past its
+ * TTL from overwriting the results of the holder that replaced it. All checks and updates are
+ * Lua scripts comparing the token, so a holder can never renew or release someone else's lease.
+ * <p>
+ * A split scrape hands its lease to the ingest stage once its chunks are published: the lease
+ * stays in Redis with {@code gs.scrape.lease.ingest-ttl}, every ingested chunk extends it, and
+ * the chunk that completes the job releases it. No newer scrape of the source can start, and
+ * take a higher fencing token, while the job's chunks are still being ingested.
+ */
+@Slf4j
+@Service
+public class SourceLeaseService {
+
+    private static final String LEASE_PREFIX = "scrape:lease:";
+    private static final String FENCE_PREFIX = "scrape:lease:fence:";
+    private static final String NO_JOB = "-";
+
+    private static final RedisScript<Long> ACQUIRE = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+              return -1
+            end
+            local token = redis.call('INCR', KEYS[2])
+            redis.call('SET', KEYS[1], token .. ':' .. ARGV[1], 'PX', ARGV[2])
+            return token
+            """, Long.class);
+
+    private static final RedisScript<Long> RENEW = new DefaultRedisScript<>("""
+            local value = redis.call('GET', KEYS[1])
+            if value and string.sub(value, 1, string.len(ARGV[1])) == ARGV[1] then
+              return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            end
+            return 0
+            """, Long.class);
+
+    private static final RedisScript<Long> BIND = new DefaultRedisScript<>("""
+            local value = redis.call('GET', KEYS[1])
+            if value and string.sub(value, 1, string.len(ARGV[1])) == ARGV[1] then
+              redis.call('SET', KEYS[1], ARGV[1] .. ARGV[2], 'KEEPTTL')
+              return 1
+            end
+            return 0
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>("""
+            local value = redis.call('GET', KEYS[1])
+            if value and string.sub(value, 1, string.len(ARGV[1])) == ARGV[1] then
+              return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "source-lease-renewer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${gs.scrape.lease.ttl:PT2M}")
+    private Duration ttl;
+
+    /**
+     * Lease TTL while a job's chunks are ingested; must outlast a chunk's delayed retries.
+     */
+    @Value("${gs.scrape.lease.ingest-ttl:PT30M}")
+    private Duration ingestTtl;
+
+    public SourceLeaseService(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Takes the lease of a source if nobody holds it.
+     *
+     * @param sourceId the source ID
+     * @return the lease, or empty if another scrape of the source holds it
+     */
+    public Optional<SourceLease> tryAcquire(long sourceId) {
+        Long token = redisTemplate.execute(ACQUIRE, List.of(leaseKey(sourceId), FENCE_PREFIX + sourceId),
+                NO_JOB, Long.toString(ttl.toMillis()));
+        if (token == null || token < 0) {
+            return Optional.empty();
+        }
+
+        SourceLease lease = new SourceLease(this, sourceId, token);
+        long period = Math.max(1, ttl.toMillis() / 3);
+        lease.startRenewal(renewer.scheduleAtFixedRate(() -> renew(lease), period, period, TimeUnit.MILLISECONDS));
+        log.debug("Acquired lease for source {} with token {}", sourceId, token);
+        return Optional.of(lease);
+    }
+
+    /**
+     * Finds the job running under the current lease of a source.
+     *
+     * @param sourceId the source ID
+     * @return the holder's job ID, or empty if there is no lease or it has no job yet
+     */
+    public Optional<Long> holderJobId(long sourceId) {
+        String value = redisTemplate.opsForValue().get(leaseKey(sourceId));
+        if (value == null) {
+            return Optional.empty();
+        }
+        String jobId = value.substring(value.indexOf(':') + 1);
+        return NO_JOB.equals(jobId) ? Optional.empty() : Optional.of(Long.parseLong(jobId));
+    }
+
+    void bindJob(SourceLease lease, Long jobId) {
+        redisTemplate.execute(BIND, List.of(leaseKey(lease.sourceId())), prefix(lease),
+                jobId != null ? jobId.toString() : NO_JOB);
+    }
+
+    void release(SourceLease lease) {
+        release(lease.sourceId(), lease.token());
+    }
+
+    /**
+     * Extends a lease handed to the ingest stage by another ingest TTL.
+     *
+     * @param sourceId the source ID
+     * @param token the fencing token the job's chunks carry
+     */
+    public void extendForIngest(long sourceId, long token) {
+        try {
+            redisTemplate.execute(RENEW, List.of(leaseKey(sourceId)), prefix(token), Long.toString(ingestTtl.toMillis()));
+        } catch (Exception e) {
+            // The lease survives until its TTL; the next chunk tries again
+            log.warn("Failed to extend lease for source {}: {}", sourceId, e.getMessage());
+        }
+    }
+
+    /**
+     * Releases a lease by its token, e.g. once the last chunk of its job is ingested.
+     * Does nothing if the lease has expired or belongs to a newer token.
+     *
+     * @param sourceId the source ID
+     * @param token the lease's fencing token
+     */
+    public void release(long sourceId, long token) {
+        try {
+            redisTemplate.execute(RELEASE, List.of(leaseKey(sourceId)), prefix(token));
+            log.debug("Released lease for source {} with token {}", sourceId, token);
+        } catch (Exception e) {
+            log.warn("Failed to release lease for source {}: {}", sourceId, e.getMessage());
+        }
+    }
+
+    /**
+     * Gives a lease the ingest TTL. If the last chunk was ingested first, the lease is
+     * already released and this does nothing.
+     */
+    void handOff(SourceLease lease) {
+        extendForIngest(lease.sourceId(), lease.token());
+        log.debug("Handed lease for source {} with token {} to ingest", lease.sourceId(), lease.token());
+    }
+
+    private void renew(SourceLease lease) {
+        try {
+            Long renewed = redisTemplate.execute(RENEW, List.of(leaseKey(lease.sourceId())), prefix(lease),
+                    Long.toString(ttl.toMillis()));
+            if (renewed == null || renewed == 0) {
+                log.warn("Lost lease for source {} with token {}", lease.sourceId(), lease.token());
+                lease.markLost();
+            }
+        } catch (Exception e) {
+            // Transient Redis failure: the lease survives until its TTL, try again next period
+            log.warn("Failed to renew lease for source {}: {}", lease.sourceId(), e.getMessage());
+        }
+    }
+
+    private String leaseKey(long sourceId) {
+        return LEASE_PREFIX + sourceId;
+    }
+
+    private String prefix(SourceLease lease) {
+        return prefix(lease.token());
+    }
+
+    private String prefix(long token) {
+        return token + ":";
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renewer.shutdownNow();
+    }
+}
@@ -0,0 +1,111 @@
+package com.deroahe.gimmescrapes.worker.matching;
+
+import com.deroahe.gimmescrapes.commons.enums.Amenity;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Typed view of the filters in {@code EmailSubscription.preferences}.
+ * Parsing is lenient: single values and lists are both accepted, unknown keys and
+ * malformed values are ignored, so one bad subscription never breaks matching.
+ *
+ * @param cities lower-cased cities; empty means any city
+ * @param rooms accepted room counts; empty means any
+ * @param priceMin minimum price, or null
+ * @param priceMax maximum price, or null
+ * @param currency currency the price bounds are expressed in
+ * @param surfaceMin minimum surface in square meters, or null
+ * @param surfaceMax maximum surface in square meters, or null
+ * @param amenityMask amenities a listing must all have
+ */
+public record SubscriptionCriteria(
+        Set<String> cities,
+        Set<Integer> rooms,
+        BigDecimal priceMin,
+        BigDecimal priceMax,
+        String currency,
+        BigDecimal surfaceMin,
+        BigDecimal surfaceMax,
+        long amenityMask
+) {
+
+    private static final String DEFAULT_CURRENCY = "EUR";
+
+    public static SubscriptionCriteria from(Map<String, Object> preferences) {
+        Map<String, Object> prefs = preferences != null ? preferences : Map.of();
+
+        Set<String> cities = new LinkedHashSet<>();
+        for (Object city : values(prefs, "cities", "city")) {
+            cities.add(normalizeCity(city.toString()));
+        }
+
+        Set<Integer> rooms = new LinkedHashSet<>();
+        for (Object value : values(prefs, "rooms")) {
+            BigDecimal number = decimal(value);
+            if (number != null) {
+                rooms.add(number.intValue());
+            }
+        }
+
+        long amenityMask = 0L;
+        for (Object value : values(prefs, "amenities")) {
+            amenityMask |= Amenity.fromKey(value.toString()).map(Amenity::getBit).orElse(0L);
+        }
+
+        Object currency = prefs.get("currency");
+        return new SubscriptionCriteria(
+                cities,
+                rooms,
+                decimal(prefs.get("priceMin")),
+                decimal(prefs.get("priceMax")),
+                currency != null ? currency.toString().toUpperCase(Locale.ROOT) : DEFAULT_CURRENCY,
+                decimal(prefs.get("surfaceMin")),
+                decimal(prefs.get("surfaceMax")),
+                amenityMask
+        );
+    }
+
+    public boolean hasPriceBounds() {
+        return priceMin != null || priceMax != null;
+    }
+
+    static String normalizeCity(String city) {
+        return city.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static List<Object> values(Map<String, Object> prefs, String... keys) {
+        for (String key : keys) {
+            Object value = prefs.get(key);
+            if (value instanceof Collection<?> collection) {
+                return collection.stream().filter(v -> v != null).map(v -> (Object) v).toList();
+            }
+            if (value instanceof String text && text.contains(",")) {
+                return List.of((Object[]) text.split("\\s*,\\s*"));
+            }
+            if (value != null) {
+                return List.of(value);
+            }
+        }
+        return List.of();
+    }
+
+    private static BigDecimal decimal(Object value) {
+        if (value instanceof Number number) {
+            return new BigDecimal(number.toString());
+        }
+        if (value instanceof String text && !text.isBlank()) {
+            try {
+                return new BigDecimal(text.trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,292 @@
+package com.deroahe.gimmescrapes.worker.matching;
+
+import com.deroahe.gimmescrapes.commons.dto.ListingChangedEvent;
+import com.deroahe.gimmescrapes.commons.enums.Amenity;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of active subscription criteria for matching listings against
+ * all subscriptions at once.
+ * <p>
+ * Each subscription occupies a slot. Equality criteria (city, rooms) are hash buckets of slot
+ * bitsets plus an "any" bitset for subscriptions without that criterion. Range criteria (price,
+ * surface) are sorted maps from bound to the slots declaring it, so the subscriptions a value
+ * violates are a head or tail view. Required amenities are one bitset per amenity. Matching a
+ * listing is a handful of bitset operations, independent of how many subscriptions exist.
+ * Thread-safe: matching shares a lock, updates take it exclusively.
+ */
+public class SubscriptionIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> slotBySubscription = new HashMap<>();
+    private final List<Long> subscriptionBySlot = new ArrayList<>();
+    private final List<SubscriptionCriteria> criteriaBySlot = new ArrayList<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final BitSet live = new BitSet();
+
+    private final Map<String, BitSet> cityBuckets = new HashMap<>();
+    private final BitSet anyCity = new BitSet();
+    private final Map<Integer, BitSet> roomBuckets = new HashMap<>();
+    private final BitSet anyRooms = new BitSet();
+
+    /**
+     * Price bounds are only comparable within one currency.
+     */
+    private final Map<String, RangeBounds> priceBoundsByCurrency = new HashMap<>();
+    private final RangeBounds surfaceBounds = new RangeBounds();
+    private final BitSet[] amenityRequirements = new BitSet[Amenity.values().length];
+
+    public SubscriptionIndex() {
+        for (int i = 0; i < amenityRequirements.length; i++) {
+            amenityRequirements[i] = new BitSet();
+        }
+    }
+
+    /**
+     * Adds or replaces a subscription's criteria.
+     *
+     * @param subscriptionId the subscription ID
+     * @param criteria the parsed criteria
+     */
+    public void upsert(long subscriptionId, SubscriptionCriteria criteria) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = slotBySubscription.get(subscriptionId);
+            int slot;
+            if (existing != null) {
+                slot = existing;
+                unindex(slot);
+            } else {
+                slot = allocateSlot();
+                slotBySubscription.put(subscriptionId, slot);
+                subscriptionBySlot.set(slot, subscriptionId);
+            }
+            criteriaBySlot.set(slot, criteria);
+            index(slot, criteria);
+            live.set(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a subscription.
+     *
+     * @param subscriptionId the subscription ID
+     */
+    public void remove(long subscriptionId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotBySubscription.remove(subscriptionId);
+            if (slot != null) {
+                unindex(slot);
+                live.clear(slot);
+                criteriaBySlot.set(slot, null);
+                subscriptionBySlot.set(slot, null);
+                freeSlots.push(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the subscriptions whose criteria a listing satisfies.
+     *
+     * @param listing the listing attributes
+     * @return matching subscription IDs
+     */
+    public List<Long> match(ListingChangedEvent listing) {
+        lock.readLock().lock();
+        try {
+            BitSet candidates = (BitSet) live.clone();
+
+            BitSet cityMatches = (BitSet) anyCity.clone();
+            if (listing.getCity() != null) {
+                BitSet bucket = cityBuckets.get(SubscriptionCriteria.normalizeCity(listing.getCity()));
+                if (bucket != null) {
+                    cityMatches.or(bucket);
+                }
+            }
+            candidates.and(cityMatches);
+
+            BitSet roomMatches = (BitSet) anyRooms.clone();
+            if (listing.getRooms() != null) {
+                BitSet bucket = roomBuckets.get(listing.getRooms());
+                if (bucket != null) {
+                    roomMatches.or(bucket);
+                }
+            }
+            candidates.and(roomMatches);
+
+            // Every currency's price-bounded subscriptions are violated unless the listing is priced in it
+            for (Map.Entry<String, RangeBounds> entry : priceBoundsByCurrency.entrySet()) {
+                if (listing.getPrice() == null || !entry.getKey().equals(listing.getCurrency())) {
+                    candidates.andNot(entry.getValue().constrained);
+                } else {
+                    entry.getValue().removeViolators(candidates, listing.getPrice());
+                }
+            }
+
+            if (listing.getSurfaceSqm() == null) {
+                candidates.andNot(surfaceBounds.constrained);
+            } else {
+                surfaceBounds.removeViolators(candidates, listing.getSurfaceSqm());
+            }
+
+            long mask = listing.getFeaturesMask() != null ? listing.getFeaturesMask() : 0L;
+            for (Amenity amenity : Amenity.values()) {
+                if ((mask & amenity.getBit()) == 0) {
+                    candidates.andNot(amenityRequirements[amenity.ordinal()]);
+                }
+            }
+
+            List<Long> matches = new ArrayList<>(candidates.cardinality());
+            for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                matches.add(subscriptionBySlot.get(slot));
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotBySubscription.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Snapshot of indexed subscription IDs, used to detect deleted subscriptions.
+     */
+    public List<Long> subscriptionIds() {
+        lock.readLock().lock();
+        try {
+            return List.copyOf(slotBySubscription.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int allocateSlot() {
+        if (!freeSlots.isEmpty()) {
+            return freeSlots.pop();
+        }
+        subscriptionBySlot.add(null);
+        criteriaBySlot.add(null);
+        return subscriptionBySlot.size() - 1;
+    }
+
+    private void index(int slot, SubscriptionCriteria criteria) {
+        if (criteria.cities().isEmpty()) {
+            anyCity.set(slot);
+        } else {
+            criteria.cities().forEach(city -> cityBuckets.computeIfAbsent(city, c -> new BitSet()).set(slot));
+        }
+        if (criteria.rooms().isEmpty()) {
+            anyRooms.set(slot);
+        } else {
+            criteria.rooms().forEach(rooms -> roomBuckets.computeIfAbsent(rooms, r -> new BitSet()).set(slot));
+        }
+        if (criteria.hasPriceBounds()) {
+            priceBoundsByCurrency.computeIfAbsent(criteria.currency(), c -> new RangeBounds())
+                    .add(slot, criteria.priceMin(), criteria.priceMax());
+        }
+        surfaceBounds.add(slot, criteria.surfaceMin(), criteria.surfaceMax());
+        for (Amenity amenity : Amenity.fromMask(criteria.amenityMask())) {
+            amenityRequirements[amenity.ordinal()].set(slot);
+        }
+    }
+
+    private void unindex(int slot) {
+        SubscriptionCriteria criteria = criteriaBySlot.get(slot);
+        if (criteria == null) {
+            return;
+        }
+        anyCity.clear(slot);
+        criteria.cities().forEach(city -> clear(cityBuckets, city, slot));
+        anyRooms.clear(slot);
+        criteria.rooms().forEach(rooms -> clear(roomBuckets, rooms, slot));
+        if (criteria.hasPriceBounds()) {
+            RangeBounds bounds = priceBoundsByCurrency.get(criteria.currency());
+            bounds.remove(slot, criteria.priceMin(), criteria.priceMax());
+            if (bounds.constrained.isEmpty()) {
+                priceBoundsByCurrency.remove(criteria.currency());
+            }
+        }
+        surfaceBounds.remove(slot, criteria.surfaceMin(), criteria.surfaceMax());
+        for (BitSet requirement : amenityRequirements) {
+            requirement.clear(slot);
+        }
+    }
+
+    private static <K> void clear(Map<K, BitSet> buckets, K key, int slot) {
+        BitSet bucket = buckets.get(key);
+        if (bucket != null) {
+            bucket.clear(slot);
+            if (bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Sorted lower and upper bounds of one numeric criterion.
+     */
+    private static final class RangeBounds {
+
+        private final NavigableMap<BigDecimal, BitSet> minimums = new TreeMap<>();
+        private final NavigableMap<BigDecimal, BitSet> maximums = new TreeMap<>();
+        private final BitSet constrained = new BitSet();
+
+        void add(int slot, BigDecimal min, BigDecimal max) {
+            if (min != null) {
+                minimums.computeIfAbsent(min, m -> new BitSet()).set(slot);
+                constrained.set(slot);
+            }
+            if (max != null) {
+                maximums.computeIfAbsent(max, m -> new BitSet()).set(slot);
+                constrained.set(slot);
+            }
+        }
+
+        void remove(int slot, BigDecimal min, BigDecimal max) {
+            if (min != null) {
+                clear(minimums, min, slot);
+            }
+            if (max != null) {
+                clear(maximums, max, slot);
+            }
+            constrained.clear(slot);
+        }
+
+        /**
+         * Clears subscriptions whose minimum is above or maximum is below the value.
+         */
+        void removeViolators(BitSet candidates, BigDecimal value) {
+            for (BitSet slots : minimums.tailMap(value, false).values()) {
+                candidates.andNot(slots);
+            }
+            for (BitSet slots : maximums.headMap(value, false).values()) {
+                candidates.andNot(slots);
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.deroahe.gimmescrapes.worker.matching;
+
+import com.deroahe.gimmescrapes.commons.dto.ListingChangedBatch;
+import com.deroahe.gimmescrapes.commons.dto.ListingChangedEvent;
+import com.deroahe.gimmescrapes.commons.enums.ListingChangeType;
+import com.deroahe.gimmescrapes.commons.model.EmailSubscription;
+import com.deroahe.gimmescrapes.commons.repository.EmailSubscriptionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Matches listing change events against every active subscription in one pass.
+ * <p>
+ * Subscription preferences are compiled into a {@link SubscriptionIndex} that is kept current
+ * incrementally: a poll picks up subscriptions changed since the last seen {@code updated_at}
+ * (with an overlap for transactions that commit late), and a slower reconcile removes deleted
+ * subscriptions and adds any the poll missed. Matches are stored in {@code subscription_matches}
+ * for the notification pipeline; redelivered batches are absorbed by the unique constraint.
+ * <p>
+ * Batches are never matched against an index that has not been loaded yet: the first batch to
+ * arrive before the first scheduled refresh loads the index itself, and others wait for it.
+ */
+@Slf4j
+@Service
+public class SubscriptionMatchingService {
+
+    private static final Set<ListingChangeType> MATCHED_TYPES = EnumSet.of(ListingChangeType.NEW, ListingChangeType.PRICE_DROP);
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final int PAGE_SIZE = 500;
+
+    private static final String INSERT_MATCH_SQL = """
+            INSERT INTO subscription_matches (subscription_id, listing_id, change_type, matched_at)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (subscription_id, listing_id, change_type) DO NOTHING
+            """;
+
+    private final SubscriptionIndex index = new SubscriptionIndex();
+
+    /**
+     * Keeps refresh and reconcile apart. Both page through the database while holding it,
+     * which inside a {@code synchronized} method would pin a virtual thread to its carrier.
+     */
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private final EmailSubscriptionRepository subscriptionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Timer matchTimer;
+    private final Counter matchCounter;
+
+    @Value("${gs.subscriptions.refresh-overlap:PT1M}")
+    private Duration refreshOverlap;
+
+    private LocalDateTime watermark = EPOCH;
+
+    /**
+     * Set once a full load has completed; an empty index before that means "unknown", not "no subscriptions".
+     */
+    private volatile boolean loaded;
+
+    public SubscriptionMatchingService(EmailSubscriptionRepository subscriptionRepository,
+                                       JdbcTemplate jdbcTemplate,
+                                       MeterRegistry meterRegistry) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.matchTimer = Timer.builder("gs.subscriptions.match")
+                .description("Time to match one listing change batch against all subscriptions")
+                .register(meterRegistry);
+        this.matchCounter = Counter.builder("gs.subscriptions.matches")
+                .description("Subscription matches recorded")
+                .register(meterRegistry);
+        meterRegistry.gauge("gs.subscriptions.indexed", index, SubscriptionIndex::size);
+    }
+
+    /**
+     * Applies subscriptions changed since the last refresh to the index.
+     */
+    @Scheduled(fixedDelayString = "${gs.subscriptions.refresh-interval-ms:30000}")
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            applyChanges();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void applyChanges() {
+        LocalDateTime fromUpdatedAt = watermark.equals(EPOCH) ? EPOCH : watermark.minus(refreshOverlap);
+        long fromId = 0L;
+        int applied = 0;
+
+        List<EmailSubscription> page;
+        do {
+            page = subscriptionRepository.findChangedAfter(fromUpdatedAt, fromId, PageRequest.of(0, PAGE_SIZE));
+            for (EmailSubscription subscription : page) {
+                apply(subscription);
+                fromUpdatedAt = subscription.getUpdatedAt();
+                fromId = subscription.getId();
+            }
+            applied += page.size();
+        } while (page.size() == PAGE_SIZE);
+
+        if (fromUpdatedAt.isAfter(watermark)) {
+            watermark = fromUpdatedAt;
+        }
+        loaded = true;
+        if (applied > 0) {
+            log.debug("Applied {} subscription changes, {} subscriptions indexed", applied, index.size());
+        }
+    }
+
+    /**
+     * Removes deleted subscriptions from the index and adds active ones the refresh did not see.
+     */
+    @Scheduled(fixedDelayString = "${gs.subscriptions.reconcile-interval-ms:600000}",
+            initialDelayString = "${gs.subscriptions.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        refreshLock.lock();
+        try {
+            reconcileIndex();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void reconcileIndex() {
+        Set<Long> active = new HashSet<>(subscriptionRepository.findAllActiveIds());
+
+        int removed = 0;
+        for (Long subscriptionId : index.subscriptionIds()) {
+            if (!active.remove(subscriptionId)) {
+                index.remove(subscriptionId);
+                removed++;
+            }
+        }
+        if (!active.isEmpty()) {
+            subscriptionRepository.findAllById(active).forEach(this::apply);
+        }
+
+        if (removed > 0 || !active.isEmpty()) {
+            log.info("Reconciled subscription index: removed={}, added={}", removed, active.size());
+        }
+    }
+
+    /**
+     * Matches new and price-dropped listings of a batch and records the matches.
+     *
+     * @param batch the listing change batch
+     * @return number of matches recorded (including ones already present)
+     */
+    public int match(ListingChangedBatch batch) {
+        if (batch.getEvents() == null || batch.getEvents().isEmpty()) {
+            return 0;
+        }
+        if (!loaded) {
+            // Load now rather than ack the batch unmatched; a failed load fails the delivery
+            refresh();
+        }
+        if (index.size() == 0) {
+            return 0;
+        }
+
+        return matchTimer.record(() -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> rows = new ArrayList<>();
+            for (ListingChangedEvent event : batch.getEvents()) {
+                if (!MATCHED_TYPES.contains(event.getType())) {
+                    continue;
+                }
+                for (Long subscriptionId : index.match(event)) {
+                    rows.add(new Object[]{subscriptionId, event.getListingId(), event.getType().name(), now});
+                }
+            }
+
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_MATCH_SQL, rows);
+                matchCounter.increment(rows.size());
+                log.debug("Matched batch: jobId={}, chunk={}, matches={}", batch.getJobId(), batch.getChunk(), rows.size());
+            }
+            return rows.size();
+        });
+    }
+
+    private void apply(EmailSubscription subscription) {
+        if (Boolean.TRUE.equals(subscription.getActive())) {
+            index.upsert(subscription.getId(), SubscriptionCriteria.from(subscription.getPreferences()));
+        } else {
+            index.remove(subscription.getId());
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.deroahe.gimmescrapes.worker.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-source meters of the scrape pipeline, one set per stage:
+ * <ul>
+ *   <li>{@code gs.scrape.stage.duration{source,stage}}: page {@code fetch} and {@code parse},
+ *       DTO-to-entity {@code convert} and {@code upsert} of one batch</li>
+ *   <li>{@code gs.scrape.page.bytes} and {@code gs.scrape.page.listings}: body size and listings per page</li>
+ *   <li>{@code gs.scrape.listings{source,outcome}}: upserted listings by new, updated or skipped</li>
+ *   <li>{@code gs.scrape.in.flight{source,stage}}: fetch jobs and ingest chunks being processed</li>
+ * </ul>
+ * The meters of a source are registered on first use and kept, so a caller looks them up once
+ * per job and each recording is a plain timer or counter update. All distributions publish
+ * Prometheus histograms, bounded to the range a stage can plausibly take.
+ */
+@Component
+public class ScrapeMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, SourceMeters> sources = new ConcurrentHashMap<>();
+
+    public ScrapeMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Returns the meters of a source, registering them on first use.
+     *
+     * @param sourceName the source name, used as the {@code source} tag
+     * @return the source's meters
+     */
+    public SourceMeters source(String sourceName) {
+        SourceMeters meters = sources.get(sourceName);
+        return meters != null ? meters : sources.computeIfAbsent(sourceName, this::register);
+    }
+
+    private SourceMeters register(String source) {
+        return new SourceMeters(
+                stageTimer(source, "fetch", Duration.ofMillis(10), Duration.ofSeconds(30)),
+                stageTimer(source, "parse", Duration.ofMillis(1), Duration.ofSeconds(10)),
+                stageTimer(source, "convert", Duration.ofNanos(100_000), Duration.ofSeconds(10)),
+                stageTimer(source, "upsert", Duration.ofMillis(1), Duration.ofMinutes(5)),
+                DistributionSummary.builder("gs.scrape.page.bytes")
+                        .description("Response body size of a fetched result page")
+                        .baseUnit("bytes")
+                        .tag("source", source)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(1_024.0)
+                        .maximumExpectedValue(16_777_216.0)
+                        .register(meterRegistry),
+                DistributionSummary.builder("gs.scrape.page.listings")
+                        .description("Listings extracted from a result page")
+                        .tag("source", source)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(1.0)
+                        .maximumExpectedValue(500.0)
+                        .register(meterRegistry),
+                listingCounter(source, "new"),
+                listingCounter(source, "updated"),
+                listingCounter(source, "skipped"),
+                inFlightGauge(source, "fetch"),
+                inFlightGauge(source, "ingest"));
+    }
+
+    private Timer stageTimer(String source, String stage, Duration min, Duration max) {
+        return Timer.builder("gs.scrape.stage.duration")
+                .description("Time spent in one step of a scrape stage")
+                .tags("source", source, "stage", stage)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(min)
+                .maximumExpectedValue(max)
+                .register(meterRegistry);
+    }
+
+    private Counter listingCounter(String source, String outcome) {
+        return Counter.builder("gs.scrape.listings")
+                .description("Scraped listings upserted, by outcome")
+                .tags("source", source, "outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private AtomicInteger inFlightGauge(String source, String stage) {
+        AtomicInteger inFlight = new AtomicInteger();
+        Gauge.builder("gs.scrape.in.flight", inFlight, AtomicInteger::get)
+                .description("Scrape jobs (fetch) or listing chunks (ingest) currently being processed")
+                .tags("source", source, "stage", stage)
+                .strongReference(true)
+                .register(meterRegistry);
+        return inFlight;
+    }
+
+    /**
+     * The cached meters of one source.
+     */
+    public static final class SourceMeters {
+
+        private final Timer fetch;
+        private final Timer parse;
+        private final Timer convert;
+        private final Timer upsert;
+        private final DistributionSummary pageBytes;
+        private final DistributionSummary pageListings;
+        private final Counter newListings;
+        private final Counter updatedListings;
+        private final Counter skippedListings;
+        private final AtomicInteger fetchInFlight;
+        private final AtomicInteger ingestInFlight;
+
+        private SourceMeters(Timer fetch, Timer parse, Timer convert, Timer upsert,
+                             DistributionSummary pageBytes, DistributionSummary pageListings,
+                             Counter newListings, Counter updatedListings, Counter skippedListings,
+                             AtomicInteger fetchInFlight, AtomicInteger ingestInFlight) {
+            this.fetch = fetch;
+            this.parse = parse;
+            this.convert = convert;
+            this.upsert = upsert;
+            this.pageBytes = pageBytes;
+            this.pageListings = pageListings;
+            this.newListings = newListings;
+            this.updatedListings = updatedListings;
+            this.skippedListings = skippedListings;
+            this.fetchInFlight = fetchInFlight;
+            this.ingestInFlight = ingestInFlight;
+        }
+
+        /**
+         * Records a fetched page: request until the whole body was read.
+         */
+        public void pageFetched(long nanos, int bytes) {
+            fetch.record(nanos, TimeUnit.NANOSECONDS);
+            pageBytes.record(bytes);
+        }
+
+        /**
+         * Records a parsed page: HTML parse and listing extraction.
+         */
+        public void pageParsed(long nanos, int listings) {
+            parse.record(nanos, TimeUnit.NANOSECONDS);
+            pageListings.record(listings);
+        }
+
+        public void converted(long nanos) {
+            convert.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        public void upserted(long nanos, int newCount, int updatedCount, int skippedCount) {
+            upsert.record(nanos, TimeUnit.NANOSECONDS);
+            newListings.increment(newCount);
+            updatedListings.increment(updatedCount);
+            skippedListings.increment(skippedCount);
+        }
+
+        public void fetchStarted() {
+            fetchInFlight.incrementAndGet();
+        }
+
+        public void fetchFinished() {
+            fetchInFlight.decrementAndGet();
+        }
+
+        public void ingestStarted() {
+            ingestInFlight.incrementAndGet();
+        }
+
+        public void ingestFinished() {
+            ingestInFlight.decrementAndGet();
+        }
+    }
+}
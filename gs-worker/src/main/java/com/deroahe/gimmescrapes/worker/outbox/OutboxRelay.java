@@ -0,0 +1,195 @@
+package com.deroahe.gimmescrapes.worker.outbox;
+
+import com.deroahe.gimmescrapes.commons.enums.OutboxStatus;
+import com.deroahe.gimmescrapes.commons.model.OutboxEvent;
+import com.deroahe.gimmescrapes.commons.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains the outbox to RabbitMQ.
+ * <p>
+ * Each round locks a batch with {@code FOR UPDATE SKIP LOCKED}, publishes every message with a
+ * correlated confirm, waits for the confirms, and deletes the acknowledged rows in the same
+ * transaction. Unconfirmed rows are retried with exponential backoff and parked once they
+ * reach {@code gs.outbox.max-attempts}, so one poisoned event cannot be republished forever
+ * or hold up the batches behind it. Several relays can run in parallel on
+ * disjoint batches; delivery is at-least-once, and messages carry the outbox id as message id
+ * so consumers can deduplicate.
+ * <p>
+ * Payloads are stored as JSON and re-encoded through the shared message converter when relayed,
+ * so an outbox message goes out in the configured {@code gs.messaging.format}, compressed above
+ * the same threshold, exactly like one sent directly.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final MessageConverter messageConverter;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${gs.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${gs.outbox.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    @Value("${gs.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${gs.outbox.retry-initial-backoff:PT1S}")
+    private Duration initialBackoff;
+
+    @Value("${gs.outbox.retry-max-backoff:PT15M}")
+    private Duration maxBackoff;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       RabbitTemplate rabbitTemplate,
+                       MessageConverter messageConverter,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.messageConverter = messageConverter;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Publishes pending outbox events until the outbox is empty or a batch fails.
+     */
+    @Scheduled(fixedDelayString = "${gs.outbox.poll-interval-ms:500}")
+    public void drain() {
+        Integer published;
+        do {
+            published = transactionTemplate.execute(status -> relayBatch());
+        } while (published != null && published == batchSize);
+    }
+
+    /**
+     * Publishes one locked batch.
+     *
+     * @return number of events confirmed and removed
+     */
+    private int relayBatch() {
+        List<OutboxEvent> events = outboxEventRepository.lockNextBatch(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        Map<OutboxEvent, CorrelationData> sent = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            CorrelationData correlation = new CorrelationData("outbox-" + event.getId());
+            try {
+                rabbitTemplate.send(event.getExchange(), event.getRoutingKey(), toMessage(event), correlation);
+                sent.put(event, correlation);
+            } catch (AmqpException e) {
+                recordFailure(event, e.getMessage());
+            }
+        }
+
+        List<Long> confirmed = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + confirmTimeoutMs;
+        for (Map.Entry<OutboxEvent, CorrelationData> entry : sent.entrySet()) {
+            OutboxEvent event = entry.getKey();
+            try {
+                long remaining = Math.max(deadline - System.currentTimeMillis(), 1);
+                CorrelationData.Confirm confirm = entry.getValue().getFuture().get(remaining, TimeUnit.MILLISECONDS);
+                if (confirm.isAck()) {
+                    confirmed.add(event.getId());
+                } else {
+                    recordFailure(event, "nack: " + confirm.getReason());
+                }
+            } catch (ExecutionException | TimeoutException e) {
+                recordFailure(event, "not confirmed: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                recordFailure(event, "interrupted");
+            }
+        }
+
+        outboxEventRepository.deleteAllByIdInBatch(confirmed);
+        meterRegistry.counter("gs.outbox.published").increment(confirmed.size());
+        if (confirmed.size() < events.size()) {
+            log.warn("Outbox batch: {} of {} events confirmed", confirmed.size(), events.size());
+        } else {
+            log.debug("Outbox batch: {} events published", confirmed.size());
+        }
+        return confirmed.size();
+    }
+
+    /**
+     * Re-encodes the stored JSON payload in the configured format; the template's
+     * before-publish post-processor then compresses it if it is large enough.
+     */
+    private Message toMessage(OutboxEvent event) {
+        Object payload;
+        try {
+            payload = objectMapper.readValue(event.getPayload(), Class.forName(event.getPayloadType()));
+        } catch (ClassNotFoundException | JsonProcessingException e) {
+            throw new MessageConversionException("Cannot read outbox payload as " + event.getPayloadType(), e);
+        }
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        properties.setMessageId("outbox-" + event.getId());
+        return messageConverter.toMessage(payload, properties);
+    }
+
+    private void recordFailure(OutboxEvent event, String error) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        meterRegistry.counter("gs.outbox.failures").increment();
+
+        if (attempts >= maxAttempts) {
+            event.setStatus(OutboxStatus.PARKED);
+            meterRegistry.counter("gs.outbox.parked").increment();
+            log.error("Outbox event {} ({} to {}/{}) parked after {} attempts: {}", event.getId(),
+                    event.getPayloadType(), event.getExchange(), event.getRoutingKey(), attempts, error);
+        } else {
+            event.setNextAttemptAt(LocalDateTime.now().plus(backoff(attempts)));
+        }
+    }
+
+    /**
+     * Doubles from the initial backoff with every failed attempt, up to the maximum.
+     */
+    private Duration backoff(int attempts) {
+        int exponent = Math.min(attempts - 1, 30);
+        Duration delay = initialBackoff.multipliedBy(1L << exponent);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+}
@@ -0,0 +1,51 @@
+package com.deroahe.gimmescrapes.worker.outbox;
+
+import com.deroahe.gimmescrapes.commons.model.OutboxEvent;
+import com.deroahe.gimmescrapes.commons.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes messages to the transactional outbox instead of sending them directly.
+ * The message commits or rolls back together with the domain change; {@link OutboxRelay}
+ * delivers it afterwards.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Stores a message for publishing after the surrounding transaction commits.
+     *
+     * @param aggregateType kind of entity the message is about
+     * @param aggregateId id of that entity, may be null
+     * @param exchange target exchange
+     * @param routingKey target routing key
+     * @param payload message body, serialized as JSON
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String aggregateType, Long aggregateId, String exchange, String routingKey, Object payload) {
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .aggregateType(aggregateType)
+                    .aggregateId(aggregateId)
+                    .exchange(exchange)
+                    .routingKey(routingKey)
+                    .payloadType(payload.getClass().getName())
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .attempts(0)
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize outbox payload " + payload.getClass().getName(), e);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.deroahe.gimmescrapes.worker.retry;
+
+import com.deroahe.gimmescrapes.commons.config.RetryTopology;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Listener advice that moves failed deliveries to broker-side delay queues instead of retrying
+ * in the consumer thread.
+ * <p>
+ * When the listener throws, each message is republished to the delay tier for its attempt
+ * count, with the attempt in a header and a per-message expiration a little below the tier
+ * delay as jitter. The original delivery is then acked, so the consumer thread moves on at once
+ * and the message comes back to its queue when the delay expires. Messages that exhausted their
+ * retries, or fail in a way retrying cannot fix (unconvertible payload, invalid arguments), go
+ * straight to the queue's DLQ with the reason in headers. Republishing is mandatory and waits for
+ * the broker's confirm, so an unroutable message (e.g. a delay queue that was never declared)
+ * counts as a failure. If nothing could be republished, the original exception propagates and
+ * the delivery is redelivered; a partly republished batch is retried first, since redelivering
+ * it would duplicate the messages already routed.
+ */
+@Slf4j
+@Component
+public class DelayedRetryInterceptor implements MethodInterceptor {
+
+    private static final int MAX_REASON_LENGTH = 1000;
+
+    private final RabbitTemplate rabbitTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${gs.retry.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${gs.retry.jitter:0.2}")
+    private double jitter;
+
+    @Value("${gs.retry.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    /**
+     * Publish rounds for a partly routed batch before giving up and redelivering it.
+     */
+    @Value("${gs.retry.route-rounds:3}")
+    private int routeRounds;
+
+    public DelayedRetryInterceptor(RabbitTemplate rabbitTemplate, MeterRegistry meterRegistry) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            List<Message> messages = messages(invocation.getArguments()[1]);
+            for (Message message : messages) {
+                if (!RetryTopology.DEAD_LETTER_QUEUES.containsKey(message.getMessageProperties().getConsumerQueue())) {
+                    throw e;
+                }
+            }
+
+            // A batch is acked or redelivered as a whole. Once part of it has been republished,
+            // redelivering it would process those messages twice, so the rest are retried first.
+            List<Route> pending = messages.stream().map(message -> plan(message, e)).toList();
+            int routed = 0;
+            for (int round = 1; round <= routeRounds && !pending.isEmpty(); round++) {
+                List<Route> failed = publishAll(pending);
+                routed += pending.size() - failed.size();
+                pending = failed;
+                if (routed == 0) {
+                    break;
+                }
+            }
+            if (pending.isEmpty()) {
+                return null;
+            }
+
+            String queue = pending.get(0).queue();
+            if (routed > 0) {
+                meterRegistry.counter("gs.messages.retry.duplicated", "queue", queue).increment(routed);
+                log.error("Failed to route {} of {} failed messages from {}; redelivering the batch, "
+                        + "so {} already routed messages will be processed twice", pending.size(), messages.size(), queue, routed);
+            } else {
+                log.error("Failed to route {} failed message(s) from {}, leaving them to redelivery", pending.size(), queue);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Routes one message that failed on its own, for batch listeners that handle failures per
+     * message instead of throwing for the whole batch.
+     *
+     * @param message the failed message
+     * @param failure the failure; poison failures go straight to the DLQ
+     * @return true if a retry was scheduled, false if the message was dead-lettered
+     * @throws AmqpException if the message could not be republished
+     */
+    public boolean routeFailed(Message message, Throwable failure) {
+        Route route = plan(message, failure);
+        if (!publishAll(List.of(route)).isEmpty()) {
+            throw new AmqpException("Failed to route failed message from " + route.queue() + " to " + route.target());
+        }
+        return !route.deadLetter();
+    }
+
+    /**
+     * Decides where a failed message goes: its next delay tier, or the DLQ once retries are
+     * exhausted or the failure cannot be fixed by retrying.
+     */
+    private Route plan(Message message, Throwable failure) {
+        String queue = message.getMessageProperties().getConsumerQueue();
+        Throwable cause = rootCause(failure);
+        Object previousAttempts = message.getMessageProperties().getHeader(RetryTopology.ATTEMPT_HEADER);
+        int attempt = (previousAttempts instanceof Number n ? n.intValue() : 0) + 1;
+
+        if (isPoison(failure) || attempt > maxRetries) {
+            return new Route(queue, RetryTopology.DEAD_LETTER_QUEUES.get(queue), MessageBuilder.fromClonedMessage(message)
+                    .setHeader(RetryTopology.ATTEMPT_HEADER, attempt)
+                    .setHeader(RetryTopology.ORIGINAL_QUEUE_HEADER, queue)
+                    .setHeader(RetryTopology.FAILURE_REASON_HEADER, reason(cause))
+                    .setHeader(RetryTopology.FAILURE_EXCEPTION_HEADER, cause.getClass().getName())
+                    .build(), true, attempt, cause);
+        }
+
+        int tier = Math.min(attempt, RetryTopology.TIERS.size()) - 1;
+        Duration delay = RetryTopology.TIERS.get(tier);
+        long expiration = delay.toMillis() - (long) (ThreadLocalRandom.current().nextDouble(jitter) * delay.toMillis());
+        return new Route(queue, RetryTopology.retryQueueName(queue, tier), MessageBuilder.fromClonedMessage(message)
+                .setHeader(RetryTopology.ATTEMPT_HEADER, attempt)
+                .setHeader(RetryTopology.ORIGINAL_QUEUE_HEADER, queue)
+                .setHeader(RetryTopology.FAILURE_REASON_HEADER, reason(cause))
+                .setExpiration(Long.toString(expiration))
+                .build(), false, attempt, cause);
+    }
+
+    /**
+     * Publishes routes with the mandatory flag and waits for their confirms. A route counts as
+     * published only if the broker acked it and did not return it as unroutable.
+     *
+     * @return the routes that were not published
+     */
+    private List<Route> publishAll(List<Route> routes) {
+        List<Route> failed = new ArrayList<>();
+        Map<Route, CorrelationData> sent = new IdentityHashMap<>();
+        for (Route route : routes) {
+            CorrelationData correlation = new CorrelationData();
+            try {
+                rabbitTemplate.send("", route.target(), route.message(), correlation);
+                sent.put(route, correlation);
+            } catch (AmqpException e) {
+                log.warn("Failed to republish message from {} to {}: {}", route.queue(), route.target(), e.getMessage());
+                failed.add(route);
+            }
+        }
+
+        long deadline = System.currentTimeMillis() + confirmTimeoutMs;
+        for (Route route : routes) {
+            CorrelationData correlation = sent.get(route);
+            if (correlation == null) {
+                continue;
+            }
+            try {
+                long remaining = Math.max(deadline - System.currentTimeMillis(), 1);
+                CorrelationData.Confirm confirm = correlation.getFuture().get(remaining, TimeUnit.MILLISECONDS);
+                if (!confirm.isAck()) {
+                    log.warn("Broker rejected message to {}: {}", route.target(), confirm.getReason());
+                    failed.add(route);
+                } else if (correlation.getReturned() != null) {
+                    log.warn("Message to {} was returned as unroutable: {}", route.target(), correlation.getReturned().getReplyText());
+                    failed.add(route);
+                } else {
+                    recordRouted(route);
+                }
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Message to {} not confirmed: {}", route.target(), e.getMessage());
+                failed.add(route);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.add(route);
+            }
+        }
+        return failed;
+    }
+
+    private void recordRouted(Route route) {
+        if (route.deadLetter()) {
+            meterRegistry.counter("gs.messages.dead.lettered", "queue", route.queue(),
+                    "exception", route.cause().getClass().getSimpleName()).increment();
+            log.warn("Dead-lettered message from {} to {} after {} attempt(s): {}",
+                    route.queue(), route.target(), route.attempt(), reason(route.cause()));
+        } else {
+            meterRegistry.counter("gs.messages.retried", "queue", route.queue(), "tier", route.target()).increment();
+            log.info("Scheduled retry {} of message from {} in {} s via {}: {}", route.attempt(), route.queue(),
+                    Long.parseLong(route.message().getMessageProperties().getExpiration()) / 1000,
+                    route.target(), reason(route.cause()));
+        }
+    }
+
+    /**
+     * Failures that will recur on every attempt.
+     */
+    private boolean isPoison(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof MessageConversionException
+                    || t instanceof IllegalArgumentException
+                    || t instanceof AmqpRejectAndDontRequeueException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Throwable rootCause(Throwable failure) {
+        Throwable cause = failure;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private String reason(Throwable cause) {
+        String reason = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        return reason.length() > MAX_REASON_LENGTH ? reason.substring(0, MAX_REASON_LENGTH) : reason;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Message> messages(Object data) {
+        return data instanceof List<?> batch ? (List<Message>) batch : List.of((Message) data);
+    }
+
+    /**
+     * Where one failed message is republished to.
+     */
+    private record Route(String queue, String target, Message message, boolean deadLetter, int attempt, Throwable cause) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.deroahe.gimmescrapes.worker.scaling;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts deliveries currently being processed, per listener.
+ * The advice is added to a container's advice chain, which wraps each listener invocation.
+ */
+@Component
+public class ListenerActivityTracker {
+
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Advice to add to the container's advice chain.
+     */
+    public MethodInterceptor advice(String listenerId) {
+        AtomicInteger counter = counter(listenerId);
+        return invocation -> {
+            counter.incrementAndGet();
+            try {
+                return invocation.proceed();
+            } finally {
+                counter.decrementAndGet();
+            }
+        };
+    }
+
+    public int inFlight(String listenerId) {
+        return counter(listenerId).get();
+    }
+
+    private AtomicInteger counter(String listenerId) {
+        return inFlight.computeIfAbsent(listenerId, id -> new AtomicInteger());
+    }
+}
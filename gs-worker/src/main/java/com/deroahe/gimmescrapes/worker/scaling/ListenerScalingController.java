@@ -0,0 +1,140 @@
+package com.deroahe.gimmescrapes.worker.scaling;
+
+import com.deroahe.gimmescrapes.commons.config.RabbitMQConstants;
+import com.deroahe.gimmescrapes.worker.config.RabbitMQConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Sizes listener containers from queue depth and consumer utilization.
+ * <p>
+ * Demand is the deliveries in flight plus the backlog divided by how many waiting messages one
+ * consumer should absorb (1 for long scrape jobs, a couple of batches for email). Containers
+ * grow to the demand at once and shrink by one consumer per tick, within their bounds. The
+ * latest decision per listener is published as gauges and through the {@code scaling}
+ * actuator endpoint.
+ */
+@Slf4j
+@Component
+public class ListenerScalingController {
+
+    private final RabbitListenerEndpointRegistry registry;
+    private final AmqpAdmin amqpAdmin;
+    private final ListenerActivityTracker activityTracker;
+    private final List<ManagedListener> listeners;
+    private final Map<String, ListenerScalingSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    public ListenerScalingController(RabbitListenerEndpointRegistry registry,
+                                     AmqpAdmin amqpAdmin,
+                                     ListenerActivityTracker activityTracker,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${gs.scaling.scrape.min-consumers:1}") int scrapeMin,
+                                     @Value("${gs.scaling.scrape.max-consumers:4}") int scrapeMax,
+                                     @Value("${gs.scaling.scrape-express.min-consumers:1}") int scrapeExpressMin,
+                                     @Value("${gs.scaling.scrape-express.max-consumers:2}") int scrapeExpressMax,
+                                     @Value("${gs.scaling.email.min-consumers:1}") int emailMin,
+                                     @Value("${gs.scaling.email.max-consumers:4}") int emailMax,
+                                     @Value("${gs.email.consumer.batch-size:50}") int emailBatchSize,
+                                     @Value("${gs.scaling.ingest.min-consumers:1}") int ingestMin,
+                                     @Value("${gs.scaling.ingest.max-consumers:4}") int ingestMax,
+                                     @Value("${gs.ingest.prefetch:2}") int ingestPrefetch) {
+        this.registry = registry;
+        this.amqpAdmin = amqpAdmin;
+        this.activityTracker = activityTracker;
+        this.listeners = List.of(
+                new ManagedListener(RabbitMQConfig.SCRAPE_LISTENER_ID, RabbitMQConstants.SCRAPE_QUEUE, scrapeMin, scrapeMax, 1),
+                new ManagedListener(RabbitMQConfig.SCRAPE_EXPRESS_LISTENER_ID, RabbitMQConstants.SCRAPE_EXPRESS_QUEUE,
+                        scrapeExpressMin, scrapeExpressMax, 1),
+                new ManagedListener(RabbitMQConfig.EMAIL_LISTENER_ID, RabbitMQConstants.EMAIL_QUEUE, emailMin, emailMax, emailBatchSize * 2),
+                new ManagedListener(RabbitMQConfig.INGEST_LISTENER_ID, RabbitMQConstants.LISTINGS_INGEST_QUEUE,
+                        ingestMin, ingestMax, ingestPrefetch));
+
+        for (ManagedListener listener : listeners) {
+            gauge(meterRegistry, "gs.listener.queue.depth", listener, ListenerScalingSnapshot::queueDepth);
+            gauge(meterRegistry, "gs.listener.consumers", listener, ListenerScalingSnapshot::consumers);
+            gauge(meterRegistry, "gs.listener.utilization", listener, ListenerScalingSnapshot::utilization);
+            gauge(meterRegistry, "gs.listener.recommended.workers", listener, ListenerScalingSnapshot::recommendedWorkers);
+        }
+    }
+
+    /**
+     * Re-evaluates every managed listener.
+     */
+    @Scheduled(fixedDelayString = "${gs.scaling.interval-ms:10000}", initialDelayString = "${gs.scaling.interval-ms:10000}")
+    public void rescale() {
+        for (ManagedListener listener : listeners) {
+            try {
+                rescale(listener);
+            } catch (Exception e) {
+                log.warn("Failed to rescale listener {}: {}", listener.id(), e.getMessage());
+            }
+        }
+    }
+
+    public Map<String, ListenerScalingSnapshot> snapshots() {
+        return Map.copyOf(snapshots);
+    }
+
+    private void rescale(ManagedListener listener) {
+        MessageListenerContainer container = registry.getListenerContainer(listener.id());
+        if (!(container instanceof SimpleMessageListenerContainer simple) || !container.isRunning()) {
+            return;
+        }
+        QueueInformation queueInfo = amqpAdmin.getQueueInfo(listener.queue());
+        if (queueInfo == null) {
+            return;
+        }
+
+        int current = simple.getActiveConsumerCount();
+        int inFlight = activityTracker.inFlight(listener.id());
+        long depth = queueInfo.getMessageCount();
+        long backlogConsumers = (depth + listener.depthPerConsumer() - 1) / listener.depthPerConsumer();
+
+        int demand = (int) Math.min(Integer.MAX_VALUE, inFlight + backlogConsumers);
+        int desired = Math.max(listener.min(), Math.min(listener.max(), demand));
+        if (desired < current) {
+            desired = Math.max(desired, current - 1);
+        }
+        if (desired != current) {
+            simple.setConcurrentConsumers(desired);
+            log.info("Scaled listener {}: consumers {} -> {} (depth={}, inFlight={})",
+                    listener.id(), current, desired, depth, inFlight);
+        }
+
+        // Busy consumers across all workers, estimated from this worker's utilization
+        double utilization = current > 0 ? (double) inFlight / current : 0.0;
+        double busyConsumers = queueInfo.getConsumerCount() * utilization;
+        int recommendedWorkers = (int) Math.max(1, Math.ceil((busyConsumers + backlogConsumers) / listener.max()));
+
+        snapshots.put(listener.id(), new ListenerScalingSnapshot(listener.queue(), depth, queueInfo.getConsumerCount(),
+                desired, inFlight, utilization, listener.min(), listener.max(), recommendedWorkers, LocalDateTime.now()));
+    }
+
+    private void gauge(MeterRegistry meterRegistry, String name, ManagedListener listener,
+                       ToDoubleFunction<ListenerScalingSnapshot> value) {
+        Gauge.builder(name, snapshots, map -> {
+                    ListenerScalingSnapshot snapshot = map.get(listener.id());
+                    return snapshot != null ? value.applyAsDouble(snapshot) : 0.0;
+                })
+                .tag("listener", listener.id())
+                .register(meterRegistry);
+    }
+
+    private record ManagedListener(String id, String queue, int min, int max, int depthPerConsumer) {
+    }
+}
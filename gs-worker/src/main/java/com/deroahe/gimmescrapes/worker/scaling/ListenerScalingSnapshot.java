@@ -0,0 +1,32 @@
+package com.deroahe.gimmescrapes.worker.scaling;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last scaling decision for one listener container.
+ *
+ * @param queue the consumed queue
+ * @param queueDepth ready messages in the queue
+ * @param queueConsumers consumers on the queue across all workers
+ * @param consumers consumers of this worker's container
+ * @param inFlight deliveries this worker is processing
+ * @param utilization {@code inFlight / consumers}
+ * @param minConsumers lower bound for this worker
+ * @param maxConsumers upper bound for this worker
+ * @param recommendedWorkers workers needed to serve the backlog at {@code maxConsumers} each;
+ *                           the signal for an external autoscaler
+ * @param decidedAt when the decision was made
+ */
+public record ListenerScalingSnapshot(
+        String queue,
+        long queueDepth,
+        int queueConsumers,
+        int consumers,
+        int inFlight,
+        double utilization,
+        int minConsumers,
+        int maxConsumers,
+        int recommendedWorkers,
+        LocalDateTime decidedAt
+) {
+}
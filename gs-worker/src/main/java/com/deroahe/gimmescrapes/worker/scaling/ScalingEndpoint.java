@@ -0,0 +1,25 @@
+package com.deroahe.gimmescrapes.worker.scaling;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint ({@code /actuator/scaling}) exposing the latest scaling decision per
+ * listener, for external autoscalers that size the worker deployment.
+ */
+@Component
+@Endpoint(id = "scaling")
+@RequiredArgsConstructor
+public class ScalingEndpoint {
+
+    private final ListenerScalingController scalingController;
+
+    @ReadOperation
+    public Map<String, ListenerScalingSnapshot> scaling() {
+        return scalingController.snapshots();
+    }
+}
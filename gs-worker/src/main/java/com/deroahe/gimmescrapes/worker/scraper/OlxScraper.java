@@ -4,7 +4,10 @@ import com.deroahe.gimmescrapes.commons.dto.ListingDto;
 import com.deroahe.gimmescrapes.commons.exception.ScrapingException;
 import com.deroahe.gimmescrapes.commons.model.Source;
 import com.deroahe.gimmescrapes.commons.scraper.RealEstateScraper;
+import com.deroahe.gimmescrapes.worker.metrics.ScrapeMetrics;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Connection;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
@@ -27,6 +30,7 @@ import java.util.regex.Pattern;
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class OlxScraper implements RealEstateScraper {
 
     private static final String SOURCE_NAME = "olx.ro";
@@ -41,6 +45,7 @@ public class OlxScraper implements RealEstateScraper {
         "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36"
     };
 
+    private final ScrapeMetrics scrapeMetrics;
     private final Random random = new Random();
 
     @Override
@@ -49,33 +54,42 @@ public class OlxScraper implements RealEstateScraper {
         List<ListingDto> allListings = new ArrayList<>();
         int successCount = 0;
         int errorCount = 0;
+        ScrapeMetrics.SourceMeters meters = scrapeMetrics.source(source.getName());
 
         try {
             for (int page = 1; page <= MAX_PAGES; page++) {
                 log.debug("Scraping page {} of {}", page, MAX_PAGES);
 
                 String searchUrl = buildSearchUrl(source.getBaseUrl(), page);
-                Document doc = fetchDocument(searchUrl);
+                Connection.Response response = fetchPage(searchUrl, meters);
 
-                // OLX uses data-cy attributes for listings
-                Elements listingCards = doc.select("[data-cy='l-card'], .offer-wrapper, div[data-id]");
+                long parseStart = System.nanoTime();
+                int listingsBefore = allListings.size();
+                try {
+                    Document doc = response.parse();
 
-                if (listingCards.isEmpty()) {
-                    log.warn("No listings found on page {}. Stopping pagination.", page);
-                    break;
-                }
+                    // OLX uses data-cy attributes for listings
+                    Elements listingCards = doc.select("[data-cy='l-card'], .offer-wrapper, div[data-id]");
+
+                    if (listingCards.isEmpty()) {
+                        log.warn("No listings found on page {}. Stopping pagination.", page);
+                        break;
+                    }
 
-                for (Element card : listingCards) {
-                    try {
-                        ListingDto listing = extractListing(card, source.getBaseUrl());
-                        if (listing != null && listing.getUrl() != null) {
-                            allListings.add(listing);
-                            successCount++;
+                    for (Element card : listingCards) {
+                        try {
+                            ListingDto listing = extractListing(card, source.getBaseUrl());
+                            if (listing != null && listing.getUrl() != null) {
+                                allListings.add(listing);
+                                successCount++;
+                            }
+                        } catch (Exception e) {
+                            errorCount++;
+                            log.error("Error extracting listing from card: {}", e.getMessage());
                         }
-                    } catch (Exception e) {
-                        errorCount++;
-                        log.error("Error extracting listing from card: {}", e.getMessage());
                     }
+                } finally {
+                    meters.pageParsed(System.nanoTime() - parseStart, allListings.size() - listingsBefore);
                 }
 
                 // Throttle requests to be respectful
@@ -97,13 +111,20 @@ public class OlxScraper implements RealEstateScraper {
         return allListings;
     }
 
-    private Document fetchDocument(String url) throws IOException {
+    /**
+     * Fetches a page and reads its whole body, so the parse timing covers parsing only.
+     */
+    private Connection.Response fetchPage(String url, ScrapeMetrics.SourceMeters meters) throws IOException {
         String userAgent = USER_AGENTS[random.nextInt(USER_AGENTS.length)];
-        return Jsoup.connect(url)
+        long start = System.nanoTime();
+        Connection.Response response = Jsoup.connect(url)
                 .userAgent(userAgent)
                 .timeout(TIMEOUT_MS)
                 .referrer("https://www.google.com")
-                .get();
+                .execute()
+                .bufferUp();
+        meters.pageFetched(System.nanoTime() - start, response.bodyAsBytes().length);
+        return response;
     }
 
     private String buildSearchUrl(String baseUrl, int page) {
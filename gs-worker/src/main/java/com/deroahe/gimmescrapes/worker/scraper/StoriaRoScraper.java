@@ -6,7 +6,10 @@ import com.deroahe.gimmescrapes.commons.model.Source;
 import com.deroahe.gimmescrapes.commons.scraper.RealEstateScraper;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.deroahe.gimmescrapes.worker.metrics.ScrapeMetrics;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Connection;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
@@ -27,6 +30,7 @@ import java.util.Random;
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class StoriaRoScraper implements RealEstateScraper {
 
     private static final String SOURCE_NAME = "storia.ro";
@@ -41,6 +45,7 @@ public class StoriaRoScraper implements RealEstateScraper {
         "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36"
     };
 
+    private final ScrapeMetrics scrapeMetrics;
     private final Random random = new Random();
     private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -50,46 +55,55 @@ public class StoriaRoScraper implements RealEstateScraper {
         List<ListingDto> allListings = new ArrayList<>();
         int successCount = 0;
         int errorCount = 0;
+        ScrapeMetrics.SourceMeters meters = scrapeMetrics.source(source.getName());
 
         try {
             for (int page = 1; page <= MAX_PAGES; page++) {
                 log.debug("Scraping page {} of {}", page, MAX_PAGES);
 
                 String searchUrl = buildSearchUrl(source.getBaseUrl(), page);
-                Document doc = fetchDocument(searchUrl);
-
-                // Extract JSON from __NEXT_DATA__ script tag
-                JsonNode jsonData = extractNextDataJson(doc);
-                if (jsonData == null) {
-                    log.warn("Could not find __NEXT_DATA__ script tag on page {}. Stopping.", page);
-                    break;
-                }
-
-                // Navigate to items array
-                JsonNode items = jsonData.at("/props/pageProps/data/searchAds/items");
-                if (items.isMissingNode() || !items.isArray()) {
-                    log.warn("No listings found in JSON data on page {}. Stopping pagination.", page);
-                    break;
-                }
+                Connection.Response response = fetchPage(searchUrl, meters);
+
+                long parseStart = System.nanoTime();
+                int listingsBefore = allListings.size();
+                try {
+                    Document doc = response.parse();
+
+                    // Extract JSON from __NEXT_DATA__ script tag
+                    JsonNode jsonData = extractNextDataJson(doc);
+                    if (jsonData == null) {
+                        log.warn("Could not find __NEXT_DATA__ script tag on page {}. Stopping.", page);
+                        break;
+                    }
 
-                if (items.size() == 0) {
-                    log.warn("Empty items array on page {}. Stopping pagination.", page);
-                    break;
-                }
+                    // Navigate to items array
+                    JsonNode items = jsonData.at("/props/pageProps/data/searchAds/items");
+                    if (items.isMissingNode() || !items.isArray()) {
+                        log.warn("No listings found in JSON data on page {}. Stopping pagination.", page);
+                        break;
+                    }
 
-                log.debug("Found {} listings on page {}", items.size(), page);
+                    if (items.size() == 0) {
+                        log.warn("Empty items array on page {}. Stopping pagination.", page);
+                        break;
+                    }
 
-                for (JsonNode item : items) {
-                    try {
-                        ListingDto listing = extractListingFromJson(item, source.getBaseUrl());
-                        if (listing != null && listing.getUrl() != null) {
-                            allListings.add(listing);
-                            successCount++;
+                    log.debug("Found {} listings on page {}", items.size(), page);
+
+                    for (JsonNode item : items) {
+                        try {
+                            ListingDto listing = extractListingFromJson(item, source.getBaseUrl());
+                            if (listing != null && listing.getUrl() != null) {
+                                allListings.add(listing);
+                                successCount++;
+                            }
+                        } catch (Exception e) {
+                            errorCount++;
+                            log.error("Error extracting listing from JSON: {}", e.getMessage());
                         }
-                    } catch (Exception e) {
-                        errorCount++;
-                        log.error("Error extracting listing from JSON: {}", e.getMessage());
                     }
+                } finally {
+                    meters.pageParsed(System.nanoTime() - parseStart, allListings.size() - listingsBefore);
                 }
 
                 // Throttle requests to be respectful
@@ -111,13 +125,20 @@ public class StoriaRoScraper implements RealEstateScraper {
         return allListings;
     }
 
-    private Document fetchDocument(String url) throws IOException {
+    /**
+     * Fetches a page and reads its whole body, so the parse timing covers parsing only.
+     */
+    private Connection.Response fetchPage(String url, ScrapeMetrics.SourceMeters meters) throws IOException {
         String userAgent = USER_AGENTS[random.nextInt(USER_AGENTS.length)];
-        return Jsoup.connect(url)
+        long start = System.nanoTime();
+        Connection.Response response = Jsoup.connect(url)
                 .userAgent(userAgent)
                 .timeout(TIMEOUT_MS)
                 .referrer("https://www.google.com")
-                .get();
+                .execute()
+                .bufferUp();
+        meters.pageFetched(System.nanoTime() - start, response.bodyAsBytes().length);
+        return response;
     }
 
     private String buildSearchUrl(String baseUrl, int page) {
@@ -0,0 +1,62 @@
+package com.deroahe.gimmescrapes.worker.service;
+
+import com.deroahe.gimmescrapes.commons.config.CacheConstants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Invalidates the orchestrator's listing query caches after listings change.
+ * Removes the Redis entries, then broadcasts the tags so every orchestrator instance
+ * drops its local copies.
+ * Only entries tagged with an affected source, an affected city, or no restriction
+ * at all are removed; the rest of the cache stays warm.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ListingCacheInvalidator {
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * Removes cached listing queries that may include listings of the given sources or cities.
+     *
+     * @param sourceNames the scraped source and the sources of other listings it affected
+     * @param cities cities whose listings were inserted, updated, moved away, delisted or regrouped
+     */
+    public void invalidate(Collection<String> sourceNames, Collection<String> cities) {
+        Set<String> tags = new LinkedHashSet<>();
+        tags.add(CacheConstants.TAG_ALL);
+        sourceNames.forEach(sourceName -> tags.add(CacheConstants.sourceTag(sourceName)));
+        cities.forEach(city -> tags.add(CacheConstants.cityTag(city)));
+
+        try {
+            List<String> keys = new ArrayList<>();
+            for (String tag : tags) {
+                Set<String> members = redisTemplate.opsForSet().members(tag);
+                if (members != null) {
+                    keys.addAll(members);
+                }
+                keys.add(tag);
+            }
+            Long deleted = redisTemplate.delete(keys);
+            // Orchestrator instances evict their in-process copies on receipt
+            redisTemplate.convertAndSend(CacheConstants.INVALIDATION_CHANNEL,
+                    String.join(CacheConstants.TAG_SEPARATOR, tags));
+            log.info("Invalidated listing cache for sources {} ({} cities): {} keys removed",
+                    sourceNames, cities.size(), deleted);
+        } catch (DataAccessException e) {
+            // Entries expire on their own; a failed invalidation only extends staleness to the TTL
+            log.warn("Listing cache invalidation failed for sources {}: {}", sourceNames, e.getMessage());
+        }
+    }
+}
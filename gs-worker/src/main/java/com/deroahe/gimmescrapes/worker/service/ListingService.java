@@ -2,15 +2,27 @@ package com.deroahe.gimmescrapes.worker.service;
 
 import com.deroahe.gimmescrapes.commons.model.Listing;
 import com.deroahe.gimmescrapes.commons.repository.ListingRepository;
+import com.deroahe.gimmescrapes.commons.repository.SourceRepository;
+import com.deroahe.gimmescrapes.commons.model.Source;
+import com.deroahe.gimmescrapes.worker.dedup.ListingDedupService;
+import com.deroahe.gimmescrapes.worker.event.ListingChangeCollector;
+import com.deroahe.gimmescrapes.worker.event.ListingEventPublisher;
+import com.deroahe.gimmescrapes.worker.event.ListingSnapshot;
+import com.deroahe.gimmescrapes.worker.lease.LeaseLostException;
+import com.deroahe.gimmescrapes.worker.metrics.ScrapeMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service for managing listings.
@@ -22,6 +34,18 @@ import java.util.Optional;
 public class ListingService {
 
     private final ListingRepository listingRepository;
+    private final SourceRepository sourceRepository;
+    private final MarketStatsService marketStatsService;
+    private final ListingDedupService listingDedupService;
+    private final ListingEventPublisher listingEventPublisher;
+    private final ScrapeMetrics scrapeMetrics;
+
+    /**
+     * Listings of a source not seen for this long are marked delisted.
+     * Scrapers only walk the first result pages, so a single missed scrape proves nothing.
+     */
+    @Value("${gs.events.delisted-after:P3D}")
+    private Duration delistedAfter;
 
     /**
      * Performs a bulk upsert operation on listings.
@@ -32,13 +56,53 @@ public class ListingService {
      */
     @Transactional
     public UpsertResult bulkUpsert(List<Listing> listings) {
+        return bulkUpsert(listings, null);
+    }
+
+    /**
+     * Performs a bulk upsert operation on listings of one source and publishes
+     * the resulting change events after commit.
+     *
+     * @param listings the listings to upsert
+     * @param jobId the scraping job the listings come from, may be null
+     * @return statistics about the upsert operation
+     */
+    @Transactional
+    public UpsertResult bulkUpsert(List<Listing> listings, Long jobId) {
+        return bulkUpsert(listings, jobId, null);
+    }
+
+    /**
+     * Performs a bulk upsert of one source's listings under a scrape lease.
+     * The fencing token is checked first, in the same transaction, so a scrape whose lease
+     * has been taken over cannot overwrite the results of the scrape that replaced it.
+     *
+     * @param listings the listings to upsert
+     * @param jobId the scraping job the listings come from, may be null
+     * @param fencingToken the source lease token, or null when not running under a lease
+     * @return statistics about the upsert operation
+     * @throws LeaseLostException if a newer lease holder has already written for the source
+     */
+    @Transactional
+    public UpsertResult bulkUpsert(List<Listing> listings, Long jobId, Long fencingToken) {
         log.info("Starting bulk upsert for {} listings", listings.size());
+        long startNanos = System.nanoTime();
+
+        Source source = listings.isEmpty() ? null : listings.get(0).getSource();
+        if (fencingToken != null && source != null
+                && sourceRepository.advanceFencingToken(source.getId(), fencingToken) == 0) {
+            throw new LeaseLostException("Stale lease token " + fencingToken + " for source " + source.getName());
+        }
+        ListingChangeCollector changes = new ListingChangeCollector(jobId, source != null ? source.getName() : null);
 
         int newCount = 0;
         int updatedCount = 0;
         int skippedCount = 0;
 
         List<Listing> savedListings = new ArrayList<>();
+        List<Listing> unchangedListings = new ArrayList<>();
+        MarketStatsService.StatsBatch statsBatch = marketStatsService.newBatch();
+        LocalDate today = LocalDate.now();
 
         for (Listing listing : listings) {
             try {
@@ -53,14 +117,22 @@ public class ListingService {
                 if (existingOpt.isPresent()) {
                     // Update existing listing
                     Listing existing = existingOpt.get();
+                    LocalDateTime previousScrape = existing.getLastScrapedAt();
+                    ListingSnapshot before = ListingSnapshot.of(existing);
+                    boolean priceChanged = listing.getPrice() != null
+                            && (existing.getPrice() == null || listing.getPrice().compareTo(existing.getPrice()) != 0);
                     boolean wasUpdated = updateListing(existing, listing);
+                    statsBatch.record(existing, false, wasUpdated, priceChanged,
+                            previousScrape == null || previousScrape.toLocalDate().isBefore(today));
 
                     if (wasUpdated) {
                         Listing saved = listingRepository.save(existing);
                         savedListings.add(saved);
+                        changes.updated(saved, before);
                         updatedCount++;
                         log.debug("Updated listing: {}", listing.getUrl());
                     } else {
+                        unchangedListings.add(existing);
                         skippedCount++;
                         log.debug("No changes detected for listing: {}", listing.getUrl());
                     }
@@ -68,6 +140,8 @@ public class ListingService {
                     // Insert new listing
                     Listing saved = listingRepository.save(listing);
                     savedListings.add(saved);
+                    statsBatch.record(saved, true, false, false, true);
+                    changes.created(saved);
                     newCount++;
                     log.debug("Inserted new listing: {}", listing.getUrl());
                 }
@@ -78,10 +152,45 @@ public class ListingService {
             }
         }
 
+        if (!statsBatch.isEmpty()) {
+            marketStatsService.apply(statsBatch);
+        }
+
+        listingDedupService.process(savedListings, unchangedListings, changes);
+
+        if (source != null) {
+            markDelisted(source, changes);
+        }
+        listingEventPublisher.publish(changes);
+
         log.info("Bulk upsert completed. New: {}, Updated: {}, Skipped: {}",
                 newCount, updatedCount, skippedCount);
+        if (source != null) {
+            // Excludes the commit, which the caller's transaction boundary adds
+            scrapeMetrics.source(source.getName())
+                    .upserted(System.nanoTime() - startNanos, newCount, updatedCount, skippedCount);
+        }
+
+        return new UpsertResult(newCount, updatedCount, skippedCount, savedListings,
+                changes.getAffectedSources(), changes.getAffectedCities());
+    }
 
-        return new UpsertResult(newCount, updatedCount, skippedCount, savedListings);
+    /**
+     * Marks active listings of a source that have not been seen recently as delisted.
+     *
+     * @param source the scraped source
+     * @param changes collector receiving the delisting events
+     */
+    private void markDelisted(Source source, ListingChangeCollector changes) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Listing> stale = listingRepository.findStale(source.getId(), now.minus(delistedAfter));
+        for (Listing listing : stale) {
+            listing.setDelistedAt(now);
+            changes.delisted(listing);
+        }
+        if (!stale.isEmpty()) {
+            log.info("Marked {} listings of {} as delisted", stale.size(), source.getName());
+        }
     }
 
     /**
@@ -188,6 +297,18 @@ public class ListingService {
             updated = true;
         }
 
+        // Update amenities if changed
+        if (newData.getFeaturesMask() != null && !newData.getFeaturesMask().equals(existing.getFeaturesMask())) {
+            existing.setFeaturesMask(newData.getFeaturesMask());
+            updated = true;
+        }
+
+        // A listing seen again is no longer delisted
+        if (existing.getDelistedAt() != null) {
+            existing.setDelistedAt(null);
+            updated = true;
+        }
+
         // Always update lastScrapedAt
         existing.setLastScrapedAt(LocalDateTime.now());
 
@@ -196,12 +317,18 @@ public class ListingService {
 
     /**
      * Result of a bulk upsert operation.
+     *
+     * @param affectedSources sources whose cached listing queries may have changed
+     * @param affectedCities cities whose cached listing queries may have changed: old and new
+     *                       cities of changed listings, delisted listings and relabeled duplicates
      */
     public record UpsertResult(
             int newCount,
             int updatedCount,
             int skippedCount,
-            List<Listing> savedListings
+            List<Listing> savedListings,
+            Set<String> affectedSources,
+            Set<String> affectedCities
     ) {
         public int getTotalProcessed() {
             return newCount + updatedCount + skippedCount;
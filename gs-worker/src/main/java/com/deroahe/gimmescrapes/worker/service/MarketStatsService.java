@@ -0,0 +1,163 @@
+package com.deroahe.gimmescrapes.worker.service;
+
+import com.deroahe.gimmescrapes.commons.model.Listing;
+import com.deroahe.gimmescrapes.commons.model.MarketStat;
+import com.deroahe.gimmescrapes.commons.repository.MarketStatRepository;
+import com.deroahe.gimmescrapes.commons.util.PriceDigests;
+import com.tdunning.math.stats.MergingDigest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains daily per-neighborhood market statistics from upsert deltas.
+ * Each batch is folded into the stats rows it touches, so no query ever scans listings.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MarketStatsService {
+
+    private static final String PRICE_CURRENCY = "EUR";
+
+    private final MarketStatRepository marketStatRepository;
+
+    /**
+     * Starts a new in-memory accumulator for one upsert batch.
+     *
+     * @return an empty batch
+     */
+    public StatsBatch newBatch() {
+        return new StatsBatch(LocalDate.now());
+    }
+
+    /**
+     * Applies an accumulated batch to the stats table.
+     * Must run inside the upsert transaction so stats and listings commit together.
+     *
+     * @param batch the accumulated deltas
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(StatsBatch batch) {
+        // TreeMap iteration gives every worker the same lock order, avoiding deadlocks
+        for (Map.Entry<StatsKey, StatsDelta> entry : batch.deltas.entrySet()) {
+            StatsKey key = entry.getKey();
+            StatsDelta delta = entry.getValue();
+
+            marketStatRepository.insertIfAbsent(key.date(), key.city(), key.neighborhood());
+            MarketStat stat = marketStatRepository.findForUpdate(key.date(), key.city(), key.neighborhood())
+                    .orElseThrow(() -> new IllegalStateException("Market stats row missing for " + key));
+
+            stat.setInventoryCount(stat.getInventoryCount() + delta.inventory);
+            stat.setNewCount(stat.getNewCount() + delta.newListings);
+            stat.setUpdatedCount(stat.getUpdatedCount() + delta.updated);
+            stat.setPriceChangedCount(stat.getPriceChangedCount() + delta.priceChanged);
+
+            if (!delta.pricesPerSqm.isEmpty()) {
+                MergingDigest digest = PriceDigests.fromBytes(stat.getPricePerSqmDigest());
+                BigDecimal sum = stat.getPricePerSqmSum();
+                for (BigDecimal value : delta.pricesPerSqm) {
+                    digest.add(value.doubleValue());
+                    sum = sum.add(value);
+                }
+                stat.setPricePerSqmSum(sum);
+                stat.setPricePerSqmCount(stat.getPricePerSqmCount() + delta.pricesPerSqm.size());
+                stat.setPricePerSqmDigest(PriceDigests.toBytes(digest));
+            }
+        }
+
+        log.debug("Applied market stats deltas for {} city/neighborhood keys", batch.deltas.size());
+    }
+
+    /**
+     * EUR price per square meter of a listing, or null when it cannot be determined.
+     */
+    private static BigDecimal pricePerSqm(Listing listing) {
+        if (listing.getCurrency() != null && !PRICE_CURRENCY.equalsIgnoreCase(listing.getCurrency())) {
+            return null;
+        }
+        if (listing.getPricePerSqm() != null && listing.getPricePerSqm().signum() > 0) {
+            return listing.getPricePerSqm();
+        }
+        BigDecimal price = listing.getPrice();
+        BigDecimal surface = listing.getSurfaceSqm();
+        if (price == null || surface == null || price.signum() <= 0 || surface.signum() <= 0) {
+            return null;
+        }
+        return price.divide(surface, 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * In-memory accumulator of stats deltas for one upsert batch.
+     */
+    public static final class StatsBatch {
+
+        private final LocalDate date;
+        private final Map<StatsKey, StatsDelta> deltas = new TreeMap<>(
+                Comparator.comparing(StatsKey::date)
+                        .thenComparing(StatsKey::city)
+                        .thenComparing(StatsKey::neighborhood));
+
+        private StatsBatch(LocalDate date) {
+            this.date = date;
+        }
+
+        /**
+         * Records one upserted listing.
+         *
+         * @param listing the listing in its post-upsert state
+         * @param isNew true if the listing was inserted
+         * @param updated true if an existing listing changed
+         * @param priceChanged true if the price of an existing listing changed
+         * @param firstSeenToday true if this is the first observation of the listing today
+         */
+        public void record(Listing listing, boolean isNew, boolean updated, boolean priceChanged,
+                           boolean firstSeenToday) {
+            if (listing.getCity() == null || listing.getCity().isBlank()) {
+                return;
+            }
+            String neighborhood = listing.getNeighborhood() != null ? listing.getNeighborhood() : "";
+            StatsDelta delta = deltas.computeIfAbsent(
+                    new StatsKey(date, listing.getCity(), neighborhood), k -> new StatsDelta());
+
+            if (isNew) delta.newListings++;
+            if (updated) delta.updated++;
+            if (priceChanged) delta.priceChanged++;
+
+            // Inventory and price distribution count each listing once per day
+            if (firstSeenToday) {
+                delta.inventory++;
+                BigDecimal value = pricePerSqm(listing);
+                if (value != null) {
+                    delta.pricesPerSqm.add(value);
+                }
+            }
+        }
+
+        public boolean isEmpty() {
+            return deltas.isEmpty();
+        }
+    }
+
+    private record StatsKey(LocalDate date, String city, String neighborhood) {
+    }
+
+    private static final class StatsDelta {
+        private int inventory;
+        private int newListings;
+        private int updated;
+        private int priceChanged;
+        private final List<BigDecimal> pricesPerSqm = new ArrayList<>();
+    }
+}
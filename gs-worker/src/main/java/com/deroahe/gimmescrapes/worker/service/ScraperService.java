@@ -1,10 +1,12 @@
 package com.deroahe.gimmescrapes.worker.service;
 
 import com.deroahe.gimmescrapes.commons.dto.ListingDto;
+import com.deroahe.gimmescrapes.commons.enums.Amenity;
 import com.deroahe.gimmescrapes.commons.exception.ScrapingException;
 import com.deroahe.gimmescrapes.commons.model.Listing;
 import com.deroahe.gimmescrapes.commons.model.Source;
 import com.deroahe.gimmescrapes.commons.scraper.RealEstateScraper;
+import com.deroahe.gimmescrapes.worker.metrics.ScrapeMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -23,6 +25,7 @@ import java.util.stream.Collectors;
 public class ScraperService {
 
     private final List<RealEstateScraper> scrapers;
+    private final ScrapeMetrics scrapeMetrics;
 
     /**
      * Scrapes listings from the given source using the appropriate scraper.
@@ -53,9 +56,12 @@ public class ScraperService {
      * @return list of Listing entities
      */
     public List<Listing> convertToEntities(List<ListingDto> dtos, Source source) {
-        return dtos.stream()
+        long start = System.nanoTime();
+        List<Listing> listings = dtos.stream()
                 .map(dto -> convertToEntity(dto, source))
                 .toList();
+        scrapeMetrics.source(source.getName()).converted(System.nanoTime() - start);
+        return listings;
     }
 
     /**
@@ -89,7 +95,8 @@ public class ScraperService {
                 .latitude(dto.getLatitude())
                 .longitude(dto.getLongitude())
                 .imageUrls(dto.getImageUrls())
-                .features(dto.getFeatures())
+                .features(Amenity.residual(dto.getFeatures()))
+                .featuresMask(Amenity.maskOf(dto.getFeatures()))
                 .firstScrapedAt(now)
                 .lastScrapedAt(now)
                 .build();
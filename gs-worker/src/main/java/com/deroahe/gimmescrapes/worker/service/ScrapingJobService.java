@@ -0,0 +1,177 @@
+package com.deroahe.gimmescrapes.worker.service;
+
+import com.deroahe.gimmescrapes.commons.config.RabbitMQConstants;
+import com.deroahe.gimmescrapes.commons.dto.ScrapingJobEvent;
+import com.deroahe.gimmescrapes.commons.enums.ScrapingJobStatus;
+import com.deroahe.gimmescrapes.commons.model.ScrapingJob;
+import com.deroahe.gimmescrapes.commons.model.Source;
+import com.deroahe.gimmescrapes.commons.repository.ScrapingJobRepository;
+import com.deroahe.gimmescrapes.worker.outbox.OutboxService;
+import com.deroahe.gimmescrapes.worker.service.ListingService.UpsertResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Manages scraping job status transitions.
+ * Every transition is saved together with a {@link ScrapingJobEvent} in the outbox.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ScrapingJobService {
+
+    private static final String AGGREGATE_TYPE = "scraping_job";
+
+    private final ScrapingJobRepository scrapingJobRepository;
+    private final OutboxService outboxService;
+
+    /**
+     * Marks a job as running, creating it first for scheduled scrapes that have no job record.
+     *
+     * @param jobId the existing job ID, or null to create a new job
+     * @param source the source being scraped
+     * @return the running job
+     */
+    @Transactional
+    public ScrapingJob start(Long jobId, Source source) {
+        ScrapingJob job;
+        if (jobId != null) {
+            // Update existing job (triggered manually via API)
+            job = scrapingJobRepository.findById(jobId)
+                    .orElseThrow(() -> new IllegalArgumentException("Scraping job not found: " + jobId));
+            job.setStatus(ScrapingJobStatus.RUNNING);
+            job.setStartedAt(LocalDateTime.now());
+            // A job failed as unpublished may still arrive if only its confirm was lost
+            job.setCompletedAt(null);
+            job.setErrorMessage(null);
+        } else {
+            // Create new job (for scheduled scrapes)
+            job = ScrapingJob.builder()
+                    .source(source)
+                    .status(ScrapingJobStatus.RUNNING)
+                    .startedAt(LocalDateTime.now())
+                    .itemsScraped(0)
+                    .itemsNew(0)
+                    .itemsUpdated(0)
+                    .build();
+        }
+        job = scrapingJobRepository.save(job);
+        publish(job, source);
+        return job;
+    }
+
+    /**
+     * Marks a job as completed and updates statistics.
+     *
+     * @param job the scraping job
+     * @param source the scraped source
+     * @param result the upsert result
+     */
+    @Transactional
+    public void complete(ScrapingJob job, Source source, UpsertResult result) {
+        job.setStatus(ScrapingJobStatus.COMPLETED);
+        job.setCompletedAt(LocalDateTime.now());
+        job.setItemsScraped(result.getTotalProcessed());
+        job.setItemsNew(result.newCount());
+        job.setItemsUpdated(result.updatedCount());
+        publish(scrapingJobRepository.save(job), source);
+    }
+
+    /**
+     * Records how many chunks a running job hands to the ingest stage, before the caller
+     * publishes them, so the ingest of the last chunk can tell that the job is complete.
+     * A job that already dispatched its chunks (a redelivered fetch) is left alone.
+     *
+     * @param job the running job
+     * @param source the scraped source
+     * @param chunksTotal the number of listing chunks
+     * @return false if the job's chunks were already dispatched
+     */
+    @Transactional
+    public boolean dispatchChunks(ScrapingJob job, Source source, int chunksTotal) {
+        if (job.getChunksTotal() != null) {
+            log.warn("Scraping job {} already dispatched {} chunks", job.getId(), job.getChunksTotal());
+            return false;
+        }
+        job.setChunksTotal(chunksTotal);
+        publish(scrapingJobRepository.save(job), source);
+        return true;
+    }
+
+    /**
+     * Marks a chunked job as completed once its last chunk is ingested.
+     * Item counts have already been summed chunk by chunk.
+     *
+     * @param job the scraping job, reloaded after its last chunk was recorded
+     * @param source the scraped source
+     */
+    @Transactional
+    public void completeChunked(ScrapingJob job, Source source) {
+        job.setStatus(ScrapingJobStatus.COMPLETED);
+        job.setCompletedAt(LocalDateTime.now());
+        publish(scrapingJobRepository.save(job), source);
+    }
+
+    /**
+     * Marks a job as failed and records the error message.
+     *
+     * @param job the scraping job
+     * @param source the scraped source
+     * @param errorMessage the error message
+     */
+    @Transactional
+    public void fail(ScrapingJob job, Source source, String errorMessage) {
+        job.setStatus(ScrapingJobStatus.FAILED);
+        job.setCompletedAt(LocalDateTime.now());
+        job.setErrorMessage(errorMessage);
+        publish(scrapingJobRepository.save(job), source);
+    }
+
+    /**
+     * Folds a duplicate trigger into the job already scraping the source.
+     * A duplicate that has its own job record (manual triggers) marks it COALESCED.
+     *
+     * @param jobId the duplicate's job ID, or null for scheduled triggers without a job record
+     * @param holderJobId the in-flight job's ID, if known
+     * @param source the source
+     */
+    @Transactional
+    public void coalesce(Long jobId, Long holderJobId, Source source) {
+        if (holderJobId != null) {
+            scrapingJobRepository.incrementCoalescedTriggers(holderJobId);
+        }
+        if (jobId != null && !jobId.equals(holderJobId)) {
+            scrapingJobRepository.findById(jobId).ifPresent(job -> {
+                job.setStatus(ScrapingJobStatus.COALESCED);
+                job.setCompletedAt(LocalDateTime.now());
+                job.setErrorMessage(holderJobId != null ? "Coalesced into job " + holderJobId : "Coalesced into running scrape");
+                publish(scrapingJobRepository.save(job), source);
+            });
+        }
+    }
+
+    private void publish(ScrapingJob job, Source source) {
+        ScrapingJobEvent event = ScrapingJobEvent.builder()
+                .jobId(job.getId())
+                .sourceId(source.getId())
+                .sourceName(source.getName())
+                .status(job.getStatus())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .itemsScraped(job.getItemsScraped())
+                .itemsNew(job.getItemsNew())
+                .itemsUpdated(job.getItemsUpdated())
+                .coalescedTriggers(job.getCoalescedTriggers())
+                .chunksTotal(job.getChunksTotal())
+                .chunksDone(job.getChunksDone())
+                .errorMessage(job.getErrorMessage())
+                .timestamp(LocalDateTime.now())
+                .build();
+        outboxService.enqueue(AGGREGATE_TYPE, job.getId(), RabbitMQConstants.JOB_EVENTS_EXCHANGE,
+                RabbitMQConstants.JOB_EVENT_ROUTING_KEY_PREFIX + job.getStatus().name().toLowerCase(), event);
+    }
+}
@@ -0,0 +1,49 @@
+package com.deroahe.gimmescrapes.worker.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Measures how long a freshly started worker takes to become useful: the time from JVM start
+ * until the first listener invocation (of any queue) returns. Unlike Boot's
+ * {@code application.ready.time}, this includes JVM class loading and listener container
+ * startup, which is what an instance added during a backlog spike actually waits for.
+ * <p>
+ * Published as {@code gs.startup.first.message.time}; NaN until the first message.
+ */
+@Slf4j
+@Component
+public class StartupProbe {
+
+    private final AtomicBoolean consumed = new AtomicBoolean();
+    private volatile double firstMessageMs = Double.NaN;
+
+    public StartupProbe(MeterRegistry meterRegistry) {
+        TimeGauge.builder("gs.startup.first.message.time", this, TimeUnit.MILLISECONDS, probe -> probe.firstMessageMs)
+                .description("Time from JVM start until the first message was consumed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Advice to add to the container's advice chain.
+     */
+    public MethodInterceptor advice() {
+        return invocation -> {
+            try {
+                return invocation.proceed();
+            } finally {
+                if (!consumed.get() && consumed.compareAndSet(false, true)) {
+                    firstMessageMs = ManagementFactory.getRuntimeMXBean().getUptime();
+                    log.info("First message consumed {} ms after JVM start", (long) firstMessageMs);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,141 @@
+package com.deroahe.gimmescrapes.worker.dedup;
+
+import com.deroahe.gimmescrapes.commons.model.Listing;
+import com.deroahe.gimmescrapes.commons.util.GeoCell;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MinHasherTest {
+
+    private static final String DESCRIPTION = "Apartament luminos cu doua camere decomandate, bucatarie "
+            + "separata si balcon inchis, situat la etajul trei dintr-un bloc reabilitat termic, aproape "
+            + "de metrou, parc si scoli, disponibil imediat pentru mutare";
+
+    @Test
+    void identicalListingsHaveIdenticalSignatures() {
+        int[] a = MinHasher.signature(listing("Apartament 2 camere Titan", DESCRIPTION, 85_000));
+        int[] b = MinHasher.signature(listing("Apartament 2 camere Titan", DESCRIPTION, 85_000));
+
+        assertArrayEquals(a, b);
+        assertEquals(1.0, MinHasher.similarity(a, b));
+        assertArrayEquals(MinHasher.bandKeys(a), MinHasher.bandKeys(b));
+    }
+
+    @Test
+    void ignoresCaseDiacriticsAndPunctuation() {
+        int[] a = MinHasher.signature(listing("Apartament în Titan!", "Bucătărie separată, balcon.", 85_000));
+        int[] b = MinHasher.signature(listing("apartament in titan", "bucatarie separata balcon", 85_000));
+
+        assertArrayEquals(a, b);
+    }
+
+    @Test
+    void nearDuplicatesShareABand() {
+        int[] a = MinHasher.signature(listing("Apartament 2 camere Titan", DESCRIPTION, 85_000));
+        int[] b = MinHasher.signature(listing("Apartament 2 camere zona Titan",
+                DESCRIPTION.replace("disponibil imediat", "liber imediat"), 86_000));
+
+        assertTrue(MinHasher.similarity(a, b) >= 0.5, "similarity " + MinHasher.similarity(a, b));
+        assertTrue(sharedBands(a, b) > 0);
+    }
+
+    @Test
+    void unrelatedListingsShareNoBand() {
+        int[] a = MinHasher.signature(listing("Apartament 2 camere Titan", DESCRIPTION, 85_000));
+        Listing other = Listing.builder()
+                .title("Casa cu gradina in Floreasca")
+                .description("Vila pe doua niveluri cu curte generoasa, garaj dublu si piscina exterioara")
+                .price(BigDecimal.valueOf(640_000))
+                .currency("EUR")
+                .surfaceSqm(BigDecimal.valueOf(240))
+                .rooms(6)
+                .geoCell(GeoCell.encode(44.47, 26.10))
+                .build();
+        int[] b = MinHasher.signature(other);
+
+        assertTrue(MinHasher.similarity(a, b) < 0.2, "similarity " + MinHasher.similarity(a, b));
+        assertEquals(0, sharedBands(a, b));
+    }
+
+    @Test
+    void bandKeyDependsOnlyOnItsOwnRows() {
+        int[] a = new int[MinHasher.SIGNATURE_LENGTH];
+        Arrays.setAll(a, i -> i * 7919);
+        int[] b = a.clone();
+        // Change one row of the third band
+        b[2 * MinHasher.ROWS_PER_BAND + 1]++;
+
+        long[] keysA = MinHasher.bandKeys(a);
+        long[] keysB = MinHasher.bandKeys(b);
+        for (int band = 0; band < MinHasher.BANDS; band++) {
+            if (band == 2) {
+                assertNotEquals(keysA[band], keysB[band]);
+            } else {
+                assertEquals(keysA[band], keysB[band], "band " + band);
+            }
+        }
+    }
+
+    @Test
+    void equalRowsInDifferentBandsGetDifferentKeys() {
+        long[] keys = MinHasher.bandKeys(new int[MinHasher.SIGNATURE_LENGTH]);
+
+        Set<Long> distinct = new HashSet<>();
+        for (long key : keys) {
+            distinct.add(key);
+        }
+        assertEquals(MinHasher.BANDS, distinct.size());
+    }
+
+    @Test
+    void signatureRoundTripsThroughBytes() {
+        int[] signature = MinHasher.signature(listing("Apartament 2 camere Titan", DESCRIPTION, 85_000));
+
+        byte[] bytes = MinHasher.toBytes(signature);
+
+        assertEquals(MinHasher.SIGNATURE_LENGTH * Integer.BYTES, bytes.length);
+        assertArrayEquals(signature, MinHasher.fromBytes(bytes));
+    }
+
+    @Test
+    void signsListingsWithoutText() {
+        int[] signature = MinHasher.signature(Listing.builder().build());
+
+        assertEquals(MinHasher.SIGNATURE_LENGTH, signature.length);
+        assertFalse(Arrays.stream(signature).anyMatch(value -> value < 0));
+    }
+
+    private static Listing listing(String title, String description, long price) {
+        return Listing.builder()
+                .title(title)
+                .description(description)
+                .price(BigDecimal.valueOf(price))
+                .currency("EUR")
+                .surfaceSqm(BigDecimal.valueOf(54))
+                .rooms(2)
+                .geoCell(GeoCell.encode(44.418, 26.156))
+                .build();
+    }
+
+    private static int sharedBands(int[] a, int[] b) {
+        long[] keysA = MinHasher.bandKeys(a);
+        long[] keysB = MinHasher.bandKeys(b);
+        int shared = 0;
+        for (int band = 0; band < MinHasher.BANDS; band++) {
+            if (keysA[band] == keysB[band]) {
+                shared++;
+            }
+        }
+        return shared;
+    }
+}
@@ -0,0 +1,67 @@
+#!/usr/bin/env bash
+#
+# Trains and runs the fast-startup build of gs-worker or gs-orchestrator
+# (mvn -Pfast-startup package -DskipTests).
+#
+#   scripts/fast-startup.sh train gs-worker          # writes gs-worker/target/app.jsa
+#   scripts/fast-startup.sh run gs-worker [java args]
+#   scripts/fast-startup.sh run-baseline gs-worker   # same jars, without AOT and CDS
+#
+# Training starts the AOT-processed app, exits as soon as the context is refreshed and dumps
+# every loaded class into an AppCDS archive; it does not need the database or the broker.
+# Retrain after every build: the archive only matches the jars it was trained with (the JVM
+# logs an error and starts without it otherwise).
+set -euo pipefail
+
+usage() {
+  echo "usage: $0 train|run|run-baseline gs-worker|gs-orchestrator [java args...]" >&2
+  exit 1
+}
+
+[[ $# -ge 2 ]] || usage
+COMMAND=$1
+MODULE=$2
+shift 2
+
+case "$MODULE" in
+  gs-worker) MAIN_CLASS=com.deroahe.gimmescrapes.worker.WorkerApplication ;;
+  gs-orchestrator) MAIN_CLASS=com.deroahe.gimmescrapes.orchestrator.OrchestratorApplication ;;
+  *) usage ;;
+esac
+
+TARGET="$(cd "$(dirname "$0")/.." && pwd)/$MODULE/target"
+if [[ ! -f "$TARGET/classpath.txt" ]]; then
+  echo "$TARGET/classpath.txt not found; build with: mvn -Pfast-startup package -DskipTests" >&2
+  exit 1
+fi
+cd "$TARGET"
+
+# CDS compares the classpath string, so it is built the same way (relative to target/) every time
+APP_JAR=$(ls "$MODULE"-*.jar | grep -v -- '-sources.jar$' | head -1)
+APP_CLASSPATH="$APP_JAR:$(cat classpath.txt)"
+
+case "$COMMAND" in
+  train)
+    rm -f app.jsa
+    java -XX:ArchiveClassesAtExit=app.jsa -Xlog:cds=error \
+      -Dspring.aot.enabled=true \
+      -Dspring.context.exit=onRefresh \
+      -Dspring.jpa.hibernate.ddl-auto=none \
+      -Dspring.datasource.hikari.initialization-fail-timeout=-1 \
+      -Dspring.datasource.hikari.connection-timeout=250 \
+      "$@" -cp "$APP_CLASSPATH" "$MAIN_CLASS"
+    echo "Trained $TARGET/app.jsa"
+    ;;
+  run)
+    [[ -f app.jsa ]] || echo "No app.jsa in $TARGET; run '$0 train $MODULE' first. Starting without CDS." >&2
+    exec java -XX:SharedArchiveFile=app.jsa -Xlog:cds=error \
+      -Dspring.aot.enabled=true \
+      "$@" -cp "$APP_CLASSPATH" "$MAIN_CLASS"
+    ;;
+  run-baseline)
+    exec java "$@" -cp "$APP_CLASSPATH" "$MAIN_CLASS"
+    ;;
+  *)
+    usage
+    ;;
+esac
@@ -0,0 +1,66 @@
+#!/usr/bin/env bash
+#
+# Measures gs-worker time-to-first-message (gs.startup.first.message.time: JVM start until the
+# first message is consumed) for the baseline and the fast-startup launch of the same build,
+# and appends the results to startup-benchmark.csv so the trend is tracked across commits.
+#
+# Needs the infrastructure (docker compose up -d postgres redis rabbitmq), queues declared by
+# one orchestrator run, no other worker consuming, and a trained fast-startup build:
+#
+#   mvn -Pfast-startup package -DskipTests
+#   scripts/fast-startup.sh train gs-worker
+#   scripts/startup-benchmark.sh [runs]
+set -euo pipefail
+
+RUNS=${1:-3}
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+RESULTS=${RESULTS:-$ROOT/startup-benchmark.csv}
+RABBITMQ_API=${RABBITMQ_API:-http://localhost:15672/api}
+RABBITMQ_AUTH="${RABBITMQ_USER:-admin}:${RABBITMQ_PASSWORD:-admin}"
+METRIC_URL=${METRIC_URL:-http://localhost:8081/actuator/metrics/gs.startup.first.message.time}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-180}
+
+# An empty listing change batch: the matching consumer takes it end to end but changes nothing
+publish_probe() {
+  curl -fsS -u "$RABBITMQ_AUTH" -H 'content-type: application/json' \
+    -X POST "$RABBITMQ_API/exchanges/%2F/amq.default/publish" \
+    -d '{"routing_key":"listing.match.queue","payload_encoding":"string",
+         "payload":"{\"jobId\":0,\"sourceName\":\"startup-benchmark\",\"chunk\":0,\"events\":[]}",
+         "properties":{"content_type":"application/json",
+                       "headers":{"__TypeId__":"com.deroahe.gimmescrapes.commons.dto.ListingChangedBatch"}}}' \
+    | grep -q '"routed":true' || { echo "Probe message was not routed; start the orchestrator once to declare queues" >&2; exit 1; }
+}
+
+# Prints the metric in seconds once the worker has consumed a message
+wait_for_first_message() {
+  local deadline=$((SECONDS + TIMEOUT_SECONDS))
+  while ((SECONDS < deadline)); do
+    local value
+    value=$(curl -fsS "$METRIC_URL" 2>/dev/null | grep -o '"value":[0-9.]*' | cut -d: -f2 || true)
+    if [[ -n "$value" ]]; then
+      echo "$value"
+      return 0
+    fi
+    sleep 0.5
+  done
+  echo "Worker did not consume a message within ${TIMEOUT_SECONDS}s" >&2
+  return 1
+}
+
+[[ -f "$RESULTS" ]] || echo "timestamp,commit,mode,run,time_to_first_message_s" > "$RESULTS"
+COMMIT=$(git -C "$ROOT" rev-parse --short HEAD)
+
+for run in $(seq 1 "$RUNS"); do
+  for mode in run-baseline run; do
+    publish_probe
+    "$ROOT/scripts/fast-startup.sh" "$mode" gs-worker -Dlogging.level.root=warn >/dev/null 2>&1 &
+    pid=$!
+    seconds=$(wait_for_first_message) || { kill "$pid"; exit 1; }
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+
+    label=$([[ "$mode" == run ]] && echo fast-startup || echo baseline)
+    echo "$(date -u +%Y-%m-%dT%H:%M:%SZ),$COMMIT,$label,$run,$seconds" >> "$RESULTS"
+    echo "run $run $label: first message after ${seconds}s"
+  done
+done